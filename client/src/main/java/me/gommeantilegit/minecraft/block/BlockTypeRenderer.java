@@ -7,6 +7,8 @@ import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
 import me.gommeantilegit.minecraft.block.render.BlockRenderer;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.storage.BlockStateStorage;
+import me.gommeantilegit.minecraft.texture.custom.CustomTexture;
+import me.gommeantilegit.minecraft.utils.Pointer;
 import me.gommeantilegit.minecraft.world.chunk.builder.OptimizedMeshBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,17 +43,38 @@ public class BlockTypeRenderer {
     protected final Block block;
 
     public BlockTypeRenderer(@NotNull Block block, @NotNull ClientMinecraft mc, @NotNull String... textureResources) {
-        this.renderer = new BlockRenderer(block, mc, this);
+        this(block, mc.textureManager.blockTextureMap.getTexturePointer(), textureResources, addTextures(mc, textureResources));
+    }
+
+    /**
+     * @param block            the block type to render
+     * @param texture          pointer to the texture map containing the block textures
+     * @param textureResources the block texture files
+     * @param textureUVs       the uv positions of the block textures in the texture map
+     */
+    public BlockTypeRenderer(@NotNull Block block, @NotNull Pointer<CustomTexture> texture, @NotNull String[] textureResources, @NotNull Vector2[] textureUVs) {
+        this.renderer = new BlockRenderer(block, texture, this);
         this.textureResources = textureResources;
-        this.textureUVs = new Vector2[textureResources.length];
+        this.textureUVs = textureUVs;
+        this.renderer.setTextureUVs(textureUVs);
+        this.renderer.setShape(block.x0, block.y0, block.z0, block.x1, block.y1, block.z1);
+        this.block = block;
+    }
+
+    /**
+     * Adds the block textures to the block texture map
+     *
+     * @return the uv positions of the textures in the texture map
+     */
+    @NotNull
+    private static Vector2[] addTextures(@NotNull ClientMinecraft mc, @NotNull String[] textureResources) {
+        Vector2[] textureUVs = new Vector2[textureResources.length];
         int i = 0;
         for (String res : textureResources) {
             Vector2 pos = mc.textureManager.blockTextureMap.addTexture("textures/blocks/" + res + ".png");
             textureUVs[i++] = pos;
         }
-        this.renderer.setTextureUVs(textureUVs);
-        this.renderer.setShape(block.x0, block.y0, block.z0, block.x1, block.y1, block.z1);
-        this.block = block;
+        return textureUVs;
     }
 
     /**
@@ -122,6 +145,40 @@ public class BlockTypeRenderer {
         this.renderer.renderFace(builder, x, y, z, uv, face);
     }
 
+    /**
+     * Renders the specified face of a box of blocks of this type as one quad per texture layer, with the textures repeated once per block.
+     * Only used for block types that can merge faces (see {@link #canMergeFaces()}).
+     *
+     * @param builder the builder for building the chunk's mesh
+     * @param x0      the minimum x coordinate of the box
+     * @param y0      the minimum y coordinate of the box
+     * @param z0      the minimum z coordinate of the box
+     * @param x1      the maximum x coordinate of the box
+     * @param y1      the maximum y coordinate of the box
+     * @param z1      the maximum z coordinate of the box
+     * @param face    current face rendered.
+     */
+    public void renderMergedFace(@NotNull OptimizedMeshBuilder builder, int x0, int y0, int z0, int x1, int y1, int z1, int face) {
+        renderMergedFace(builder, x0, y0, z0, x1, y1, z1, getUV(face), face);
+    }
+
+    /**
+     * Renders the specified face of a box of blocks of this type as one quad with the given texture repeated once per block
+     *
+     * @param uv texture uv coordinates
+     * @see #renderMergedFace(OptimizedMeshBuilder, int, int, int, int, int, int, int)
+     */
+    public void renderMergedFace(@NotNull OptimizedMeshBuilder builder, int x0, int y0, int z0, int x1, int y1, int z1, @NotNull Vector2 uv, int face) {
+        this.renderer.renderTiledFace(builder, x0, y0, z0, x1, y1, z1, uv, face);
+    }
+
+    /**
+     * @return true, if coplanar faces of neighboring blocks of this type can be merged into one quad. This is the case for full cubes.
+     */
+    public boolean canMergeFaces() {
+        return this.renderer.isFullCube();
+    }
+
     /**
      * @param stateProvider the block state provider
      * @param x             x coordinate
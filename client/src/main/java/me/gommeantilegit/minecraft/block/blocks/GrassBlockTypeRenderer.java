@@ -68,6 +68,26 @@ public class GrassBlockTypeRenderer extends BlockTypeRenderer {
         }
     }
 
+    @Override
+    public void renderMergedFace(@NotNull OptimizedMeshBuilder builder, int x0, int y0, int z0, int x1, int y1, int z1, int face) {
+        switch (face) {
+            case 1: // top
+                builder.setColor(COLOR.r, COLOR.g, COLOR.b, 1);
+                super.renderMergedFace(builder, x0, y0, z0, x1, y1, z1, this.textureUVs[2], face);
+                builder.setColor(1, 1, 1, 1);
+                break;
+            case 0: // bottom
+                super.renderMergedFace(builder, x0, y0, z0, x1, y1, z1, face);
+                break;
+            default: // side
+                super.renderMergedFace(builder, x0, y0, z0, x1, y1, z1, this.textureUVs[0], face);
+                builder.setColor(COLOR.r, COLOR.g, COLOR.b, 1);
+                super.renderMergedFace(builder, x0, y0, z0, x1, y1, z1, this.textureUVs[1], face);
+                builder.setColor(1, 1, 1, 1);
+                break;
+        }
+    }
+
     @NotNull
     @Override
     public Vector2 getUV(int face) {
@@ -5,7 +5,9 @@ import me.gommeantilegit.minecraft.ClientMinecraft;
 import me.gommeantilegit.minecraft.annotations.SideOnly;
 import me.gommeantilegit.minecraft.block.Block;
 import me.gommeantilegit.minecraft.block.BlockTypeRenderer;
+import me.gommeantilegit.minecraft.texture.custom.CustomTexture;
 import me.gommeantilegit.minecraft.util.renderer.BoxRenderer;
+import me.gommeantilegit.minecraft.utils.Pointer;
 import org.jetbrains.annotations.NotNull;
 
 import static me.gommeantilegit.minecraft.Side.CLIENT;
@@ -26,7 +28,16 @@ public class BlockRenderer extends BoxRenderer {
     private final BlockTypeRenderer blockTypeRenderer;
 
     public BlockRenderer(@NotNull Block block, @NotNull ClientMinecraft mc, @NotNull BlockTypeRenderer blockTypeRenderer) {
-        super(null, mc.textureManager.blockTextureMap.getTexturePointer());
+        this(block, mc.textureManager.blockTextureMap.getTexturePointer(), blockTypeRenderer);
+    }
+
+    /**
+     * @param block             the block type to render
+     * @param texture           pointer to the block texture map
+     * @param blockTypeRenderer the block type specific render object
+     */
+    public BlockRenderer(@NotNull Block block, @NotNull Pointer<CustomTexture> texture, @NotNull BlockTypeRenderer blockTypeRenderer) {
+        super(null, texture);
         this.block = block;
         this.blockTypeRenderer = blockTypeRenderer;
     }
@@ -169,12 +169,24 @@ public class GameSettings {
         @NotNull
         public final BooleanSetting fullscreen = new BooleanSetting("Fullscreen").setValue(false);
 
+        /**
+         * Setting whether chunk meshes should be built with greedy meshing, merging coplanar faces of identical blocks into larger quads
+         */
+        @NotNull
+        public final BooleanSetting greedyMeshing = new BooleanSetting("Greedy Meshing")
+                .addValueChangedListener(value -> {
+                    if (mc.theWorld != null) {
+                        mc.theWorld.getChunkMeshRebuilder().setGreedyMeshing(value);
+                        mc.theWorld.invalidateMeshes();
+                    }
+                }).setValue(false);
+
         /**
          * Array of all video settings
          */
         @NotNull
         public Setting<?>[] settingsList = {
-                graphics, renderDistance, limitFrameRate, enable3D, viewBobbing, smoothLighting, fullscreen
+                graphics, renderDistance, limitFrameRate, enable3D, viewBobbing, smoothLighting, fullscreen, greedyMeshing
         };
 
         /**
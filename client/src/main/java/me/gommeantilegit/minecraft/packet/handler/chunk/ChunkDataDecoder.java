@@ -0,0 +1,83 @@
+package me.gommeantilegit.minecraft.packet.handler.chunk;
+
+import me.gommeantilegit.minecraft.ClientMinecraft;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
+import me.gommeantilegit.minecraft.logging.crash.CrashReport;
+import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
+import me.gommeantilegit.minecraft.world.chunk.ClientChunk;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter.decompressFragments;
+
+/**
+ * Decodes received chunk data on a pool of worker threads.
+ * The payload is decompressed and de-fragmented into fresh section storages without touching the chunk, so neither the block state semaphore
+ * nor readers of the chunk wait for the decode. The decoded storages are then published into the chunk with one short swap per section.
+ */
+public class ChunkDataDecoder {
+
+    /**
+     * The minecraft instance
+     */
+    @NotNull
+    private final ClientMinecraft mc;
+
+    /**
+     * The decode workers
+     */
+    @NotNull
+    private final ForkJoinPool decodePool;
+
+    /**
+     * @param mc the minecraft instance
+     */
+    public ChunkDataDecoder(@NotNull ClientMinecraft mc) {
+        this.mc = mc;
+        this.decodePool = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), // leaving one core to the render thread
+                pool -> {
+                    final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    worker.setName("ChunkDecodeWorker-" + worker.getPoolIndex());
+                    worker.setDaemon(true);
+                    return worker;
+                },
+                (t, e) -> mc.getLogger().crash(new CrashReport("ChunkDecodeWorker " + t.getName() + " crashed with", e)),
+                false
+        );
+    }
+
+    /**
+     * Decodes the chunk data asynchronously and publishes it into the chunk
+     *
+     * @param chunk       the chunk the data belongs to
+     * @param packet      the received chunk data
+     * @param onPublished invoked on the decode worker after the data has been published. Not invoked, if the chunk has been unloaded
+     *                    or newer chunk data has been published in the meantime.
+     */
+    @ThreadSafe
+    public void decode(@NotNull ClientChunk chunk, @NotNull ServerChunkDataPacket packet, @NotNull Runnable onPublished) {
+        long sequence = chunk.nextDataSequence();
+        this.decodePool.execute(() -> {
+            AdaptiveBlockStateStorage[] storages;
+            try {
+                byte[] chunkData = decompressFragments(packet.getChunkData(), packet.getFragmentsSent());
+                storages = mc.getChunkFragmenter().decodeSections(chunk.getHeight(), chunk.getBlockStatePalette(), chunk.getBlockStatePalette(), chunkData, packet.getFragmentsSent());
+            } catch (Exception e) {
+                mc.getLogger().crash("Cannot deserialize chunk data from byte array!", e);
+                return;
+            }
+            if (!chunk.isLoaded()) {
+                for (AdaptiveBlockStateStorage storage : storages) {
+                    storage.delete();
+                }
+                return;
+            }
+            if (chunk.publishChunkData(sequence, storages))
+                onPublished.run();
+        });
+    }
+}
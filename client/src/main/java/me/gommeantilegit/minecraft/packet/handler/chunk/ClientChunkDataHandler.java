@@ -6,26 +6,23 @@ import me.gommeantilegit.minecraft.packet.handler.NetHandlerPlayClient;
 import me.gommeantilegit.minecraft.packet.handler.PacketHandler;
 import me.gommeantilegit.minecraft.packet.packets.client.ClientChunkLoadConfirmPacket;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
-import me.gommeantilegit.minecraft.world.change.ClientBlockStateSemaphore;
-import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
-import me.gommeantilegit.minecraft.world.chunk.ChunkSection;
 import me.gommeantilegit.minecraft.world.chunk.ClientChunk;
-import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-
-import static me.gommeantilegit.minecraft.utils.io.IOUtils.decompress;
-
 public class ClientChunkDataHandler extends PacketHandler<ServerChunkDataPacket> {
 
     @NotNull
     private final NetHandlerPlayClient netHandlerPlayClient;
 
+    /**
+     * Decodes the received chunk data off the block state semaphore
+     */
+    @NotNull
+    private final ChunkDataDecoder chunkDataDecoder;
+
     public ClientChunkDataHandler(@NotNull NetHandlerPlayClient netHandlerPlayClient) {
         this.netHandlerPlayClient = netHandlerPlayClient;
+        this.chunkDataDecoder = new ChunkDataDecoder(netHandlerPlayClient.mc);
     }
 
     @Override
@@ -39,17 +36,7 @@ public class ClientChunkDataHandler extends PacketHandler<ServerChunkDataPacket>
             if (!chunk.isLoaded()) {
                 return;
             }
-            BlockStateSemaphoreBase semaphoreBase = netHandlerPlayClient.mc.theWorld.getBlockStateSemaphore();
-
-            try {
-                semaphoreBase.writeSynchronized(chunk, () -> {
-                    chunk.setChunkData(decompress(packet.getChunkData()), packet.getFragmentsSent());
-                    context.channel().writeAndFlush(new ClientChunkLoadConfirmPacket(null, origin));
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            this.chunkDataDecoder.decode(chunk, packet, () -> context.channel().writeAndFlush(new ClientChunkLoadConfirmPacket(null, origin)));
         }
     }
 }
-
@@ -16,4 +16,20 @@ public interface Constants {
 
     );
 
+    /**
+     * The vertex attributes of greedy chunk meshes.
+     * Extends {@link #STD_VERTEX_ATTRIBUTES} by the texture tile (u0, v0, width, height) in the texture map, that the texture coordinates of the vertex are relative to.
+     * The shader repeats the tile for every full unit of the texture coordinates.
+     */
+    @NotNull
+    VertexAttributes CHUNK_VERTEX_ATTRIBUTES = new VertexAttributes(
+
+            new VertexAttribute(VertexAttributes.Usage.Position, 3, "a_Position"),
+            new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, "a_Color"),
+            new VertexAttribute(VertexAttributes.Usage.Normal, 3, "a_Normal"),
+            new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, "a_TextureCoord"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "a_TextureTile")
+
+    );
+
 }
@@ -23,4 +23,27 @@ public class RenderUtils {
         );
     }
 
+    /**
+     * Adds a quad of {@link OptimizedMeshBuilder#tiledVertex(float, float, float, float, float, float, float, float, float, float, float, float)} vertices,
+     * whose texture coordinates are relative to the given texture tile.
+     */
+    public static void tiledRect(OptimizedMeshBuilder builder,
+                                 float x00, float y00, float z00,
+                                 float u00, float v00,
+                                 float x10, float y10, float z10,
+                                 float u10, float v10,
+                                 float x11, float y11, float z11,
+                                 float u11, float v11,
+                                 float x01, float y01, float z01,
+                                 float u01, float v01,
+                                 float normalX, float normalY, float normalZ,
+                                 float tileU, float tileV, float tileWidth, float tileHeight) {
+        builder.rect(
+                builder.tiledVertex(x00, y00, z00, normalX, normalY, normalZ, u00, v00, tileU, tileV, tileWidth, tileHeight),
+                builder.tiledVertex(x10, y10, z10, normalX, normalY, normalZ, u10, v10, tileU, tileV, tileWidth, tileHeight),
+                builder.tiledVertex(x11, y11, z11, normalX, normalY, normalZ, u11, v11, tileU, tileV, tileWidth, tileHeight),
+                builder.tiledVertex(x01, y01, z01, normalX, normalY, normalZ, u01, v01, tileU, tileV, tileWidth, tileHeight)
+        );
+    }
+
 }
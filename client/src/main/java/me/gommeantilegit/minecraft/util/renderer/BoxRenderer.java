@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 
 import static me.gommeantilegit.minecraft.Side.CLIENT;
 import static me.gommeantilegit.minecraft.util.RenderUtils.rect;
+import static me.gommeantilegit.minecraft.util.RenderUtils.tiledRect;
 
 @SideOnly(side = CLIENT)
 public class BoxRenderer {
@@ -199,6 +200,133 @@ public class BoxRenderer {
         }
     }
 
+    /**
+     * Renders the specified face of the box of blocks (x0, y0, z0) - (x1, y1, z1) as a single quad into the mesh-builder.
+     * The texture coordinates are relative to the texture at the given uv coordinates, which is repeated once per block.
+     * The box shape of the renderer is ignored, so this only renders correct faces for full cubes (see {@link #isFullCube()}).
+     * The mesh-builder must build a mesh with {@link me.gommeantilegit.minecraft.rendering.Constants#CHUNK_VERTEX_ATTRIBUTES}.
+     *
+     * @param builder the builder for building the chunk's mesh
+     * @param x0      the minimum x coordinate of the box
+     * @param y0      the minimum y coordinate of the box
+     * @param z0      the minimum z coordinate of the box
+     * @param x1      the maximum x coordinate of the box
+     * @param y1      the maximum y coordinate of the box
+     * @param z1      the maximum z coordinate of the box
+     * @param uv      texture uv coordinates
+     * @param face    current face rendered.
+     */
+    public void renderTiledFace(@NotNull OptimizedMeshBuilder builder, int x0, int y0, int z0, int x1, int y1, int z1, @NotNull Vector2 uv, int face) {
+        float tileU, tileV, tileWidth, tileHeight;
+        CustomTexture texture = this.texture.value;
+        if (texture != null) {
+            tileU = uv.x / texture.getWidth();
+            tileV = uv.y / texture.getHeight();
+            tileWidth = 16f / texture.getWidth();
+            tileHeight = 16f / texture.getHeight();
+        } else {
+            tileU = 0;
+            tileV = 0;
+            tileWidth = 0;
+            tileHeight = 0;
+        }
+        // the number of texture repetitions along the x, y and z axis
+        float width = x1 - x0, height = y1 - y0, depth = z1 - z0;
+
+        switch (face) {
+            case 0: {
+                tiledRect(builder,
+                        x1, y0, z1,
+                        width, depth,
+                        x1, y0, z0,
+                        width, 0,
+                        x0, y0, z0,
+                        0, 0,
+                        x0, y0, z1,
+                        0, depth,
+                        0, -1, 0,
+                        tileU, tileV, tileWidth, tileHeight);
+                return;
+            }
+            case 1: {
+                tiledRect(builder,
+                        x0, y1, z1,
+                        0, depth,
+                        x0, y1, z0,
+                        0, 0,
+                        x1, y1, z0,
+                        width, 0,
+                        x1, y1, z1,
+                        width, depth,
+                        0, 1, 0,
+                        tileU, tileV, tileWidth, tileHeight);
+                return;
+            }
+            case 2: {
+                tiledRect(builder,
+                        x0, y0, z0,
+                        width, height,
+                        x1, y0, z0,
+                        0, height,
+                        x1, y1, z0,
+                        0, 0,
+                        x0, y1, z0,
+                        width, 0,
+                        0, 0, -1,
+                        tileU, tileV, tileWidth, tileHeight);
+                return;
+            }
+            case 3: {
+                tiledRect(builder,
+                        x1, y1, z1,
+                        width, 0,
+                        x1, y0, z1,
+                        width, height,
+                        x0, y0, z1,
+                        0, height,
+                        x0, y1, z1,
+                        0, 0,
+                        0, 0, 1,
+                        tileU, tileV, tileWidth, tileHeight);
+                return;
+            }
+            case 4: {
+                tiledRect(builder,
+                        x0, y0, z1,
+                        depth, height,
+                        x0, y0, z0,
+                        0, height,
+                        x0, y1, z0,
+                        0, 0,
+                        x0, y1, z1,
+                        depth, 0,
+                        -1, 0, 0,
+                        tileU, tileV, tileWidth, tileHeight);
+                return;
+            }
+            case 5: {
+                tiledRect(builder,
+                        x1, y1, z1,
+                        0, 0,
+                        x1, y1, z0,
+                        depth, 0,
+                        x1, y0, z0,
+                        depth, height,
+                        x1, y0, z1,
+                        0, height,
+                        1, 0, 0,
+                        tileU, tileV, tileWidth, tileHeight);
+            }
+        }
+    }
+
+    /**
+     * @return true, if the box shape is the full unit cube
+     */
+    public boolean isFullCube() {
+        return xx0 == 0 && yy0 == 0 && zz0 == 0 && xx1 == 1 && yy1 == 1 && zz1 == 1;
+    }
+
     public void setTextureUVs(Vector2[] textureUVs) {
         this.textureUVs = textureUVs;
     }
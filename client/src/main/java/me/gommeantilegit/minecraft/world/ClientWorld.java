@@ -66,6 +66,7 @@ public class ClientWorld extends WorldBase {
         this.worldChunkHandler = new ClientWorldChunkHandler();
         this.chunkLoader = new ClientChunkLoader(this, mc);
         this.chunkMeshRebuilder = new ChunkMeshRebuilder(mc.thePlayer, mc.blockRendererRegistry);
+        this.chunkMeshRebuilder.setGreedyMeshing(mc.gameSettings.videoSettings.greedyMeshing.getValue());
         this.particleEngine = new ParticleEngine(mc);
         this.viewer = viewer;
         this.modifyChunkLoadingDistance(mc.gameSettings.videoSettings.determineChunkLoadingDistance());
@@ -5,6 +5,7 @@ import me.gommeantilegit.minecraft.annotations.ThreadSafe;
 import me.gommeantilegit.minecraft.annotations.Unsafe;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.entity.IRenderableEntity;
 import me.gommeantilegit.minecraft.entity.renderer.EntityRenderer;
@@ -12,11 +13,13 @@ import me.gommeantilegit.minecraft.rendering.GLContext;
 import me.gommeantilegit.minecraft.shader.programs.StdShader;
 import me.gommeantilegit.minecraft.world.ClientWorld;
 import me.gommeantilegit.minecraft.world.chunk.builder.ChunkMeshRebuilder;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockChangeBatch;
 import me.gommeantilegit.minecraft.world.renderer.WorldRenderer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.badlogic.gdx.graphics.GL20.GL_CULL_FACE;
 import static com.badlogic.gdx.graphics.GL20.GL_FRONT;
@@ -27,7 +30,18 @@ public class ClientChunk extends ChunkBase {
     /**
      * State whether the chunk has received any block storage data.
      */
-    private boolean dataReceived = false;
+    private volatile boolean dataReceived = false;
+
+    /**
+     * The sequence number assigned to the last chunk data received by {@link #nextDataSequence()}
+     */
+    @NotNull
+    private final AtomicLong dataSequence = new AtomicLong();
+
+    /**
+     * The sequence number of the chunk data published last. Guarded by the chunk.
+     */
+    private long publishedDataSequence;
 
     /**
      * The chunk rebuilder used to build chunk section meshes
@@ -64,12 +78,14 @@ public class ClientChunk extends ChunkBase {
         }
     }
 
+    @Unsafe
     @Override
-    public void setRelativeBlockState(int x, int y, int z, @Nullable IBlockState blockState) {
-        this.blockStateSemaphore.writeSynchronized(this, () -> {
-            writeBlockChange(x, y, z, blockState);
-            rebuildRelative(x, y, z);
-        });
+    public int writeBlockChanges(@NotNull BlockChangeBatch batch) {
+        int sectionsWritten = super.writeBlockChanges(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            rebuildRelative(batch.getX(i), batch.getY(i), batch.getZ(i));
+        }
+        return sectionsWritten;
     }
 
     @Override
@@ -85,6 +101,36 @@ public class ClientChunk extends ChunkBase {
         this.scheduleChunkMeshTasks(true);
     }
 
+    /**
+     * @return the sequence number of chunk data received now. Chunk data is decoded in parallel, the sequence number prevents older data from being published after newer data.
+     */
+    @ThreadSafe
+    public long nextDataSequence() {
+        return this.dataSequence.incrementAndGet();
+    }
+
+    /**
+     * Publishes decoded chunk data by swapping in the section storages and schedules the chunk meshes to be rebuilt
+     *
+     * @param sequence the sequence number obtained by {@link #nextDataSequence()} when the data was received
+     * @param storages the decoded section storages. Owned by the chunk afterwards.
+     * @return false if newer chunk data has already been published, in which case the storages are deleted instead
+     */
+    @ThreadSafe
+    public synchronized boolean publishChunkData(long sequence, @NotNull AdaptiveBlockStateStorage[] storages) {
+        if (sequence <= this.publishedDataSequence) {
+            for (AdaptiveBlockStateStorage storage : storages) {
+                storage.delete();
+            }
+            return false;
+        }
+        this.publishedDataSequence = sequence;
+        this.swapSectionStorages(storages);
+        this.setDataReceived();
+        this.scheduleChunkMeshTasks(true);
+        return true;
+    }
+
     /**
      * Schedules the rebuild tasks that arise from a chunk block state change.
      * (Rebuilds neighboring chunks, if this chunk is now the final needed neighbor to build it etc.)
@@ -56,6 +56,11 @@ public class ChunkMeshRebuilder implements AsyncOperation {
     @NotNull
     private final EntityPlayerSP viewer;
 
+    /**
+     * State whether section meshes are built by the {@link GreedyChunkMeshBuilder}
+     */
+    private volatile boolean greedyMeshing;
+
     public ChunkMeshRebuilder(@NotNull EntityPlayerSP viewer, @NotNull ClientBlockRendererTypeRegistry rendererRegistry) {
         this.rendererRegistry = rendererRegistry;
         this.viewer = viewer;
@@ -71,12 +76,12 @@ public class ChunkMeshRebuilder implements AsyncOperation {
 //        CompletableFuture.runAsync(() -> {
 //            synchronized (this.mutex) {
         this.cancelRebuildTask(section);
-        CopyingNeighboringSectionStateProvider blockStateAccess = new CopyingNeighboringSectionStateProvider(section);
+        SectionSnapshotStateProvider blockStateAccess = new SectionSnapshotStateProvider(section);
 
         Vec3i startPos = new Vec3i(0, 0, 0);
         Vec3i endPos = new Vec3i(ChunkBase.CHUNK_SIZE, ChunkSection.CHUNK_SECTION_SIZE, ChunkBase.CHUNK_SIZE);
 
-        ChunkMeshingTask task = new ChunkMeshingTask(blockStateAccess, startPos, endPos, this.rendererRegistry);
+        ChunkMeshingTask task = new ChunkMeshingTask(blockStateAccess, startPos, endPos, this.rendererRegistry, this.greedyMeshing);
         this.runMeshingTask(section, task)
                 .thenAcceptAsync(meshBuilder -> this.finishMesh(meshBuilder, section))
                 .exceptionally(e -> {
@@ -137,90 +142,100 @@ public class ChunkMeshRebuilder implements AsyncOperation {
 //        }
     }
 
+    /**
+     * Sets the meshing mode for subsequently scheduled rebuilds. Existing meshes are not rebuilt.
+     *
+     * @param greedyMeshing true, if section meshes should be built by the {@link GreedyChunkMeshBuilder}
+     */
+    @ThreadSafe
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
     @Override
     public void stopAsyncWork() {
         this.executorService.shutdown();
     }
 
-    private static class CopyingNeighboringSectionStateProvider implements IReadableBlockStateAccess {
+    /**
+     * Provides the block states of a section and the blocks sharing a face with the section to the meshing task, decoupled from modifications of the world.
+     * The section itself is a copy on write snapshot, which is shared without copying as long as the section is not modified.
+     * Of the neighboring sections only the one block thick slabs bordering the section are copied.
+     */
+    private static class SectionSnapshotStateProvider implements IReadableBlockStateAccess {
 
+        /**
+         * The one block thick slabs of the neighboring sections bordering the section in the order of {@link ChunkSection#getNeighboringSections()}
+         * (-x, +x, -z, +z, -y, +y). Null for missing neighbors and slabs only consisting of air.
+         */
         @NotNull
-        private final List<BlockStateStorage> neighboringStorages;
+        private final BlockStateStorage[] borderSlabs = new BlockStateStorage[6];
 
         @NotNull
-        private final BlockStateStorage mainStorage;
-
-        private CopyingNeighboringSectionStateProvider(@NotNull ChunkSection chunkSection) {
-            BlockStateStorage mainStorage = chunkSection.getBlockStorageCopy(); // copy block storage
-            List<ChunkSection> neighborSections = chunkSection.getNeighboringSections(); // get neighboring sections
-            List<BlockStateStorage> storages = new ArrayList<>();
-            // copy neighbor sections
-            for (ChunkSection neighbor : neighborSections) {
-                if (neighbor != null)
-                    storages.add(neighbor.getBlockStorageCopy());
-                else
-                    storages.add(null); // preserve index to position mapping
-            }
-            this.neighboringStorages = storages;
-            this.mainStorage = mainStorage;
+        private final IReadableBlockStateAccess mainStorage;
+
+        private SectionSnapshotStateProvider(@NotNull ChunkSection chunkSection) {
+            this.mainStorage = chunkSection.getBlockStorageSnapshot();
+            List<ChunkSection> neighborSections = chunkSection.getNeighboringSections();
+            int size = ChunkSection.CHUNK_SECTION_SIZE, last = size - 1;
+            this.borderSlabs[0] = copySlab(neighborSections.get(0), last, 0, 0, 1, size, size);
+            this.borderSlabs[1] = copySlab(neighborSections.get(1), 0, 0, 0, 1, size, size);
+            this.borderSlabs[2] = copySlab(neighborSections.get(2), 0, 0, last, size, size, 1);
+            this.borderSlabs[3] = copySlab(neighborSections.get(3), 0, 0, 0, size, size, 1);
+            this.borderSlabs[4] = copySlab(neighborSections.get(4), 0, last, 0, size, 1, size);
+            this.borderSlabs[5] = copySlab(neighborSections.get(5), 0, 0, 0, size, 1, size);
+        }
+
+        @Nullable
+        private static BlockStateStorage copySlab(@Nullable ChunkSection neighbor, int x, int y, int z, int width, int height, int depth) {
+            return neighbor != null ? neighbor.copyBlockStates(x, y, z, width, height, depth) : null;
         }
 
+        /**
+         * Returns the block state at the section relative position. Only positions inside the section or sharing a face with it are supported.
+         */
         @Nullable
         @Override
         public IBlockState getBlockState(int x, int y, int z) {
-            BlockStateStorage neighbor;
+            BlockStateStorage slab;
             if (x < 0) {
-                neighbor = neighboringStorages.get(0);
-                return neighbor.getBlockState(x + ChunkBase.CHUNK_SIZE, y, z);
+                slab = borderSlabs[0];
+                return slab != null ? slab.getBlockState(0, y, z) : null;
             }
             if (x >= ChunkBase.CHUNK_SIZE) {
-                neighbor = neighboringStorages.get(1);
-                if (neighbor != null) {
-                    return neighbor.getBlockState(x - ChunkBase.CHUNK_SIZE, y, z);
-                } else {
-                    return null;
-                }
+                slab = borderSlabs[1];
+                return slab != null ? slab.getBlockState(0, y, z) : null;
             }
             if (z < 0) {
-                neighbor = neighboringStorages.get(2);
-                if (neighbor != null) {
-                    return neighbor.getBlockState(x, y, z + ChunkBase.CHUNK_SIZE);
-                } else {
-                    return null;
-                }
+                slab = borderSlabs[2];
+                return slab != null ? slab.getBlockState(x, y, 0) : null;
             }
             if (z >= ChunkBase.CHUNK_SIZE) {
-                neighbor = neighboringStorages.get(3);
-                if (neighbor != null) {
-                    return neighbor.getBlockState(x, y, z - ChunkBase.CHUNK_SIZE);
-                } else {
-                    return null;
-                }
+                slab = borderSlabs[3];
+                return slab != null ? slab.getBlockState(x, y, 0) : null;
             }
             if (y < 0) {
-                neighbor = neighboringStorages.get(4);
-                if (neighbor != null) {
-                    return neighbor.getBlockState(x, y + ChunkSection.CHUNK_SECTION_SIZE, z);
-                } else {
-                    return null;
-                }
+                slab = borderSlabs[4];
+                return slab != null ? slab.getBlockState(x, 0, z) : null;
             }
             if (y >= ChunkSection.CHUNK_SECTION_SIZE) {
-                neighbor = neighboringStorages.get(5);
-                if (neighbor != null) {
-                    return neighbor.getBlockState(x, y - ChunkSection.CHUNK_SECTION_SIZE, z);
-                } else {
-                    return null;
-                }
+                slab = borderSlabs[5];
+                return slab != null ? slab.getBlockState(x, 0, z) : null;
             }
             return mainStorage.getBlockState(x, y, z);
         }
 
+        /**
+         * Deletes the border slab copies. The shared section snapshot is left to the garbage collector.
+         */
         public void delete() {
-            this.mainStorage.delete();
-            for (BlockStateStorage storage : this.neighboringStorages) {
-                if (storage == null) continue;
-                storage.delete();
+            for (BlockStateStorage slab : this.borderSlabs) {
+                if (slab != null)
+                    slab.delete();
             }
         }
     }
@@ -40,19 +40,32 @@ public class ChunkMeshingTask implements Supplier<OptimizedMeshBuilder> {
     @NotNull
     private final ClientBlockRendererTypeRegistry renderRegistry;
 
+    /**
+     * State whether the mesh is built by the {@link GreedyChunkMeshBuilder} instead of the {@link ChunkMeshBuilder}
+     */
+    private final boolean greedyMeshing;
+
     public ChunkMeshingTask(@NotNull IReadableBlockStateAccess blockStateAccess,
-                            @NotNull Vec3i startPos, @NotNull Vec3i endPos, @NotNull ClientBlockRendererTypeRegistry renderRegistry) {
+                            @NotNull Vec3i startPos, @NotNull Vec3i endPos, @NotNull ClientBlockRendererTypeRegistry renderRegistry, boolean greedyMeshing) {
         this.blockStateAccess = blockStateAccess;
         this.startPos = startPos;
         this.endPos = endPos;
         this.renderRegistry = renderRegistry;
+        this.greedyMeshing = greedyMeshing;
     }
 
     @Nullable
     @Override
     public OptimizedMeshBuilder get() {
-        OptimizedMeshBuilder meshBuilder = ChunkMeshBuilder.getPreparedMeshBuilder();
-        boolean renderedFace = ChunkMeshBuilder.buildMesh(meshBuilder, this.renderRegistry, this.blockStateAccess, this.startPos, this.endPos);
+        OptimizedMeshBuilder meshBuilder;
+        boolean renderedFace;
+        if (this.greedyMeshing) {
+            meshBuilder = GreedyChunkMeshBuilder.getPreparedMeshBuilder();
+            renderedFace = GreedyChunkMeshBuilder.buildMesh(meshBuilder, this.renderRegistry, this.blockStateAccess, this.startPos, this.endPos);
+        } else {
+            meshBuilder = ChunkMeshBuilder.getPreparedMeshBuilder();
+            renderedFace = ChunkMeshBuilder.buildMesh(meshBuilder, this.renderRegistry, this.blockStateAccess, this.startPos, this.endPos);
+        }
         if (!renderedFace) {
             return null;
         }
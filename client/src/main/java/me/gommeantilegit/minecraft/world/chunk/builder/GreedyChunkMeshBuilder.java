@@ -0,0 +1,178 @@
+package me.gommeantilegit.minecraft.world.chunk.builder;
+
+import me.gommeantilegit.minecraft.block.BlockTypeRenderer;
+import me.gommeantilegit.minecraft.block.ClientBlockRendererTypeRegistry;
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec3i;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+import static com.badlogic.gdx.graphics.GL20.GL_TRIANGLES;
+import static me.gommeantilegit.minecraft.rendering.Constants.CHUNK_VERTEX_ATTRIBUTES;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkSection.CHUNK_SECTION_SIZE;
+
+/**
+ * Builds chunk meshes like the {@link ChunkMeshBuilder}, but merges the visible coplanar faces of neighboring blocks with identical block state
+ * into rectangles, that are rendered as one quad per texture layer. The shader repeats the textures of the merged quads once per block.
+ * Faces of block types, that cannot be merged (see {@link BlockTypeRenderer#canMergeFaces()}), are rendered per block.
+ */
+public class GreedyChunkMeshBuilder {
+
+    /**
+     * NORMAL_AXES[face] is the axis (0 = x, 1 = y, 2 = z) the face is perpendicular to.
+     * Even faces face the negative, odd faces the positive direction of the axis. (Same face order as {@link BlockTypeRenderer})
+     */
+    private static final int[] NORMAL_AXES = {1, 1, 2, 2, 0, 0};
+
+    /**
+     * Builds a greedy mesh for given region in a block state access provider
+     *
+     * @param builder          the mesh-builder to store the finished mesh. Must build a mesh with {@link me.gommeantilegit.minecraft.rendering.Constants#CHUNK_VERTEX_ATTRIBUTES}
+     * @param rendererRegistry the block render registry
+     * @param access           provides the block states to build the mesh of and the block states bordering the region
+     * @return true, if at least one face was rendered
+     */
+    public static boolean buildMesh(@NotNull OptimizedMeshBuilder builder, @NotNull ClientBlockRendererTypeRegistry rendererRegistry, @NotNull IReadableBlockStateAccess access, @NotNull Vec3i startPosition, @NotNull Vec3i endPosition) {
+        int[] min = {startPosition.getX(), startPosition.getY(), startPosition.getZ()};
+        int[] size = {endPosition.getX() - min[0], endPosition.getY() - min[1], endPosition.getZ() - min[2]};
+        IBlockState[] states = readBlockStates(access, min, size);
+
+        // strides of the axes in the states array
+        int[] strides = {1, size[0] + 2, (size[0] + 2) * (size[1] + 2)};
+
+        IBlockState[] mask = new IBlockState[Math.max(size[0], size[1]) * Math.max(size[1], size[2])];
+        int[] position = new int[3];
+        // renderer of the last looked up block state. Neighboring blocks mostly share their state
+        IBlockState rendererState = null;
+        BlockTypeRenderer renderer = null;
+        boolean renderedFace = false;
+        for (int face = 0; face < 6; face++) {
+            int normalAxis = NORMAL_AXES[face], uAxis = (normalAxis + 1) % 3, vAxis = (normalAxis + 2) % 3;
+            int sizeU = size[uAxis], sizeV = size[vAxis];
+            int neighborOffset = (face & 1) == 0 ? -strides[normalAxis] : strides[normalAxis];
+
+            for (int slice = 0; slice < size[normalAxis]; slice++) {
+                // collect the visible faces of the slice
+                position[normalAxis] = slice;
+                for (int v = 0; v < sizeV; v++) {
+                    position[vAxis] = v;
+                    for (int u = 0; u < sizeU; u++) {
+                        position[uAxis] = u;
+                        int index = (position[0] + 1) + (position[1] + 1) * strides[1] + (position[2] + 1) * strides[2];
+                        IBlockState blockState = states[index];
+                        IBlockState faceState = null;
+                        if (blockState != null) {
+                            if (blockState != rendererState) {
+                                renderer = getRenderer(rendererRegistry, blockState);
+                                rendererState = blockState;
+                            }
+                            if (renderer.canSeeThrough(states[index + neighborOffset])) {
+                                if (renderer.canMergeFaces()) {
+                                    faceState = blockState;
+                                } else {
+                                    renderer.renderFace(builder, min[0] + position[0], min[1] + position[1], min[2] + position[2], face);
+                                    renderedFace = true;
+                                }
+                            }
+                        }
+                        mask[u + v * sizeU] = faceState;
+                    }
+                }
+
+                // merge the faces into rectangles, growing along u first, then along v
+                for (int v = 0; v < sizeV; v++) {
+                    for (int u = 0; u < sizeU; ) {
+                        IBlockState blockState = mask[u + v * sizeU];
+                        if (blockState == null) {
+                            u++;
+                            continue;
+                        }
+                        // block states of a palette are unique instances, so identity implies identical textures
+                        int width = 1;
+                        while (u + width < sizeU && mask[u + width + v * sizeU] == blockState) {
+                            width++;
+                        }
+                        int height = 1;
+                        growing:
+                        while (v + height < sizeV) {
+                            int row = (v + height) * sizeU;
+                            for (int i = u; i < u + width; i++) {
+                                if (mask[i + row] != blockState)
+                                    break growing;
+                            }
+                            height++;
+                        }
+                        for (int j = v; j < v + height; j++) {
+                            for (int i = u; i < u + width; i++) {
+                                mask[i + j * sizeU] = null;
+                            }
+                        }
+
+                        position[uAxis] = u;
+                        position[vAxis] = v;
+                        int x0 = min[0] + position[0], y0 = min[1] + position[1], z0 = min[2] + position[2];
+                        position[normalAxis]++;
+                        position[uAxis] += width;
+                        position[vAxis] += height;
+                        int x1 = min[0] + position[0], y1 = min[1] + position[1], z1 = min[2] + position[2];
+                        position[normalAxis] = slice;
+
+                        getRenderer(rendererRegistry, blockState).renderMergedFace(builder, x0, y0, z0, x1, y1, z1, face);
+                        renderedFace = true;
+                        u += width;
+                    }
+                }
+            }
+        }
+        return renderedFace;
+    }
+
+    /**
+     * Reads the block states of the region and the blocks sharing a face with the region into an array, so that every block state is only queried once.
+     * Blocks only sharing an edge or a corner with the region are not read (stay null), as they are never checked for face visibility.
+     *
+     * @return the block states of the region with a one block border, x-major (index = x + (size x + 2) * (y + (size y + 2) * z)), shifted by one
+     */
+    @NotNull
+    private static IBlockState[] readBlockStates(@NotNull IReadableBlockStateAccess access, @NotNull int[] min, @NotNull int[] size) {
+        int sizeX = size[0] + 2, sizeY = size[1] + 2, sizeZ = size[2] + 2;
+        IBlockState[] states = new IBlockState[sizeX * sizeY * sizeZ];
+        for (int z = 0; z < sizeZ; z++) {
+            boolean borderZ = z == 0 || z == sizeZ - 1;
+            for (int y = 0; y < sizeY; y++) {
+                boolean borderY = y == 0 || y == sizeY - 1;
+                if (borderZ && borderY)
+                    continue;
+                for (int x = 0; x < sizeX; x++) {
+                    boolean borderX = x == 0 || x == sizeX - 1;
+                    if (borderX && (borderY || borderZ))
+                        continue;
+                    states[x + sizeX * (y + sizeY * z)] = access.getBlockState(min[0] + x - 1, min[1] + y - 1, min[2] + z - 1);
+                }
+            }
+        }
+        return states;
+    }
+
+    @NotNull
+    private static BlockTypeRenderer getRenderer(@NotNull ClientBlockRendererTypeRegistry rendererRegistry, @NotNull IBlockState blockState) {
+        return Objects.requireNonNull(rendererRegistry.getRenderer(blockState.getBlock()));
+    }
+
+    /**
+     * @return a mesh builder building a mesh with {@link me.gommeantilegit.minecraft.rendering.Constants#CHUNK_VERTEX_ATTRIBUTES}.
+     * Greedy meshes need way less vertices than the worst case the {@link ChunkMeshBuilder} prepares for, so the capacity is only prepared for one layer of merged quads per face
+     * and grown by the builder if needed.
+     */
+    @NotNull
+    public static OptimizedMeshBuilder getPreparedMeshBuilder() {
+        OptimizedMeshBuilder builder = new OptimizedMeshBuilder();
+        builder.begin(CHUNK_VERTEX_ATTRIBUTES, GL_TRIANGLES);
+        int quads = CHUNK_SECTION_SIZE * CHUNK_SECTION_SIZE * 6;
+        builder.ensureVertices(quads * 4);
+        builder.ensureIndices(quads * 6); // two triangles per quad
+        return builder;
+    }
+}
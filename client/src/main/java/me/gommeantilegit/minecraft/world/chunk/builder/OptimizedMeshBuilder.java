@@ -1,17 +1,115 @@
 package me.gommeantilegit.minecraft.world.chunk.builder;
 
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g3d.utils.MeshBuilder;
 import com.badlogic.gdx.math.Vector3;
+import me.gommeantilegit.minecraft.rendering.Constants;
 import org.jetbrains.annotations.NotNull;
 
 public class OptimizedMeshBuilder extends MeshBuilder {
 
+    /**
+     * The alias of the texture tile vertex attribute of {@link Constants#CHUNK_VERTEX_ATTRIBUTES}
+     */
+    @NotNull
+    private static final String TEXTURE_TILE_ALIAS = "a_TextureTile";
+
     @NotNull
     private final VertexInfo vertTmp1 = new VertexInfo(), vertTmp2 = new VertexInfo(), vertTmp3 = new VertexInfo(), vertTmp4 = new VertexInfo();
 
+    /**
+     * The color set by {@link #setColor(float, float, float, float)}, that tiled vertices are tinted with
+     */
+    @NotNull
+    private final Color color = new Color(1, 1, 1, 1);
+
+    /**
+     * Float offsets of the vertex attributes in a vertex of the current mesh part, used by {@link #tiledVertex(float, float, float, float, float, float, float, float, float, float, float, float)}.
+     * The texture tile offset is -1, if the mesh has no texture tile attribute.
+     */
+    private int positionOffset, colorOffset, normalOffset, uvOffset, textureTileOffset = -1;
+
+    /**
+     * Temporary vertex of {@link #tiledVertex(float, float, float, float, float, float, float, float, float, float, float, float)}
+     */
+    @NotNull
+    private float[] tiledVertex = new float[0];
+
     public OptimizedMeshBuilder() {
     }
 
+    @Override
+    public void begin(VertexAttributes attributes, int primitiveType) {
+        super.begin(attributes, primitiveType);
+        this.positionOffset = attributes.getOffset(VertexAttributes.Usage.Position, -1);
+        this.colorOffset = attributes.getOffset(VertexAttributes.Usage.ColorPacked, -1);
+        this.normalOffset = attributes.getOffset(VertexAttributes.Usage.Normal, -1);
+        this.uvOffset = attributes.getOffset(VertexAttributes.Usage.TextureCoordinates, -1);
+        this.textureTileOffset = -1;
+        for (VertexAttribute attribute : attributes) {
+            if (TEXTURE_TILE_ALIAS.equals(attribute.alias)) {
+                this.textureTileOffset = attribute.offset / 4;
+            }
+        }
+        this.tiledVertex = new float[attributes.vertexSize / 4];
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        super.setColor(r, g, b, a);
+        this.color.set(r, g, b, a);
+    }
+
+    @Override
+    public void setColor(Color color) {
+        super.setColor(color);
+        if (color == null) {
+            this.color.set(1, 1, 1, 1);
+        } else {
+            this.color.set(color);
+        }
+    }
+
+    /**
+     * Adds a vertex with texture coordinates relative to a texture tile, which the shader repeats once per unit of the texture coordinates.
+     * Requires the mesh to be built with {@link Constants#CHUNK_VERTEX_ATTRIBUTES}. The vertex is tinted with the color of the builder.
+     *
+     * @param x          x coordinate
+     * @param y          y coordinate
+     * @param z          z coordinate
+     * @param normalX    normal x component
+     * @param normalY    normal y component
+     * @param normalZ    normal z component
+     * @param u          texture u coordinate relative to the tile
+     * @param v          texture v coordinate relative to the tile
+     * @param tileU      u coordinate of the tile in the texture
+     * @param tileV      v coordinate of the tile in the texture
+     * @param tileWidth  width of the tile in texture coordinates
+     * @param tileHeight height of the tile in texture coordinates
+     * @return the index of the vertex
+     */
+    public short tiledVertex(float x, float y, float z, float normalX, float normalY, float normalZ, float u, float v, float tileU, float tileV, float tileWidth, float tileHeight) {
+        if (this.textureTileOffset < 0)
+            throw new IllegalStateException("Mesh has no texture tile vertex attribute");
+        float[] vertex = this.tiledVertex;
+        vertex[positionOffset] = x;
+        vertex[positionOffset + 1] = y;
+        vertex[positionOffset + 2] = z;
+        vertex[colorOffset] = this.color.toFloatBits();
+        vertex[normalOffset] = normalX;
+        vertex[normalOffset + 1] = normalY;
+        vertex[normalOffset + 2] = normalZ;
+        vertex[uvOffset] = u;
+        vertex[uvOffset + 1] = v;
+        vertex[textureTileOffset] = tileU;
+        vertex[textureTileOffset + 1] = tileV;
+        vertex[textureTileOffset + 2] = tileWidth;
+        vertex[textureTileOffset + 3] = tileHeight;
+        return vertex(vertex);
+    }
+
     @NotNull
     public VertexInfo getVertTmp4() {
         return vertTmp4;
@@ -31,4 +129,4 @@ public class OptimizedMeshBuilder extends MeshBuilder {
     public VertexInfo getVertTmp1() {
         return vertTmp1;
     }
-}
\ No newline at end of file
+}
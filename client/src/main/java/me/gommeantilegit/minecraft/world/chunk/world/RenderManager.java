@@ -8,8 +8,8 @@ import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import me.gommeantilegit.minecraft.world.chunk.ClientChunk;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 
 /**
  * Object for fluent ChunkBase Iteration for world rendering
@@ -35,7 +35,7 @@ public class RenderManager {
     }
 
     public void startStage(@NotNull RenderStage renderStage) {
-        List<ChunkBase> chunks;
+        Collection<ChunkBase> chunks;
         switch (renderStage) {
             case CHUNKS:
                 chunks = world.getWorldChunkHandler().getLoadedChunks();
@@ -3,6 +3,7 @@
 varying vec3 lightingColor;
 varying vec4 fragColorAttr;
 varying vec2 fragTextureCoords;
+varying vec4 fragTextureTile;
 
 uniform sampler2D boundTexture;
 
@@ -49,7 +50,12 @@ void main() {
     //Setting the interpolated value of lightingColor passed from the vertexShader to the frag color with an alpha value of 1.
 
     if(!texture_mapping_bool) {
-        texColor = texture2D(boundTexture, fragTextureCoords);
+        if (fragTextureTile.z > 0.0) {
+            // texture coordinates relative to the tile, which is repeated once per unit (greedy meshed chunk quads span multiple blocks)
+            texColor = texture2D(boundTexture, fragTextureTile.xy + fract(fragTextureCoords) * fragTextureTile.zw);
+        } else {
+            texColor = texture2D(boundTexture, fragTextureCoords);
+        }
     } else {
         float texture_u0 = texture_pix_u0;
         float texture_v0 = texture_pix_v0;
@@ -4,6 +4,8 @@ attribute vec3 a_Position;
 attribute vec3 a_Normal;
 attribute vec4 a_Color;
 attribute vec2 a_TextureCoord;
+/* (u0, v0, width, height) of the texture tile repeated over the texture coordinates. Zero width for meshes without texture tiles */
+attribute vec4 a_TextureTile;
 
 uniform vec3 lightDirection;
 
@@ -26,6 +28,7 @@ uniform float fogEnd;
 varying vec3 lightingColor;
 varying vec4 fragColorAttr;
 varying vec2 fragTextureCoords;
+varying vec4 fragTextureTile;
 varying float fogVisibility;
 
 /*
@@ -61,6 +64,8 @@ void main() {
 
     fragTextureCoords = a_TextureCoord;
 
+    fragTextureTile = a_TextureTile;
+
     float dotLighting;
 
     if (enableLighting)
@@ -0,0 +1,210 @@
+package me.gommeantilegit.minecraft.world.chunk.builder;
+
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.math.Vector2;
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.BlockTypeRenderer;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.ClientBlockRendererTypeRegistry;
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.texture.custom.CustomTexture;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec3i;
+import me.gommeantilegit.minecraft.utils.Pointer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkSection.CHUNK_SECTION_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the greedy mesher with the {@link ChunkMeshBuilder} on generated terrain without a graphics context.
+ * The block renderers have no texture map, so only the mesh geometry is compared.
+ */
+public class GreedyChunkMeshBuilderTest {
+
+    private static final Vec3i START = new Vec3i(0, 0, 0);
+
+    private static final Vec3i END = new Vec3i(CHUNK_SECTION_SIZE, CHUNK_SECTION_SIZE, CHUNK_SECTION_SIZE);
+
+    /**
+     * The number of meshes built by each mesher for the build time comparison
+     */
+    private static final int BUILD_ITERATIONS = 50;
+
+    private static Blocks blocks;
+
+    private static ClientBlockRendererTypeRegistry rendererRegistry;
+
+    @BeforeClass
+    public static void setUp() {
+        blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        rendererRegistry = new ClientBlockRendererTypeRegistry(null, blocks); // only used for renderer lookups
+        Pointer<CustomTexture> texture = new Pointer<>();
+        for (Block block : new Block[]{blocks.stone, blocks.dirt, blocks.grass, blocks.bedrock}) {
+            rendererRegistry.getRendererRegistry().put(block, new BlockTypeRenderer(block, texture, new String[]{block.getUnlocalizedName()}, new Vector2[]{new Vector2()}));
+        }
+    }
+
+    @Test
+    public void greedyMeshCoversTheSameFaces() {
+        for (long seed = 0; seed < 4; seed++) {
+            TerrainAccess terrain = new TerrainAccess(seed);
+            OptimizedMeshBuilder standard = ChunkMeshBuilder.getPreparedMeshBuilder();
+            assertTrue(ChunkMeshBuilder.buildMesh(standard, rendererRegistry, terrain, START, END));
+            OptimizedMeshBuilder greedy = GreedyChunkMeshBuilder.getPreparedMeshBuilder();
+            assertTrue(GreedyChunkMeshBuilder.buildMesh(greedy, rendererRegistry, terrain, START, END));
+
+            assertEquals(collectUnitFaces(standard), collectUnitFaces(greedy));
+            assertEquals(greedy.getNumVertices() / 4 * 6, greedy.getNumIndices());
+        }
+    }
+
+    @Test
+    public void emptyRegionHasNoFaces() {
+        IReadableBlockStateAccess air = (x, y, z) -> null;
+        OptimizedMeshBuilder greedy = GreedyChunkMeshBuilder.getPreparedMeshBuilder();
+        assertFalse(GreedyChunkMeshBuilder.buildMesh(greedy, rendererRegistry, air, START, END));
+        assertEquals(0, greedy.getNumVertices());
+    }
+
+    @Test
+    public void greedyMeshNeedsFewerVertices() {
+        TerrainAccess terrain = new TerrainAccess(42);
+        OptimizedMeshBuilder standard = ChunkMeshBuilder.getPreparedMeshBuilder();
+        ChunkMeshBuilder.buildMesh(standard, rendererRegistry, terrain, START, END);
+        OptimizedMeshBuilder greedy = GreedyChunkMeshBuilder.getPreparedMeshBuilder();
+        GreedyChunkMeshBuilder.buildMesh(greedy, rendererRegistry, terrain, START, END);
+        int standardVertices = standard.getNumVertices(), greedyVertices = greedy.getNumVertices();
+        assertTrue("Greedy mesh has " + greedyVertices + " vertices, standard mesh " + standardVertices, greedyVertices * 2 < standardVertices);
+    }
+
+    @Test
+    public void compareBuildTime() {
+        TerrainAccess terrain = new TerrainAccess(42);
+        // the first half of the iterations warms up
+        long standardTime = 0, greedyTime = 0;
+        for (int i = 0; i < BUILD_ITERATIONS * 2; i++) {
+            long start = System.nanoTime();
+            OptimizedMeshBuilder standard = ChunkMeshBuilder.getPreparedMeshBuilder();
+            assertTrue(ChunkMeshBuilder.buildMesh(standard, rendererRegistry, terrain, START, END));
+            long middle = System.nanoTime();
+            OptimizedMeshBuilder greedy = GreedyChunkMeshBuilder.getPreparedMeshBuilder();
+            assertTrue(GreedyChunkMeshBuilder.buildMesh(greedy, rendererRegistry, terrain, START, END));
+            long end = System.nanoTime();
+            if (i >= BUILD_ITERATIONS) {
+                standardTime += middle - start;
+                greedyTime += end - middle;
+            }
+        }
+        System.out.println("ChunkMeshBuilder: " + standardTime / BUILD_ITERATIONS / 1000 + " us per mesh");
+        System.out.println("GreedyChunkMeshBuilder: " + greedyTime / BUILD_ITERATIONS / 1000 + " us per mesh");
+    }
+
+    /**
+     * Splits the quads of the mesh into the unit block faces they cover
+     *
+     * @return the set of covered unit faces encoded as strings (face direction and minimum corner)
+     */
+    @NotNull
+    private static Set<String> collectUnitFaces(@NotNull OptimizedMeshBuilder builder) {
+        int stride = builder.getFloatsPerVertex();
+        VertexAttributes attributes = builder.getAttributes();
+        int positionOffset = attributes.getOffset(VertexAttributes.Usage.Position);
+        int normalOffset = attributes.getOffset(VertexAttributes.Usage.Normal);
+        float[] vertices = new float[builder.getNumVertices() * stride];
+        builder.getVertices(vertices, 0);
+
+        Set<String> faces = new HashSet<>();
+        for (int quad = 0; quad < builder.getNumVertices() / 4; quad++) {
+            int[] min = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+            int[] max = {Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+            for (int vertex = quad * 4; vertex < quad * 4 + 4; vertex++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    int coordinate = Math.round(vertices[vertex * stride + positionOffset + axis]);
+                    min[axis] = Math.min(min[axis], coordinate);
+                    max[axis] = Math.max(max[axis], coordinate);
+                }
+            }
+            int normal = quad * 4 * stride + normalOffset;
+            String direction = Math.round(vertices[normal]) + "," + Math.round(vertices[normal + 1]) + "," + Math.round(vertices[normal + 2]);
+            for (int x = min[0]; x < Math.max(max[0], min[0] + 1); x++) {
+                for (int y = min[1]; y < Math.max(max[1], min[1] + 1); y++) {
+                    for (int z = min[2]; z < Math.max(max[2], min[2] + 1); z++) {
+                        assertTrue("Overlapping quads", faces.add(direction + "@" + x + "," + y + "," + z));
+                    }
+                }
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * A chunk section of generated terrain (hills of stone covered with dirt and grass, bedrock floor, caves and dirt pockets) and the one block border around it
+     */
+    private static class TerrainAccess implements IReadableBlockStateAccess {
+
+        @NotNull
+        private final IBlockState[] blockStates = new IBlockState[(CHUNK_SECTION_SIZE + 2) * (CHUNK_SECTION_SIZE + 2) * (CHUNK_SECTION_SIZE + 2)];
+
+        private TerrainAccess(long seed) {
+            Random random = new Random(seed);
+            double phaseX = random.nextDouble() * Math.PI * 2, phaseZ = random.nextDouble() * Math.PI * 2;
+            for (int x = -1; x <= CHUNK_SECTION_SIZE; x++) {
+                for (int z = -1; z <= CHUNK_SECTION_SIZE; z++) {
+                    int height = (int) (18 + 4 * Math.sin(x * 0.1 + phaseX) + 3 * Math.cos(z * 0.12 + phaseZ));
+                    for (int y = -1; y <= CHUNK_SECTION_SIZE; y++) {
+                        Block block;
+                        if (y == 0) {
+                            block = blocks.bedrock;
+                        } else if (y > height) {
+                            block = null;
+                        } else if (y == height) {
+                            block = blocks.grass;
+                        } else if (y > height - 3) {
+                            block = blocks.dirt;
+                        } else {
+                            block = blocks.stone;
+                        }
+                        blockStates[index(x, y, z)] = block == null ? null : block.getDefaultBlockState();
+                    }
+                }
+            }
+            // caves and dirt pockets in the stone
+            for (int i = 0; i < 12; i++) {
+                IBlockState fill = i % 2 == 0 ? null : blocks.dirt.getDefaultBlockState();
+                int centerX = random.nextInt(CHUNK_SECTION_SIZE), centerY = 2 + random.nextInt(10), centerZ = random.nextInt(CHUNK_SECTION_SIZE);
+                int radius = 2 + random.nextInt(3);
+                for (int x = Math.max(-1, centerX - radius); x <= Math.min(CHUNK_SECTION_SIZE, centerX + radius); x++) {
+                    for (int y = Math.max(1, centerY - radius); y <= centerY + radius; y++) {
+                        for (int z = Math.max(-1, centerZ - radius); z <= Math.min(CHUNK_SECTION_SIZE, centerZ + radius); z++) {
+                            int dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+                            if (dx * dx + dy * dy + dz * dz <= radius * radius && blockStates[index(x, y, z)] == blocks.stone.getDefaultBlockState())
+                                blockStates[index(x, y, z)] = fill;
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int index(int x, int y, int z) {
+            int size = CHUNK_SECTION_SIZE + 2;
+            return (x + 1) + size * ((y + 1) + size * (z + 1));
+        }
+
+        @Nullable
+        @Override
+        public IBlockState getBlockState(int x, int y, int z) {
+            if (x < -1 || y < -1 || z < -1 || x > CHUNK_SECTION_SIZE || y > CHUNK_SECTION_SIZE || z > CHUNK_SECTION_SIZE)
+                return null;
+            return blockStates[index(x, y, z)];
+        }
+    }
+}
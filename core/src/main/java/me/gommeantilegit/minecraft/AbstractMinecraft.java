@@ -157,12 +157,20 @@ public abstract class AbstractMinecraft implements Tickable {
      * Called to update the tick game timer. This is called at rates not to be made any kind of assumption about
      */
     public void onUpdate() {
+        onUpdate(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Updates the tick game timer and performs the pending ticks with bounded catch-up. See {@link Timer#performTicks(Tickable, int, long)}.
+     *
+     * @param maxTicks    the maximum number of ticks to perform
+     * @param budgetNanos the time in nanoseconds after which no further tick is started. The first pending tick is always performed.
+     * @return the number of ticks performed
+     */
+    public int onUpdate(int maxTicks, long budgetNanos) {
         //Updating timer and ticks
         this.timer.advanceTime();
-        for (int i = 0; i < this.timer.ticks; i++) {
-            this.tick(this.timer.partialTicks);
-            this.timer.tick(this.timer.partialTicks);
-        }
+        return this.timer.performTicks(this, maxTicks, budgetNanos);
     }
 
     @NotNull
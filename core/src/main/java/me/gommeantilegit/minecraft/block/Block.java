@@ -12,6 +12,7 @@ import me.gommeantilegit.minecraft.block.state.property.BlockStatePropertyMap;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.entity.player.base.PlayerBase;
 import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
+import me.gommeantilegit.minecraft.phys.CollisionBoxBuffer;
 import me.gommeantilegit.minecraft.raytrace.RayTracer;
 import me.gommeantilegit.minecraft.util.block.facing.EnumFacing;
 import me.gommeantilegit.minecraft.util.block.position.BlockPos;
@@ -74,6 +75,17 @@ public class Block {
      */
     private boolean collidable = true;
 
+    /**
+     * State whether the shape of the block fills the whole block. Updated by {@link #setShape(float, float, float, float, float, float)}
+     */
+    private boolean fullCube = true;
+
+    /**
+     * State whether the block class overrides {@link #getBoundingBox(WorldBase, BlockPos, IBlockState)}.
+     * The collision boxes of such blocks are created through it by {@link #addCollisionBox(WorldBase, int, int, int, IBlockState, CollisionBoxBuffer)}.
+     */
+    private final boolean boundingBoxOverridden = overridesBoundingBox(getClass());
+
     /**
      * Slipperiness of block when walked on
      */
@@ -222,6 +234,7 @@ public class Block {
         this.x1 = x1;
         this.y1 = y1;
         this.z1 = z1;
+        this.fullCube = x0 == 0 && y0 == 0 && z0 == 0 && x1 == 1 && y1 == 1 && z1 == 1;
     }
 
     /**
@@ -291,6 +304,46 @@ public class Block {
         else return null;
     }
 
+    /**
+     * Adds the collision box of the block at the given position to the buffer. Unlike {@link #getBoundingBox(WorldBase, BlockPos, IBlockState)} this does not allocate for blocks colliding with their shape.
+     * Blocks with state dependent collision boxes override this method to stay allocation free. Blocks only overriding {@link #getBoundingBox(WorldBase, BlockPos, IBlockState)} have their box created through it.
+     *
+     * @param world      the world of the block
+     * @param x          the x coordinate of the block
+     * @param y          the y coordinate of the block
+     * @param z          the z coordinate of the block
+     * @param blockState the state of the block
+     * @param buffer     the buffer to add the box to or null to only check whether the block has a collision box
+     * @return true, if the block has a collision box
+     */
+    public boolean addCollisionBox(@NotNull WorldBase world, int x, int y, int z, @NotNull IBlockState blockState, @Nullable CollisionBoxBuffer buffer) {
+        if (this.boundingBoxOverridden) {
+            AxisAlignedBB box = getBoundingBox(world, new BlockPos(x, y, z), blockState);
+            if (box == null)
+                return false;
+            if (buffer != null)
+                buffer.add(box.x0, box.y0, box.z0, box.x1, box.y1, box.z1);
+            return true;
+        }
+        if (!this.collidable)
+            return false;
+        if (buffer != null) {
+            if (this.fullCube)
+                buffer.add(x, y, z, x + 1, y + 1, z + 1);
+            else
+                buffer.add(x + this.x0, y + this.y0, z + this.z0, x + this.x1, y + this.y1, z + this.z1);
+        }
+        return true;
+    }
+
+    private static boolean overridesBoundingBox(@NotNull Class<? extends Block> blockClass) {
+        try {
+            return blockClass.getMethod("getBoundingBox", WorldBase.class, BlockPos.class, IBlockState.class).getDeclaringClass() != Block.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Get the hardness of this Block relative to the ability of the given player
      */
@@ -336,10 +389,20 @@ public class Block {
         return initialVersion;
     }
 
-    private boolean isCollidable() {
+    /**
+     * @return true, if entities collide with the block and rays hit it
+     */
+    public boolean isCollidable() {
         return collidable;
     }
 
+    /**
+     * @return true, if the shape of the block fills the whole block
+     */
+    public boolean isFullCube() {
+        return fullCube;
+    }
+
     protected void registerProperty(@NotNull BlockStateProperty<?> property) {
         this.properties.add(property);
     }
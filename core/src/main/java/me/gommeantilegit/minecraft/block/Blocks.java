@@ -6,6 +6,8 @@ import me.gommeantilegit.minecraft.block.material.Material;
 import me.gommeantilegit.minecraft.block.material.Materials;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.GlobalBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
 import me.gommeantilegit.minecraft.block.state.palette.PaletteVersionManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -48,6 +50,11 @@ public class Blocks {
     @Nullable
     private GlobalBlockStatePalette globalPalette;
 
+    /**
+     * The newest block state palette version. (The highest initial version of all registered blocks)
+     */
+    private int paletteVersion;
+
     public Blocks(@NotNull AbstractMinecraft mc) {
         this.mc = mc;
     }
@@ -62,7 +69,6 @@ public class Blocks {
         bedrock = new Block(1, 7, "bedrock", Materials.rock).setHardness(-1).setSoundType("stone").setResistance(6000000.0F);
         registerAll(stone, dirt, grass, bedrock);
         finalizeRegistration();
-        initBlockStates();
     }
 
     /**
@@ -70,15 +76,17 @@ public class Blocks {
      */
     private void finalizeRegistration() {
         this.registeredBlocks.sort(Comparator.comparingInt(Block::getId)); // sort ascending by id
+        for (Block block : this.registeredBlocks) {
+            this.paletteVersion = Math.max(this.paletteVersion, block.getInitialVersion());
+        }
+        initBlockStates(); // before palette creation, as the global palette indexes the possible block states
         this.globalPalette = new GlobalBlockStatePalette(this);
         this.paletteVersionManager = new PaletteVersionManager(this);
     }
 
     /**
      * Initializes {@link #possibleBlockStates}.
-     * Block registration must be finalized before this is called
-     *
-     * @see #finalizeRegistration()
+     * Called by {@link #finalizeRegistration()} after the registered blocks have been sorted
      */
     private void initBlockStates() {
         for (Block block : this.registeredBlocks) {
@@ -125,6 +133,29 @@ public class Blocks {
         return Objects.requireNonNull(paletteVersionManager, "Blocks not yet initialized!").get(paletteVersion);
     }
 
+    /**
+     * @param paletteVersion the palette version
+     * @return a palette that maps indices the same way {@link #getGlobalPalette()} did in the specified palette version. (index 0 is air)
+     */
+    @NotNull
+    @ThreadSafe
+    public IBlockStatePalette getPalette(int paletteVersion) {
+        if (paletteVersion == this.paletteVersion)
+            return getGlobalPalette();
+        List<IBlockState> versionBlockStates = getPossibleBlockStates(paletteVersion);
+        List<IBlockState> blockStates = new ArrayList<>(versionBlockStates.size() + 1);
+        blockStates.add(null); // air
+        blockStates.addAll(versionBlockStates);
+        return new IndexedBlockStatePalette(blockStates);
+    }
+
+    /**
+     * @return the newest block state palette version that the global palette corresponds to
+     */
+    public int getPaletteVersion() {
+        return paletteVersion;
+    }
+
     @NotNull
     public GlobalBlockStatePalette getGlobalPalette() {
         return Objects.requireNonNull(globalPalette, "Blocks not yet initialized!");
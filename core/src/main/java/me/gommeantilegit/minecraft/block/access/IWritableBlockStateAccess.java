@@ -1,6 +1,7 @@
 package me.gommeantilegit.minecraft.block.access;
 
 import me.gommeantilegit.minecraft.block.state.IBlockState;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -10,4 +11,26 @@ public interface IWritableBlockStateAccess extends IReadableBlockStateAccess {
 
     void set(int x, int y, int z, @Nullable IBlockState blockState);
 
+    /**
+     * Sets the block states of a region. Implementations may write the region in bulk, the default implementation sets the block states individually.
+     *
+     * @param x           the x coordinate of the region origin
+     * @param y           the y coordinate of the region origin
+     * @param z           the z coordinate of the region origin
+     * @param width       the x size of the region
+     * @param height      the y size of the region
+     * @param depth       the z size of the region
+     * @param blockStates the block states in columns along the y axis. The state at region relative (xo, yo, zo) is stored at (xo * depth + zo) * height + yo. null entries are air.
+     */
+    default void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates) {
+        for (int xo = 0; xo < width; xo++) {
+            for (int zo = 0; zo < depth; zo++) {
+                int columnStart = (xo * depth + zo) * height;
+                for (int yo = 0; yo < height; yo++) {
+                    set(x + xo, y + yo, z + zo, blockStates[columnStart + yo]);
+                }
+            }
+        }
+    }
+
 }
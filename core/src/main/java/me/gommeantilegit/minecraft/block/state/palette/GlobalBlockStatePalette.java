@@ -3,6 +3,8 @@ package me.gommeantilegit.minecraft.block.state.palette;
 import me.gommeantilegit.minecraft.block.Blocks;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.utils.palette.IPalette;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -13,37 +15,51 @@ import java.util.List;
  */
 public class GlobalBlockStatePalette implements IBlockStatePalette {
 
+    /**
+     * The possible block states. Index i stores the block state with palette index i + 1 (0 is air)
+     */
     @NotNull
-    private final List<IBlockState> possibleBlockStates;
+    private final IBlockState[] possibleBlockStates;
 
+    /**
+     * Maps the block states to their palette index. Block states are compared by identity, as {@link IBlockState} does not override equals.
+     */
+    @NotNull
+    private final MutableObjectIntMap<IBlockState> blockStateIndices;
+
+    /**
+     * @param blocks the blocks instance. The possible block states must be initialized.
+     */
     public GlobalBlockStatePalette(@NotNull Blocks blocks) {
-        this.possibleBlockStates = blocks.getPossibleBlockStates();
+        List<IBlockState> blockStates = blocks.getPossibleBlockStates();
+        this.possibleBlockStates = blockStates.toArray(new IBlockState[0]);
+        this.blockStateIndices = new ObjectIntHashMap<>(this.possibleBlockStates.length);
+        for (int i = 0; i < this.possibleBlockStates.length; i++) {
+            this.blockStateIndices.getIfAbsentPut(this.possibleBlockStates[i], i + 1);
+        }
     }
 
     @Nullable
     @Override
     public IBlockState getInstance(int index) {
-        if (index == 0)
+        if (index <= 0)
             return null;
         index--;
-        int access = index;
-        if (access < this.possibleBlockStates.size())
-            return this.possibleBlockStates.get(access);
+        if (index < this.possibleBlockStates.length)
+            return this.possibleBlockStates[index];
         else
             return null;
     }
 
     @Override
     public int getNumKeys() {
-        return this.possibleBlockStates.size() + 1;
+        return this.possibleBlockStates.length + 1;
     }
 
     @Override
     public int getInstanceIndex(@Nullable IBlockState value) {
-        int index = this.possibleBlockStates.indexOf(value);
-        if (index == -1) {
+        if (value == null)
             return 0;
-        }
-        return index + 1;
+        return this.blockStateIndices.get(value); // 0 (air) if not present
     }
 }
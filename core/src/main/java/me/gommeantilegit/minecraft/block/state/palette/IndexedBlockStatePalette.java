@@ -3,6 +3,8 @@ package me.gommeantilegit.minecraft.block.state.palette;
 import me.gommeantilegit.minecraft.block.Blocks;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.utils.bitarray.BitArray;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,8 +23,18 @@ public class IndexedBlockStatePalette implements IBlockStatePalette {
     @NotNull
     private final List<IBlockState> blockStates;
 
+    /**
+     * Maps the block states to their index in {@link #blockStates}. Block states are compared by identity, as {@link IBlockState} does not override equals.
+     */
+    @NotNull
+    private final MutableObjectIntMap<IBlockState> blockStateIndices;
+
     public IndexedBlockStatePalette(@NotNull List<IBlockState> blockStates) {
         this.blockStates = blockStates;
+        this.blockStateIndices = new ObjectIntHashMap<>(blockStates.size());
+        for (int i = 0; i < blockStates.size(); i++) {
+            this.blockStateIndices.getIfAbsentPut(blockStates.get(i), i); // first occurrence wins
+        }
     }
 
     public IndexedBlockStatePalette(@NotNull Set<IBlockState> blockStates) {
@@ -55,7 +67,7 @@ public class IndexedBlockStatePalette implements IBlockStatePalette {
 
     @Override
     public int getInstanceIndex(@Nullable IBlockState value) {
-        return this.blockStates.indexOf(value);
+        return this.blockStateIndices.getIfAbsent(value, -1);
     }
 
     @NotNull
@@ -0,0 +1,88 @@
+package me.gommeantilegit.minecraft.block.state.palette;
+
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Represents a growable block state palette that only contains the block states that occur in a limited area (eg. a chunk section).
+ * Block states are appended in the order they are first added and never removed.
+ */
+public class LocalBlockStatePalette implements IBlockStatePalette {
+
+    /**
+     * The block states of the palette indexed by their instance index. Only the first {@link #numKeys} entries are valid.
+     */
+    @NotNull
+    private IBlockState[] blockStates;
+
+    /**
+     * Maps the block states to their index in {@link #blockStates}. Block states are compared by identity, as {@link IBlockState} does not override equals.
+     */
+    @NotNull
+    private final MutableObjectIntMap<IBlockState> blockStateIndices;
+
+    /**
+     * The number of block states in the palette
+     */
+    private int numKeys;
+
+    /**
+     * @param initialState the block state with index 0
+     * @param capacity     the number of block states the palette can store without growing
+     */
+    public LocalBlockStatePalette(@Nullable IBlockState initialState, int capacity) {
+        this.blockStates = new IBlockState[Math.max(1, capacity)];
+        this.blockStateIndices = new ObjectIntHashMap<>(capacity);
+        add(initialState);
+    }
+
+    private LocalBlockStatePalette(@NotNull LocalBlockStatePalette palette) {
+        this.blockStates = palette.blockStates.clone();
+        this.blockStateIndices = new ObjectIntHashMap<>(palette.blockStateIndices);
+        this.numKeys = palette.numKeys;
+    }
+
+    /**
+     * Adds the block state to the palette
+     *
+     * @param blockState the block state to add. Must not be contained in the palette yet
+     * @return the index of the added block state
+     */
+    public int add(@Nullable IBlockState blockState) {
+        if (this.numKeys == this.blockStates.length)
+            this.blockStates = Arrays.copyOf(this.blockStates, this.blockStates.length * 2);
+        int index = this.numKeys;
+        this.blockStates[index] = blockState;
+        this.blockStateIndices.put(blockState, index);
+        this.numKeys++;
+        return index;
+    }
+
+    @Nullable
+    @Override
+    public IBlockState getInstance(int index) {
+        if (index < 0 || index >= this.numKeys)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for palette size " + this.numKeys);
+        return this.blockStates[index];
+    }
+
+    @Override
+    public int getNumKeys() {
+        return this.numKeys;
+    }
+
+    @Override
+    public int getInstanceIndex(@Nullable IBlockState value) {
+        return this.blockStateIndices.getIfAbsent(value, -1);
+    }
+
+    @NotNull
+    public LocalBlockStatePalette copy() {
+        return new LocalBlockStatePalette(this);
+    }
+}
@@ -0,0 +1,431 @@
+package me.gommeantilegit.minecraft.block.state.storage;
+
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.LocalBlockStatePalette;
+import me.gommeantilegit.minecraft.utils.bitarray.BitArray;
+import me.gommeantilegit.minecraft.utils.memory.HeapMemory;
+import me.gommeantilegit.minecraft.utils.palette.PaletteArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A block state storage that adapts it's representation to the block states it contains.
+ * <ul>
+ * <li>As long as all blocks have the same state, only that state is stored.</li>
+ * <li>As soon as a second state is set, the states are stored as indices into a {@link LocalBlockStatePalette} with the minimal bit width.
+ * The bit width grows when the local palette outgrows it.</li>
+ * <li>When the local palette would need as many bits as the global palette, the indices of the global palette are stored directly.</li>
+ * </ul>
+ * The backing bit arrays live on the java heap, so that replaced arrays can still be read by optimistic readers of {@link ConcurrentBlockStateStorage}.
+ * {@link #snapshot()}s share the bit array and local palette with the storage, which copies them before it is modified the next time (copy on write).
+ * Not thread safe.
+ */
+public class AdaptiveBlockStateStorage implements IWritableBlockStateAccess {
+
+    /**
+     * The minimum number of bits a {@link BitArray} element can have
+     */
+    private static final int MIN_BITS = 4;
+
+    /**
+     * The size of the store
+     */
+    private final int width, height, depth;
+
+    /**
+     * The palette of all block states, that can be stored
+     */
+    @NotNull
+    private final IBlockStatePalette globalPalette;
+
+    /**
+     * The number of bits an index into {@link #globalPalette} needs
+     */
+    private final int globalBits;
+
+    /**
+     * The state of all blocks, if {@link #array} is null
+     */
+    @Nullable
+    private IBlockState singleValue;
+
+    /**
+     * The local palette {@link #array} indexes into or null, if the array stores indices of the {@link #globalPalette}
+     */
+    @Nullable
+    private LocalBlockStatePalette localPalette;
+
+    /**
+     * The palette indices of the blocks or null, if all blocks have the state {@link #singleValue}
+     */
+    @Nullable
+    private BitArray array;
+
+    /**
+     * True, if {@link #array} and {@link #localPalette} are shared with a snapshot and must be copied before they are modified
+     */
+    private boolean shared;
+
+    /**
+     * Creates a storage filled with air
+     *
+     * @param width         the x size of the storage
+     * @param height        the y size of the storage
+     * @param depth         the z size of the storage
+     * @param globalPalette sets {@link #globalPalette}
+     */
+    public AdaptiveBlockStateStorage(int width, int height, int depth, @NotNull IBlockStatePalette globalPalette) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.globalPalette = globalPalette;
+        this.globalBits = Math.max(MIN_BITS, globalPalette.getNeededKeyBits());
+    }
+
+    private AdaptiveBlockStateStorage(@NotNull AdaptiveBlockStateStorage storage) {
+        this(storage.width, storage.height, storage.depth, storage.globalPalette);
+        this.singleValue = storage.singleValue;
+        this.localPalette = storage.localPalette != null ? storage.localPalette.copy() : null;
+        this.array = storage.array != null ? storage.array.copy() : null;
+    }
+
+    @Nullable
+    @Override
+    public IBlockState getBlockState(int x, int y, int z) {
+        BitArray array = this.array;
+        if (array == null)
+            return this.singleValue;
+        int index = array.get(index(x, y, z));
+        LocalBlockStatePalette localPalette = this.localPalette;
+        return localPalette != null ? localPalette.getInstance(index) : this.globalPalette.getInstance(index);
+    }
+
+    @Override
+    public void set(int x, int y, int z, @Nullable IBlockState blockState) {
+        if (this.array == null) {
+            if (blockState == this.singleValue)
+                return;
+            initPalette();
+        }
+        if (this.shared)
+            unshare();
+        int index = getOrAddIndex(blockState);
+        Objects.requireNonNull(this.array).set(index(x, y, z), index);
+    }
+
+    @Override
+    public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates) {
+        setBlockStates(x, y, z, width, height, depth, blockStates, 0, height);
+    }
+
+    /**
+     * Sets the block states of a region in one pass. Consecutive equal block states only need one palette lookup.
+     *
+     * @param x            the x coordinate of the region origin
+     * @param y            the y coordinate of the region origin
+     * @param z            the z coordinate of the region origin
+     * @param width        the x size of the region
+     * @param height       the y size of the region
+     * @param depth        the z size of the region
+     * @param blockStates  the block states. The state at region relative (xo, yo, zo) is stored at offset + (xo * depth + zo) * columnStride + yo. null entries are air.
+     * @param offset       the index of the first block state in the array
+     * @param columnStride the distance between two columns in the array. (at least height)
+     */
+    public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates, int offset, int columnStride) {
+        if (this.shared)
+            unshare();
+        BitArray cachedArray = null;
+        IBlockState cachedState = null;
+        int cachedIndex = 0;
+        for (int xo = 0; xo < width; xo++) {
+            for (int zo = 0; zo < depth; zo++) {
+                int columnStart = offset + (xo * depth + zo) * columnStride;
+                for (int yo = 0; yo < height; yo++) {
+                    IBlockState blockState = blockStates[columnStart + yo];
+                    if (this.array == null) {
+                        if (blockState == this.singleValue)
+                            continue;
+                        initPalette();
+                    }
+                    if (cachedArray != this.array || blockState != cachedState) {
+                        cachedIndex = getOrAddIndex(blockState);
+                        cachedArray = this.array; // the array might have been replaced by growing
+                        cachedState = blockState;
+                    }
+                    Objects.requireNonNull(cachedArray).set(index(x + xo, y + yo, z + zo), cachedIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the index of the block state in the current palette. If the block state is not contained in the local palette, it is added, which might grow the array or switch to the global palette.
+     * Must only be called if {@link #array} is not null.
+     *
+     * @param blockState the block state
+     * @return the index to store in {@link #array} for the block state
+     */
+    private int getOrAddIndex(@Nullable IBlockState blockState) {
+        LocalBlockStatePalette localPalette = this.localPalette;
+        if (localPalette == null)
+            return this.globalPalette.getInstanceIndex(blockState);
+        int index = localPalette.getInstanceIndex(blockState);
+        if (index != -1)
+            return index;
+        if (localPalette.getNumKeys() == 1 << Objects.requireNonNull(this.array).getBits()) {
+            grow();
+            return getOrAddIndex(blockState);
+        }
+        return localPalette.add(blockState);
+    }
+
+    /**
+     * Switches from the single value representation to a local palette containing {@link #singleValue} at index 0, or to the global palette if that is not larger.
+     */
+    private void initPalette() {
+        BitArray array = newArray(MIN_BITS);
+        if (MIN_BITS >= this.globalBits) {
+            int globalIndex = this.globalPalette.getInstanceIndex(this.singleValue);
+            if (globalIndex != 0)
+                array.fill(0, array.getNumElements(), globalIndex);
+            this.localPalette = null;
+        } else {
+            this.localPalette = new LocalBlockStatePalette(this.singleValue, 1 << MIN_BITS);
+        }
+        this.array = array;
+        this.shared = false;
+    }
+
+    /**
+     * Copies the bit array and the local palette shared with snapshots, so that they can be modified
+     */
+    private void unshare() {
+        if (this.array != null)
+            this.array = this.array.copy();
+        if (this.localPalette != null)
+            this.localPalette = this.localPalette.copy();
+        this.shared = false;
+    }
+
+    /**
+     * Creates a snapshot of the storage without copying the block states. The snapshot shares the backing bit array and local palette with this storage,
+     * until this storage is modified the next time, which copies them first. Snapshots thus cost at most one copy, and none if the storage is not modified
+     * while the snapshot is in use.
+     *
+     * @return a read only view of the current block states, which is not affected by subsequent modifications of this storage
+     */
+    @NotNull
+    public IReadableBlockStateAccess snapshot() {
+        AdaptiveBlockStateStorage snapshot = new AdaptiveBlockStateStorage(this.width, this.height, this.depth, this.globalPalette);
+        snapshot.singleValue = this.singleValue;
+        snapshot.localPalette = this.localPalette;
+        snapshot.array = this.array;
+        this.shared = this.array != null;
+        return snapshot::getBlockState;
+    }
+
+    /**
+     * Widens the local palette indices by one bit or switches to the global palette, if it would need as many bits.
+     * The previous array is not modified, as it may still be read by optimistic readers.
+     */
+    private void grow() {
+        BitArray oldArray = this.array;
+        LocalBlockStatePalette oldPalette = this.localPalette;
+        assert oldArray != null && oldPalette != null;
+        int bits = oldArray.getBits() + 1;
+        if (bits >= this.globalBits) {
+            BitArray array = newArray(this.globalBits);
+            int[] globalIndices = new int[oldPalette.getNumKeys()];
+            for (int i = 0; i < globalIndices.length; i++) {
+                globalIndices[i] = this.globalPalette.getInstanceIndex(oldPalette.getInstance(i));
+            }
+            array.copyRange(oldArray, 0, 0, oldArray.getNumElements(), globalIndices);
+            this.array = array;
+            this.localPalette = null;
+        } else {
+            this.array = oldArray.repack(bits);
+        }
+    }
+
+    @NotNull
+    private BitArray newArray(int bits) {
+        int numElements = this.width * this.height * this.depth;
+        int byteSize = (numElements * bits + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+        return new BitArray(new HeapMemory(byteSize), numElements, bits);
+    }
+
+    /**
+     * Copies the block states of the given region into a new storage, that uses a palette of only the block states occurring in the region.
+     * The copy is performed row by row with bulk operations of the backing bit arrays.
+     *
+     * @param x      the x coordinate of the region origin
+     * @param y      the y coordinate of the region origin
+     * @param z      the z coordinate of the region origin
+     * @param width  the x size of the region
+     * @param height the y size of the region
+     * @param depth  the z size of the region
+     * @return the copy of the region (must be deleted by the caller) or null, if the region only consists of air
+     */
+    @Nullable
+    public BlockStateStorage copyRegion(int x, int y, int z, int width, int height, int depth) {
+        BitArray array = this.array;
+        LocalBlockStatePalette localPalette = this.localPalette;
+        int numElements = width * height * depth;
+        if (array == null) {
+            if (this.singleValue == null)
+                return null;
+            List<IBlockState> blockStates = Collections.singletonList(this.singleValue);
+            return new BlockStateStorage(width, height, depth, new IndexedBlockStatePalette(blockStates));
+        }
+        IBlockStatePalette palette = localPalette != null ? localPalette : this.globalPalette;
+
+        if (palette.getInstanceIndex(null) == 0 && isRegionZero(array, x, y, z, width, height, depth))
+            return null;
+
+        // Collecting the occurring palette indices
+        int[] counts = new int[1 << array.getBits()];
+        for (int zo = 0; zo < depth; zo++) {
+            for (int yo = 0; yo < height; yo++) {
+                int rowStart = index(x, y + yo, z + zo);
+                array.histogram(rowStart, rowStart + width, counts);
+            }
+        }
+        List<IBlockState> blockStates = new ArrayList<>();
+        int[] mapping = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                mapping[i] = blockStates.size();
+                blockStates.add(palette.getInstance(i));
+            }
+        }
+        if (blockStates.size() == 1 && blockStates.get(0) == null)
+            return null;
+
+        IndexedBlockStatePalette regionPalette = new IndexedBlockStatePalette(blockStates);
+        BitArray regionArray = new BitArray(numElements, Math.max(MIN_BITS, regionPalette.getNeededKeyBits()));
+        for (int zo = 0; zo < depth; zo++) {
+            for (int yo = 0; yo < height; yo++) {
+                int rowStart = index(x, y + yo, z + zo);
+                regionArray.copyRange(array, rowStart, width * (yo + height * zo), width, mapping);
+            }
+        }
+        return new BlockStateStorage(width, height, depth, new PaletteArray<>(regionArray, regionPalette));
+    }
+
+    private boolean isRegionZero(@NotNull BitArray array, int x, int y, int z, int width, int height, int depth) {
+        for (int zo = 0; zo < depth; zo++) {
+            for (int yo = 0; yo < height; yo++) {
+                int rowStart = index(x, y + yo, z + zo);
+                if (!array.isAllZero(rowStart, rowStart + width))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int x, int y, int z) {
+        return x + width * (y + height * z);
+    }
+
+    /**
+     * Sets all block states to air and returns to the single value representation
+     */
+    public void clear() {
+        this.array = null;
+        this.localPalette = null;
+        this.singleValue = null;
+        this.shared = false;
+    }
+
+    /**
+     * @param data the block states encoded as indices of the global palette in the format of {@link #getPaletteData()}
+     */
+    public void apply(@NotNull byte[] data) {
+        PaletteArray<IBlockState> paletteArray = new PaletteArray<>(this.width * this.height * this.depth, this.globalPalette);
+        try {
+            int byteSize = paletteArray.getByteSize();
+            if (byteSize != data.length)
+                throw new IllegalArgumentException("Cannot apply block storage data of invalid length. Required: " + byteSize + ", Received: " + data.length);
+            paletteArray.setData(data);
+            clear();
+            for (int z = 0; z < this.depth; z++) {
+                for (int y = 0; y < this.height; y++) {
+                    for (int x = 0; x < this.width; x++) {
+                        set(x, y, z, paletteArray.get(index(x, y, z)));
+                    }
+                }
+            }
+        } finally {
+            paletteArray.delete();
+        }
+    }
+
+    /**
+     * @return the block states encoded as indices of the global palette. The format does not depend on the current representation of the storage.
+     */
+    @NotNull
+    public byte[] getPaletteData() {
+        PaletteArray<IBlockState> paletteArray = new PaletteArray<>(this.width * this.height * this.depth, this.globalPalette);
+        try {
+            for (int z = 0; z < this.depth; z++) {
+                for (int y = 0; y < this.height; y++) {
+                    for (int x = 0; x < this.width; x++) {
+                        paletteArray.set(index(x, y, z), getBlockState(x, y, z));
+                    }
+                }
+            }
+            return paletteArray.getPaletteData();
+        } finally {
+            paletteArray.delete();
+        }
+    }
+
+    /**
+     * @param blockState the block state
+     * @return true if all blocks are known to have the given state without inspecting them individually
+     */
+    public boolean isFilledWith(@Nullable IBlockState blockState) {
+        return this.array == null && this.singleValue == blockState;
+    }
+
+    /**
+     * @return the number of bits used per block. 0 if all blocks have the same state.
+     */
+    public int getBits() {
+        BitArray array = this.array;
+        return array == null ? 0 : array.getBits();
+    }
+
+    /**
+     * @return true if the stored indices refer to the global palette
+     */
+    public boolean usesGlobalPalette() {
+        return this.array != null && this.localPalette == null;
+    }
+
+    /**
+     * @return the number of bytes occupied by the block state indices
+     */
+    public int getByteSize() {
+        BitArray array = this.array;
+        return array == null ? 0 : array.getByteSize();
+    }
+
+    public void delete() {
+        clear();
+    }
+
+    @NotNull
+    public AdaptiveBlockStateStorage copy() {
+        return new AdaptiveBlockStateStorage(this);
+    }
+}
@@ -3,6 +3,7 @@ package me.gommeantilegit.minecraft.block.state.storage;
 import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.utils.palette.IPalette;
 import me.gommeantilegit.minecraft.utils.palette.PaletteArray;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -45,9 +46,8 @@ public class BlockStateStorage implements IWritableBlockStateAccess {
         this.array.set(index(relX, relY, relZ), blockState);
     }
 
-    // todo: investigate if this is safe
     private int index(int x, int y, int z) {
-        return x + width * (y + depth * z);
+        return x + width * (y + height * z);
     }
 
     public void clear() {
@@ -66,6 +66,14 @@ public class BlockStateStorage implements IWritableBlockStateAccess {
         return this.array.getPaletteData();
     }
 
+    /**
+     * @return the palette the stored indices refer to
+     */
+    @NotNull
+    public IPalette<IBlockState> getPalette() {
+        return this.array.getPalette();
+    }
+
     public void delete() {
         this.array.delete();
     }
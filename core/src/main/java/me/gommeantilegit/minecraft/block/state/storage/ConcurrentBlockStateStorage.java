@@ -0,0 +1,304 @@
+package me.gommeantilegit.minecraft.block.state.storage;
+
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link AdaptiveBlockStateStorage} wrapper that allows lock-free reads concurrent to writes.
+ * Writes are exclusive. Reads are performed optimistically (seqlock) and are validated afterwards. Only if a write happened during the read,
+ * the read is repeated while holding the read lock. Readers thus never block the writer as long as no write happens concurrently.
+ * <p>
+ * {@link #snapshot()}s are copy on write and are reused until the next write, so an unmodified storage is shared by all snapshot takers without copying.
+ */
+public class ConcurrentBlockStateStorage implements IWritableBlockStateAccess {
+
+    /**
+     * The number of optimistic read attempts before falling back to the read lock
+     */
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 2;
+
+    /**
+     * The backing storage. Only replaced while holding the write lock.
+     */
+    @NotNull
+    private AdaptiveBlockStateStorage storage;
+
+    /**
+     * Lock guarding {@link #storage}
+     */
+    @NotNull
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The snapshot of the current version of the storage or null, if no snapshot has been taken since the last write
+     */
+    @Nullable
+    private volatile IReadableBlockStateAccess snapshot;
+
+    /**
+     * @param globalPalette the palette of all block states, that can be stored
+     * @see AdaptiveBlockStateStorage#AdaptiveBlockStateStorage(int, int, int, IBlockStatePalette)
+     */
+    public ConcurrentBlockStateStorage(int width, int height, int depth, @NotNull IBlockStatePalette globalPalette) {
+        this.storage = new AdaptiveBlockStateStorage(width, height, depth, globalPalette);
+    }
+
+    @Nullable
+    @Override
+    @ThreadSafe
+    public IBlockState getBlockState(int x, int y, int z) {
+        for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+            long stamp = this.lock.tryOptimisticRead();
+            if (stamp == 0)
+                continue; // write lock held
+            IBlockState blockState;
+            try {
+                blockState = this.storage.getBlockState(x, y, z);
+            } catch (RuntimeException e) {
+                // A torn read of a concurrently modified element can produce an index invalid for the palette. Retrying.
+                continue;
+            }
+            if (this.lock.validate(stamp))
+                return blockState;
+        }
+        long stamp = this.lock.readLock();
+        try {
+            return this.storage.getBlockState(x, y, z);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    @ThreadSafe
+    public void set(int x, int y, int z, @Nullable IBlockState blockState) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            this.storage.set(x, y, z, blockState);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    @ThreadSafe
+    public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates) {
+        setBlockStates(x, y, z, width, height, depth, blockStates, 0, height);
+    }
+
+    /**
+     * Sets the block states of the region while holding the write lock once
+     *
+     * @see AdaptiveBlockStateStorage#setBlockStates(int, int, int, int, int, int, IBlockState[], int, int)
+     */
+    @ThreadSafe
+    public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates, int offset, int columnStride) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            this.storage.setBlockStates(x, y, z, width, height, depth, blockStates, offset, columnStride);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Invokes the writer with the backing storage while holding the write lock once. Used to apply several writes with one lock acquisition.
+     *
+     * @param writer the writer. Must not retain the storage.
+     */
+    @ThreadSafe
+    public void write(@NotNull Consumer<IWritableBlockStateAccess> writer) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            writer.accept(this.storage);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the backing storage while holding the write lock. Used to publish block states that have been decoded into a fresh storage
+     * without blocking readers and writers for the duration of the decode.
+     *
+     * @param storage the new backing storage. Must have the dimensions and global palette of this storage and must not be accessed by the caller afterwards.
+     * @return the previous backing storage, which is no longer referenced and must be deleted by the caller
+     */
+    @NotNull
+    @ThreadSafe
+    public AdaptiveBlockStateStorage swap(@NotNull AdaptiveBlockStateStorage storage) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            AdaptiveBlockStateStorage previous = this.storage;
+            this.storage = storage;
+            return previous;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets all block states to air
+     */
+    @ThreadSafe
+    public void clear() {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            this.storage.clear();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param data the palette data to apply
+     * @see AdaptiveBlockStateStorage#apply(byte[])
+     */
+    @ThreadSafe
+    public void apply(@NotNull byte[] data) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.snapshot = null; // new version
+            this.storage.apply(data);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return a copy of the palette data
+     * @see AdaptiveBlockStateStorage#getPaletteData()
+     */
+    @NotNull
+    @ThreadSafe
+    public byte[] getPaletteData() {
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                byte[] data = this.storage.getPaletteData();
+                if (this.lock.validate(stamp))
+                    return data;
+            } catch (RuntimeException ignored) {
+                // torn read. Falling back to the read lock
+            }
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.storage.getPaletteData();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Takes a copy on write snapshot of the storage. Snapshots of the same version of the storage are the same instance.
+     *
+     * @return a read only view of the current block states, which is not affected by subsequent writes. Shared, must not be retained longer than needed.
+     * @see AdaptiveBlockStateStorage#snapshot()
+     */
+    @NotNull
+    @ThreadSafe
+    public IReadableBlockStateAccess snapshot() {
+        IReadableBlockStateAccess snapshot = this.snapshot;
+        if (snapshot != null)
+            return snapshot;
+        long stamp = this.lock.writeLock(); // marks the storage as shared
+        try {
+            snapshot = this.snapshot;
+            if (snapshot == null) {
+                snapshot = this.storage.snapshot();
+                this.snapshot = snapshot;
+            }
+            return snapshot;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return a consistent copy of the storage. Must be deleted by the caller.
+     */
+    @NotNull
+    @ThreadSafe
+    public AdaptiveBlockStateStorage copy() {
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                AdaptiveBlockStateStorage copy = this.storage.copy();
+                if (this.lock.validate(stamp))
+                    return copy;
+                copy.delete();
+            } catch (RuntimeException ignored) {
+                // torn read. Falling back to the read lock
+            }
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.storage.copy();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param blockState the block state
+     * @return true if all blocks are known to have the given state without inspecting them individually
+     * @see AdaptiveBlockStateStorage#isFilledWith(IBlockState)
+     */
+    @ThreadSafe
+    public boolean isFilledWith(@Nullable IBlockState blockState) {
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean filled = this.storage.isFilledWith(blockState);
+            if (this.lock.validate(stamp))
+                return filled;
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.storage.isFilledWith(blockState);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the number of bytes occupied by the block state indices
+     */
+    @ThreadSafe
+    public int getByteSize() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.storage.getByteSize();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the block states of the region while holding the read lock
+     *
+     * @see AdaptiveBlockStateStorage#copyRegion(int, int, int, int, int, int)
+     */
+    @Nullable
+    @ThreadSafe
+    public BlockStateStorage copyRegion(int x, int y, int z, int width, int height, int depth) {
+        long stamp = this.lock.readLock();
+        try {
+            return this.storage.copyRegion(x, y, z, width, height, depth);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+}
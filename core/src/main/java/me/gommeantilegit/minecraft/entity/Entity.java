@@ -5,6 +5,7 @@ import me.gommeantilegit.minecraft.Side;
 import me.gommeantilegit.minecraft.annotations.SideOnly;
 import me.gommeantilegit.minecraft.entity.player.base.PlayerBase;
 import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
+import me.gommeantilegit.minecraft.phys.CollisionBoxBuffer;
 import me.gommeantilegit.minecraft.util.block.position.BlockPos;
 import me.gommeantilegit.minecraft.world.WorldBase;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
@@ -42,8 +43,6 @@ public class Entity {
      */
     public WorldBase world;
 
-    private long tickJoinMark = -1;
-
     /**
      * The chunk that the entity is currently in.
      */
@@ -185,6 +184,15 @@ public class Entity {
         float w = this.bbWidth / 2.0f;
         float h = this.bbHeight / 2.0f;
         this.getBoundingBox().set(x - w, y - h, z - w, x + w, y + h, z + w);
+        this.updateEntityIndex();
+    }
+
+    /**
+     * Moves the entity into the cell of its bounding box in the entity index of the world. Called, when the bounding box of the entity has moved
+     */
+    protected void updateEntityIndex() {
+        if (this.world != null)
+            this.world.getEntityIndex().update(this);
     }
 
     /**
@@ -259,9 +267,8 @@ public class Entity {
     }
 
     public boolean isFree(float xa, float ya, float za) {
-        AxisAlignedBB box = this.getBoundingBox().cloneMove(xa, ya, za);
-        List<AxisAlignedBB> aABBS = this.world.getBoundingBoxes(box);
-        return aABBS.size() <= 0;
+        AxisAlignedBB box = this.getBoundingBox();
+        return !this.world.hasCollisionBoxes(this.currentChunk, box.x0 + xa, box.y0 + ya, box.z0 + za, box.x1 + xa, box.y1 + ya, box.z1 + za);
     }
 
     /**
@@ -286,11 +293,12 @@ public class Entity {
         // SNEAKING (SAFEWALK)
 
         boolean safeWalk = shouldWalkSafely();
+        AxisAlignedBB box = this.getBoundingBox();
 
         if (safeWalk) {
             float tmp;
             float eps = 0.0001f;
-            for (tmp = 0.05f; abs(motionX) > eps && this.world.getBoundingBoxes(this.getBoundingBox().cloneMove(motionX, -1.0f, 0.0f)).isEmpty(); newX = motionX) {
+            for (tmp = 0.05f; abs(motionX) > eps && isFree(motionX, -1.0f, 0.0f); newX = motionX) {
                 if (motionX < tmp && motionX >= -tmp) {
                     motionX = 0.0f;
                 } else if (motionX > 0.0f) {
@@ -300,7 +308,7 @@ public class Entity {
                 }
             }
 
-            for (; abs(motionZ) > eps && this.world.getBoundingBoxes(this.getBoundingBox().cloneMove(0.0f, -1.0f, motionZ)).isEmpty(); newZ = motionZ) {
+            for (; abs(motionZ) > eps && isFree(0.0f, -1.0f, motionZ); newZ = motionZ) {
                 if (motionZ < tmp && motionZ >= -tmp) {
                     motionZ = 0.0f;
                 } else if (motionZ > 0.0f) {
@@ -310,7 +318,7 @@ public class Entity {
                 }
             }
 
-            for (; abs(motionX) > eps && abs(motionZ) > eps && this.world.getBoundingBoxes(this.getBoundingBox().cloneMove(motionX, -1.0f, motionZ)).isEmpty(); newZ = motionZ) {
+            for (; abs(motionX) > eps && abs(motionZ) > eps && isFree(motionX, -1.0f, motionZ); newZ = motionZ) {
                 if (motionX < tmp && motionX >= -tmp) {
                     motionX = 0.0f;
                 } else if (motionX > 0.0f) {
@@ -334,29 +342,23 @@ public class Entity {
 
         //PHYSICS
         {
-            List<AxisAlignedBB> aABBS = this.world.getBoundingBoxes(this.getBoundingBox().expand(motionX, motionY, motionZ));
-            int i = 0;
-
-            while (i < aABBS.size()) {
-                motionY = aABBS.get(i).clipYCollide(this.getBoundingBox(), motionY);
-                ++i;
-            }
-            this.getBoundingBox().move(0.0f, motionY, 0.0f);
-
-            i = 0;
-            while (i < aABBS.size()) {
-                motionX = aABBS.get(i).clipXCollide(this.getBoundingBox(), motionX);
-                ++i;
-            }
-            this.getBoundingBox().move(motionX, 0.0f, 0.0f);
-
-            i = 0;
-            while (i < aABBS.size()) {
-                motionZ = aABBS.get(i).clipZCollide(this.getBoundingBox(), motionZ);
-                ++i;
-            }
-
-            this.getBoundingBox().move(0.0f, 0.0f, motionZ);
+            // the boxes of the blocks in the region swept by the bounding box
+            CollisionBoxBuffer blockBoxes = CollisionBoxBuffer.forCurrentThread();
+            this.world.collectCollisionBoxes(
+                    this.currentChunk,
+                    box.x0 + min(motionX, 0.0f), box.y0 + min(motionY, 0.0f), box.z0 + min(motionZ, 0.0f),
+                    box.x1 + max(motionX, 0.0f), box.y1 + max(motionY, 0.0f), box.z1 + max(motionZ, 0.0f),
+                    blockBoxes
+            );
+
+            motionY = blockBoxes.clipYCollide(box, motionY);
+            box.move(0.0f, motionY, 0.0f);
+
+            motionX = blockBoxes.clipXCollide(box, motionX);
+            box.move(motionX, 0.0f, 0.0f);
+
+            motionZ = blockBoxes.clipZCollide(box, motionZ);
+            box.move(0.0f, 0.0f, motionZ);
         }
 
         this.setCollidedHorizontally(newX != motionX || newZ != motionZ);
@@ -373,6 +375,7 @@ public class Entity {
         this.posX = (this.getBoundingBox().x0 + this.getBoundingBox().x1) / 2.0f;
         this.posY = this.getBoundingBox().y0 + this.heightOffset;
         this.posZ = (this.getBoundingBox().z0 + this.getBoundingBox().z1) / 2.0f;
+        this.updateEntityIndex();
 //        if (onGround) {
         double xDif = abs(this.posX) - abs(prevX);
         double yDif = abs(this.posY) - abs(prevY);
@@ -384,10 +387,10 @@ public class Entity {
             this.setDistanceWalkedModified((float) ((double) this.getDistanceWalkedModified() + Math.sqrt(xDif * xDif + zDif * zDif) * 0.6D));
             this.setDistanceWalkedOnStepModified((float) ((double) this.getDistanceWalkedOnStepModified() + Math.sqrt(xDif * xDif + yDif * yDif + zDif * zDif) * 0.6D));
 
-            {
+            if (this.getDistanceWalkedOnStepModified() > (float) this.nextStepDistance) {
                 BlockPos standingOn = getPosStandingOn();
                 ChunkBase forPos = world.getNearChunkFor(this.currentChunk, standingOn.getX(), standingOn.getZ());
-                if (this.getDistanceWalkedOnStepModified() > (float) this.nextStepDistance && forPos != null && forPos.getBlockState(standingOn) != null) {
+                if (forPos != null && forPos.getBlockState(standingOn) != null) {
                     this.nextStepDistance = (int) this.getDistanceWalkedOnStepModified() + 1;
 
                     //TODO: WHEN FLUIDS ARE IMPLEMENTED
@@ -566,17 +569,6 @@ public class Entity {
         return newChunk;
     }
 
-    /**
-     * The chunk tick time stamp when to start ticking the entity again. -1 if not set
-     */
-    public long getTickJoinMark() {
-        return tickJoinMark;
-    }
-
-    public void joinTickAt(long tickJoinMark) {
-        this.tickJoinMark = tickJoinMark;
-    }
-
     public void setBoundingBox(AxisAlignedBB boundingBox) {
         this.boundingBox = boundingBox;
     }
@@ -0,0 +1,160 @@
+package me.gommeantilegit.minecraft.phys;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of axis aligned bounding boxes stored as primitive floats, six per box (x0, y0, z0, x1, y1, z1).
+ * Collision queries write the boxes of the blocks into a buffer instead of allocating an {@link AxisAlignedBB} per block,
+ * and the motion of entities is clipped against the buffer directly.
+ * Not thread safe. Every thread uses its own instance obtained by {@link #forCurrentThread()}.
+ */
+public class CollisionBoxBuffer {
+
+    /**
+     * Floats per box
+     */
+    private static final int BOX_SIZE = 6;
+
+    /**
+     * The buffer instances of the threads
+     */
+    @NotNull
+    private static final ThreadLocal<CollisionBoxBuffer> BUFFERS = ThreadLocal.withInitial(CollisionBoxBuffer::new);
+
+    /**
+     * The boxes of the buffer
+     */
+    @NotNull
+    private float[] boxes = new float[64 * BOX_SIZE];
+
+    /**
+     * The number of boxes in the buffer
+     */
+    private int size;
+
+    /**
+     * @return the buffer of the calling thread. The contents of the buffer are only valid until the next query of the thread writing into it.
+     */
+    @NotNull
+    public static CollisionBoxBuffer forCurrentThread() {
+        return BUFFERS.get();
+    }
+
+    /**
+     * Removes all boxes
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Appends a box
+     */
+    public void add(float x0, float y0, float z0, float x1, float y1, float z1) {
+        int offset = this.size * BOX_SIZE;
+        if (offset + BOX_SIZE > this.boxes.length)
+            this.boxes = Arrays.copyOf(this.boxes, this.boxes.length * 2);
+        float[] boxes = this.boxes;
+        boxes[offset] = x0;
+        boxes[offset + 1] = y0;
+        boxes[offset + 2] = z0;
+        boxes[offset + 3] = x1;
+        boxes[offset + 4] = y1;
+        boxes[offset + 5] = z1;
+        this.size++;
+    }
+
+    /**
+     * @return the number of boxes in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param index the index of the box
+     * @return a new bounding box instance equal to the box at the given index
+     */
+    @NotNull
+    public AxisAlignedBB getBox(int index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        int offset = index * BOX_SIZE;
+        return new AxisAlignedBB(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3], boxes[offset + 4], boxes[offset + 5]);
+    }
+
+    /**
+     * Clips the motion of the given box along the x axis against all boxes of the buffer like {@link AxisAlignedBB#clipXCollide(AxisAlignedBB, float)}
+     *
+     * @param c  the moving box
+     * @param xa the motion along the x axis
+     * @return the clipped motion
+     */
+    public float clipXCollide(@NotNull AxisAlignedBB c, float xa) {
+        float[] boxes = this.boxes;
+        for (int offset = 0, end = this.size * BOX_SIZE; offset < end; offset += BOX_SIZE) {
+            if (c.y1 <= boxes[offset + 1] || c.y0 >= boxes[offset + 4] || c.z1 <= boxes[offset + 2] || c.z0 >= boxes[offset + 5])
+                continue;
+            float max;
+            if (xa > 0.0f && c.x1 <= boxes[offset] && (max = boxes[offset] - c.x1) < xa) {
+                xa = max;
+            }
+            if (xa < 0.0f && c.x0 >= boxes[offset + 3] && (max = boxes[offset + 3] - c.x0) > xa) {
+                xa = max;
+            }
+        }
+        return xa;
+    }
+
+    /**
+     * Clips the motion of the given box along the y axis against all boxes of the buffer like {@link AxisAlignedBB#clipYCollide(AxisAlignedBB, float)}
+     *
+     * @param c  the moving box
+     * @param ya the motion along the y axis
+     * @return the clipped motion
+     */
+    public float clipYCollide(@NotNull AxisAlignedBB c, float ya) {
+        float[] boxes = this.boxes;
+        for (int offset = 0, end = this.size * BOX_SIZE; offset < end; offset += BOX_SIZE) {
+            if (c.x1 <= boxes[offset] || c.x0 >= boxes[offset + 3] || c.z1 <= boxes[offset + 2] || c.z0 >= boxes[offset + 5])
+                continue;
+            float max;
+            if (ya > 0.0f && c.y1 <= boxes[offset + 1] && (max = boxes[offset + 1] - c.y1) < ya) {
+                ya = max;
+            }
+            if (ya < 0.0f && c.y0 >= boxes[offset + 4] && (max = boxes[offset + 4] - c.y0) > ya) {
+                ya = max;
+            }
+        }
+        return ya;
+    }
+
+    /**
+     * Clips the motion of the given box along the z axis against all boxes of the buffer like {@link AxisAlignedBB#clipZCollide(AxisAlignedBB, float)}
+     *
+     * @param c  the moving box
+     * @param za the motion along the z axis
+     * @return the clipped motion
+     */
+    public float clipZCollide(@NotNull AxisAlignedBB c, float za) {
+        float[] boxes = this.boxes;
+        for (int offset = 0, end = this.size * BOX_SIZE; offset < end; offset += BOX_SIZE) {
+            if (c.x1 <= boxes[offset] || c.x0 >= boxes[offset + 3] || c.y1 <= boxes[offset + 1] || c.y0 >= boxes[offset + 4])
+                continue;
+            float max;
+            if (za > 0.0f && c.z1 <= boxes[offset + 2] && (max = boxes[offset + 2] - c.z1) < za) {
+                za = max;
+            }
+            if (za < 0.0f && c.z0 >= boxes[offset + 5] && (max = boxes[offset + 5] - c.z0) > za) {
+                za = max;
+            }
+        }
+        return za;
+    }
+}
@@ -0,0 +1,181 @@
+package me.gommeantilegit.minecraft.raytrace;
+
+import com.badlogic.gdx.math.Vector3;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.util.block.facing.EnumFacing;
+import me.gommeantilegit.minecraft.util.block.position.BlockPos;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static java.lang.Math.floor;
+import static java.lang.Math.floorDiv;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+
+/**
+ * Casts rays against the blocks of a world by walking the voxel grid cell by cell along the ray (Amanatides & Woo, "A Fast Voxel Traversal Algorithm for Ray Tracing").
+ * The cells are visited in the order the ray passes them, so the traversal stops at the first block the ray hits.
+ * A step only touches primitives and the chunk containing the current cell, which is looked up again when the ray crosses a chunk border.
+ * Only the result of a trace is allocated.
+ */
+public class BlockRayTraversal {
+
+    /**
+     * Performs a ray cast against the collidable blocks of the world
+     *
+     * @param world     the world to trace the blocks of
+     * @param rayStart  the start of the ray
+     * @param direction the direction of the ray. Does not need to be normalized
+     * @param range     the maximum distance from the ray start to the hit
+     * @return the result of type {@link IRayTracer.RayTraceResult.EnumResultType#BLOCK} for the first block hit within range or a {@link IRayTracer.RayTraceResult.EnumResultType#MISS}
+     */
+    @NotNull
+    @ThreadSafe
+    public static RayTracer.RayTraceResult rayTraceBlocks(@NotNull WorldBase world, @NotNull Vector3 rayStart, @NotNull Vector3 direction, float range) {
+        float length = direction.len();
+        if (length == 0 || range < 0)
+            return miss();
+        float startX = rayStart.x, startY = rayStart.y, startZ = rayStart.z;
+        float dirX = direction.x / length, dirY = direction.y / length, dirZ = direction.z / length;
+
+        int x = (int) floor(startX), y = (int) floor(startY), z = (int) floor(startZ);
+        int stepX = Float.compare(dirX, 0), stepY = Float.compare(dirY, 0), stepZ = Float.compare(dirZ, 0);
+
+        // distances along the ray to cross one cell along each axis and to the next cell border on each axis
+        float deltaX = stepX == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirX);
+        float deltaY = stepY == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirY);
+        float deltaZ = stepZ == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dirZ);
+        float maxX = stepX == 0 ? Float.POSITIVE_INFINITY : ((stepX > 0 ? x + 1 : x) - startX) / dirX;
+        float maxY = stepY == 0 ? Float.POSITIVE_INFINITY : ((stepY > 0 ? y + 1 : y) - startY) / dirY;
+        float maxZ = stepZ == 0 ? Float.POSITIVE_INFINITY : ((stepZ > 0 ? z + 1 : z) - startZ) / dirZ;
+
+        ChunkBase chunk = null;
+        int chunkX = 0, chunkZ = 0;
+        boolean chunkLookedUp = false;
+
+        // distance along the ray, where it enters the current cell
+        float distance = 0;
+        while (distance <= range) {
+            int cellChunkX = floorDiv(x, CHUNK_SIZE) * CHUNK_SIZE, cellChunkZ = floorDiv(z, CHUNK_SIZE) * CHUNK_SIZE;
+            if (!chunkLookedUp || cellChunkX != chunkX || cellChunkZ != chunkZ) {
+                chunk = world.getChunkAtOrigin(cellChunkX, cellChunkZ);
+                chunkX = cellChunkX;
+                chunkZ = cellChunkZ;
+                chunkLookedUp = true;
+            }
+            IBlockState blockState = chunk == null ? null : chunk.getBlockState(x, y, z);
+            if (blockState != null && blockState.getBlock().isCollidable()) {
+                RayTracer.RayTraceResult result = intersect(blockState.getBlock(), x, y, z, startX, startY, startZ, dirX, dirY, dirZ, range);
+                if (result != null)
+                    return result;
+            }
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                distance = maxX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                distance = maxY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                distance = maxZ;
+                maxZ += deltaZ;
+            }
+        }
+        return miss();
+    }
+
+    /**
+     * Intersects the ray with the shape of the block using the slab method
+     *
+     * @return the hit or null, if the ray misses the shape of the block within range
+     */
+    @Nullable
+    private static RayTracer.RayTraceResult intersect(@NotNull Block block, int x, int y, int z,
+                                                      float startX, float startY, float startZ,
+                                                      float dirX, float dirY, float dirZ, float range) {
+        float near = Float.NEGATIVE_INFINITY, far = Float.POSITIVE_INFINITY;
+        // axis of the face the ray enters the shape through (0 = x, 1 = y, 2 = z), -1 if the ray starts inside the shape
+        int nearAxis = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            float start, dir, min, max;
+            switch (axis) {
+                case 0:
+                    start = startX;
+                    dir = dirX;
+                    min = x + block.x0;
+                    max = x + block.x1;
+                    break;
+                case 1:
+                    start = startY;
+                    dir = dirY;
+                    min = y + block.y0;
+                    max = y + block.y1;
+                    break;
+                default:
+                    start = startZ;
+                    dir = dirZ;
+                    min = z + block.z0;
+                    max = z + block.z1;
+                    break;
+            }
+            if (dir == 0) {
+                if (start < min || start > max)
+                    return null;
+                continue;
+            }
+            float t0 = (min - start) / dir, t1 = (max - start) / dir;
+            if (t0 > t1) {
+                float tmp = t0;
+                t0 = t1;
+                t1 = tmp;
+            }
+            if (t0 > near) {
+                near = t0;
+                nearAxis = axis;
+            }
+            if (t1 < far)
+                far = t1;
+            if (near > far)
+                return null;
+        }
+        if (far < 0)
+            return null; // shape lies behind the ray start
+        if (near < 0) {
+            near = 0; // ray starts inside the shape
+            nearAxis = -1;
+        }
+        if (near > range)
+            return null;
+
+        Vector3 hitVec = new Vector3(startX + dirX * near, startY + dirY * near, startZ + dirZ * near);
+        EnumFacing facing;
+        switch (nearAxis) {
+            case 0:
+                hitVec.x = dirX > 0 ? x + block.x0 : x + block.x1; // snapping onto the face to counter rounding errors
+                facing = dirX > 0 ? EnumFacing.WEST : EnumFacing.EAST;
+                break;
+            case 1:
+                hitVec.y = dirY > 0 ? y + block.y0 : y + block.y1;
+                facing = dirY > 0 ? EnumFacing.DOWN : EnumFacing.UP;
+                break;
+            case 2:
+                hitVec.z = dirZ > 0 ? z + block.z0 : z + block.z1;
+                facing = dirZ > 0 ? EnumFacing.NORTH : EnumFacing.SOUTH;
+                break;
+            default:
+                facing = BlockPos.getFacing(hitVec, new BlockPos(x, y, z));
+                break;
+        }
+        return new RayTracer.RayTraceResult(hitVec, new BlockPos(x, y, z), RayTracer.RayTraceResult.EnumResultType.BLOCK, facing);
+    }
+
+    @NotNull
+    private static RayTracer.RayTraceResult miss() {
+        return new RayTracer.RayTraceResult(null, null, RayTracer.RayTraceResult.EnumResultType.MISS, null);
+    }
+}
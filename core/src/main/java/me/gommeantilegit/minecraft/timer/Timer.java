@@ -65,6 +65,11 @@ public class Timer implements Tickable {
      */
     private float ticksLeft = 0.0f;
 
+    /**
+     * The number of ticks scheduled by {@link #advanceTime()}, that were dropped by {@link #performTicks(Tickable, int, long)}, because they exceeded the catch-up bounds
+     */
+    private volatile long droppedTicks;
+
     /**
      * Collects tps data
      */
@@ -95,6 +100,30 @@ public class Timer implements Tickable {
         this.partialTicks = this.ticksLeft;
     }
 
+    /**
+     * Performs the ticks scheduled by the last {@link #advanceTime()} call with bounded catch-up.
+     * Ticks are performed until all scheduled ticks are performed, maxTicks ticks are performed, or the performed ticks took longer than the budget.
+     * Scheduled ticks exceeding these bounds are dropped instead of being caught up later, so that an overloaded game ticks slower instead of falling further behind.
+     *
+     * @param game        the game to tick. The timer is ticked after every tick of the game.
+     * @param maxTicks    the maximum number of ticks to perform
+     * @param budgetNanos the time in nanoseconds after which no further tick is started. The first scheduled tick is always performed.
+     * @return the number of ticks performed
+     */
+    public int performTicks(@NotNull Tickable game, int maxTicks, long budgetNanos) {
+        int ticks = Math.min(this.ticks, maxTicks);
+        long start = System.nanoTime();
+        int performed = 0;
+        while (performed < ticks && (performed == 0 || System.nanoTime() - start < budgetNanos)) {
+            game.tick(this.partialTicks);
+            this.tick(this.partialTicks);
+            performed++;
+        }
+        // single writer, volatile for visibility only
+        this.droppedTicks += this.ticks - performed;
+        return performed;
+    }
+
     public void tick(float partialTicks) {
         this.performedTicks++;
         this.secondTicks++;
@@ -109,6 +138,13 @@ public class Timer implements Tickable {
         }
     }
 
+    /**
+     * @return the number of scheduled ticks dropped, because they exceeded the catch-up bounds of {@link #performTicks(Tickable, int, long)}
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
     public float getCurrentTicksPerSecond() {
         return currentTicksPerSecond;
     }
@@ -20,14 +20,31 @@ public class MinecraftThread extends SchedulableThread {
      */
     private final int idleTicks;
 
+    /**
+     * The time budgets of the update phases
+     */
+    @NotNull
+    private final TickBudget budget;
+
+    /**
+     * The timings of the update phases
+     */
+    @NotNull
+    private final TickPhaseTimings timings = new TickPhaseTimings();
+
     public MinecraftThread(@NotNull AbstractMinecraft mc) {
         this(mc, 100);
     }
 
     public MinecraftThread(@NotNull AbstractMinecraft mc, int idleTicks) {
+        this(mc, idleTicks, TickBudget.DEFAULT);
+    }
+
+    public MinecraftThread(@NotNull AbstractMinecraft mc, int idleTicks, @NotNull TickBudget budget) {
         super("Minecraft-Thread");
         this.mc = mc;
         this.idleTicks = idleTicks;
+        this.budget = budget;
         this.setDaemon(true);
         this.setUncaughtExceptionHandler((t, e) -> e.printStackTrace());
         this.setPriority(Thread.MAX_PRIORITY);
@@ -52,10 +69,49 @@ public class MinecraftThread extends SchedulableThread {
     }
 
     /**
-     * Called to update the game logic
+     * Called to update the game logic.
+     * Executes the scheduled tasks, performs the pending ticks and flushes the network within the budgets of the phases.
+     * Tasks exceeding their budget are executed on the next update, pending ticks exceeding the catch-up bounds are dropped.
      */
     public void onUpdate() {
-        updateTasks();
-        mc.onUpdate();
+        long tickNanos = (long) (1_000_000_000 / mc.getTimer().getTicksPerSecond());
+
+        long tasksStart = System.nanoTime();
+        long tasksBudget = budget.getBudgetNanos(TickPhase.TASKS, tickNanos);
+        int tasks = updateTasks(tasksStart + tasksBudget);
+        long worldStart = System.nanoTime();
+        if (tasks > 0)
+            timings.record(TickPhase.TASKS, worldStart - tasksStart, tasksBudget);
+        timings.setDeferredTasks(getTasks().size());
+
+        long worldBudget = budget.getBudgetNanos(TickPhase.WORLD, tickNanos);
+        int ticks = mc.onUpdate(budget.getMaxCatchUpTicks(), worldBudget);
+        long networkStart = System.nanoTime();
+        if (ticks > 0)
+            timings.record(TickPhase.WORLD, networkStart - worldStart, worldBudget);
+        if (tasks == 0 && ticks == 0)
+            return; // nothing has been written
+
+        flushNetwork();
+        timings.record(TickPhase.NETWORK, System.nanoTime() - networkStart, budget.getBudgetNanos(TickPhase.NETWORK, tickNanos));
+    }
+
+    /**
+     * Called once per update that executed tasks or performed ticks to flush the network packets written by them
+     */
+    protected void flushNetwork() {
+    }
+
+    /**
+     * @return the timings of the update phases
+     */
+    @NotNull
+    public TickPhaseTimings getTimings() {
+        return timings;
+    }
+
+    @NotNull
+    public TickBudget getBudget() {
+        return budget;
     }
 }
@@ -0,0 +1,63 @@
+package me.gommeantilegit.minecraft.timer.tick;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The time budgets of the phases of an update of the {@link MinecraftThread} as shares of the tick interval, and the bound of catch-up ticks per update.
+ * Immutable.
+ */
+public class TickBudget {
+
+    /**
+     * Scheduled tasks may use a fifth of the tick interval, the world ticks most of it.
+     * Pending world ticks are caught up with at most five ticks per update.
+     */
+    public static final TickBudget DEFAULT = new TickBudget(0.2f, 0.7f, 0.1f, 5);
+
+    /**
+     * The budgets of the phases as shares of the tick interval
+     */
+    private final float tasksShare, worldShare, networkShare;
+
+    /**
+     * The maximum number of ticks performed per update
+     */
+    private final int maxCatchUpTicks;
+
+    /**
+     * @param tasksShare      the share of the tick interval after which no further scheduled task is started. Tasks exceeding the budget are executed on the next update.
+     * @param worldShare      the share of the tick interval after which no further pending tick is started. Ticks exceeding the budget are dropped.
+     * @param networkShare    the share of the tick interval the network flush is expected to take. Exceeding it is reported as an overrun.
+     * @param maxCatchUpTicks the maximum number of ticks performed per update
+     */
+    public TickBudget(float tasksShare, float worldShare, float networkShare, int maxCatchUpTicks) {
+        if (maxCatchUpTicks < 1)
+            throw new IllegalArgumentException("At least one tick must be performed per update, but maxCatchUpTicks is " + maxCatchUpTicks);
+        this.tasksShare = tasksShare;
+        this.worldShare = worldShare;
+        this.networkShare = networkShare;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * @param phase     the phase
+     * @param tickNanos the tick interval in nanoseconds
+     * @return the budget of the phase in nanoseconds
+     */
+    public long getBudgetNanos(@NotNull TickPhase phase, long tickNanos) {
+        switch (phase) {
+            case TASKS:
+                return (long) (tickNanos * tasksShare);
+            case WORLD:
+                return (long) (tickNanos * worldShare);
+            case NETWORK:
+                return (long) (tickNanos * networkShare);
+            default:
+                throw new IllegalArgumentException("Unknown tick phase " + phase);
+        }
+    }
+
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+}
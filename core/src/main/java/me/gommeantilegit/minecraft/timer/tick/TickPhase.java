@@ -0,0 +1,23 @@
+package me.gommeantilegit.minecraft.timer.tick;
+
+/**
+ * The phases of an update of the {@link MinecraftThread}
+ */
+public enum TickPhase {
+
+    /**
+     * Executing the tasks scheduled on the minecraft thread
+     */
+    TASKS,
+
+    /**
+     * Performing the pending game ticks
+     */
+    WORLD,
+
+    /**
+     * Flushing the network packets written during the game ticks
+     */
+    NETWORK
+
+}
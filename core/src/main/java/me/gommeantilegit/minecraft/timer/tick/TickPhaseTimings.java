@@ -0,0 +1,123 @@
+package me.gommeantilegit.minecraft.timer.tick;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Timings of the phases of the updates of a {@link MinecraftThread}.
+ * Written by the minecraft thread only, the metrics may be read from any thread.
+ */
+public class TickPhaseTimings {
+
+    /**
+     * The timings of every phase indexed by {@link TickPhase#ordinal()}
+     */
+    @NotNull
+    private final PhaseTimings[] phases = new PhaseTimings[TickPhase.values().length];
+
+    /**
+     * The number of tasks left queued after the last task phase
+     */
+    private volatile int deferredTasks;
+
+    public TickPhaseTimings() {
+        for (int i = 0; i < this.phases.length; i++) {
+            this.phases[i] = new PhaseTimings();
+        }
+    }
+
+    /**
+     * Records an execution of the phase
+     *
+     * @param phase       the phase
+     * @param nanos       the duration of the phase in nanoseconds
+     * @param budgetNanos the budget of the phase in nanoseconds
+     */
+    void record(@NotNull TickPhase phase, long nanos, long budgetNanos) {
+        this.phases[phase.ordinal()].record(nanos, budgetNanos);
+    }
+
+    void setDeferredTasks(int deferredTasks) {
+        this.deferredTasks = deferredTasks;
+    }
+
+    /**
+     * @return the timings of the given phase
+     */
+    @NotNull
+    public PhaseTimings get(@NotNull TickPhase phase) {
+        return this.phases[phase.ordinal()];
+    }
+
+    /**
+     * @return the number of scheduled tasks left queued for the next update after the last task phase
+     */
+    public int getDeferredTasks() {
+        return deferredTasks;
+    }
+
+    /**
+     * Timings of a single phase. Only updates, that performed the phase, are recorded.
+     */
+    public static class PhaseTimings {
+
+        /**
+         * The number of recorded executions of the phase and how many of them exceeded their budget
+         */
+        private volatile long samples, overruns;
+
+        /**
+         * The last, longest and accumulated duration of the phase in nanoseconds
+         */
+        private volatile long lastNanos, maxNanos, totalNanos;
+
+        private PhaseTimings() {
+        }
+
+        private void record(long nanos, long budgetNanos) {
+            // single writer, volatile for visibility only
+            this.lastNanos = nanos;
+            this.totalNanos += nanos;
+            this.samples++;
+            if (nanos > budgetNanos)
+                this.overruns++;
+            if (nanos > this.maxNanos)
+                this.maxNanos = nanos;
+        }
+
+        /**
+         * @return the number of recorded executions of the phase
+         */
+        public long getSamples() {
+            return samples;
+        }
+
+        /**
+         * @return the number of recorded executions, that exceeded the budget of the phase
+         */
+        public long getOverruns() {
+            return overruns;
+        }
+
+        /**
+         * @return the duration of the last execution in nanoseconds
+         */
+        public long getLastNanos() {
+            return lastNanos;
+        }
+
+        /**
+         * @return the duration of the longest execution in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the average duration of an execution in nanoseconds, or 0 if the phase has not been executed yet
+         */
+        public long getAverageNanos() {
+            long samples = this.samples;
+            return samples == 0 ? 0 : this.totalNanos / samples;
+        }
+    }
+}
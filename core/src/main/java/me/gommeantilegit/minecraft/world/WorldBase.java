@@ -10,7 +10,8 @@ import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
-import me.gommeantilegit.minecraft.raytrace.IRayTracer;
+import me.gommeantilegit.minecraft.phys.CollisionBoxBuffer;
+import me.gommeantilegit.minecraft.raytrace.BlockRayTraversal;
 import me.gommeantilegit.minecraft.raytrace.RayTracer;
 import me.gommeantilegit.minecraft.timer.api.AsyncOperation;
 import me.gommeantilegit.minecraft.timer.api.Tickable;
@@ -23,6 +24,7 @@ import me.gommeantilegit.minecraft.world.chunk.creator.ChunkCreatorBase;
 import me.gommeantilegit.minecraft.world.chunk.creator.OnChunkCreationListener;
 import me.gommeantilegit.minecraft.world.chunk.loader.ChunkLoaderBase;
 import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import me.gommeantilegit.minecraft.world.entity.EntitySpatialIndex;
 import me.gommeantilegit.minecraft.world.entity.EntitySpawner;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -33,6 +35,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 import static java.lang.Math.*;
 import static me.gommeantilegit.minecraft.utils.MathHelper.nearestInt;
@@ -98,6 +101,12 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
     @NotNull
     protected final EntitySpawner entitySpawner = new EntitySpawner(this);
 
+    /**
+     * Spatial hash of the entities in the chunks of the world
+     */
+    @NotNull
+    private final EntitySpatialIndex entityIndex = new EntitySpatialIndex();
+
     /**
      * The state whether to pause the world tick when the next tick is invoked.
      * When the pause (Thread sleep, so timer performs missing ticks) is performed, the {@link #pausedFuture} is invoked (=> must be not null when this field is true)
@@ -148,7 +157,7 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
                 }
             }
         }
-        List<ChunkBase> loadedChunks = this.worldChunkHandler.getLoadedChunks();
+        Collection<ChunkBase> loadedChunks = this.worldChunkHandler.getLoadedChunks();
         tickChunks(partialTicks, loadedChunks);
         this.chunkCreator.tick(partialTicks);
         this.chunkLoader.tick(partialTicks);
@@ -174,13 +183,46 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
      * @param axisAlignedBB the boundingBox
      * @return if an entity is in the given bounding box
      */
+    @ThreadSafe
     public boolean isEntityFree(@NotNull AxisAlignedBB axisAlignedBB) {
-        List<ChunkBase> chunks = getChunksInBoundingBox(axisAlignedBB);
-        for (ChunkBase chunk : chunks) {
-            if (!chunk.isEntityFree(axisAlignedBB))
-                return false;
-        }
-        return true;
+        return this.entityIndex.isEntityFree(axisAlignedBB);
+    }
+
+    /**
+     * @param region    the region
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the entities, whose bounding boxes intersect with the region and that fulfill the predicate
+     */
+    @NotNull
+    @ThreadSafe
+    public List<Entity> getEntitiesWithinAABB(@NotNull AxisAlignedBB region, @NotNull Predicate<? super Entity> predicate) {
+        return this.entityIndex.getEntitiesWithinAABB(region, predicate);
+    }
+
+    /**
+     * @param position  the center of the range
+     * @param range     the radius of the range
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the entities, whose bounding box centers are within the range and that fulfill the predicate
+     */
+    @NotNull
+    @ThreadSafe
+    public List<Entity> getEntitiesInRange(@NotNull Vector3 position, float range, @NotNull Predicate<? super Entity> predicate) {
+        return this.entityIndex.getEntitiesInRange(position.x, position.y, position.z, range, predicate);
+    }
+
+    /**
+     * @param position  the point to find the nearest entities of
+     * @param k         the maximum number of entities to return
+     * @param maxRange  the maximum distance of an entity to the point
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the up to k entities nearest to the point ordered by ascending distance
+     * @see EntitySpatialIndex#getNearestEntities(float, float, float, int, float, Predicate)
+     */
+    @NotNull
+    @ThreadSafe
+    public List<Entity> getNearestEntities(@NotNull Vector3 position, int k, float maxRange, @NotNull Predicate<? super Entity> predicate) {
+        return this.entityIndex.getNearestEntities(position.x, position.y, position.z, k, maxRange, predicate);
     }
 
     /**
@@ -238,79 +280,13 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
 
     /**
      * Performs a ray cast against all blocks in the world. Args : rayStart, direction, range
+     *
+     * @see BlockRayTraversal
      */
     @NotNull
+    @ThreadSafe
     public RayTracer.RayTraceResult rayTraceBlocks(@NotNull Vector3 rayStart, @NotNull Vector3 direction, float range) {
-        AxisAlignedBB boundingBox = new AxisAlignedBB(
-                rayStart.x, rayStart.y, rayStart.z,
-                rayStart.x + direction.x * range,
-                rayStart.y + direction.y * range,
-                rayStart.z + direction.z * range
-        ).reoder();
-        IRayTracer.RayTraceResult result = new RayTracer.RayTraceResult(null, null, RayTracer.RayTraceResult.EnumResultType.MISS, null);
-        float minDst = -1;
-        List<Pair<BlockPos, AxisAlignedBB>> blocks = getBlocksInBoundingBox(boundingBox);
-        for (Pair<BlockPos, AxisAlignedBB> pair : blocks) {
-            BlockPos pos = pair.getFirst();
-            Block block = getBlock(pos);
-            if (block == null)
-                continue;
-            IRayTracer.RayTraceResult blockTrace = block.collisionRayTrace(pos, rayStart, direction, range);
-            if (blockTrace.type == IRayTracer.RayTraceResult.EnumResultType.BLOCK) {
-                Vector3 hitVec = Objects.requireNonNull(blockTrace.hitVec);
-                float hitVecDst = hitVec.cpy().sub(rayStart).len2();
-
-                if (hitVecDst < minDst || minDst == -1) {
-                    result = blockTrace;
-                    minDst = hitVecDst;
-                }
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * @param axisAlignedBB the bounding box.
-     * @return chunks managing parts of the region.
-     */
-    @NotNull
-    private List<ChunkBase> getChunksInBoundingBox(@NotNull AxisAlignedBB axisAlignedBB) {
-        List<ChunkBase> chunks = new ArrayList<>(4);
-        float x0 = axisAlignedBB.x0;
-        float z0 = axisAlignedBB.z0;
-        float x1 = axisAlignedBB.x1;
-        float z1 = axisAlignedBB.z1;
-        ChunkBase chunk;
-        {
-            chunk = getChunkForPosition((int) x0, round(z0));
-            chunks.add(chunk);
-        }
-        {
-            if (chunk == null)
-                chunk = getChunkForPosition((int) x0, round(z1));
-            else
-                chunk = getNearChunkFor(chunk, (int) x0, round(z1));
-            if (!chunks.contains(chunk))
-                chunks.add(chunk);
-        }
-        {
-            if (chunk == null)
-                chunk = getChunkForPosition((int) x1, (int) z1);
-            else
-                chunk = getNearChunkFor(chunk, (int) x1, (int) (z1));
-            if (!chunks.contains(chunk))
-                chunks.add(chunk);
-        }
-        {
-            if (chunk == null)
-                chunk = getChunkForPosition((int) x1, (int) z0);
-            else
-                chunk = getNearChunkFor(chunk, (int) x1, (int) (z0));
-            if (!chunks.contains(chunk))
-                chunks.add(chunk);
-        }
-        return chunks;
+        return BlockRayTraversal.rayTraceBlocks(this, rayStart, direction, range);
     }
 
     /**
@@ -380,33 +356,106 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
      */
     @NotNull
     public List<AxisAlignedBB> getBoundingBoxes(@NotNull AxisAlignedBB box) {
-        List<AxisAlignedBB> boxes = new ArrayList<>();
-        int x0 = (int) nearestInt(box.x0);
-        int x1 = (int) nearestInt(box.x1 + 1.0f);
-        int y0 = (int) nearestInt(box.y0);
-        int y1 = (int) nearestInt(box.y1 + 1.0f);
-        int z0 = (int) nearestInt(box.z0);
-        int z1 = (int) nearestInt(box.z1 + 1.0f);
-        for (int x = x0; x < x1; x++) {
-            for (int y = y0; y < y1; y++) {
-                for (int z = z0; z < z1; z++) {
-                    AxisAlignedBB axisAlignedBB2;
-                    BlockPos bp = new BlockPos(x, y, z);
+        CollisionBoxBuffer buffer = CollisionBoxBuffer.forCurrentThread();
+        collectCollisionBoxes(null, box.x0, box.y0, box.z0, box.x1, box.y1, box.z1, buffer);
+        List<AxisAlignedBB> boxes = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            boxes.add(buffer.getBox(i));
+        }
+        return boxes;
+    }
 
-                    IBlockState state = getBlockState(bp);
-                    if (state != null) {
-                        Block block = state.getBlock();
-                        if ((axisAlignedBB2 = block.getBoundingBox(this, bp, state)) != null) {
-                            boxes.add(axisAlignedBB2);
-                        }
-                    }
+    /**
+     * Writes the bounding boxes of the collidable blocks in the given region into the buffer without allocating.
+     * Same blocks as {@link #getBoundingBoxes(AxisAlignedBB)}.
+     *
+     * @param nearChunk a chunk near the region (eg. the chunk of the moving entity) to find the chunks of the region through the chunk links instead of the chunk map. Nullable
+     * @param buffer    the buffer to write the boxes into. Cleared before
+     */
+    @ThreadSafe
+    public void collectCollisionBoxes(@Nullable ChunkBase nearChunk, float x0, float y0, float z0, float x1, float y1, float z1, @NotNull CollisionBoxBuffer buffer) {
+        buffer.clear();
+        forEachCollisionBox(nearChunk, x0, y0, z0, x1, y1, z1, buffer);
+    }
+
+    /**
+     * @param nearChunk a chunk near the region. See {@link #collectCollisionBoxes(ChunkBase, float, float, float, float, float, float, CollisionBoxBuffer)}
+     * @return true, if {@link #collectCollisionBoxes(ChunkBase, float, float, float, float, float, float, CollisionBoxBuffer)} would find any box in the given region.
+     * Stops at the first collidable block
+     */
+    @ThreadSafe
+    public boolean hasCollisionBoxes(@Nullable ChunkBase nearChunk, float x0, float y0, float z0, float x1, float y1, float z1) {
+        return forEachCollisionBox(nearChunk, x0, y0, z0, x1, y1, z1, null);
+    }
+
+    /**
+     * Visits the collidable blocks in the given region through {@link Block#addCollisionBox(WorldBase, int, int, int, IBlockState, CollisionBoxBuffer)}.
+     * The chunk of a block column is only looked up, when the column lies in another chunk than the previous one.
+     *
+     * @param buffer the buffer to append the boxes of the blocks to or null to stop at the first collidable block
+     * @return true, if a collidable block has been found
+     */
+    private boolean forEachCollisionBox(@Nullable ChunkBase nearChunk, float boxX0, float boxY0, float boxZ0, float boxX1, float boxY1, float boxZ1, @Nullable CollisionBoxBuffer buffer) {
+        int x0 = nearestInt(boxX0);
+        int x1 = nearestInt(boxX1 + 1.0f);
+        int y0 = nearestInt(boxY0);
+        int y1 = nearestInt(boxY1 + 1.0f);
+        int z0 = nearestInt(boxZ0);
+        int z1 = nearestInt(boxZ1 + 1.0f);
+        boolean found = false;
+        ChunkBase chunk = null;
+        int chunkX = 0, chunkZ = 0;
+        boolean chunkLookedUp = false;
+        for (int x = x0; x < x1; x++) {
+            int columnChunkX = floorDiv(x, CHUNK_SIZE) * CHUNK_SIZE;
+            for (int z = z0; z < z1; z++) {
+                int columnChunkZ = floorDiv(z, CHUNK_SIZE) * CHUNK_SIZE;
+                if (!chunkLookedUp || columnChunkX != chunkX || columnChunkZ != chunkZ) {
+                    chunk = findChunk(chunk != null ? chunk : nearChunk, columnChunkX, columnChunkZ);
+                    chunkX = columnChunkX;
+                    chunkZ = columnChunkZ;
+                    chunkLookedUp = true;
+                }
+                if (chunk == null)
+                    continue;
+                for (int y = y0; y < y1; y++) {
+                    IBlockState state = chunk.getBlockState(x, y, z);
+                    if (state == null || !state.getBlock().addCollisionBox(this, x, y, z, state, buffer))
+                        continue;
+                    if (buffer == null)
+                        return true;
+                    found = true;
                 }
             }
         }
-        return boxes;
+        return found;
     }
 
-
+    /**
+     * Finds the chunk at the given origin through the links of a chunk, if the chunk is next to it. Falls back to the chunk map otherwise.
+     * Unlike {@link #getChunkAtOrigin(int, int)} the link traversal does not allocate.
+     *
+     * @param nearChunk a chunk that is probably next to the chunk searched for or null
+     * @param originX   the x component of the origin of the chunk
+     * @param originZ   the z component of the origin of the chunk
+     * @return the chunk at the given origin or null, if the chunk does not exist
+     */
+    @Nullable
+    private ChunkBase findChunk(@Nullable ChunkBase nearChunk, int originX, int originZ) {
+        if (nearChunk != null) {
+            int xDif = originX - nearChunk.getX(), zDif = originZ - nearChunk.getZ();
+            if (abs(xDif) <= CHUNK_SIZE && abs(zDif) <= CHUNK_SIZE) {
+                ChunkBase chunk = nearChunk;
+                if (zDif != 0)
+                    chunk = chunk.getNeighbor(zDif > 0 ? 0 : 1);
+                if (xDif != 0 && chunk != null)
+                    chunk = chunk.getNeighbor(xDif > 0 ? 2 : 3);
+                if (chunk != null)
+                    return chunk;
+            }
+        }
+        return getChunkAtOrigin(originX, originZ);
+    }
 
     /**
      * @param x x coordinate
@@ -535,6 +584,11 @@ public abstract class WorldBase implements Tickable, AsyncOperation {
         return this.worldChunkHandler.getChunkAt(originX, originZ);
     }
 
+    @NotNull
+    public EntitySpatialIndex getEntityIndex() {
+        return entityIndex;
+    }
+
     @NotNull
     public EntitySpawner getEntitySpawner() {
         return entitySpawner;
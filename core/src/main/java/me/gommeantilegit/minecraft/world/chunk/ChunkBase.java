@@ -9,6 +9,7 @@ import me.gommeantilegit.minecraft.annotations.Unsafe;
 import me.gommeantilegit.minecraft.block.Block;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
 import me.gommeantilegit.minecraft.block.state.storage.BlockStateStorage;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
@@ -16,13 +17,16 @@ import me.gommeantilegit.minecraft.timer.api.Tickable;
 import me.gommeantilegit.minecraft.util.block.position.BlockPos;
 import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
 import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockChangeBatch;
 import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.saveformat.ChunkFragmentCache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -118,9 +122,11 @@ public abstract class ChunkBase implements Tickable {
     private final ChunkBase[] neighboringChunks = new @Nullable ChunkBase[4];
 
     /**
-     * The number of ticks the chunk has performed
+     * The entities that left the chunk during its last tick and still have to be handed to their new chunk by {@link #dispatchOutgoingEntities()}.
+     * Only accessed by the thread ticking the chunk.
      */
-    private long nTicksPerformed;
+    @NotNull
+    private final List<Entity> outgoingEntities = new ArrayList<>();
 
     /**
      * The block state palette used to store the chunk
@@ -134,6 +140,36 @@ public abstract class ChunkBase implements Tickable {
     @NotNull
     protected final BlockStateSemaphoreBase blockStateSemaphore;
 
+    /**
+     * State whether the block states of the chunk have been modified since the chunk has last been saved.
+     * Set by {@link #writeBlockChange(int, int, int, IBlockState)}, reset by the world saver.
+     */
+    private volatile boolean dirty = false;
+
+    /**
+     * Caches the compressed serialized fragments of the chunk. Invalidated on block changes.
+     */
+    @NotNull
+    private final ChunkFragmentCache fragmentCache;
+
+    /**
+     * The number of chunk loading tickets held by viewers. The chunk is loaded while at least one ticket is held.
+     * Modified while holding {@link #ticketLock}, read without locking.
+     */
+    @NotNull
+    private final AtomicInteger ticketCount = new AtomicInteger();
+
+    /**
+     * Per chunk lock of the ticket count, the load state transitions caused by tickets and the removal of the chunk from the world
+     */
+    @NotNull
+    private final Object ticketLock = new Object();
+
+    /**
+     * State whether the chunk has been removed from the world. Tickets cannot be acquired for removed chunks.
+     */
+    private volatile boolean removed = false;
+
     /**
      * Default constructor of a ChunkBase object
      *
@@ -154,6 +190,7 @@ public abstract class ChunkBase implements Tickable {
         this.mc = world.mc;
         this.entities = new ArrayList<>();
         this.chunkSections = new ArrayList<>(height / CHUNK_SECTION_SIZE);
+        this.fragmentCache = new ChunkFragmentCache(height);
         this.initChunkSections();
     }
 
@@ -168,6 +205,7 @@ public abstract class ChunkBase implements Tickable {
         this.entities = new ArrayList<>();
         this.chunkSections = sections;
         this.blockStatePalette = blockStatePalette;
+        this.fragmentCache = new ChunkFragmentCache(height);
     }
 
     protected void initChunkSections() {
@@ -193,9 +231,35 @@ public abstract class ChunkBase implements Tickable {
      */
     @Override
     public void tick(float partialTicks) {
+        this.tickEntities();
+        this.dispatchOutgoingEntities();
+    }
+
+    /**
+     * Updates the entities of the chunk without handing the entities that left the chunk to their new chunk.
+     * Ticking a chunk only modifies the chunk itself, so that chunks, that are not neighbors, may be ticked in parallel.
+     * The entities that left the chunk must be handed over by {@link #dispatchOutgoingEntities()} afterwards.
+     */
+    public void tickEntities() {
         this.updatePendingEntities();
         this.trackEntities();
-        this.nTicksPerformed++;
+    }
+
+    /**
+     * Hands the entities that left the chunk during the last {@link #tickEntities()} to their new chunks.
+     * Must not be called while the new chunks are ticked.
+     */
+    public void dispatchOutgoingEntities() {
+        List<Entity> outgoingEntities = this.outgoingEntities;
+        for (int i = 0, size = outgoingEntities.size(); i < size; i++) {
+            Entity entity = outgoingEntities.get(i);
+            ChunkBase newChunk = Objects.requireNonNull(entity.getNewChunk(), "Outgoing entity has no new chunk");
+            newChunk.scheduleAddEntity(entity, e -> {
+                scheduleRemoveEntity(entity, EntityRemoveReason.ENTITY_CHUNK_CHANGED);
+                entity.onChunkChanged(newChunk, this);
+            });
+        }
+        outgoingEntities.clear();
     }
 
     private void updatePendingEntities() {
@@ -231,6 +295,7 @@ public abstract class ChunkBase implements Tickable {
         entity.setWorld(world);
         entity.setCurrentChunk(this);
         this.entities.add(entity);
+        this.world.getEntityIndex().add(entity);
     }
 
     /**
@@ -246,15 +311,11 @@ public abstract class ChunkBase implements Tickable {
 
             // entity update
             if (entity.getNewChunk() == null) {
-                long ticksToPerform = entity.getTickJoinMark() == -1 ? 1 : (nTicksPerformed - entity.getTickJoinMark() + 1);
-                for (long j = 0; j < ticksToPerform; j++) {
-                    long currentTick = mc.getTimer().performedTicks;
-                    if (entity.lastUpdated != currentTick) {
-                        entity.tick();
-                        entity.lastUpdated = currentTick;
-                    }
+                long currentTick = mc.getTimer().performedTicks;
+                if (entity.lastUpdated != currentTick) {
+                    entity.tick();
+                    entity.lastUpdated = currentTick;
                 }
-                entity.joinTickAt(-1);
             }
 
             if (entity.isInChunk(this)) {
@@ -274,7 +335,6 @@ public abstract class ChunkBase implements Tickable {
                 }
                 if (newChunk != null) {
                     transferEntity(entity, newChunk);
-//                    entity.joinTickAt(nTicksPerformed); // start ticking again >>after<< the target chunk performed >>this<< tick, so start ticking next tick
                 }
             }
         }
@@ -341,19 +401,34 @@ public abstract class ChunkBase implements Tickable {
     }
 
     /**
-     * Transfers the entity to a new chunk
+     * Removes this chunk from its neighbors and clears its own neighbor references. Invoked when the chunk is removed from the world.
+     */
+    @ThreadSafe
+    public void unlinkNeighbors() {
+        synchronized (this.neighboringChunks) {
+            for (int i = 0; i < this.neighboringChunks.length; i++) {
+                ChunkBase neighbor = this.neighboringChunks[i];
+                if (neighbor == null)
+                    continue;
+                // the opposite neighbor index: 0 <-> 1, 2 <-> 3
+                synchronized (neighbor.neighboringChunks) {
+                    if (neighbor.neighboringChunks[i ^ 1] == this)
+                        neighbor.neighboringChunks[i ^ 1] = null;
+                }
+                this.neighboringChunks[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Marks the entity to be transferred to a new chunk. The entity is handed over by {@link #dispatchOutgoingEntities()}.
      *
      * @param entity   the entity to be transferred
      * @param newChunk the chunk the entity should be transferred into
      */
     protected void transferEntity(@NotNull Entity entity, @NotNull ChunkBase newChunk) {
-//        entity.skipUpdateTicks += 1;
         entity.setChangingToChunk(newChunk);
-        newChunk.scheduleAddEntity(entity, e -> {
-            scheduleRemoveEntity(entity, EntityRemoveReason.ENTITY_CHUNK_CHANGED);
-            entity.onChunkChanged(newChunk, this);
-        });
-        System.out.println("Chunk changed: " + entity.getPositionVector() + " oldChunk: " + this.getChunkOrigin() + ", newChunk: " + newChunk.getChunkOrigin());
+        this.outgoingEntities.add(entity);
     }
 
     /**
@@ -386,7 +461,9 @@ public abstract class ChunkBase implements Tickable {
      * @param removeReason the reason the entity was removed from the list
      */
     protected void forceRemoveEntity(int entityIndex, @NotNull EntityRemoveReason removeReason) {
-        this.entities.remove(entityIndex);
+        Entity entity = this.entities.remove(entityIndex);
+        if (removeReason != EntityRemoveReason.ENTITY_CHUNK_CHANGED)
+            this.world.getEntityIndex().remove(entity); // the entity stays indexed, when moving into another chunk
     }
 
     /**
@@ -397,6 +474,8 @@ public abstract class ChunkBase implements Tickable {
      */
     protected void forceRemoveEntity(@NotNull Entity entity, @NotNull EntityRemoveReason removeReason) {
         this.entities.remove(entity);
+        if (removeReason != EntityRemoveReason.ENTITY_CHUNK_CHANGED)
+            this.world.getEntityIndex().remove(entity); // the entity stays indexed, when moving into another chunk
     }
 
     /**
@@ -404,13 +483,7 @@ public abstract class ChunkBase implements Tickable {
      * @return if an entity is in the given bounding box
      */
     public boolean isEntityFree(@NotNull AxisAlignedBB axisAlignedBB) {
-        List<Entity> entities = this.entities;
-        for (Entity entity : entities) {
-            if (entity.getBoundingBox().intersects(axisAlignedBB)) {
-                return false;
-            }
-        }
-        return true;
+        return this.world.getEntityIndex().getEntitiesWithinAABB(axisAlignedBB, entity -> entity.getCurrentChunk() == this).isEmpty();
     }
 
     /**
@@ -508,7 +581,45 @@ public abstract class ChunkBase implements Tickable {
      */
     @ThreadSafe
     public void setRelativeBlockState(int x, int y, int z, @Nullable IBlockState blockState) {
-        this.blockStateSemaphore.writeSynchronized(this, () -> writeBlockChange(x, y, z, blockState));
+        this.blockStateSemaphore.writeBlockChange(this, x, y, z, blockState);
+    }
+
+    /**
+     * Applies a batch of block changes. The lock of every touched chunk section is acquired once.
+     * Changes to the same position are applied in batch order.
+     * NOT THREAD SAFE in the same way as {@link #writeBlockChange(int, int, int, IBlockState)}. Invoked by the {@link BlockStateSemaphoreBase}.
+     *
+     * @param batch the chunk relative block changes
+     * @return the number of chunk sections written to
+     */
+    @Unsafe
+    public int writeBlockChanges(@NotNull BlockChangeBatch batch) {
+        boolean[] touchedSections = new boolean[this.chunkSections.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            int x = batch.getX(i), y = batch.getY(i), z = batch.getZ(i);
+            if (y < 0 || y >= height) {
+                throw new IllegalStateException("Relative Y-index out of bounds: " + y + " for height " + height);
+            }
+            if (x < 0 || x >= CHUNK_SIZE) {
+                throw new IllegalStateException("Relative X-index out of bounds: " + x + " for width " + CHUNK_SIZE);
+            }
+            if (z < 0 || z >= CHUNK_SIZE) {
+                throw new IllegalStateException("Relative Z-index out of bounds: " + z + " for width " + CHUNK_SIZE);
+            }
+            touchedSections[y / CHUNK_SECTION_SIZE] = true;
+        }
+        int sectionsWritten = 0;
+        for (int i = 0; i < touchedSections.length; i++) {
+            if (touchedSections[i]) {
+                this.chunkSections.get(i).applyBlockChanges(batch);
+                sectionsWritten++;
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            this.fragmentCache.invalidate(batch.getX(i), batch.getY(i), batch.getZ(i));
+        }
+        this.dirty = true;
+        return sectionsWritten;
     }
 
     /**
@@ -528,6 +639,46 @@ public abstract class ChunkBase implements Tickable {
         }
         ChunkSection section = this.getChunkSection(y);
         section.setBlockState(x, y - section.getStartHeight(), z, blockState);
+        this.fragmentCache.invalidate(x, y, z);
+        this.dirty = true;
+    }
+
+    /**
+     * Writes the block states of a chunk relative region section by section. Each affected section is locked once.
+     * NOT THREAD SAFE in the same way as {@link #writeBlockChange(int, int, int, IBlockState)}.
+     *
+     * @param x           the relative x coordinate of the region origin
+     * @param y           the y coordinate of the region origin
+     * @param z           the relative z coordinate of the region origin
+     * @param width       the x size of the region
+     * @param height      the y size of the region
+     * @param depth       the z size of the region
+     * @param blockStates the block states in columns along the y axis. The state at region relative (xo, yo, zo) is stored at (xo * depth + zo) * height + yo. null entries are air.
+     */
+    @Unsafe
+    public void writeBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates) {
+        if (y < 0 || y + height > this.height) {
+            throw new IllegalStateException("Relative Y-range [" + y + ", " + (y + height) + ") out of bounds for height " + this.height);
+        }
+        if (x < 0 || x + width > CHUNK_SIZE) {
+            throw new IllegalStateException("Relative X-range [" + x + ", " + (x + width) + ") out of bounds for width " + CHUNK_SIZE);
+        }
+        if (z < 0 || z + depth > CHUNK_SIZE) {
+            throw new IllegalStateException("Relative Z-range [" + z + ", " + (z + depth) + ") out of bounds for width " + CHUNK_SIZE);
+        }
+        if (blockStates.length < width * height * depth) {
+            throw new IllegalArgumentException("Block state array of length " + blockStates.length + " is too small for region of size " + width + "x" + height + "x" + depth);
+        }
+        int sectionY = y;
+        while (sectionY < y + height) {
+            ChunkSection section = getChunkSection(sectionY);
+            int sectionRelY = sectionY - section.getStartHeight();
+            int sectionHeight = Math.min(CHUNK_SECTION_SIZE - sectionRelY, y + height - sectionY);
+            section.setBlockStates(x, sectionRelY, z, width, sectionHeight, depth, blockStates, sectionY - y, height);
+            sectionY += sectionHeight;
+        }
+        this.fragmentCache.invalidateRegion(x, y, z, width, height, depth);
+        this.dirty = true;
     }
 
     /**
@@ -612,6 +763,24 @@ public abstract class ChunkBase implements Tickable {
         }
     }
 
+    /**
+     * Replaces the block states of every section with the given storages. Every section is swapped under its own lock in constant time,
+     * so concurrent readers and writers are only blocked for the swap itself, not for decoding the storages.
+     * Block changes written to a section before its swap are overwritten.
+     *
+     * @param storages the new block storages of the sections, indexed bottom to top, as created by {@link me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter#decodeSections}.
+     *                 Owned by the chunk afterwards.
+     */
+    @ThreadSafe
+    public void swapSectionStorages(@NotNull AdaptiveBlockStateStorage[] storages) {
+        if (storages.length != this.chunkSections.size())
+            throw new IllegalArgumentException("Expected " + this.chunkSections.size() + " section storages, got " + storages.length);
+        for (int i = 0; i < storages.length; i++) {
+            this.chunkSections.get(i).swapBlockStates(storages[i]);
+        }
+        this.fragmentCache.invalidateAll();
+    }
+
     /**
      * Applies the chunk state of the specified palette backing array
      *
@@ -632,6 +801,8 @@ public abstract class ChunkBase implements Tickable {
         for (ChunkSection chunkSection : this.chunkSections) {
             chunkSection.clearBlocks();
         }
+        this.fragmentCache.invalidateAll();
+        this.dirty = true;
     }
 
     public int getHeight() {
@@ -656,10 +827,75 @@ public abstract class ChunkBase implements Tickable {
         return entities;
     }
 
+    /**
+     * @return true if entities have been scheduled to be added to the chunk, that are not yet in its entity list
+     */
+    @ThreadSafe
+    public boolean hasPendingEntities() {
+        return !this.pendingEntitiesToAdd.isEmpty();
+    }
+
     public boolean isLoaded() {
         return loadedState == 1;
     }
 
+    /**
+     * Increments the ticket count. Must be invoked while holding {@link #getTicketLock()}.
+     *
+     * @return the new ticket count
+     */
+    @Unsafe
+    public int acquireTicket() {
+        return this.ticketCount.incrementAndGet();
+    }
+
+    /**
+     * Decrements the ticket count. Must be invoked while holding {@link #getTicketLock()}.
+     *
+     * @return the new ticket count
+     */
+    @Unsafe
+    public int releaseTicket() {
+        int tickets = this.ticketCount.decrementAndGet();
+        if (tickets < 0) {
+            this.ticketCount.incrementAndGet();
+            throw new IllegalStateException("Tried to release a ticket of a chunk without tickets: " + this);
+        }
+        return tickets;
+    }
+
+    /**
+     * @return the number of chunk loading tickets held for the chunk
+     */
+    @ThreadSafe
+    public int getTicketCount() {
+        return this.ticketCount.get();
+    }
+
+    /**
+     * @return the lock guarding ticket acquisition and release, and the removal of the chunk from the world
+     */
+    @NotNull
+    public Object getTicketLock() {
+        return ticketLock;
+    }
+
+    /**
+     * Marks the chunk as removed from the world. Invoked by {@link me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase#removeChunk(ChunkBase)}
+     */
+    @Unsafe
+    public void setRemoved() {
+        this.removed = true;
+    }
+
+    /**
+     * @return true if the chunk has been removed from the world
+     */
+    @ThreadSafe
+    public boolean isRemoved() {
+        return removed;
+    }
+
     @Override
     public String toString() {
         return "{loaded: " + this.loadedState + ", entities: " + this.entities.size() + ", x: " + this.x + ", z: " + this.z + ", height: " + this.height + ", id: " + id + "}";
@@ -702,13 +938,7 @@ public abstract class ChunkBase implements Tickable {
      */
     @NotNull
     public Collection<? extends Entity> getEntitiesWithinAABBForEntity(AxisAlignedBB region, Predicate<? super Entity> predicate) {
-        List<Entity> entities = new ArrayList<>();
-        for (Entity entity : this.entities) {
-            if (entity.getBoundingBox().intersects(region) && predicate.test(entity)) {
-                entities.add(entity);
-            }
-        }
-        return entities;
+        return this.world.getEntityIndex().getEntitiesWithinAABB(region, entity -> entity.getCurrentChunk() == this && predicate.test(entity));
     }
 
     /**
@@ -767,6 +997,41 @@ public abstract class ChunkBase implements Tickable {
         }
     }
 
+    /**
+     * @return the number of bytes occupied by the block states of the chunk
+     */
+    @ThreadSafe
+    public long getByteSize() {
+        long byteSize = 0;
+        for (ChunkSection section : this.chunkSections) {
+            byteSize += section.getByteSize();
+        }
+        return byteSize;
+    }
+
+    /**
+     * @return true if the block states of the chunk have been modified since the chunk has last been saved
+     */
+    @ThreadSafe
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * @param dirty the new dirty state of the chunk
+     * @see #dirty
+     */
+    @ThreadSafe
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    @NotNull
+    @ThreadSafe
+    public ChunkFragmentCache getFragmentCache() {
+        return fragmentCache;
+    }
+
     @NotNull
     public BlockStateSemaphoreBase getBlockStateSemaphore() {
         return blockStateSemaphore;
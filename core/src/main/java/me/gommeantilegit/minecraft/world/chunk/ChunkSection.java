@@ -3,17 +3,20 @@ package me.gommeantilegit.minecraft.world.chunk;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
 import me.gommeantilegit.minecraft.block.state.BlockState;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
 import me.gommeantilegit.minecraft.block.state.storage.BlockStateStorage;
+import me.gommeantilegit.minecraft.block.state.storage.ConcurrentBlockStateStorage;
 import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockChangeBatch;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
 
@@ -42,21 +45,15 @@ public class ChunkSection {
     private final BoundingBox boundingBox;
 
     /**
-     * Stores the block states of the sections
+     * Stores the block states of the sections. Reads are lock-free. The storage only grows to the bit width needed for the states actually present in the section.
      */
     @NotNull
-    protected final BlockStateStorage blockStateStorage;
-
-//    /**
-//     * Lock to synchronize block storage access
-//     */
-//    @NotNull
-//    private final Lock blockStorageLock = new ReentrantLock();
+    protected final ConcurrentBlockStateStorage blockStateStorage;
 
     public ChunkSection(@NotNull ChunkBase parentChunk, int startHeight) {
         this.parentChunk = parentChunk;
         this.startHeight = startHeight;
-        this.blockStateStorage = new BlockStateStorage(CHUNK_SIZE, CHUNK_SECTION_SIZE, CHUNK_SIZE, parentChunk.getBlockStatePalette());
+        this.blockStateStorage = new ConcurrentBlockStateStorage(CHUNK_SIZE, CHUNK_SECTION_SIZE, CHUNK_SIZE, parentChunk.getBlockStatePalette());
         this.boundingBox = new BoundingBox(new Vector3(parentChunk.x, startHeight, parentChunk.z), new Vector3(parentChunk.x + CHUNK_SECTION_SIZE, startHeight + CHUNK_SECTION_SIZE, parentChunk.z + CHUNK_SECTION_SIZE));
     }
 
@@ -65,6 +62,8 @@ public class ChunkSection {
      */
     @ThreadSafe
     public boolean isEmpty() {
+        if (this.blockStateStorage.isFilledWith(null))
+            return true;
         for (int xo = 0; xo < CHUNK_SIZE; xo++) {
             for (int yo = 0; yo < CHUNK_SECTION_SIZE; yo++) {
                 for (int zo = 0; zo < CHUNK_SIZE; zo++) {
@@ -84,11 +83,7 @@ public class ChunkSection {
     @ThreadSafe
     public IBlockState getRelativeBlockState(int x, int y, int z) {
         check(x, y, z);
-        IBlockState blockState;
-        synchronized (this.blockStateStorage) {
-            blockState = this.blockStateStorage.getBlockState(x, y, z);
-        }
-        return blockState;
+        return this.blockStateStorage.getBlockState(x, y, z);
     }
 
     /**
@@ -97,9 +92,51 @@ public class ChunkSection {
     @ThreadSafe
     public void setBlockState(int x, int y, int z, @Nullable IBlockState blockState) {
         check(x, y, z);
-        synchronized (this.blockStateStorage) {
-            this.blockStateStorage.set(x, y, z, blockState);
-        }
+        this.blockStateStorage.set(x, y, z, blockState);
+    }
+
+    /**
+     * Sets the block states of a region of the section in one pass
+     *
+     * @param x            the section relative x coordinate of the region origin
+     * @param y            the section relative y coordinate of the region origin
+     * @param z            the section relative z coordinate of the region origin
+     * @param width        the x size of the region
+     * @param height       the y size of the region
+     * @param depth        the z size of the region
+     * @param blockStates  the block states. The state at region relative (xo, yo, zo) is stored at offset + (xo * depth + zo) * columnStride + yo. null entries are air.
+     * @param offset       the index of the first block state in the array
+     * @param columnStride the distance between two columns in the array. (at least height)
+     */
+    @ThreadSafe
+    public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates, int offset, int columnStride) {
+        check(x, y, z);
+        check(x + width - 1, y + height - 1, z + depth - 1);
+        this.blockStateStorage.setBlockStates(x, y, z, width, height, depth, blockStates, offset, columnStride);
+    }
+
+    /**
+     * Applies the changes of the batch that lie in this section while holding the lock of the section once.
+     * Changes outside of the section are ignored.
+     *
+     * @param batch the chunk relative changes
+     * @return the number of changes applied
+     */
+    @ThreadSafe
+    public int applyBlockChanges(@NotNull BlockChangeBatch batch) {
+        int[] applied = new int[1];
+        this.blockStateStorage.write(storage -> {
+            for (int i = 0; i < batch.size(); i++) {
+                int y = batch.getY(i) - this.startHeight;
+                if (y < 0 || y >= CHUNK_SECTION_SIZE)
+                    continue;
+                int x = batch.getX(i), z = batch.getZ(i);
+                check(x, y, z);
+                storage.set(x, y, z, batch.getBlockState(i));
+                applied[0]++;
+            }
+        });
+        return applied[0];
     }
 
     public int getStartHeight() {
@@ -116,11 +153,44 @@ public class ChunkSection {
         return this.boundingBox;
     }
 
+    /**
+     * @return a consistent copy of the block storage of the section. Must be deleted by the caller.
+     */
     @NotNull
-    public BlockStateStorage getBlockStorageCopy() {
+    @ThreadSafe
+    public AdaptiveBlockStateStorage getBlockStorageCopy() {
         return this.blockStateStorage.copy();
     }
 
+    /**
+     * @return a copy on write snapshot of the block states of the section. Shared by all snapshot takers until the section is modified, must not be retained longer than needed.
+     * @see ConcurrentBlockStateStorage#snapshot()
+     */
+    @NotNull
+    @ThreadSafe
+    public IReadableBlockStateAccess getBlockStorageSnapshot() {
+        return this.blockStateStorage.snapshot();
+    }
+
+    /**
+     * Copies the block states of a region of the section into a new storage with a palette of only the occurring block states
+     *
+     * @param x      the section relative x coordinate of the region origin
+     * @param y      the section relative y coordinate of the region origin
+     * @param z      the section relative z coordinate of the region origin
+     * @param width  the x size of the region
+     * @param height the y size of the region
+     * @param depth  the z size of the region
+     * @return a consistent copy of the region (must be deleted by the caller) or null, if the region only consists of air
+     */
+    @Nullable
+    @ThreadSafe
+    public BlockStateStorage copyBlockStates(int x, int y, int z, int width, int height, int depth) {
+        check(x, y, z);
+        check(x + width - 1, y + height - 1, z + depth - 1);
+        return this.blockStateStorage.copyRegion(x, y, z, width, height, depth);
+    }
+
     private void check(int x, int y, int z) {
         if (y < 0 || y > CHUNK_SECTION_SIZE)
             throw new IllegalArgumentException("Y-Coordinate " + y + " not in relative chunk section bounds.");
@@ -135,9 +205,26 @@ public class ChunkSection {
      */
     @ThreadSafe
     public void clearBlocks() {
-        synchronized (this.blockStateStorage) {
-            this.blockStateStorage.clear();
-        }
+        this.blockStateStorage.clear();
+    }
+
+    /**
+     * Replaces the block states of the section with the given storage in one short swap
+     *
+     * @param storage the new block states. Created with {@link #createBlockStorage(IBlockStatePalette)} and not accessed by the caller afterwards.
+     */
+    @ThreadSafe
+    public void swapBlockStates(@NotNull AdaptiveBlockStateStorage storage) {
+        this.blockStateStorage.swap(storage).delete();
+    }
+
+    /**
+     * @param globalPalette the block state palette of the chunk
+     * @return a new empty storage with the dimensions of a chunk section, that can be filled without synchronization and published with {@link #swapBlockStates(AdaptiveBlockStateStorage)}
+     */
+    @NotNull
+    public static AdaptiveBlockStateStorage createBlockStorage(@NotNull IBlockStatePalette globalPalette) {
+        return new AdaptiveBlockStateStorage(CHUNK_SIZE, CHUNK_SECTION_SIZE, CHUNK_SIZE, globalPalette);
     }
 
     /**
@@ -147,9 +234,7 @@ public class ChunkSection {
      */
     @ThreadSafe
     public void apply(@NotNull byte[] chunkData) {
-        synchronized (this.blockStateStorage) {
-            this.blockStateStorage.apply(chunkData);
-        }
+        this.blockStateStorage.apply(chunkData);
     }
 
     /**
@@ -158,11 +243,15 @@ public class ChunkSection {
     @NotNull
     @ThreadSafe
     public byte[] getPaletteData() {
-        @NotNull byte[] data;
-        synchronized (this.blockStateStorage) {
-            data = this.blockStateStorage.getPaletteData();
-        }
-        return data;
+        return this.blockStateStorage.getPaletteData();
+    }
+
+    /**
+     * @return the number of bytes occupied by the block states of the section
+     */
+    @ThreadSafe
+    public int getByteSize() {
+        return this.blockStateStorage.getByteSize();
     }
 
     /**
@@ -0,0 +1,96 @@
+package me.gommeantilegit.minecraft.world.chunk.change;
+
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of chunk relative block changes of one chunk, that are applied together.
+ * Changes are stored in parallel primitive arrays, so that batching does not allocate an object per change.
+ * Not thread safe. A batch is owned by the worker applying it.
+ */
+public class BlockChangeBatch {
+
+    /**
+     * Chunk relative coordinates of the changes
+     */
+    @NotNull
+    private int[] xs, ys, zs;
+
+    /**
+     * The new block states of the changes. null is air.
+     */
+    @NotNull
+    private IBlockState[] blockStates;
+
+    /**
+     * The number of changes in the batch
+     */
+    private int size;
+
+    public BlockChangeBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.zs = new int[capacity];
+        this.blockStates = new IBlockState[capacity];
+    }
+
+    /**
+     * Appends a change to the batch
+     *
+     * @param x          chunk relative x coordinate
+     * @param y          y coordinate
+     * @param z          chunk relative z coordinate
+     * @param blockState the new block state
+     */
+    public void add(int x, int y, int z, @Nullable IBlockState blockState) {
+        if (this.size == this.xs.length) {
+            int capacity = this.size * 2;
+            this.xs = Arrays.copyOf(this.xs, capacity);
+            this.ys = Arrays.copyOf(this.ys, capacity);
+            this.zs = Arrays.copyOf(this.zs, capacity);
+            this.blockStates = Arrays.copyOf(this.blockStates, capacity);
+        }
+        this.xs[this.size] = x;
+        this.ys[this.size] = y;
+        this.zs[this.size] = z;
+        this.blockStates[this.size] = blockState;
+        this.size++;
+    }
+
+    /**
+     * Removes all changes from the batch
+     */
+    public void clear() {
+        Arrays.fill(this.blockStates, 0, this.size, null); // do not retain block states
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    public int getZ(int index) {
+        return zs[index];
+    }
+
+    @Nullable
+    public IBlockState getBlockState(int index) {
+        return blockStates[index];
+    }
+}
@@ -1,30 +1,308 @@
 package me.gommeantilegit.minecraft.world.chunk.change;
 
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.timer.api.Tickable;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+
+/**
+ * Schedules the writes to the block states of chunks.
+ * Chunks are distributed over a fixed number of shards by their coordinates. Every shard is processed by its own worker thread,
+ * so writes to the same chunk are applied in the order they were submitted, while writes to chunks of different shards proceed in parallel.
+ * Block changes are queued without allocating a future. A worker drains its queue and applies consecutive block changes of the same chunk as one batch,
+ * which acquires the lock of every touched chunk section only once.
+ */
 public class BlockStateSemaphoreBase implements Tickable {
 
+    /**
+     * The maximum number of queued writes a worker processes at once
+     */
+    private static final int MAX_DRAIN_SIZE = 4096;
+
+    /**
+     * The shards of the scheduler
+     */
+    @NotNull
+    private final Shard[] shards;
+
+    /**
+     * The highest queue depth of a single shard observed since the last {@link #resetPeakQueueDepth()}
+     */
     @NotNull
-    private final ExecutorService service = Executors.newSingleThreadExecutor(r -> {
-        Thread thread = new Thread(r, "BlockStateSemaphoreBase-Worker");
-        thread.setDaemon(true);
-        thread.setPriority(Thread.MAX_PRIORITY);
-        thread.setUncaughtExceptionHandler((t, e) -> e.printStackTrace());
-        return thread;
-    });
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    /**
+     * The number of block changes applied
+     */
+    @NotNull
+    private final LongAdder blockChangesApplied = new LongAdder();
+
+    /**
+     * The number of chunk section lock acquisitions performed to apply the block changes
+     */
+    @NotNull
+    private final LongAdder sectionBatchesApplied = new LongAdder();
+
+    /**
+     * Creates a scheduler with one shard per two available processors (at least one)
+     */
+    public BlockStateSemaphoreBase() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param numShards the number of shards and thus worker threads
+     */
+    public BlockStateSemaphoreBase(int numShards) {
+        if (numShards < 1)
+            throw new IllegalArgumentException("Number of shards must be positive: " + numShards);
+        this.shards = new Shard[numShards];
+        for (int i = 0; i < numShards; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
 
     @Override
     public void tick(float partialTicks) {
     }
 
-    @NotNull
-    public Future<?> writeSynchronized(@NotNull ChunkBase chunk, @NotNull Runnable runnable) {
-        return this.service.submit(runnable);
+    /**
+     * Invokes the runnable on the worker of the chunk after all previously submitted writes to the chunk have been applied
+     *
+     * @param chunk    the chunk the runnable writes to
+     * @param runnable the write operation
+     */
+    @ThreadSafe
+    public void writeSynchronized(@NotNull ChunkBase chunk, @NotNull Runnable runnable) {
+        submit(chunk.getX(), chunk.getZ(), new WriteTask(chunk, runnable));
+    }
+
+    /**
+     * Blocks until all writes to the chunk submitted before the call have been applied.
+     * Must not be called from a worker of the scheduler.
+     *
+     * @param chunk the chunk
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    @ThreadSafe
+    public void awaitWrites(@NotNull ChunkBase chunk) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        writeSynchronized(chunk, latch::countDown);
+        latch.await();
+    }
+
+    /**
+     * Queues a change of the block state at the chunk relative position
+     *
+     * @param chunk      the chunk to change
+     * @param x          the chunk relative x coordinate
+     * @param y          the y coordinate
+     * @param z          the chunk relative z coordinate
+     * @param blockState the new block state
+     */
+    @ThreadSafe
+    public void writeBlockChange(@NotNull ChunkBase chunk, int x, int y, int z, @Nullable IBlockState blockState) {
+        submit(chunk.getX(), chunk.getZ(), new WriteTask(chunk, x, y, z, blockState));
+    }
+
+    /**
+     * Enqueues the task to the shard of the chunk with the given origin
+     */
+    void submit(int chunkX, int chunkZ, @NotNull WriteTask task) {
+        Shard shard = this.shards[getShardIndex(chunkX, chunkZ)];
+        shard.queue.add(task);
+        int depth = shard.queue.size();
+        this.peakQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * @return the index of the shard processing the writes to the chunk with the given origin
+     */
+    private int getShardIndex(int chunkX, int chunkZ) {
+        int hash = Math.floorDiv(chunkX, CHUNK_SIZE) * 0x9E3779B1 + Math.floorDiv(chunkZ, CHUNK_SIZE);
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, this.shards.length);
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int getNumShards() {
+        return this.shards.length;
+    }
+
+    /**
+     * @return the number of writes currently queued over all shards
+     */
+    @ThreadSafe
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Shard shard : this.shards) {
+            depth += shard.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @param shard the shard index
+     * @return the number of writes currently queued for the shard
+     */
+    @ThreadSafe
+    public int getQueueDepth(int shard) {
+        return this.shards[shard].queue.size();
+    }
+
+    /**
+     * @return the highest queue depth of a single shard observed since the last reset
+     */
+    @ThreadSafe
+    public int getPeakQueueDepth() {
+        return this.peakQueueDepth.get();
+    }
+
+    /**
+     * Resets the value returned by {@link #getPeakQueueDepth()}
+     */
+    @ThreadSafe
+    public void resetPeakQueueDepth() {
+        this.peakQueueDepth.set(0);
+    }
+
+    /**
+     * @return the number of block changes applied
+     */
+    @ThreadSafe
+    public long getBlockChangesApplied() {
+        return this.blockChangesApplied.sum();
+    }
+
+    /**
+     * @return the number of chunk section lock acquisitions performed to apply the block changes. Compared to {@link #getBlockChangesApplied()} this shows the effect of batching.
+     */
+    @ThreadSafe
+    public long getSectionBatchesApplied() {
+        return this.sectionBatchesApplied.sum();
+    }
+
+    /**
+     * A queued write. Either a block change or an arbitrary runnable.
+     */
+    static final class WriteTask {
+
+        @Nullable
+        private final ChunkBase chunk;
+
+        /**
+         * The runnable to invoke or null, if the task is a block change
+         */
+        @Nullable
+        private final Runnable runnable;
+
+        private final int x, y, z;
+
+        @Nullable
+        private final IBlockState blockState;
+
+        WriteTask(@Nullable ChunkBase chunk, @NotNull Runnable runnable) {
+            this.chunk = chunk;
+            this.runnable = runnable;
+            this.x = this.y = this.z = 0;
+            this.blockState = null;
+        }
+
+        private WriteTask(@NotNull ChunkBase chunk, int x, int y, int z, @Nullable IBlockState blockState) {
+            this.chunk = chunk;
+            this.runnable = null;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.blockState = blockState;
+        }
+    }
+
+    /**
+     * A queue of writes and the worker thread processing it
+     */
+    private final class Shard {
+
+        @NotNull
+        private final LinkedBlockingQueue<WriteTask> queue = new LinkedBlockingQueue<>();
+
+        /**
+         * The block changes of the chunk currently being batched
+         */
+        @NotNull
+        private final BlockChangeBatch batch = new BlockChangeBatch(256);
+
+        /**
+         * The chunk the changes in {@link #batch} belong to
+         */
+        @Nullable
+        private ChunkBase batchChunk;
+
+        private Shard(int index) {
+            Thread thread = new Thread(this::run, "BlockStateSemaphoreBase-Worker-" + index);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            thread.setUncaughtExceptionHandler((t, e) -> e.printStackTrace());
+            thread.start();
+        }
+
+        private void run() {
+            List<WriteTask> tasks = new ArrayList<>();
+            while (true) {
+                try {
+                    tasks.add(this.queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                this.queue.drainTo(tasks, MAX_DRAIN_SIZE - 1);
+                for (WriteTask task : tasks) {
+                    if (task.runnable == null) {
+                        if (task.chunk != this.batchChunk)
+                            flush();
+                        this.batchChunk = task.chunk;
+                        this.batch.add(task.x, task.y, task.z, task.blockState);
+                    } else {
+                        flush();
+                        try {
+                            task.runnable.run();
+                        } catch (Throwable t) {
+                            t.printStackTrace();
+                        }
+                    }
+                }
+                flush();
+                tasks.clear();
+            }
+        }
+
+        /**
+         * Applies the batched block changes
+         */
+        private void flush() {
+            ChunkBase chunk = this.batchChunk;
+            if (chunk != null && !this.batch.isEmpty()) {
+                try {
+                    sectionBatchesApplied.add(chunk.writeBlockChanges(this.batch));
+                    blockChangesApplied.add(this.batch.size());
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+            this.batch.clear();
+            this.batchChunk = null;
+        }
     }
 }
@@ -1,25 +1,23 @@
 package me.gommeantilegit.minecraft.world.chunk.loader;
 
+import com.badlogic.gdx.math.Vector3;
 import me.gommeantilegit.minecraft.annotations.ThreadSafe;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.entity.player.base.PlayerBase;
 import me.gommeantilegit.minecraft.timer.api.Tickable;
-import me.gommeantilegit.minecraft.util.VectorUtils;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
 import me.gommeantilegit.minecraft.world.WorldBase;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
-import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.ref.Reference;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
 
 public abstract class ChunkLoaderBase implements Tickable {
 
@@ -30,17 +28,10 @@ public abstract class ChunkLoaderBase implements Tickable {
     protected final WorldBase world;
 
     /**
-     * Stores the list of chunks loaded for a given entity
+     * The chunk tickets of every viewer. A viewer holds one ticket for every chunk of its {@link ChunkLoadingArea}.
      */
     @NotNull
-    private final Map<Entity, List<ChunkBase>> entityParentChunkLoads = new ConcurrentHashMap<>();
-
-    /**
-     * Players viewing the world
-     */
-    @NotNull
-    @ThreadSafe
-    private final List<PlayerBase> viewers;
+    private final Map<PlayerBase, ViewerTickets> viewerTickets = new ConcurrentHashMap<>();
 
     /**
      * Executes the actions asynchronously
@@ -59,7 +50,6 @@ public abstract class ChunkLoaderBase implements Tickable {
      */
     public ChunkLoaderBase(@NotNull WorldBase world) {
         this.world = world;
-        this.viewers = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -68,14 +58,6 @@ public abstract class ChunkLoaderBase implements Tickable {
      */
     public abstract int getChunkLoadingDistance(@NotNull Entity ent);
 
-    /**
-     * @return true if the chunk is in chunk loading distance of the given entity
-     */
-    private boolean isInDistance(@NotNull ChunkBase chunk, @NotNull Entity entity) {
-        int chunkLoadingDistance = getChunkLoadingDistance(entity);
-        return chunk.getChunkOrigin().getDistance(VectorUtils.xzTo2Di(entity.getPositionVector())) < chunkLoadingDistance;
-    }
-
     /**
      * Keeps track of entity chunk changes and loads the appropriate chunks
      *
@@ -87,7 +69,7 @@ public abstract class ChunkLoaderBase implements Tickable {
         if (!(entity instanceof PlayerBase)) {
             return;
         }
-        if (!this.viewers.contains(entity)) {
+        if (!this.viewerTickets.containsKey(entity)) {
             return;
         }
         scheduleChunkActions(entity);
@@ -103,12 +85,15 @@ public abstract class ChunkLoaderBase implements Tickable {
         if (!(entity instanceof PlayerBase)) {
             return;
         }
-        if (!this.viewers.contains(entity)) {
+        ViewerTickets tickets = this.viewerTickets.get(entity);
+        if (tickets == null) {
             return;
         }
-        if (!chunk.isLoaded())
-            load(chunk, entity);
-
+        synchronized (tickets) {
+            // the chunk the viewer spawned in is loaded immediately. The ticket is released once the area of the viewer is ticketed.
+            if (!tickets.released && tickets.spawnChunk == null && tryAcquireTicket(chunk, entity))
+                tickets.spawnChunk = chunk;
+        }
         scheduleChunkActions(entity);
     }
 
@@ -116,114 +101,120 @@ public abstract class ChunkLoaderBase implements Tickable {
         this.executorService.submit(() -> performChunkActions(entity));
     }
 
+    /**
+     * Moves the tickets of the viewer to its current chunk loading area. Only the chunks of the ring between the previous and the current area are visited.
+     * Tickets for chunks entering the area are acquired before the tickets of chunks leaving it are released.
+     *
+     * @param entity the viewer
+     */
     protected void performChunkActions(@NotNull Entity entity) {
-        long start = System.currentTimeMillis();
-        int chunkLoadingDistance = getChunkLoadingDistance(entity);
-        this.world.getChunkCreator().generateChunksAroundEntity(entity, chunkLoadingDistance);
-        List<ChunkBase> loadedForEntity = getChunksLoadedFor(entity);
-
-        // unload chunks
-        List<ChunkBase> toUnload = getUnloadableChunks(entity, loadedForEntity, chunk -> !isInDistance(chunk, entity));
-        for (ChunkBase chunk : toUnload) {
-            unload(chunk, entity);
-        }
-
-        // load chunks
-        List<ChunkBase> toLoad = getLoadableChunks(chunk -> isInDistance(chunk, entity));
-        for (ChunkBase chunk : toLoad) {
-            load(chunk, entity);
-        }
-        long end = System.currentTimeMillis();
-//            System.out.println("Chunk loading took: " + (end - start) + " ms");
-    }
-
-    protected synchronized void load(@NotNull ChunkBase chunk, @NotNull Entity entity) {
-        if (chunk.isLoaded())
+        ViewerTickets tickets = this.viewerTickets.get(entity);
+        if (tickets == null)
             return;
-        List<ChunkBase> entityChunks = getChunksLoadedFor(entity);
-        entityChunks.add(chunk);
-        chunk.load();
-//        System.out.println("load");
-    }
-
-    protected synchronized void unload(@NotNull ChunkBase chunk, @NotNull Entity entity) {
-        if (!chunk.isLoaded())
-            throw new IllegalStateException("Tried to unload an unloaded or uninitialized chunk: " + chunk);
-        List<ChunkBase> entityChunks = getChunksLoadedFor(entity);
-        entityChunks.remove(chunk);
-        chunk.unload();
-//        System.out.println("unload: " + chunk);
+        synchronized (tickets) {
+            if (tickets.released)
+                return;
+            Vector3 position = entity.getPositionVector();
+            Vec2i centerOrigin = this.world.getChunkOrigin(position.x, position.z);
+            ChunkLoadingArea previousArea = tickets.area;
+            ChunkLoadingArea area = new ChunkLoadingArea(
+                    Math.floorDiv(centerOrigin.getX(), CHUNK_SIZE), Math.floorDiv(centerOrigin.getY(), CHUNK_SIZE),
+                    getChunkLoadingDistance(entity)
+            );
+            if (previousArea == null || !previousArea.equals(area)) {
+                area.forEachChunkNotIn(previousArea, (chunkX, chunkZ) -> {
+                    long key = Vec2i.hash64(chunkX, chunkZ);
+                    if (!tickets.chunks.containsKey(key))
+                        tickets.chunks.put(key, acquireTicket(chunkX, chunkZ, entity));
+                });
+                if (previousArea != null) {
+                    previousArea.forEachChunkNotIn(area, (chunkX, chunkZ) -> {
+                        ChunkBase chunk = tickets.chunks.remove(Vec2i.hash64(chunkX, chunkZ));
+                        if (chunk != null)
+                            releaseTicket(chunk, entity);
+                    });
+                }
+                tickets.area = area;
+            }
+            if (tickets.spawnChunk != null) {
+                releaseTicket(tickets.spawnChunk, entity);
+                tickets.spawnChunk = null;
+            }
+        }
     }
 
     /**
-     * @param predicate the chunk predicate
-     * @return all loadable (state != loaded) chunks that match the given predicate
+     * Acquires a ticket for the chunk at the given coordinates, creating the chunk if necessary.
+     * If the chunk is removed from the world before the ticket is acquired, it is created again.
+     *
+     * @param chunkX the x coordinate of the chunk in unit chunks
+     * @param chunkZ the z coordinate of the chunk in unit chunks
+     * @param entity the viewer acquiring the ticket
+     * @return the chunk the ticket was acquired for
      */
     @NotNull
-    private List<ChunkBase> getLoadableChunks(@NotNull Predicate<ChunkBase> predicate) {
-        WorldChunkHandlerBase chunkHandler = this.world.getWorldChunkHandler();
-        Stream<ChunkBase> chunks = chunkHandler.getLoadableChunks()
-                .map(this::reportDeleted)
-                .filter(Objects::nonNull)
-                .filter(predicate);
-        return chunks.collect(Collectors.toList());
-    }
-
-    @Nullable
-    private ChunkBase reportDeleted(@NotNull Reference<ChunkBase> reference) {
-        WorldChunkHandlerBase chunkHandler = this.world.getWorldChunkHandler();
-        ChunkBase chunk = reference.get();
-        if (chunk == null) {
-            // TODO: report deleted here
-            return null;
+    private ChunkBase acquireTicket(int chunkX, int chunkZ, @NotNull Entity entity) {
+        Vec2i origin = new Vec2i(chunkX * CHUNK_SIZE, chunkZ * CHUNK_SIZE);
+        while (true) {
+            ChunkBase chunk = this.world.getChunkCreator().tryCreateChunkFor(origin);
+            if (tryAcquireTicket(chunk, entity))
+                return chunk;
         }
-        return chunk;
     }
 
     /**
-     * Unloads the chunks of #loadedChunks that match #predicate and are not contained in any other viewers loaded chunk list
+     * Acquires a ticket for the chunk and loads it, if it is the first ticket.
+     * Only the lock of the chunk is held, so viewers acquiring tickets for different chunks do not contend.
+     *
+     * @param chunk  the chunk
+     * @param entity the viewer acquiring the ticket
+     * @return false if the chunk has been removed from the world and no ticket was acquired
      */
-    @NotNull
-    private List<ChunkBase> getUnloadableChunks(@NotNull Entity viewer, @NotNull List<ChunkBase> loadedChunks, @NotNull Predicate<ChunkBase> predicate) {
-        List<ChunkBase> unloadable = new ArrayList<>();
-        for (ChunkBase chunk : loadedChunks) {
-            if (predicate.test(chunk)) {
-                unloadable.add(chunk);
-            }
+    private boolean tryAcquireTicket(@NotNull ChunkBase chunk, @NotNull Entity entity) {
+        synchronized (chunk.getTicketLock()) {
+            if (chunk.isRemoved())
+                return false;
+            if (chunk.acquireTicket() == 1)
+                load(chunk, entity);
+            return true;
         }
-        List<Entity> otherViewers = getOtherViewers(viewer);
-        List<ChunkBase> otherLoadedChunks = getLoadedChunks(otherViewers); // all chunks loaded by other entities
-        unloadable.removeAll(otherLoadedChunks);
-        return unloadable;
     }
 
-    @NotNull
-    private List<Entity> getOtherViewers(@NotNull Entity viewer) {
-        List<Entity> otherViewers = new ArrayList<>(this.viewers);
-        otherViewers.remove(viewer);
-        return otherViewers;
+    /**
+     * Releases a ticket of the chunk and unloads it, if it was the last ticket
+     *
+     * @param chunk  the chunk
+     * @param entity the viewer releasing the ticket
+     */
+    private void releaseTicket(@NotNull ChunkBase chunk, @NotNull Entity entity) {
+        synchronized (chunk.getTicketLock()) {
+            if (chunk.releaseTicket() == 0)
+                unload(chunk, entity);
+        }
     }
 
     /**
-     * @param entities the list of entities
-     * @return all chunks loaded by all the entities supplied
+     * Loads the chunk. Invoked when the first ticket of the chunk is acquired, while holding the ticket lock of the chunk.
+     *
+     * @param chunk  the chunk
+     * @param entity the viewer that acquired the ticket
      */
-    @NotNull
-    protected List<ChunkBase> getLoadedChunks(@NotNull List<Entity> entities) {
-        List<ChunkBase> chunkList = new ArrayList<>();
-        for (Entity entity : entities) {
-            List<ChunkBase> entityChunks = getChunksLoadedFor(entity);
-            chunkList.addAll(entityChunks);
-        }
-        return chunkList;
+    protected void load(@NotNull ChunkBase chunk, @NotNull Entity entity) {
+        if (chunk.isLoaded())
+            return;
+        chunk.load();
     }
 
-    @NotNull
-    protected List<ChunkBase> getChunksLoadedFor(@NotNull Entity entity) {
-        List<ChunkBase> chunks = this.entityParentChunkLoads.get(entity);
-        if (chunks == null)
-            throw new IllegalStateException("Could not retrieve chunks loaded for entity which is not a viewer: " + entity);
-        return chunks;
+    /**
+     * Unloads the chunk. Invoked when the last ticket of the chunk is released, while holding the ticket lock of the chunk.
+     *
+     * @param chunk  the chunk
+     * @param entity the viewer that released the ticket
+     */
+    protected void unload(@NotNull ChunkBase chunk, @NotNull Entity entity) {
+        if (!chunk.isLoaded())
+            throw new IllegalStateException("Tried to unload an unloaded or uninitialized chunk: " + chunk);
+        chunk.unload();
     }
 
     /**
@@ -233,28 +224,65 @@ public abstract class ChunkLoaderBase implements Tickable {
      */
     @ThreadSafe
     public void addViewer(@NotNull PlayerBase viewer) {
-        this.viewers.add(viewer);
-        this.entityParentChunkLoads.put(viewer, new CopyOnWriteArrayList<>());
+        this.viewerTickets.putIfAbsent(viewer, new ViewerTickets());
     }
 
     /**
-     * Removes a viewer from the list of viewers
+     * Removes a viewer from the list of viewers and releases all its tickets
      *
      * @param viewer the viewer
      */
     @ThreadSafe
     public void removeViewer(@NotNull PlayerBase viewer) {
-        List<ChunkBase> chunks = this.entityParentChunkLoads.get(viewer);
-        List<ChunkBase> toUnload = getUnloadableChunks(viewer, chunks, chunk -> true);
-        for (ChunkBase chunk : toUnload) {
-            unload(chunk, viewer);
+        ViewerTickets tickets = this.viewerTickets.remove(viewer);
+        if (tickets == null)
+            return;
+        synchronized (tickets) {
+            tickets.released = true;
+            for (ChunkBase chunk : tickets.chunks.values()) {
+                releaseTicket(chunk, viewer);
+            }
+            tickets.chunks.clear();
+            tickets.area = null;
+            if (tickets.spawnChunk != null) {
+                releaseTicket(tickets.spawnChunk, viewer);
+                tickets.spawnChunk = null;
+            }
         }
-        this.viewers.remove(viewer);
     }
 
     public void trackChunkLoadingDistanceChange(int renderDistance) {
-        for (PlayerBase viewer : viewers) {
+        for (PlayerBase viewer : this.viewerTickets.keySet()) {
             scheduleChunkActions(viewer);
         }
     }
+
+    /**
+     * The tickets held by a single viewer. Guarded by the instance itself.
+     */
+    private static final class ViewerTickets {
+
+        /**
+         * The chunks the viewer holds a ticket for by {@link Vec2i#hash64(int, int)} of their unit chunk coordinates
+         */
+        @NotNull
+        private final Map<Long, ChunkBase> chunks = new HashMap<>();
+
+        /**
+         * The area the tickets were acquired for or null, if no tickets were acquired yet
+         */
+        @Nullable
+        private ChunkLoadingArea area;
+
+        /**
+         * The chunk the viewer spawned in, if its ticket is held in addition to the tickets of the area
+         */
+        @Nullable
+        private ChunkBase spawnChunk;
+
+        /**
+         * State whether the viewer was removed. No tickets may be acquired anymore then.
+         */
+        private boolean released;
+    }
 }
@@ -0,0 +1,137 @@
+package me.gommeantilegit.minecraft.world.chunk.loader;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+
+/**
+ * The chunks loaded for a viewer: all chunks whose origin is closer than the chunk loading distance to the origin of the center chunk.
+ * The area is stored as the half width of every chunk row, so that the difference of two areas can be enumerated row by row
+ * in time proportional to the number of rows plus the number of chunks in the difference, instead of the number of chunks in the area.
+ * Coordinates are in unit chunks (chunk origin / {@link me.gommeantilegit.minecraft.world.chunk.ChunkBase#CHUNK_SIZE}).
+ * Instances are immutable.
+ */
+public class ChunkLoadingArea {
+
+    /**
+     * Center chunk coordinates
+     */
+    private final int centerX, centerZ;
+
+    /**
+     * The chunk loading distance in blocks
+     */
+    private final int distance;
+
+    /**
+     * halfWidths[dz] is the greatest dx, for which the chunk (centerX ± dx, centerZ ± dz) is part of the area, or -1 if the row is empty
+     */
+    private final int[] halfWidths;
+
+    /**
+     * @param centerX  the x coordinate of the center chunk in unit chunks
+     * @param centerZ  the z coordinate of the center chunk in unit chunks
+     * @param distance the chunk loading distance in blocks
+     */
+    public ChunkLoadingArea(int centerX, int centerZ, int distance) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.distance = distance;
+        long maxDistanceSquared = (long) distance * distance;
+        int radius = Math.max(0, (distance + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.halfWidths = new int[radius + 1];
+        int halfWidth = radius;
+        for (int dz = 0; dz <= radius; dz++) {
+            // half widths are monotonically decreasing
+            while (halfWidth >= 0 && ((long) halfWidth * halfWidth + (long) dz * dz) * CHUNK_SIZE * CHUNK_SIZE >= maxDistanceSquared) {
+                halfWidth--;
+            }
+            this.halfWidths[dz] = halfWidth;
+        }
+    }
+
+    /**
+     * @return true if the chunk is part of the area
+     */
+    public boolean contains(int chunkX, int chunkZ) {
+        int halfWidth = getHalfWidth(chunkZ);
+        return halfWidth >= 0 && Math.abs(chunkX - this.centerX) <= halfWidth;
+    }
+
+    /**
+     * @return the half width of the row with the given z coordinate, or -1 if the row is empty
+     */
+    private int getHalfWidth(int chunkZ) {
+        int dz = Math.abs(chunkZ - this.centerZ);
+        return dz < this.halfWidths.length ? this.halfWidths[dz] : -1;
+    }
+
+    /**
+     * Invokes the consumer with every chunk of this area, that is not part of the other area
+     *
+     * @param other    the other area or null for the empty area
+     * @param consumer the consumer invoked with the chunk coordinates in unit chunks
+     */
+    public void forEachChunkNotIn(@Nullable ChunkLoadingArea other, ChunkConsumer consumer) {
+        int radius = this.halfWidths.length - 1;
+        for (int chunkZ = this.centerZ - radius; chunkZ <= this.centerZ + radius; chunkZ++) {
+            int halfWidth = getHalfWidth(chunkZ);
+            if (halfWidth < 0)
+                continue;
+            int minX = this.centerX - halfWidth, maxX = this.centerX + halfWidth;
+            int otherHalfWidth = other == null ? -1 : other.getHalfWidth(chunkZ);
+            if (otherHalfWidth < 0) {
+                forEachInRow(minX, maxX, chunkZ, consumer);
+                continue;
+            }
+            int otherMinX = other.centerX - otherHalfWidth, otherMaxX = other.centerX + otherHalfWidth;
+            forEachInRow(minX, Math.min(maxX, otherMinX - 1), chunkZ, consumer);
+            forEachInRow(Math.max(minX, otherMaxX + 1), maxX, chunkZ, consumer);
+        }
+    }
+
+    private static void forEachInRow(int minX, int maxX, int chunkZ, ChunkConsumer consumer) {
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            consumer.accept(chunkX, chunkZ);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChunkLoadingArea that = (ChunkLoadingArea) o;
+        return centerX == that.centerX && centerZ == that.centerZ && distance == that.distance;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(centerX, centerZ, distance);
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterZ() {
+        return centerZ;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Consumer of chunk coordinates
+     */
+    public interface ChunkConsumer {
+
+        /**
+         * @param chunkX x coordinate in unit chunks
+         * @param chunkZ z coordinate in unit chunks
+         */
+        void accept(int chunkX, int chunkZ);
+    }
+}
@@ -0,0 +1,292 @@
+package me.gommeantilegit.minecraft.world.chunk.tick;
+
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+
+/**
+ * Ticks the loaded chunks of a world in regions of {@link #REGION_SIZE}x{@link #REGION_SIZE} chunks.
+ * The regions are colored like a checkerboard by the parity of their region coordinates, resulting in {@link #PHASES} phases.
+ * The regions of a phase are ticked in parallel on the work stealing pool, the chunks of a region sequentially in a fixed order.
+ * Two regions of the same phase are separated by at least one region, so that a chunk tick never runs concurrently with the tick of a chunk,
+ * that is less than {@link #REGION_SIZE} chunks away. Entities leaving their chunk are handed to their new chunk after all regions of the phase
+ * have been ticked, by the ticking thread in region order. Cross-chunk handoffs therefore need no locking and happen in the same order every tick,
+ * independent of the number of worker threads.
+ * <p>
+ * Per-region tick times are recorded and can be read from any thread.
+ */
+public class RegionTickScheduler {
+
+    /**
+     * The number of chunks per region along the x and z axis
+     */
+    public static final int REGION_SIZE = 2;
+
+    /**
+     * The number of phases. One for every combination of the parities of the region coordinates.
+     */
+    public static final int PHASES = 4;
+
+    /**
+     * Sorts regions and chunks by their x and then their z coordinate
+     */
+    @NotNull
+    private static final Comparator<Region> REGION_ORDER = Comparator.<Region>comparingInt(region -> region.regionX).thenComparingInt(region -> region.regionZ);
+
+    @NotNull
+    private static final Comparator<ChunkBase> CHUNK_ORDER = Comparator.comparingInt(ChunkBase::getX).thenComparingInt(ChunkBase::getZ);
+
+    /**
+     * The pool to tick the regions of a phase with. Null, if the regions should be ticked by the calling thread.
+     */
+    @Nullable
+    private final ForkJoinPool pool;
+
+    /**
+     * The regions containing loaded chunks by their packed region coordinates.
+     * Modified by the ticking thread only, concurrent to allow reading metrics from other threads.
+     */
+    @NotNull
+    private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * The regions of every phase in tick order. Only accessed by the ticking thread.
+     */
+    @NotNull
+    private final List<List<Region>> phases = new ArrayList<>(PHASES);
+
+    /**
+     * The duration of the last {@link #tick(Collection)} call in nanoseconds
+     */
+    private volatile long lastTickNanos;
+
+    /**
+     * @param pool the pool to tick the regions of a phase with, or null to tick all regions on the calling thread
+     */
+    public RegionTickScheduler(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+        for (int i = 0; i < PHASES; i++) {
+            this.phases.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Ticks the given chunks phase by phase and hands entities that changed their chunk to their new chunk after every phase.
+     * Must only be called by one thread at a time.
+     *
+     * @param chunks the loaded chunks of the world
+     */
+    public void tick(@NotNull Collection<ChunkBase> chunks) {
+        long start = System.nanoTime();
+        partition(chunks);
+        for (List<Region> phase : this.phases) {
+            if (phase.isEmpty())
+                continue;
+            if (this.pool == null || phase.size() == 1) {
+                for (Region region : phase) {
+                    region.tick();
+                }
+            } else {
+                this.pool.submit(() -> phase.parallelStream().forEach(Region::tick)).join();
+            }
+            // the phase barrier, no chunk is ticked while the entities are handed over
+            for (Region region : phase) {
+                for (ChunkBase chunk : region.chunks) {
+                    chunk.dispatchOutgoingEntities();
+                }
+            }
+        }
+        this.lastTickNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Assigns the chunks to their regions, removes regions without chunks and sorts the regions into their phases
+     *
+     * @param chunks the loaded chunks of the world
+     */
+    private void partition(@NotNull Collection<ChunkBase> chunks) {
+        for (Region region : this.regions.values()) {
+            region.chunks.clear();
+        }
+        for (ChunkBase chunk : chunks) {
+            int regionX = getRegionCoordinate(chunk.getX()), regionZ = getRegionCoordinate(chunk.getZ());
+            Region region = this.regions.computeIfAbsent(getRegionKey(regionX, regionZ), key -> new Region(regionX, regionZ));
+            region.chunks.add(chunk);
+        }
+        for (List<Region> phase : this.phases) {
+            phase.clear();
+        }
+        for (Iterator<Region> iterator = this.regions.values().iterator(); iterator.hasNext(); ) {
+            Region region = iterator.next();
+            if (region.chunks.isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+            region.chunks.sort(CHUNK_ORDER);
+            region.chunkCount = region.chunks.size();
+            this.phases.get(getPhase(region.regionX, region.regionZ)).add(region);
+        }
+        for (List<Region> phase : this.phases) {
+            phase.sort(REGION_ORDER);
+        }
+    }
+
+    /**
+     * @param blockCoordinate the x or z block coordinate of a chunk origin
+     * @return the x or z coordinate of the region containing the chunk
+     */
+    public static int getRegionCoordinate(int blockCoordinate) {
+        return Math.floorDiv(blockCoordinate, CHUNK_SIZE * REGION_SIZE);
+    }
+
+    /**
+     * @return the phase the region at the given region coordinates is ticked in
+     */
+    public static int getPhase(int regionX, int regionZ) {
+        return (regionX & 1) | (regionZ & 1) << 1;
+    }
+
+    private static long getRegionKey(int regionX, int regionZ) {
+        return (long) regionX << 32 | (regionZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the duration of the last tick of all regions in nanoseconds
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * @return the number of regions containing loaded chunks
+     */
+    @ThreadSafe
+    public int getRegionCount() {
+        return this.regions.size();
+    }
+
+    /**
+     * @param count the maximum number of regions to return
+     * @return the regions with the longest last tick time, slowest first
+     */
+    @NotNull
+    @ThreadSafe
+    public List<Region> getHottestRegions(int count) {
+        List<Region> regions = new ArrayList<>(this.regions.values());
+        regions.sort(Comparator.comparingLong(Region::getLastTickNanos).reversed());
+        return regions.size() > count ? new ArrayList<>(regions.subList(0, count)) : regions;
+    }
+
+    /**
+     * A group of {@link #REGION_SIZE}x{@link #REGION_SIZE} chunks ticked sequentially by one thread.
+     * The tick time metrics are written by the thread ticking the region and may be read from any thread.
+     */
+    public static class Region {
+
+        /**
+         * The region coordinates
+         */
+        private final int regionX, regionZ;
+
+        /**
+         * The chunks of the region in tick order. Only accessed by the ticking threads.
+         */
+        @NotNull
+        private final List<ChunkBase> chunks = new ArrayList<>(REGION_SIZE * REGION_SIZE);
+
+        /**
+         * The number of chunks ticked in the last tick
+         */
+        private volatile int chunkCount;
+
+        /**
+         * The number of ticks the region has performed
+         */
+        private volatile long ticks;
+
+        /**
+         * The last, longest and accumulated tick time of the region in nanoseconds
+         */
+        private volatile long lastTickNanos, maxTickNanos, totalTickNanos;
+
+        private Region(int regionX, int regionZ) {
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+        private void tick() {
+            long start = System.nanoTime();
+            for (ChunkBase chunk : this.chunks) {
+                chunk.tickEntities();
+            }
+            long nanos = System.nanoTime() - start;
+            // single writer per tick, volatile for visibility only
+            this.lastTickNanos = nanos;
+            this.totalTickNanos += nanos;
+            this.ticks++;
+            if (nanos > this.maxTickNanos)
+                this.maxTickNanos = nanos;
+        }
+
+        public int getRegionX() {
+            return regionX;
+        }
+
+        public int getRegionZ() {
+            return regionZ;
+        }
+
+        /**
+         * @return the number of chunks ticked in the last tick
+         */
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        /**
+         * @return the number of ticks the region has performed
+         */
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * @return the duration of the last tick of the region in nanoseconds
+         */
+        public long getLastTickNanos() {
+            return lastTickNanos;
+        }
+
+        /**
+         * @return the duration of the longest tick of the region in nanoseconds
+         */
+        public long getMaxTickNanos() {
+            return maxTickNanos;
+        }
+
+        /**
+         * @return the average tick duration of the region in nanoseconds, or 0 if the region has not been ticked yet
+         */
+        public long getAverageTickNanos() {
+            long ticks = this.ticks;
+            return ticks == 0 ? 0 : this.totalTickNanos / ticks;
+        }
+
+        @Override
+        public String toString() {
+            return "Region(" + regionX + ", " + regionZ + ")";
+        }
+    }
+}
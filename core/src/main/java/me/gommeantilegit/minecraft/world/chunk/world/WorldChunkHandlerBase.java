@@ -6,36 +6,35 @@ import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
 
+/**
+ * Keeps track of the chunks of a world and their loaded state.
+ * All chunks and the chunks of each state are stored in concurrent maps keyed by {@link Vec2i#hash64(int, int)} of the chunk origin,
+ * so that lookups and state transitions are constant time. Chunks near a position are enumerated by their origins instead of scanning all chunks.
+ */
 public class WorldChunkHandlerBase {
 
     /**
-     * Stores all currently loaded chunks
-     * Only accessible from Minecraft Thread!
+     * Stores all currently loaded chunks by origin hash
      */
     @NotNull
-    private final List<ChunkBase> loadedChunks;
+    private final Map<Long, ChunkBase> loadedChunks = new ConcurrentHashMap<>();
 
     /**
-     * Stores all currently unloaded chunks
-     * Only accessible from Minecraft Thread!
+     * Stores all currently unloaded chunks by origin hash
      */
     @NotNull
-    private final List<ChunkBase> unloadedChunks;
+    private final Map<Long, ChunkBase> unloadedChunks = new ConcurrentHashMap<>();
 
     /**
-     * List storing all chunks of the world.
-     * Only accessible from Minecraft Thread!
+     * Stores the chunks that are neither loaded or unloaded by origin hash
      */
     @NotNull
-    private final List<ChunkBase> chunks;
+    private final Map<Long, ChunkBase> uninitializedChunks = new ConcurrentHashMap<>();
 
     /**
      * A map containing all registered chunk origins and their parent chunks at that origin.
@@ -44,22 +43,7 @@ public class WorldChunkHandlerBase {
     @NotNull
     private final Map<Long, ChunkBase> chunkMap = new ConcurrentHashMap<>();
 
-//    /**
-//     * Hash set of all chunk origins
-//     */
-//    @NotNull
-//    private final Set<Long> chunkOrigins = new ConcurrentSet<>();
-
-    /**
-     * List of uninitialized chunks that are neither loaded or unloaded
-     */
-    @NotNull
-    private final List<ChunkBase> uninitializedChunks = new CopyOnWriteArrayList<>();
-
     public WorldChunkHandlerBase() {
-        this.chunks = new CopyOnWriteArrayList<>();
-        this.unloadedChunks = new CopyOnWriteArrayList<>();
-        this.loadedChunks = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -83,7 +67,7 @@ public class WorldChunkHandlerBase {
     }
 
     /**
-     * Adds the specified chunk to the chunk list and registers it in the chunk origin hash map
+     * Registers the specified chunk in the chunk origin hash map as uninitialized
      *
      * @param chunk the new chunk
      */
@@ -93,9 +77,8 @@ public class WorldChunkHandlerBase {
             return;
 
         long hash = Vec2i.hash64(chunk.getX(), chunk.getZ());
-        this.chunks.add(chunk);
         this.chunkMap.put(hash, chunk);
-        this.uninitializedChunks.add(chunk);
+        this.uninitializedChunks.put(hash, chunk);
         initNeighbors(chunk);
     }
 
@@ -123,39 +106,98 @@ public class WorldChunkHandlerBase {
         }
     }
 
+    /**
+     * @return a live view of all chunks of the world. Iteration is weakly consistent.
+     */
     @NotNull
     @ThreadSafe
-    public List<ChunkBase> collectChunks() {
-        return chunks;
+    public Collection<ChunkBase> collectChunks() {
+        return this.chunkMap.values();
     }
 
+    /**
+     * @return a live view of the loaded chunks. Iteration is weakly consistent.
+     */
     @NotNull
     @ThreadSafe
-    public List<ChunkBase> getLoadedChunks() {
-        return loadedChunks;
+    public Collection<ChunkBase> getLoadedChunks() {
+        return this.loadedChunks.values();
     }
 
     @ThreadSafe
-    public synchronized void loadChunk(@NotNull ChunkBase chunk) {
-        this.uninitializedChunks.remove(chunk);
+    public int getNumLoadedChunks() {
+        return this.loadedChunks.size();
+    }
+
+    @ThreadSafe
+    public int getNumUnloadedChunks() {
+        return this.unloadedChunks.size();
+    }
 
-        if (!this.loadedChunks.contains(chunk))
-            this.loadedChunks.add(chunk);
+    @ThreadSafe
+    public int getNumUninitializedChunks() {
+        return this.uninitializedChunks.size();
+    }
 
-        this.unloadedChunks.remove(chunk);
+    @ThreadSafe
+    public synchronized void loadChunk(@NotNull ChunkBase chunk) {
+        long hash = Vec2i.hash64(chunk.getX(), chunk.getZ());
+        if (this.chunkMap.get(hash) != chunk)
+            return; // removed
+        this.uninitializedChunks.remove(hash);
+        this.unloadedChunks.remove(hash);
+        this.loadedChunks.put(hash, chunk);
     }
 
     @ThreadSafe
     public synchronized void unloadChunk(@NotNull ChunkBase chunk) {
-        this.uninitializedChunks.remove(chunk);
+        long hash = Vec2i.hash64(chunk.getX(), chunk.getZ());
+        if (this.chunkMap.get(hash) != chunk)
+            return; // removed
+        this.uninitializedChunks.remove(hash);
+        this.loadedChunks.remove(hash);
+        this.unloadedChunks.put(hash, chunk);
+    }
 
-        if (!this.unloadedChunks.contains(chunk))
-            this.unloadedChunks.add(chunk);
-        this.loadedChunks.remove(chunk);
+    /**
+     * Removes the chunk from the world, if it is not loaded. The chunk is unlinked from its neighbors.
+     * Chunks are only removed to free memory. A chunk created for the same origin afterwards replaces the removed instance.
+     *
+     * @param chunk the chunk to remove
+     * @return true if the chunk has been removed, false if it is loaded or not registered
+     */
+    @ThreadSafe
+    public synchronized boolean removeChunk(@NotNull ChunkBase chunk) {
+        long hash = Vec2i.hash64(chunk.getX(), chunk.getZ());
+        if (this.chunkMap.get(hash) != chunk || this.loadedChunks.containsKey(hash))
+            return false;
+        this.chunkMap.remove(hash);
+        this.unloadedChunks.remove(hash);
+        this.uninitializedChunks.remove(hash);
+        chunk.setRemoved();
+        chunk.unlinkNeighbors();
+        return true;
     }
 
-    @NotNull
-    public Stream<Reference<ChunkBase>> getLoadableChunks() {
-        return Stream.concat(this.unloadedChunks.parallelStream().map(WeakReference::new), this.uninitializedChunks.parallelStream().map(WeakReference::new));
+    /**
+     * Invokes the consumer with every existing chunk whose origin lies in the square of the given radius around the position.
+     * Only the chunk origins in the square are looked up, so the cost does not depend on the total number of chunks.
+     *
+     * @param x           the x coordinate of the center
+     * @param z           the z coordinate of the center
+     * @param maxDistance the radius of the square
+     * @param consumer    invoked with the chunks
+     */
+    @ThreadSafe
+    public void forEachChunkInRange(int x, int z, int maxDistance, @NotNull Consumer<ChunkBase> consumer) {
+        int minChunkX = Math.floorDiv(x - maxDistance, ChunkBase.CHUNK_SIZE), maxChunkX = Math.floorDiv(x + maxDistance, ChunkBase.CHUNK_SIZE);
+        int minChunkZ = Math.floorDiv(z - maxDistance, ChunkBase.CHUNK_SIZE), maxChunkZ = Math.floorDiv(z + maxDistance, ChunkBase.CHUNK_SIZE);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                ChunkBase chunk = this.chunkMap.get(Vec2i.hash64(chunkX * ChunkBase.CHUNK_SIZE, chunkZ * ChunkBase.CHUNK_SIZE));
+                if (chunk != null)
+                    consumer.accept(chunk);
+            }
+        }
     }
 }
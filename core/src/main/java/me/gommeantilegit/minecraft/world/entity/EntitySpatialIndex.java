@@ -0,0 +1,373 @@
+package me.gommeantilegit.minecraft.world.entity;
+
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static java.lang.Math.*;
+
+/**
+ * A spatial hash of the entities of a world. Every entity is stored in the cubic cell containing the center of its bounding box,
+ * so a query only visits the cells overlapping the queried region, grown by the largest half extents of the indexed bounding boxes.
+ * Entities are re-filed, when the center of their bounding box moves into another cell.
+ */
+@ThreadSafe
+public class EntitySpatialIndex {
+
+    /**
+     * Edge length of the cells in blocks
+     */
+    public static final int CELL_SIZE = 8;
+
+    /**
+     * The cells containing entities by their packed cell coordinates
+     */
+    @NotNull
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    /**
+     * The cell of every indexed entity
+     */
+    @NotNull
+    private final Map<Entity, Cell> entityCells = new ConcurrentHashMap<>();
+
+    /**
+     * The largest half extents of all bounding boxes that have been indexed. Only grow
+     */
+    private volatile float maxHalfWidth, maxHalfHeight;
+
+    /**
+     * Adds the entity to the index. Updates its cell, if the entity is already indexed
+     *
+     * @param entity the entity to add
+     */
+    public void add(@NotNull Entity entity) {
+        synchronized (entity) {
+            if (this.entityCells.containsKey(entity)) {
+                update(entity);
+                return;
+            }
+            AxisAlignedBB box = entity.getBoundingBox();
+            growHalfExtents(box);
+            this.entityCells.put(entity, addToCell(entity, cellX(box), cellY(box), cellZ(box)));
+        }
+    }
+
+    /**
+     * Removes the entity from the index
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(@NotNull Entity entity) {
+        synchronized (entity) {
+            Cell cell = this.entityCells.remove(entity);
+            if (cell != null)
+                removeFromCell(entity, cell);
+        }
+    }
+
+    /**
+     * Moves the entity into the cell of its current bounding box. Does nothing, if the entity is not indexed or the cell has not changed.
+     * Called whenever the position of the entity changes.
+     *
+     * @param entity the moved entity
+     */
+    public void update(@NotNull Entity entity) {
+        Cell cell = this.entityCells.get(entity);
+        if (cell == null)
+            return;
+        AxisAlignedBB box = entity.getBoundingBox();
+        growHalfExtents(box);
+        int x = cellX(box), y = cellY(box), z = cellZ(box);
+        if (cell.x == x && cell.y == y && cell.z == z)
+            return;
+        synchronized (entity) {
+            cell = this.entityCells.get(entity);
+            if (cell == null)
+                return; // removed concurrently
+            removeFromCell(entity, cell);
+            this.entityCells.put(entity, addToCell(entity, x, y, z));
+        }
+    }
+
+    /**
+     * @param entity the entity
+     * @return true, if the entity is indexed
+     */
+    public boolean contains(@NotNull Entity entity) {
+        return this.entityCells.containsKey(entity);
+    }
+
+    /**
+     * @return the number of indexed entities
+     */
+    public int size() {
+        return this.entityCells.size();
+    }
+
+    /**
+     * @param region    the region
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the entities, whose bounding boxes intersect with the region and that fulfill the predicate
+     */
+    @NotNull
+    public List<Entity> getEntitiesWithinAABB(@NotNull AxisAlignedBB region, @NotNull Predicate<? super Entity> predicate) {
+        List<Entity> entities = new ArrayList<>();
+        visitCells(region, entities, predicate, false);
+        return entities;
+    }
+
+    /**
+     * @param region the region
+     * @return true, if no bounding box of an entity intersects with the region
+     */
+    public boolean isEntityFree(@NotNull AxisAlignedBB region) {
+        return !visitCells(region, null, entity -> true, true);
+    }
+
+    /**
+     * @param x         the x component of the center of the range
+     * @param y         the y component of the center of the range
+     * @param z         the z component of the center of the range
+     * @param range     the radius of the range
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the entities, whose bounding box centers are within the range and that fulfill the predicate
+     */
+    @NotNull
+    public List<Entity> getEntitiesInRange(float x, float y, float z, float range, @NotNull Predicate<? super Entity> predicate) {
+        List<Entity> entities = new ArrayList<>();
+        float rangeSquared = range * range;
+        int cellX0 = floorCell(x - range), cellX1 = floorCell(x + range);
+        int cellY0 = floorCell(y - range), cellY1 = floorCell(y + range);
+        int cellZ0 = floorCell(z - range), cellZ1 = floorCell(z + range);
+        for (int cellX = cellX0; cellX <= cellX1; cellX++) {
+            for (int cellY = cellY0; cellY <= cellY1; cellY++) {
+                for (int cellZ = cellZ0; cellZ <= cellZ1; cellZ++) {
+                    Cell cell = this.cells.get(key(cellX, cellY, cellZ));
+                    if (cell == null)
+                        continue;
+                    for (Entity entity : cell.entities) {
+                        if (distanceSquared(entity, x, y, z) <= rangeSquared && predicate.test(entity))
+                            entities.add(entity);
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Finds the nearest entities to a point by searching the faces of cubic shells of cells of growing distance around the cell of the point.
+     * The search stops, when no cell left can contain an entity nearer than the k-th nearest entity found.
+     * Once a shell has more cells than the index, the remaining cells are found by a single pass over the cells of the index instead,
+     * so that sparse indices and large ranges do not visit a mostly empty volume.
+     *
+     * @param x         the x component of the point
+     * @param y         the y component of the point
+     * @param z         the z component of the point
+     * @param k         the maximum number of entities to return
+     * @param maxRange  the maximum distance of the center of the bounding box of an entity to the point
+     * @param predicate the condition the entities must fulfill
+     * @return a new list of the up to k entities nearest to the point (measured to the center of their bounding boxes) ordered by ascending distance
+     */
+    @NotNull
+    public List<Entity> getNearestEntities(float x, float y, float z, int k, float maxRange, @NotNull Predicate<? super Entity> predicate) {
+        if (k <= 0)
+            return new ArrayList<>(0);
+        float maxRangeSquared = maxRange * maxRange;
+        // the k nearest entities found so far, farthest first
+        PriorityQueue<Entity> nearest = new PriorityQueue<>(k, Comparator.comparingDouble((Entity entity) -> distanceSquared(entity, x, y, z)).reversed());
+        int centerX = floorCell(x), centerY = floorCell(y), centerZ = floorCell(z);
+        int maxRadius = (int) ceil(maxRange / CELL_SIZE) + 1;
+        for (int radius = 0; radius <= maxRadius; radius++) {
+            long shellCells = radius == 0 ? 1 : cube(2L * radius + 1) - cube(2L * radius - 1);
+            if (shellCells > this.cells.size()) {
+                // every cell of this and the following shells in one pass over the index
+                for (Cell cell : this.cells.values()) {
+                    int distance = max(abs(cell.x - centerX), max(abs(cell.y - centerY), abs(cell.z - centerZ)));
+                    if (distance >= radius && distance <= maxRadius)
+                        offerEntities(cell, x, y, z, k, maxRangeSquared, predicate, nearest);
+                }
+                break;
+            }
+            if (radius == 0) {
+                offerEntities(this.cells.get(key(centerX, centerY, centerZ)), x, y, z, k, maxRangeSquared, predicate, nearest);
+            } else {
+                // the faces of the shell: the two x faces completely, the y faces without the x edges, the z faces without the x and y edges
+                for (int a = -radius; a <= radius; a++) {
+                    for (int b = -radius; b <= radius; b++) {
+                        offerEntities(this.cells.get(key(centerX - radius, centerY + a, centerZ + b)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                        offerEntities(this.cells.get(key(centerX + radius, centerY + a, centerZ + b)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                        if (a == -radius || a == radius)
+                            continue;
+                        offerEntities(this.cells.get(key(centerX + a, centerY - radius, centerZ + b)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                        offerEntities(this.cells.get(key(centerX + a, centerY + radius, centerZ + b)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                        if (b == -radius || b == radius)
+                            continue;
+                        offerEntities(this.cells.get(key(centerX + a, centerY + b, centerZ - radius)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                        offerEntities(this.cells.get(key(centerX + a, centerY + b, centerZ + radius)), x, y, z, k, maxRangeSquared, predicate, nearest);
+                    }
+                }
+            }
+            // cells outside of the shell are at least radius cells away from the cell of the point
+            float searchedDistance = radius * (float) CELL_SIZE;
+            if (nearest.size() == k && distanceSquared(nearest.peek(), x, y, z) <= searchedDistance * searchedDistance)
+                break;
+        }
+        List<Entity> entities = new ArrayList<>(nearest);
+        entities.sort(Comparator.comparingDouble(entity -> distanceSquared(entity, x, y, z)));
+        return entities;
+    }
+
+    /**
+     * Offers the entities of the cell within the range, that fulfill the predicate, to the k nearest entities found so far
+     *
+     * @param cell    the cell or null, if no cell exists at the visited coordinates
+     * @param nearest the k nearest entities found so far, farthest first
+     */
+    private static void offerEntities(@Nullable Cell cell, float x, float y, float z, int k, float maxRangeSquared, @NotNull Predicate<? super Entity> predicate, @NotNull PriorityQueue<Entity> nearest) {
+        if (cell == null)
+            return;
+        for (Entity entity : cell.entities) {
+            float distanceSquared = distanceSquared(entity, x, y, z);
+            if (distanceSquared > maxRangeSquared || !predicate.test(entity))
+                continue;
+            if (nearest.size() < k) {
+                nearest.add(entity);
+            } else if (distanceSquared < distanceSquared(nearest.peek(), x, y, z)) {
+                nearest.poll();
+                nearest.add(entity);
+            }
+        }
+    }
+
+    private static long cube(long value) {
+        return value * value * value;
+    }
+
+    /**
+     * Visits the entities whose bounding boxes intersect with the region
+     *
+     * @param out       the collection to add the entities to. Nullable, if stopAtFirst is true
+     * @param stopAtFirst true, if the visit should stop at the first entity
+     * @return true, if an entity has been found
+     */
+    private boolean visitCells(@NotNull AxisAlignedBB region, @Nullable Collection<Entity> out, @NotNull Predicate<? super Entity> predicate, boolean stopAtFirst) {
+        float halfWidth = this.maxHalfWidth, halfHeight = this.maxHalfHeight;
+        int cellX0 = floorCell(region.x0 - halfWidth), cellX1 = floorCell(region.x1 + halfWidth);
+        int cellY0 = floorCell(region.y0 - halfHeight), cellY1 = floorCell(region.y1 + halfHeight);
+        int cellZ0 = floorCell(region.z0 - halfWidth), cellZ1 = floorCell(region.z1 + halfWidth);
+        boolean found = false;
+        for (int cellX = cellX0; cellX <= cellX1; cellX++) {
+            for (int cellY = cellY0; cellY <= cellY1; cellY++) {
+                for (int cellZ = cellZ0; cellZ <= cellZ1; cellZ++) {
+                    Cell cell = this.cells.get(key(cellX, cellY, cellZ));
+                    if (cell == null)
+                        continue;
+                    for (Entity entity : cell.entities) {
+                        if (entity.getBoundingBox().intersects(region) && predicate.test(entity)) {
+                            if (stopAtFirst)
+                                return true;
+                            found = true;
+                            if (out != null)
+                                out.add(entity);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @NotNull
+    private Cell addToCell(@NotNull Entity entity, int x, int y, int z) {
+        // adding and removing in compute functions, so that a cell is not removed while an entity is added to it
+        return this.cells.compute(key(x, y, z), (key, cell) -> {
+            if (cell == null)
+                cell = new Cell(x, y, z);
+            cell.entities.add(entity);
+            return cell;
+        });
+    }
+
+    private void removeFromCell(@NotNull Entity entity, @NotNull Cell cell) {
+        this.cells.computeIfPresent(key(cell.x, cell.y, cell.z), (key, presentCell) -> {
+            presentCell.entities.remove(entity);
+            return presentCell.entities.isEmpty() ? null : presentCell;
+        });
+    }
+
+    private void growHalfExtents(@NotNull AxisAlignedBB box) {
+        float halfWidth = max(box.x1 - box.x0, box.z1 - box.z0) / 2, halfHeight = (box.y1 - box.y0) / 2;
+        if (halfWidth > this.maxHalfWidth || halfHeight > this.maxHalfHeight) {
+            synchronized (this) {
+                this.maxHalfWidth = max(this.maxHalfWidth, halfWidth);
+                this.maxHalfHeight = max(this.maxHalfHeight, halfHeight);
+            }
+        }
+    }
+
+    private static float distanceSquared(@NotNull Entity entity, float x, float y, float z) {
+        AxisAlignedBB box = entity.getBoundingBox();
+        float dx = (box.x0 + box.x1) / 2 - x, dy = (box.y0 + box.y1) / 2 - y, dz = (box.z0 + box.z1) / 2 - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int cellX(@NotNull AxisAlignedBB box) {
+        return floorCell((box.x0 + box.x1) / 2);
+    }
+
+    private static int cellY(@NotNull AxisAlignedBB box) {
+        return floorCell((box.y0 + box.y1) / 2);
+    }
+
+    private static int cellZ(@NotNull AxisAlignedBB box) {
+        return floorCell((box.z0 + box.z1) / 2);
+    }
+
+    private static int floorCell(float coordinate) {
+        return (int) floor(coordinate / CELL_SIZE);
+    }
+
+    /**
+     * @return the cell coordinates packed into one long (26 bits x, 26 bits z, 12 bits y)
+     */
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    /**
+     * A cell of the index
+     */
+    private static class Cell {
+
+        /**
+         * The cell coordinates
+         */
+        private final int x, y, z;
+
+        /**
+         * The entities whose bounding box centers lie in the cell
+         */
+        @NotNull
+        private final Set<Entity> entities = ConcurrentHashMap.newKeySet();
+
+        private Cell(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+}
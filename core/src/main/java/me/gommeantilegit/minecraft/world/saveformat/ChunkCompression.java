@@ -0,0 +1,67 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.utils.io.IOUtils;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Creates the {@link PayloadCompressor}s used to compress chunk fragments for the network and for region files.
+ * All chunk compressors share a preset dictionary trained on typical {@link ChunkFragmenter} output, so that the payloads of every chunk compressor
+ * can be decompressed by every other one regardless of their mode and level.
+ */
+public class ChunkCompression {
+
+    /**
+     * The classpath resource of the chunk fragment dictionary
+     */
+    @NotNull
+    public static final String DICTIONARY_RESOURCE = "compression/chunk_fragment.dict";
+
+    /**
+     * The preset dictionary trained on typical chunk fragments. Server and client must use the same dictionary.
+     */
+    @NotNull
+    private static final byte[] DICTIONARY = loadDictionary();
+
+    /**
+     * The chunk compressor used if none is configured
+     */
+    @NotNull
+    public static final PayloadCompressor DEFAULT = deflate(Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * @param level the deflate level
+     * @return a chunk compressor deflating with the given level
+     */
+    @NotNull
+    public static PayloadCompressor deflate(int level) {
+        return new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, level, DICTIONARY);
+    }
+
+    /**
+     * @return a chunk compressor storing chunk fragments uncompressed
+     */
+    @NotNull
+    public static PayloadCompressor none() {
+        return new PayloadCompressor(PayloadCompressor.Mode.NONE, Deflater.DEFAULT_COMPRESSION, DICTIONARY);
+    }
+
+    @NotNull
+    private static byte[] loadDictionary() {
+        InputStream in = ChunkCompression.class.getClassLoader().getResourceAsStream(DICTIONARY_RESOURCE);
+        if (in == null)
+            throw new IllegalStateException("Classpath resource " + DICTIONARY_RESOURCE + " not found!");
+        try (InputStream input = in) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            IOUtils.io(input, bos);
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read chunk compression dictionary", e);
+        }
+    }
+}
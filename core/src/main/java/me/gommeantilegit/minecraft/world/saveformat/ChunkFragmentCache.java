@@ -0,0 +1,140 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter.CHUNK_FRAGMENT_SIZE;
+
+/**
+ * Caches the compressed serialized bytes of the individual fragments of a chunk.
+ * An entry is invalidated by every block change inside the fragment, so that only modified fragments have to be serialized again.
+ */
+public class ChunkFragmentCache {
+
+    /**
+     * Cache entry of a fragment that only consists of air and is thus not serialized
+     */
+    @NotNull
+    static final byte[] EMPTY_FRAGMENT = new byte[0];
+
+    /**
+     * The cached compressed bytes for each fragment (indexed by {@link ChunkFragmenter#getFragmentBitIndex(int, int, int, int)}). null, if the fragment is not cached.
+     */
+    @NotNull
+    private final AtomicReferenceArray<byte[]> fragments;
+
+    /**
+     * Modification counter for every fragment. Used to prevent caching bytes that have been serialized while the fragment was modified.
+     */
+    @NotNull
+    private final AtomicIntegerArray versions;
+
+    /**
+     * The height of the chunk
+     */
+    private final int height;
+
+    /**
+     * @param height the height of the chunk
+     */
+    public ChunkFragmentCache(int height) {
+        this.height = height;
+        int numFragments = (CHUNK_SIZE / CHUNK_FRAGMENT_SIZE) * (CHUNK_SIZE / CHUNK_FRAGMENT_SIZE) * (height / CHUNK_FRAGMENT_SIZE);
+        this.fragments = new AtomicReferenceArray<>(numFragments);
+        this.versions = new AtomicIntegerArray(numFragments);
+    }
+
+    /**
+     * Invalidates the cache entry of the fragment containing the given block
+     *
+     * @param x chunk relative x coordinate of the modified block
+     * @param y chunk relative y coordinate of the modified block
+     * @param z chunk relative z coordinate of the modified block
+     */
+    @ThreadSafe
+    public void invalidate(int x, int y, int z) {
+        int fragmentIndex = ChunkFragmenter.getFragmentBitIndex(x, y, z, this.height);
+        // version must be incremented before the entry is cleared. See #store
+        this.versions.incrementAndGet(fragmentIndex);
+        this.fragments.set(fragmentIndex, null);
+    }
+
+    /**
+     * Invalidates the cache entries of all fragments intersecting the given region
+     *
+     * @param x      chunk relative x coordinate of the region origin
+     * @param y      chunk relative y coordinate of the region origin
+     * @param z      chunk relative z coordinate of the region origin
+     * @param width  the x size of the region
+     * @param height the y size of the region
+     * @param depth  the z size of the region
+     */
+    @ThreadSafe
+    public void invalidateRegion(int x, int y, int z, int width, int height, int depth) {
+        int fragmentMask = ~(CHUNK_FRAGMENT_SIZE - 1);
+        for (int fx = x & fragmentMask; fx < x + width; fx += CHUNK_FRAGMENT_SIZE) {
+            for (int fy = y & fragmentMask; fy < y + height; fy += CHUNK_FRAGMENT_SIZE) {
+                for (int fz = z & fragmentMask; fz < z + depth; fz += CHUNK_FRAGMENT_SIZE) {
+                    invalidate(fx, fy, fz);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cache entries
+     */
+    @ThreadSafe
+    public void invalidateAll() {
+        for (int i = 0; i < this.fragments.length(); i++) {
+            this.versions.incrementAndGet(i);
+            this.fragments.set(i, null);
+        }
+    }
+
+    /**
+     * @param fragmentIndex the fragment index
+     * @return the cached compressed fragment bytes, {@link #EMPTY_FRAGMENT} for an empty fragment or null if the fragment is not cached
+     */
+    @Nullable
+    @ThreadSafe
+    byte[] get(int fragmentIndex) {
+        return this.fragments.get(fragmentIndex);
+    }
+
+    /**
+     * @param fragmentIndex the fragment index
+     * @return the current modification version of the fragment. Must be retrieved before the fragment is serialized.
+     */
+    @ThreadSafe
+    int getVersion(int fragmentIndex) {
+        return this.versions.get(fragmentIndex);
+    }
+
+    /**
+     * Caches the fragment bytes, if the fragment has not been modified since the given version has been retrieved.
+     * If the fragment is modified after the version check, the modifying thread clears the entry afterwards.
+     *
+     * @param fragmentIndex the fragment index
+     * @param version       the version retrieved via {@link #getVersion(int)} before serialization
+     * @param bytes         the compressed fragment bytes or {@link #EMPTY_FRAGMENT}
+     */
+    @ThreadSafe
+    void store(int fragmentIndex, int version, @NotNull byte[] bytes) {
+        if (this.versions.get(fragmentIndex) == version) {
+            this.fragments.compareAndSet(fragmentIndex, null, bytes);
+        }
+    }
+
+    /**
+     * @return the number of fragments of the chunk
+     */
+    public int getNumFragments() {
+        return this.fragments.length();
+    }
+}
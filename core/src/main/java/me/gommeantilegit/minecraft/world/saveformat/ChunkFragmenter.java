@@ -1,25 +1,33 @@
 package me.gommeantilegit.minecraft.world.saveformat;
 
 import me.gommeantilegit.minecraft.AbstractMinecraft;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
 import me.gommeantilegit.minecraft.annotations.Unsafe;
 import me.gommeantilegit.minecraft.block.state.IBlockState;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
 import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
 import me.gommeantilegit.minecraft.block.state.storage.BlockStateStorage;
 import me.gommeantilegit.minecraft.logging.crash.CrashReport;
 import me.gommeantilegit.minecraft.utils.ArrayUtils;
 import me.gommeantilegit.minecraft.utils.MathHelper;
 import me.gommeantilegit.minecraft.utils.bitarray.BitArray;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
+import me.gommeantilegit.minecraft.utils.palette.IPalette;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkSection;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
 
 import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkSection.CHUNK_SECTION_SIZE;
 
 /**
  * Splits chunks up into small fragments.
@@ -38,9 +46,25 @@ public class ChunkFragmenter {
     @NotNull
     private final ForkJoinPool chunkFragmenterPool;
 
+    /**
+     * The compressor of the fragments serialized by {@link #fragmentChunkCompressed(IBlockStatePalette, ChunkBase, OutputStream)}
+     */
+    @NotNull
+    private final PayloadCompressor compressor;
+
     public ChunkFragmenter(@NotNull AbstractMinecraft mc) {
+        this(mc, ChunkCompression.DEFAULT);
+    }
+
+    /**
+     * @param mc         the minecraft instance
+     * @param compressor the compressor of the fragments serialized by {@link #fragmentChunkCompressed(IBlockStatePalette, ChunkBase, OutputStream)}.
+     *                   Must be created by {@link ChunkCompression}, so that the fragments can be decompressed by {@link #decompressFragments(byte[], BitSet)}.
+     */
+    public ChunkFragmenter(@NotNull AbstractMinecraft mc, @NotNull PayloadCompressor compressor) {
+        this.compressor = compressor;
         this.chunkFragmenterPool = new ForkJoinPool(
-                Runtime.getRuntime().availableProcessors() / 4,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
                 pool -> {
                     final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
                     worker.setName("ChunkFragmenterWorker-" + worker.getPoolIndex());
@@ -66,89 +90,191 @@ public class ChunkFragmenter {
                     final int finalY = y;
                     final int finalZ = z;
                     ForkJoinTask<byte[]> task = this.chunkFragmenterPool.submit(() -> {
-                        try {
-                            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                            DataOutputStream dataOut = new DataOutputStream(bos);
-                            boolean empty = isChunkRegionEmpty(chunk, finalX, finalY, finalZ, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE);
-                            if (!empty) {
-                                int fragmentIndex = getFragmentBitIndex(finalX, finalY, finalZ, chunk.getHeight());
-
-                                serializedFragmentBitsetWriteLock.lock();
-                                serializedFragments.set(fragmentIndex, true); // this section is sent
-                                serializedFragmentBitsetWriteLock.unlock();
-
-                                // Create a palette of all block states that occur in the current chunk fragment region
-                                IndexedBlockStatePalette fragmentLocalPalette = createPaletteFromChunkRegion(chunk, finalX, finalY, finalZ, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE);
+                        byte[] fragmentBytes = serializeFragment(globalPalette, chunk, finalX, finalY, finalZ);
+                        if (fragmentBytes == null)
+                            return new byte[0];
+                        int fragmentIndex = getFragmentBitIndex(finalX, finalY, finalZ, chunk.getHeight());
+
+                        serializedFragmentBitsetWriteLock.lock();
+                        serializedFragments.set(fragmentIndex, true); // this section is sent
+                        serializedFragmentBitsetWriteLock.unlock();
+                        return fragmentBytes;
+                    });
+                    tasks.add(task);
+                }
+            }
+        }
+        for (ForkJoinTask<byte[]> future : tasks) {
+            byte[] bytes = future.join();
+            stream.write(bytes);
+        }
+        return serializedFragments;
+    }
 
-                                // Create a block state storage that stores the current chunk fragment with that palette
-                                BlockStateStorage fragmentBlockStorage = new BlockStateStorage(CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, fragmentLocalPalette);
 
-                                // Copy the block states of the chunk in the region of the fragment into that block storage
-                                copyFromChunkToStorage(fragmentBlockStorage, chunk, finalX, finalY, finalZ, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE);
+    /**
+     * Serializes the chunk into the stream like {@link #fragmentChunk(IBlockStatePalette, ChunkBase, OutputStream)} does, but every fragment is compressed individually and prefixed by it's compressed length.
+     * Compressed fragments are cached in the {@link ChunkFragmentCache} of the chunk and are only serialized again after they have been modified.
+     * The serialized data must be decompressed with {@link #decompressFragments(byte[], BitSet)} before it can be de-fragmented.
+     *
+     * @param globalPalette the palette used to map block states to the indices stored
+     * @param chunk         the chunk to serialize
+     * @param stream        the stream to write the serialized fragments to
+     * @return the bit set stating which fragments have been serialized (which are not empty)
+     */
+    @NotNull
+    @ThreadSafe
+    public BitSet fragmentChunkCompressed(@NotNull IBlockStatePalette globalPalette, @NotNull ChunkBase chunk, @NotNull OutputStream stream) throws IOException {
+        ChunkFragmentCache cache = chunk.getFragmentCache();
+        byte[][] fragments = new byte[cache.getNumFragments()][];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int x = 0; x < CHUNK_SIZE; x += CHUNK_FRAGMENT_SIZE) {
+            for (int z = 0; z < CHUNK_SIZE; z += CHUNK_FRAGMENT_SIZE) {
+                for (int y = 0; y < chunk.getHeight(); y += CHUNK_FRAGMENT_SIZE) {
+                    int fragmentIndex = getFragmentBitIndex(x, y, z, chunk.getHeight());
+                    byte[] cached = cache.get(fragmentIndex);
+                    if (cached != null) {
+                        fragments[fragmentIndex] = cached;
+                        continue;
+                    }
+                    final int finalX = x;
+                    final int finalY = y;
+                    final int finalZ = z;
+                    tasks.add(this.chunkFragmenterPool.submit(() -> {
+                        int version = cache.getVersion(fragmentIndex);
+                        byte[] fragmentBytes = serializeFragment(globalPalette, chunk, finalX, finalY, finalZ);
+                        byte[] compressed = fragmentBytes == null ? ChunkFragmentCache.EMPTY_FRAGMENT : this.compressor.compress(fragmentBytes);
+                        cache.store(fragmentIndex, version, compressed);
+                        fragments[fragmentIndex] = compressed;
+                    }));
+                }
+            }
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        BitSet serializedFragments = new BitSet();
+        DataOutputStream dataOut = new DataOutputStream(stream);
+        for (int x = 0; x < CHUNK_SIZE; x += CHUNK_FRAGMENT_SIZE) {
+            for (int z = 0; z < CHUNK_SIZE; z += CHUNK_FRAGMENT_SIZE) {
+                for (int y = 0; y < chunk.getHeight(); y += CHUNK_FRAGMENT_SIZE) {
+                    int fragmentIndex = getFragmentBitIndex(x, y, z, chunk.getHeight());
+                    byte[] compressed = fragments[fragmentIndex];
+                    if (compressed != ChunkFragmentCache.EMPTY_FRAGMENT) {
+                        serializedFragments.set(fragmentIndex, true);
+                        dataOut.writeInt(compressed.length);
+                        dataOut.write(compressed);
+                    }
+                }
+            }
+        }
+        dataOut.flush();
+        return serializedFragments;
+    }
 
-                                // Get the indices of the occurring block states in the global palette provided
-                                // Used to map local palette indices to global indices
-                                // We do this to save bits in the element size of the palette array
-                                int[] indices = fragmentLocalPalette.getInstanceIndices(globalPalette);
+    /**
+     * Decompresses the individually compressed fragments created by {@link #fragmentChunkCompressed(IBlockStatePalette, ChunkBase, OutputStream)}
+     * with any compressor created by {@link ChunkCompression}
+     *
+     * @param compressedChunkData      the compressed chunk data
+     * @param chunkFragmentsSerialized the bit set stating which chunk fragments are serialized in the chunk data
+     * @return the uncompressed chunk data to be passed to {@link #deFragmentChunk(ChunkBase, IBlockStatePalette, byte[], BitSet)}
+     */
+    @NotNull
+    public static byte[] decompressFragments(@NotNull byte[] compressedChunkData, @NotNull BitSet chunkFragmentsSerialized) throws IOException {
+        DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(compressedChunkData));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(compressedChunkData.length * 4);
+        int numFragments = chunkFragmentsSerialized.cardinality();
+        for (int i = 0; i < numFragments; i++) {
+            byte[] compressed = new byte[dataIn.readInt()];
+            dataIn.readFully(compressed);
+            try {
+                bos.write(ChunkCompression.DEFAULT.decompress(compressed));
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk fragment " + i, e);
+            }
+        }
+        return bos.toByteArray();
+    }
 
-                                // storing the global indices as a bit array which uses exactly as many bits as needed. (min of 4 bit because the BitArray does not support it)
-                                BitArray paletteBitArray = new BitArray(MathHelper.iceil(fragmentLocalPalette.getNumKeys(), 2) * 2, Math.max(4, MathHelper.getNeededBits(ArrayUtils.max(indices))));
+    /**
+     * Serializes the chunk fragment starting at the specified chunk relative coordinates
+     *
+     * @param globalPalette the palette used to map block states to the indices stored
+     * @param chunk         the chunk
+     * @param x             the chunk relative x coordinate of the fragment
+     * @param y             the chunk relative y coordinate of the fragment
+     * @param z             the chunk relative z coordinate of the fragment
+     * @return the serialized fragment or null, if the fragment only consists of air
+     */
+    @Nullable
+    private byte[] serializeFragment(@NotNull IBlockStatePalette globalPalette, @NotNull ChunkBase chunk, int x, int y, int z) {
+        try {
+            ChunkSection section = chunk.getChunkSection(y);
+
+            // Copy the block states of the fragment region into a block storage with a palette of all block states that occur in the fragment
+            BlockStateStorage fragmentBlockStorage = section.copyBlockStates(x, y - section.getStartHeight(), z, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE);
+            if (fragmentBlockStorage == null)
+                return null; // fragment only consists of air
+            IPalette<IBlockState> fragmentLocalPalette = fragmentBlockStorage.getPalette();
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream dataOut = new DataOutputStream(bos);
+
+            // Get the indices of the occurring block states in the global palette provided
+            // Used to map local palette indices to global indices
+            // We do this to save bits in the element size of the palette array
+            int[] indices = new int[fragmentLocalPalette.getNumKeys()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = globalPalette.getInstanceIndex(fragmentLocalPalette.getInstance(i));
+            }
 
-                                // Copying the global indices to the bit array
-                                for (int i = 0; i < indices.length; i++) {
-                                    paletteBitArray.set(i, indices[i]);
-                                }
+            // storing the global indices as a bit array which uses exactly as many bits as needed. (min of 4 bit because the BitArray does not support it)
+            BitArray paletteBitArray = new BitArray(MathHelper.iceil(fragmentLocalPalette.getNumKeys(), 2) * 2, Math.max(4, MathHelper.getNeededBits(ArrayUtils.max(indices))));
 
-                                // Writing the global to local mapping palette bit array onto the stream
-                                {
-                                    // Getting the backing bytes of the bit array
-                                    byte[] paletteBitArrayBytes = paletteBitArray.getData();
+            // Copying the global indices to the bit array
+            for (int i = 0; i < indices.length; i++) {
+                paletteBitArray.set(i, indices[i]);
+            }
 
-                                    // writing the number of bits each element of the bit array needs
-                                    dataOut.writeInt(paletteBitArray.getBits());
+            // Writing the global to local mapping palette bit array onto the stream
+            {
+                // Getting the backing bytes of the bit array
+                byte[] paletteBitArrayBytes = paletteBitArray.getData();
 
-                                    // writing the number of elements of the bit array
-                                    dataOut.writeInt(paletteBitArray.getNumElements());
+                // writing the number of bits each element of the bit array needs
+                dataOut.writeInt(paletteBitArray.getBits());
 
-                                    // writing the length of the backing byte array of bit array
-                                    dataOut.writeInt(paletteBitArrayBytes.length);
+                // writing the number of elements of the bit array
+                dataOut.writeInt(paletteBitArray.getNumElements());
 
-                                    // writing the backing bytes of the bit array onto the stream
-                                    dataOut.write(paletteBitArrayBytes);
-                                }
+                // writing the length of the backing byte array of bit array
+                dataOut.writeInt(paletteBitArrayBytes.length);
 
-                                // Writing the block storage using the local palette onto the stream
-                                {
-                                    // Getting the backing bytes of the block storage palette array bit array
-                                    byte[] paletteArrayBytes = fragmentBlockStorage.getPaletteData();
+                // writing the backing bytes of the bit array onto the stream
+                dataOut.write(paletteBitArrayBytes);
+            }
 
-                                    // writing the length of the palette array bytes
-                                    dataOut.writeInt(paletteArrayBytes.length);
+            // Writing the block storage using the local palette onto the stream
+            {
+                // Getting the backing bytes of the block storage palette array bit array
+                byte[] paletteArrayBytes = fragmentBlockStorage.getPaletteData();
 
-                                    // writing the array
-                                    dataOut.write(paletteArrayBytes);
-                                }
+                // writing the length of the palette array bytes
+                dataOut.writeInt(paletteArrayBytes.length);
 
-                                fragmentBlockStorage.delete(); // free the block storage
-                                paletteBitArray.delete(); // free the palette bit array
-                            }
-                            return bos.toByteArray();
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-                    tasks.add(task);
-                }
+                // writing the array
+                dataOut.write(paletteArrayBytes);
             }
+
+            fragmentBlockStorage.delete(); // free the block storage
+            paletteBitArray.delete(); // free the palette bit array
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e); // Will never happen on ByteArrayOutputStream
         }
-        for (ForkJoinTask<byte[]> future : tasks) {
-            byte[] bytes = future.join();
-            stream.write(bytes);
-        }
-        return serializedFragments;
     }
 
-
     /**
      * De-serializes the chunk fragments and stores the block states into the destination chunk
      *
@@ -166,42 +292,7 @@ public class ChunkFragmenter {
                     int fragmentIndex = getFragmentBitIndex(x, y, z, dstChunk.getHeight());
                     boolean sent = chunkFragmentsSerialized.get(fragmentIndex);
                     if (sent) {
-                        IndexedBlockStatePalette fragmentLocalPalette;
-                        // reading the local to global mapping palette
-                        {
-                            int paletteBitArrayNumBits = dataIn.readInt();
-                            int paletteBitArrayNumElements = dataIn.readInt();
-                            int paletteBitArrayBytesLength = dataIn.readInt();
-                            byte[] paletteBitArrayBytes = new byte[paletteBitArrayBytesLength];
-                            dataIn.read(paletteBitArrayBytes);
-
-                            BitArray paletteBitArray = new BitArray(paletteBitArrayNumElements, paletteBitArrayNumBits);
-                            paletteBitArray.setData(paletteBitArrayBytes);
-
-                            // all individual block states used in the chunk fragment
-                            List<IBlockState> occurringBlockStates = new ArrayList<>();
-
-                            for (int i = 0; i < paletteBitArray.getNumElements(); i++) {
-                                occurringBlockStates.add(chunkSerializationPalette.getInstance(paletteBitArray.get(i)));
-                            }
-                            paletteBitArray.delete(); // free the palette bit array
-
-                            // Create the local palette
-                            fragmentLocalPalette = new IndexedBlockStatePalette(occurringBlockStates);
-                        }
-
-                        BlockStateStorage fragmentBlockStorage = new BlockStateStorage(CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, fragmentLocalPalette);
-
-                        {
-                            // Read in the number of bytes of the byte array backing the palette array of the fragment block storage
-                            int paletteArrayNumBytes = dataIn.readInt();
-
-                            byte[] paletteArrayBytes = new byte[paletteArrayNumBytes];
-                            dataIn.read(paletteArrayBytes);
-
-                            fragmentBlockStorage.apply(paletteArrayBytes);
-                        }
-
+                        BlockStateStorage fragmentBlockStorage = readFragment(dataIn, chunkSerializationPalette);
                         copyFromStorageToChunk(dstChunk, fragmentBlockStorage, x, y, z, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE);
                         fragmentBlockStorage.delete();
                     }
@@ -210,50 +301,117 @@ public class ChunkFragmenter {
         }
     }
 
-    @Unsafe
-    private void copyFromStorageToChunk(@NotNull ChunkBase dstChunk, @NotNull BlockStateStorage sourceStorage, int x, int y, int z, int width, int height, int depth) {
-        dstChunk.supplyBlockStates(x, y, z, width, height, depth, sourceStorage);
-    }
-
+    /**
+     * De-serializes the chunk fragments into fresh section storages without touching any chunk.
+     * Unlike {@link #deFragmentChunk(ChunkBase, IBlockStatePalette, byte[], BitSet)} this can run on any thread concurrently to writes to the chunk.
+     * The result is published with {@link ChunkBase#swapSectionStorages(AdaptiveBlockStateStorage[])}.
+     *
+     * @param height                    the height of the chunk
+     * @param globalPalette             the block state palette of the chunk
+     * @param chunkSerializationPalette the palette that the chunk used to serialize the chunk
+     * @param chunkData                 the uncompressed byte data of the chunk
+     * @param chunkFragmentsSerialized  the bit set stating which chunk fragments are serialized in the chunk data
+     * @return the block storages of the chunk sections, indexed bottom to top. Fragments not serialized are air.
+     */
     @NotNull
-    private IndexedBlockStatePalette createPaletteFromChunkRegion(@NotNull ChunkBase chunk, int x, int y, int z, int width, int height, int depth) {
-        Set<IBlockState> blockStates = new HashSet<>();
-        for (int xo = 0; xo < width; xo++) {
-            for (int yo = 0; yo < height; yo++) {
-                for (int zo = 0; zo < depth; zo++) {
-                    IBlockState blockState = chunk.getRelativeBlockState(x + xo, y + yo, z + zo);
-                    blockStates.add(blockState);
+    @ThreadSafe
+    public AdaptiveBlockStateStorage[] decodeSections(int height, @NotNull IBlockStatePalette globalPalette, @NotNull IBlockStatePalette chunkSerializationPalette, @NotNull byte[] chunkData, @NotNull BitSet chunkFragmentsSerialized) throws IOException {
+        AdaptiveBlockStateStorage[] sections = new AdaptiveBlockStateStorage[height / CHUNK_SECTION_SIZE];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = ChunkSection.createBlockStorage(globalPalette);
+        }
+        IBlockState[] blockStates = new IBlockState[CHUNK_FRAGMENT_SIZE * CHUNK_FRAGMENT_SIZE * CHUNK_FRAGMENT_SIZE];
+        DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(chunkData));
+        try {
+            for (int x = 0; x < CHUNK_SIZE; x += CHUNK_FRAGMENT_SIZE) {
+                for (int z = 0; z < CHUNK_SIZE; z += CHUNK_FRAGMENT_SIZE) {
+                    for (int y = 0; y < height; y += CHUNK_FRAGMENT_SIZE) {
+                        if (!chunkFragmentsSerialized.get(getFragmentBitIndex(x, y, z, height)))
+                            continue;
+                        BlockStateStorage fragmentBlockStorage = readFragment(dataIn, chunkSerializationPalette);
+                        // column major order expected by AdaptiveBlockStateStorage#setBlockStates
+                        int i = 0;
+                        for (int xo = 0; xo < CHUNK_FRAGMENT_SIZE; xo++) {
+                            for (int zo = 0; zo < CHUNK_FRAGMENT_SIZE; zo++) {
+                                for (int yo = 0; yo < CHUNK_FRAGMENT_SIZE; yo++) {
+                                    blockStates[i++] = fragmentBlockStorage.getBlockState(xo, yo, zo);
+                                }
+                            }
+                        }
+                        fragmentBlockStorage.delete();
+                        sections[y / CHUNK_SECTION_SIZE].setBlockStates(x, y % CHUNK_SECTION_SIZE, z, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, blockStates);
+                    }
                 }
             }
+        } catch (IOException | RuntimeException e) {
+            for (AdaptiveBlockStateStorage section : sections) {
+                section.delete();
+            }
+            throw e;
         }
-        return new IndexedBlockStatePalette(blockStates);
+        return sections;
     }
 
-    private void copyFromChunkToStorage(@NotNull BlockStateStorage dstStorage, @NotNull ChunkBase sourceChunk, int x, int y, int z, int width, int height, int depth) {
-        for (int xo = 0; xo < width; xo++) {
-            for (int yo = 0; yo < height; yo++) {
-                for (int zo = 0; zo < depth; zo++) {
-                    IBlockState blockState = sourceChunk.getRelativeBlockState(x + xo, y + yo, z + zo);
-                    dstStorage.set(xo, yo, zo, blockState);
-                }
+    /**
+     * Reads the next serialized fragment
+     *
+     * @param dataIn                    the stream positioned at the start of the fragment
+     * @param chunkSerializationPalette the palette that the chunk used to serialize the chunk
+     * @return the block states of the fragment. Must be deleted by the caller.
+     */
+    @NotNull
+    private static BlockStateStorage readFragment(@NotNull DataInputStream dataIn, @NotNull IBlockStatePalette chunkSerializationPalette) throws IOException {
+        IndexedBlockStatePalette fragmentLocalPalette;
+        // reading the local to global mapping palette
+        {
+            int paletteBitArrayNumBits = dataIn.readInt();
+            int paletteBitArrayNumElements = dataIn.readInt();
+            int paletteBitArrayBytesLength = dataIn.readInt();
+            byte[] paletteBitArrayBytes = new byte[paletteBitArrayBytesLength];
+            dataIn.read(paletteBitArrayBytes);
+
+            BitArray paletteBitArray = new BitArray(paletteBitArrayNumElements, paletteBitArrayNumBits);
+            paletteBitArray.setData(paletteBitArrayBytes);
+
+            // all individual block states used in the chunk fragment
+            List<IBlockState> occurringBlockStates = new ArrayList<>();
+
+            for (int i = 0; i < paletteBitArray.getNumElements(); i++) {
+                occurringBlockStates.add(chunkSerializationPalette.getInstance(paletteBitArray.get(i)));
             }
+            paletteBitArray.delete(); // free the palette bit array
+
+            // Create the local palette
+            fragmentLocalPalette = new IndexedBlockStatePalette(occurringBlockStates);
         }
-    }
 
-    private boolean isChunkRegionEmpty(@NotNull ChunkBase chunk, int x, int y, int z, int width, int height, int depth) {
-        for (int xo = x; xo < x + width; xo++) {
-            for (int yo = y; yo < y + height; yo++) {
-                for (int zo = z; zo < z + depth; zo++) {
-                    IBlockState blockState = chunk.getRelativeBlockState(xo, yo, zo);
-                    if (blockState != null)
-                        return false;
-                }
-            }
+        BlockStateStorage fragmentBlockStorage = new BlockStateStorage(CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, CHUNK_FRAGMENT_SIZE, fragmentLocalPalette);
+
+        {
+            // Read in the number of bytes of the byte array backing the palette array of the fragment block storage
+            int paletteArrayNumBytes = dataIn.readInt();
+
+            byte[] paletteArrayBytes = new byte[paletteArrayNumBytes];
+            dataIn.read(paletteArrayBytes);
+
+            fragmentBlockStorage.apply(paletteArrayBytes);
         }
-        return true;
+        return fragmentBlockStorage;
     }
 
-    private int getFragmentBitIndex(int x, int y, int z, int height) {
+    @Unsafe
+    private void copyFromStorageToChunk(@NotNull ChunkBase dstChunk, @NotNull BlockStateStorage sourceStorage, int x, int y, int z, int width, int height, int depth) {
+        dstChunk.supplyBlockStates(x, y, z, width, height, depth, sourceStorage);
+    }
+
+    /**
+     * @param x      chunk relative x coordinate inside the fragment
+     * @param y      chunk relative y coordinate inside the fragment
+     * @param z      chunk relative z coordinate inside the fragment
+     * @param height the height of the chunk
+     * @return the index of the fragment containing the given coordinates
+     */
+    public static int getFragmentBitIndex(int x, int y, int z, int height) {
         x /= CHUNK_FRAGMENT_SIZE;
         y /= CHUNK_FRAGMENT_SIZE;
         z /= CHUNK_FRAGMENT_SIZE;
@@ -0,0 +1,172 @@
+package me.gommeantilegit.minecraft.block.state.storage;
+
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.material.Materials;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import me.gommeantilegit.minecraft.utils.palette.PaletteArray;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveBlockStateStorageTest {
+
+    private static final int SIZE = 32;
+
+    @NotNull
+    private static List<IBlockState> createBlockStates(int numBlockStates) {
+        List<IBlockState> blockStates = new ArrayList<>(numBlockStates);
+        blockStates.add(null); // air
+        for (int i = 1; i < numBlockStates; i++) {
+            blockStates.add(new Block(1, i, "block_" + i, Materials.rock).getDefaultBlockState());
+        }
+        return blockStates;
+    }
+
+    @Test
+    public void singleValueUntilSecondState() {
+        List<IBlockState> blockStates = createBlockStates(256);
+        AdaptiveBlockStateStorage storage = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        assertTrue(storage.isFilledWith(null));
+        storage.set(1, 2, 3, null);
+        assertEquals(0, storage.getBits());
+        assertEquals(0, storage.getByteSize());
+
+        storage.set(1, 2, 3, blockStates.get(5));
+        assertEquals(4, storage.getBits());
+        assertFalse(storage.usesGlobalPalette());
+        assertSame(blockStates.get(5), storage.getBlockState(1, 2, 3));
+        assertNull(storage.getBlockState(3, 2, 1));
+
+        storage.clear();
+        assertTrue(storage.isFilledWith(null));
+        assertNull(storage.getBlockState(1, 2, 3));
+    }
+
+    @Test
+    public void growsBitsAndFallsBackToGlobalPalette() {
+        List<IBlockState> blockStates = createBlockStates(256); // 8 global bits
+        AdaptiveBlockStateStorage storage = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        IBlockState[] expected = new IBlockState[SIZE * SIZE * SIZE];
+        Random random = new Random(42);
+        int numStates = 1;
+        while (numStates < blockStates.size()) {
+            // introducing a new state and overwriting some random blocks with known states
+            int index = random.nextInt(expected.length);
+            expected[index] = blockStates.get(numStates++);
+            storage.set(index % SIZE, (index / SIZE) % SIZE, index / (SIZE * SIZE), expected[index]);
+            for (int i = 0; i < 16; i++) {
+                index = random.nextInt(expected.length);
+                expected[index] = blockStates.get(random.nextInt(numStates));
+                storage.set(index % SIZE, (index / SIZE) % SIZE, index / (SIZE * SIZE), expected[index]);
+            }
+            if (numStates == 17) {
+                assertEquals(5, storage.getBits());
+                assertFalse(storage.usesGlobalPalette());
+            }
+        }
+        assertEquals(8, storage.getBits());
+        assertTrue(storage.usesGlobalPalette());
+
+        AdaptiveBlockStateStorage copy = storage.copy();
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], storage.getBlockState(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE)));
+            assertSame(expected[i], copy.getBlockState(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE)));
+        }
+    }
+
+    @Test
+    public void paletteDataMatchesGlobalPaletteFormat() {
+        List<IBlockState> blockStates = createBlockStates(64);
+        IndexedBlockStatePalette globalPalette = new IndexedBlockStatePalette(blockStates);
+        AdaptiveBlockStateStorage storage = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, globalPalette);
+        BlockStateStorage reference = new BlockStateStorage(SIZE, SIZE, SIZE, globalPalette);
+        try {
+            Random random = new Random(7);
+            for (int i = 0; i < 1000; i++) {
+                int x = random.nextInt(SIZE), y = random.nextInt(SIZE), z = random.nextInt(SIZE);
+                IBlockState state = blockStates.get(random.nextInt(3));
+                storage.set(x, y, z, state);
+                reference.set(x, y, z, state);
+            }
+            byte[] data = storage.getPaletteData();
+            assertArrayEquals(reference.getPaletteData(), data);
+
+            AdaptiveBlockStateStorage applied = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, globalPalette);
+            applied.apply(data);
+            assertEquals(storage.getBits(), applied.getBits());
+            assertArrayEquals(data, applied.getPaletteData());
+        } finally {
+            reference.delete();
+        }
+    }
+
+    @Test
+    public void copyRegionMatchesBlockStates() {
+        List<IBlockState> blockStates = createBlockStates(40);
+        AdaptiveBlockStateStorage storage = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        assertNull(storage.copyRegion(0, 0, 0, 16, 16, 16));
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            storage.set(random.nextInt(SIZE), random.nextInt(16), random.nextInt(SIZE), blockStates.get(random.nextInt(blockStates.size())));
+        }
+        assertNull(storage.copyRegion(16, 16, 0, 16, 16, 16));
+        for (int bits : new int[]{5, 6}) { // local and global palette
+            while (storage.getBits() < bits) {
+                storage.set(0, 31, 0, blockStates.get(random.nextInt(blockStates.size())));
+            }
+            BlockStateStorage region = storage.copyRegion(16, 0, 16, 16, 16, 16);
+            assertNotNull(region);
+            try {
+                for (int x = 0; x < 16; x++) {
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            assertSame(storage.getBlockState(16 + x, y, 16 + z), region.getBlockState(x, y, z));
+                        }
+                    }
+                }
+            } finally {
+                region.delete();
+            }
+        }
+    }
+
+    /**
+     * Compares the memory of a 256 high world column of 32x32 sections with a typical terrain layout to fixed width global palette arrays
+     */
+    @Test
+    public void columnMemory() {
+        List<IBlockState> blockStates = createBlockStates(64);
+        IndexedBlockStatePalette globalPalette = new IndexedBlockStatePalette(blockStates);
+        IBlockState stone = blockStates.get(1), dirt = blockStates.get(2), grass = blockStates.get(3);
+        int height = 256, surface = 70;
+        int adaptiveBytes = 0;
+        for (int startHeight = 0; startHeight < height; startHeight += SIZE) {
+            AdaptiveBlockStateStorage section = new AdaptiveBlockStateStorage(SIZE, SIZE, SIZE, globalPalette);
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    for (int y = 0; y < SIZE; y++) {
+                        int worldY = startHeight + y;
+                        if (worldY < surface - 4)
+                            section.set(x, y, z, stone);
+                        else if (worldY < surface)
+                            section.set(x, y, z, dirt);
+                        else if (worldY == surface)
+                            section.set(x, y, z, grass);
+                    }
+                }
+            }
+            adaptiveBytes += section.getByteSize();
+        }
+        PaletteArray<IBlockState> fixed = new PaletteArray<>(SIZE * SIZE * SIZE, globalPalette);
+        int fixedBytes = fixed.getByteSize() * (height / SIZE);
+        fixed.delete();
+        System.out.println("Column memory: fixed " + fixedBytes + " bytes, adaptive " + adaptiveBytes + " bytes");
+        assertTrue(adaptiveBytes * 4 <= fixedBytes);
+    }
+}
@@ -0,0 +1,126 @@
+package me.gommeantilegit.minecraft.block.state.storage;
+
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.material.Materials;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BlockStateStorageTest {
+
+    /**
+     * Size of the tested storage (equal to a chunk section)
+     */
+    private static final int SIZE = 32;
+
+    @NotNull
+    private static List<IBlockState> createBlockStates(int numBlockStates) {
+        List<IBlockState> blockStates = new ArrayList<>(numBlockStates);
+        blockStates.add(null); // air
+        for (int i = 1; i < numBlockStates; i++) {
+            blockStates.add(new Block(1, i, "block_" + i, Materials.rock).getDefaultBlockState());
+        }
+        return blockStates;
+    }
+
+    @Test
+    public void setAndGet() {
+        List<IBlockState> blockStates = createBlockStates(64);
+        BlockStateStorage storage = new BlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        Random random = new Random(0);
+        IBlockState[] expected = new IBlockState[SIZE * SIZE * SIZE];
+        for (int i = 0; i < expected.length; i++) {
+            IBlockState state = blockStates.get(random.nextInt(blockStates.size()));
+            expected[i] = state;
+            storage.set(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE), state);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], storage.getBlockState(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE)));
+        }
+        storage.delete();
+    }
+
+    @Test
+    public void indexedLookupMatchesLinearSearch() {
+        for (int numBlockStates : new int[]{16, 256, 4096}) {
+            List<IBlockState> blockStates = createBlockStates(numBlockStates);
+            IBlockStatePalette indexed = new IndexedBlockStatePalette(blockStates);
+            IBlockStatePalette linear = new LinearBlockStatePalette(blockStates);
+            for (IBlockState blockState : blockStates) {
+                assertEquals(linear.getInstanceIndex(blockState), indexed.getInstanceIndex(blockState));
+            }
+            IBlockState unknown = new Block(1, numBlockStates, "unknown", Materials.rock).getDefaultBlockState();
+            assertEquals(linear.getInstanceIndex(unknown), indexed.getInstanceIndex(unknown));
+
+            // storages filled through either palette hold the same states
+            IBlockState[] states = new IBlockState[SIZE * SIZE * SIZE];
+            Random random = new Random(0);
+            for (int i = 0; i < states.length; i++) {
+                states[i] = blockStates.get(random.nextInt(blockStates.size()));
+            }
+            BlockStateStorage indexedStorage = new BlockStateStorage(SIZE, SIZE, SIZE, indexed);
+            BlockStateStorage linearStorage = new BlockStateStorage(SIZE, SIZE, SIZE, linear);
+            fill(indexedStorage, states);
+            fill(linearStorage, states);
+            for (int z = 0; z < SIZE; z++) {
+                for (int y = 0; y < SIZE; y++) {
+                    for (int x = 0; x < SIZE; x++) {
+                        assertSame(linearStorage.getBlockState(x, y, z), indexedStorage.getBlockState(x, y, z));
+                    }
+                }
+            }
+            indexedStorage.delete();
+            linearStorage.delete();
+        }
+    }
+
+    private void fill(@NotNull BlockStateStorage storage, @NotNull IBlockState[] states) {
+        int i = 0;
+        for (int z = 0; z < SIZE; z++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    storage.set(x, y, z, states[i++]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The previous palette implementation using a linear search for reference
+     */
+    private static class LinearBlockStatePalette implements IBlockStatePalette {
+
+        @NotNull
+        private final List<IBlockState> blockStates;
+
+        private LinearBlockStatePalette(@NotNull List<IBlockState> blockStates) {
+            this.blockStates = blockStates;
+        }
+
+        @Nullable
+        @Override
+        public IBlockState getInstance(int index) {
+            return this.blockStates.get(index);
+        }
+
+        @Override
+        public int getNumKeys() {
+            return this.blockStates.size();
+        }
+
+        @Override
+        public int getInstanceIndex(@Nullable IBlockState value) {
+            return this.blockStates.indexOf(value);
+        }
+    }
+}
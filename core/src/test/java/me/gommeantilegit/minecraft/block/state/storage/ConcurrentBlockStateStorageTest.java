@@ -0,0 +1,222 @@
+package me.gommeantilegit.minecraft.block.state.storage;
+
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.access.IReadableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.material.Materials;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentBlockStateStorageTest {
+
+    private static final int SIZE = 32;
+
+    /**
+     * Time each contention test runs for
+     */
+    private static final long CONTENTION_MILLIS = 500;
+
+    @NotNull
+    private static List<IBlockState> createBlockStates(int numBlockStates) {
+        List<IBlockState> blockStates = new ArrayList<>(numBlockStates);
+        blockStates.add(null); // air
+        for (int i = 1; i < numBlockStates; i++) {
+            blockStates.add(new Block(1, i, "block_" + i, Materials.rock).getDefaultBlockState());
+        }
+        return blockStates;
+    }
+
+    @Test
+    public void readersOnlySeeWrittenStates() throws InterruptedException {
+        List<IBlockState> blockStates = createBlockStates(12); // 4 bits, palette smaller than 2^bits
+        ConcurrentBlockStateStorage storage = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        long[] counts = runContended(storage, blockStates, 4, state -> assertTrue(state == null || blockStates.contains(state)));
+        assertTrue(counts[0] > 0);
+        assertTrue(counts[1] > 0);
+    }
+
+    @Test
+    public void snapshotsAreSharedUntilTheNextWrite() {
+        List<IBlockState> blockStates = createBlockStates(40); // local palette grows while the snapshots are in use
+        ConcurrentBlockStateStorage storage = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        storage.set(1, 2, 3, blockStates.get(1));
+        IReadableBlockStateAccess snapshot = storage.snapshot();
+        assertSame(snapshot, storage.snapshot());
+
+        for (int i = 0; i < SIZE; i++) {
+            storage.set(i, 2, 3, blockStates.get(i + 2));
+        }
+        IReadableBlockStateAccess newSnapshot = storage.snapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertSame(blockStates.get(1), snapshot.getBlockState(1, 2, 3));
+        for (int i = 0; i < SIZE; i++) {
+            if (i != 1)
+                assertNull(snapshot.getBlockState(i, 2, 3));
+            assertSame(blockStates.get(i + 2), newSnapshot.getBlockState(i, 2, 3));
+        }
+
+        storage.clear();
+        assertNull(storage.getBlockState(5, 2, 3));
+        assertSame(blockStates.get(7), newSnapshot.getBlockState(5, 2, 3));
+    }
+
+    @Test
+    public void optimisticReadersNeverSeeTornStates() throws InterruptedException {
+        List<IBlockState> blockStates = createBlockStates(64);
+        // only every second state is written, a torn read resolving to a valid index of the palette would return one of the others
+        List<IBlockState> writtenStates = new ArrayList<>();
+        for (int i = 0; i < blockStates.size(); i += 2) {
+            writtenStates.add(blockStates.get(i));
+        }
+        Set<IBlockState> expectedStates = Collections.newSetFromMap(new IdentityHashMap<>());
+        expectedStates.addAll(writtenStates);
+        int readers = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        ConcurrentBlockStateStorage storage = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        long[] counts = runContended(storage, writtenStates, readers, state -> assertTrue("Read unwritten state " + state, state == null || expectedStates.contains(state)));
+        assertTrue(counts[0] > 0);
+        assertTrue(counts[1] > 0);
+    }
+
+    @Test
+    public void bulkWriteMatchesIndividualWrites() {
+        List<IBlockState> blockStates = createBlockStates(40); // forces growing to the global palette
+        IBlockState[] columns = createColumns(blockStates, 16, SIZE, 16);
+        ConcurrentBlockStateStorage individual = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        ConcurrentBlockStateStorage bulk = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        writeIndividually(individual, 16, 0, 8, 16, SIZE, 16, columns);
+        bulk.setBlockStates(16, 0, 8, 16, SIZE, 16, columns);
+        assertArrayEquals(individual.getPaletteData(), bulk.getPaletteData());
+
+        // partial columns, as written by chunks for regions spanning multiple sections
+        ConcurrentBlockStateStorage partial = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+        partial.setBlockStates(16, 0, 8, 16, 20, 16, columns, 0, SIZE);
+        partial.setBlockStates(16, 20, 8, 16, SIZE - 20, 16, columns, 20, SIZE);
+        assertArrayEquals(individual.getPaletteData(), partial.getPaletteData());
+    }
+
+    @Test
+    public void repeatedBulkWritesMatchIndividualWrites() {
+        List<IBlockState> blockStates = createBlockStates(8); // fits the local palette
+        IBlockState[] columns = createColumns(blockStates, 16, SIZE, 16);
+        for (int writes = 1; writes <= 2; writes++) { // writing the columns again replaces every state with an equal one
+            ConcurrentBlockStateStorage individual = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+            ConcurrentBlockStateStorage bulk = new ConcurrentBlockStateStorage(SIZE, SIZE, SIZE, new IndexedBlockStatePalette(blockStates));
+            for (int write = 0; write < writes; write++) {
+                writeIndividually(individual, 0, 0, 0, 16, SIZE, 16, columns);
+                bulk.setBlockStates(0, 0, 0, 16, SIZE, 16, columns);
+            }
+            assertArrayEquals(individual.getPaletteData(), bulk.getPaletteData());
+            for (int x = 0; x < SIZE; x++) {
+                for (int y = 0; y < SIZE; y++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        assertSame(individual.getBlockState(x, y, z), bulk.getBlockState(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return block states in columns along the y axis with terrain like runs of equal states
+     */
+    @NotNull
+    private static IBlockState[] createColumns(@NotNull List<IBlockState> blockStates, int width, int height, int depth) {
+        IBlockState[] columns = new IBlockState[width * height * depth];
+        for (int i = 0; i < columns.length; i++) {
+            int column = i / height, y = i % height;
+            columns[i] = blockStates.get((column + y / 3) % blockStates.size());
+        }
+        return columns;
+    }
+
+    private static void writeIndividually(@NotNull IWritableBlockStateAccess storage, int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] columns) {
+        for (int xo = 0; xo < width; xo++) {
+            for (int zo = 0; zo < depth; zo++) {
+                for (int yo = 0; yo < height; yo++) {
+                    storage.set(x + xo, y + yo, z + zo, columns[(xo * depth + zo) * height + yo]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the given number of reader threads against one writer thread on the storage for {@link #CONTENTION_MILLIS} milliseconds
+     *
+     * @return {number of reads, number of writes}
+     */
+    @NotNull
+    private long[] runContended(@NotNull IWritableBlockStateAccess storage, @NotNull List<IBlockState> blockStates, int numReaders, @NotNull StateConsumer readCheck) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong(), writes = new AtomicLong();
+        List<Throwable> errors = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < numReaders; r++) {
+            final int seed = r;
+            threads.add(new Thread(() -> {
+                long n = 0;
+                int i = seed * 7919;
+                awaitQuietly(start);
+                while (running.get()) {
+                    i = (i + 31) & (SIZE * SIZE * SIZE - 1);
+                    readCheck.accept(storage.getBlockState(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE)));
+                    n++;
+                }
+                reads.addAndGet(n);
+            }, "Reader-" + r));
+        }
+        threads.add(new Thread(() -> {
+            long n = 0;
+            int i = 0;
+            awaitQuietly(start);
+            while (running.get()) {
+                i = (i + 17) & (SIZE * SIZE * SIZE - 1);
+                storage.set(i % SIZE, (i / SIZE) % SIZE, i / (SIZE * SIZE), blockStates.get((int) (n % blockStates.size())));
+                n++;
+            }
+            writes.addAndGet(n);
+        }, "Writer"));
+        for (Thread thread : threads) {
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            });
+            thread.start();
+        }
+        start.countDown();
+        Thread.sleep(CONTENTION_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(errors.toString(), 0, errors.size());
+        return new long[]{reads.get(), writes.get()};
+    }
+
+    private static void awaitQuietly(@NotNull CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private interface StateConsumer {
+        void accept(@Nullable IBlockState state);
+    }
+}
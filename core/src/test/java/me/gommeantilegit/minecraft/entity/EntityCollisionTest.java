@@ -0,0 +1,241 @@
+package me.gommeantilegit.minecraft.entity;
+
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.material.Materials;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
+import me.gommeantilegit.minecraft.util.block.position.BlockPos;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static me.gommeantilegit.minecraft.utils.MathHelper.nearestInt;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link Entity#moveEntity(float, float, float)} against the collision it used to perform with a list of allocated bounding boxes on generated terrain
+ * and compares the allocations of both with a crowd of walking entities.
+ */
+public class EntityCollisionTest {
+
+    private static final int HEIGHT = CHUNK_SIZE;
+
+    private static final int ENTITIES = 200;
+
+    private static final int WALK_TICKS = 500;
+
+    private static TestWorld world;
+
+    @BeforeClass
+    public static void setUp() {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        world = new TestWorld(blocks.getGlobalPalette());
+        Random random = new Random(5);
+        // hills of stone with scattered dirt blocks on 2x2 chunks around the origin
+        for (int chunkX = -CHUNK_SIZE; chunkX <= 0; chunkX += CHUNK_SIZE) {
+            for (int chunkZ = -CHUNK_SIZE; chunkZ <= 0; chunkZ += CHUNK_SIZE) {
+                ChunkBase chunk = new ChunkBase(HEIGHT, chunkX, chunkZ, world, blocks.getGlobalPalette()) {
+                };
+                for (int x = 0; x < CHUNK_SIZE; x++) {
+                    for (int z = 0; z < CHUNK_SIZE; z++) {
+                        int height = terrainHeight(chunkX + x, chunkZ + z);
+                        for (int y = 0; y <= height; y++) {
+                            chunk.writeBlockChange(x, y, z, blocks.stone.getDefaultBlockState());
+                        }
+                        if (random.nextInt(20) == 0)
+                            chunk.writeBlockChange(x, height + 1, z, blocks.dirt.getDefaultBlockState());
+                    }
+                }
+                world.getWorldChunkHandler().addChunk(chunk);
+            }
+        }
+    }
+
+    private static int terrainHeight(int x, int z) {
+        return (int) (8 + 3 * Math.sin(x * 0.2) + 2 * Math.cos(z * 0.15));
+    }
+
+    @Test
+    public void moveEntityMatchesListBasedCollision() {
+        Random random = new Random(9);
+        for (int i = 0; i < 5000; i++) {
+            Entity entity = spawnEntity(random);
+            float motionX = random.nextFloat() * 2 - 1, motionY = random.nextFloat() * 2 - 1, motionZ = random.nextFloat() * 2 - 1;
+
+            AxisAlignedBB expected = entity.getBoundingBox().clone();
+            float clippedY = legacyMove(expected, motionX, motionY, motionZ);
+
+            entity.moveEntity(motionX, motionY, motionZ);
+            AxisAlignedBB actual = entity.getBoundingBox();
+            assertEquals(expected.x0, actual.x0, 0);
+            assertEquals(expected.y0, actual.y0, 0);
+            assertEquals(expected.z0, actual.z0, 0);
+            assertEquals(expected.x1, actual.x1, 0);
+            assertEquals(expected.y1, actual.y1, 0);
+            assertEquals(expected.z1, actual.z1, 0);
+            assertEquals(clippedY != motionY && motionY < 0, entity.isOnGround());
+        }
+    }
+
+    @Test
+    public void moveEntityAllocatesLessThanListBasedCollision() {
+        Entity[] entities = new Entity[ENTITIES];
+        AxisAlignedBB[] legacyBoxes = new AxisAlignedBB[ENTITIES];
+        float[] legacyMotionY = new float[ENTITIES];
+        boolean[] legacyOnGround = new boolean[ENTITIES];
+        Random random = new Random(13);
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = spawnEntity(random);
+            legacyBoxes[i] = entities[i].getBoundingBox().clone();
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0, legacyAllocated = 0;
+        for (int tick = -WALK_TICKS; tick < WALK_TICKS; tick++) { // negative ticks are warm up
+            long startAllocated = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < entities.length; i++) {
+                AxisAlignedBB box = legacyBoxes[i];
+                float motionY = legacyMotionY[i] = nextMotionY(tick, i, legacyOnGround[i], legacyMotionY[i]);
+                float clippedY = legacyMove(box, walkMotionX(tick, i), motionY, walkMotionZ(tick, i));
+                legacyOnGround[i] = clippedY != motionY && motionY < 0;
+                if (clippedY != motionY)
+                    legacyMotionY[i] = 0;
+            }
+            long middleAllocated = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < entities.length; i++) {
+                Entity entity = entities[i];
+                entity.motionY = nextMotionY(tick, i, entity.isOnGround(), entity.motionY);
+                entity.moveEntity(walkMotionX(tick, i), entity.motionY, walkMotionZ(tick, i));
+            }
+            long endAllocated = threadBean.getThreadAllocatedBytes(threadId);
+            if (tick >= 0) {
+                legacyAllocated += middleAllocated - startAllocated;
+                allocated += endAllocated - middleAllocated;
+            }
+        }
+        for (int i = 0; i < entities.length; i++) {
+            assertEquals(legacyBoxes[i].y0, entities[i].getBoundingBox().y0, 0);
+        }
+        assertTrue("moveEntity allocated " + allocated + " bytes, the list based collision " + legacyAllocated + " bytes", allocated * 10 < legacyAllocated);
+    }
+
+    /**
+     * Walking in circles with gravity and jumps, so that the entities collide with the ground and the hills
+     */
+    @Test
+    public void overriddenBoundingBoxesAreUsedForCollision() {
+        Block slab = new Block(1, 1000, "test_slab", Materials.rock) {
+            @Override
+            public AxisAlignedBB getBoundingBox(@NotNull WorldBase world, @NotNull BlockPos blockPos, @NotNull IBlockState blockState) {
+                return new AxisAlignedBB(blockPos.getX(), blockPos.getY(), blockPos.getZ(), blockPos.getX() + 1, blockPos.getY() + 0.5f, blockPos.getZ() + 1);
+            }
+        };
+        Block ghost = new Block(1, 1001, "test_ghost", Materials.rock) {
+            @Override
+            public AxisAlignedBB getBoundingBox(@NotNull WorldBase world, @NotNull BlockPos blockPos, @NotNull IBlockState blockState) {
+                return null;
+            }
+        };
+        IBlockStatePalette palette = new IndexedBlockStatePalette(Arrays.asList(null, slab.getDefaultBlockState(), ghost.getDefaultBlockState()));
+        TestWorld shapeWorld = new TestWorld(palette);
+        ChunkBase chunk = new ChunkBase(HEIGHT, 0, 0, shapeWorld, palette) {
+        };
+        chunk.writeBlockChange(1, 0, 1, slab.getDefaultBlockState());
+        chunk.writeBlockChange(3, 0, 1, ghost.getDefaultBlockState());
+        shapeWorld.getWorldChunkHandler().addChunk(chunk);
+
+        List<AxisAlignedBB> boxes = shapeWorld.getBoundingBoxes(new AxisAlignedBB(0, 0, 0, 4, 1, 2));
+        assertEquals(1, boxes.size());
+        assertEquals(0.5f, boxes.get(0).y1, 0);
+        assertTrue(shapeWorld.hasCollisionBoxes(null, 1, 0, 1, 1, 0, 1));
+        assertFalse(shapeWorld.hasCollisionBoxes(null, 3, 0, 1, 3, 0, 1));
+    }
+
+    private static float walkMotionX(int tick, int entity) {
+        return (float) Math.cos((tick + entity * 7) * 0.05f) * 0.2f;
+    }
+
+    private static float walkMotionZ(int tick, int entity) {
+        return (float) Math.sin((tick + entity * 7) * 0.05f) * 0.2f;
+    }
+
+    private static float nextMotionY(int tick, int entity, boolean onGround, float motionY) {
+        return onGround ? ((tick + entity) % 40 == 0 ? 0.42f : 0) : motionY - 0.08f;
+    }
+
+    /**
+     * Moves the box like {@link Entity#moveEntity(float, float, float)} used to with a list of bounding boxes allocated per query
+     *
+     * @return the clipped y motion
+     */
+    private static float legacyMove(@NotNull AxisAlignedBB box, float motionX, float motionY, float motionZ) {
+        List<AxisAlignedBB> boxes = legacyBoundingBoxes(box.expand(motionX, motionY, motionZ));
+        for (AxisAlignedBB blockBox : boxes) motionY = blockBox.clipYCollide(box, motionY);
+        box.move(0, motionY, 0);
+        for (AxisAlignedBB blockBox : boxes) motionX = blockBox.clipXCollide(box, motionX);
+        box.move(motionX, 0, 0);
+        for (AxisAlignedBB blockBox : boxes) motionZ = blockBox.clipZCollide(box, motionZ);
+        box.move(0, 0, motionZ);
+        return motionY;
+    }
+
+    /**
+     * The bounding box query {@link WorldBase#getBoundingBoxes(AxisAlignedBB)} used to perform, allocating a block position per block and a box per collidable block
+     */
+    @NotNull
+    private static List<AxisAlignedBB> legacyBoundingBoxes(@NotNull AxisAlignedBB box) {
+        List<AxisAlignedBB> boxes = new ArrayList<>();
+        for (int x = nearestInt(box.x0); x < nearestInt(box.x1 + 1.0f); x++) {
+            for (int y = nearestInt(box.y0); y < nearestInt(box.y1 + 1.0f); y++) {
+                for (int z = nearestInt(box.z0); z < nearestInt(box.z1 + 1.0f); z++) {
+                    BlockPos pos = new BlockPos(x, y, z);
+                    IBlockState state = world.getBlockState(pos);
+                    AxisAlignedBB blockBox;
+                    if (state != null && (blockBox = state.getBlock().getBoundingBox(world, pos, state)) != null)
+                        boxes.add(blockBox);
+                }
+            }
+        }
+        return boxes;
+    }
+
+    @NotNull
+    private static Entity spawnEntity(@NotNull Random random) {
+        Entity entity = new Entity(world);
+        float x = random.nextFloat() * 48 - 24, z = random.nextFloat() * 48 - 24;
+        entity.setPosition(x, terrainHeight((int) Math.floor(x), (int) Math.floor(z)) + 4 + random.nextFloat() * 3, z);
+        entity.setCurrentChunk(world.getChunkForPosition(x, z));
+        return entity;
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
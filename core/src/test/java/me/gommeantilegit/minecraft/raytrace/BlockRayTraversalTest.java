@@ -0,0 +1,149 @@
+package me.gommeantilegit.minecraft.raytrace;
+
+import com.badlogic.gdx.math.Vector3;
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.util.block.facing.EnumFacing;
+import me.gommeantilegit.minecraft.util.block.position.BlockPos;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Random;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class BlockRayTraversalTest {
+
+    private static final int HEIGHT = CHUNK_SIZE;
+
+    private static final float RANGE = 8;
+
+    private static Blocks blocks;
+
+    private static TestWorld world;
+
+    @BeforeClass
+    public static void setUp() {
+        blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        world = new TestWorld(blocks.getGlobalPalette());
+        Random random = new Random(3);
+        // 2x2 chunks around the origin, so that rays cross chunk borders on negative and positive coordinates
+        for (int chunkX = -CHUNK_SIZE; chunkX <= 0; chunkX += CHUNK_SIZE) {
+            for (int chunkZ = -CHUNK_SIZE; chunkZ <= 0; chunkZ += CHUNK_SIZE) {
+                ChunkBase chunk = new ChunkBase(HEIGHT, chunkX, chunkZ, world, blocks.getGlobalPalette()) {
+                };
+                for (int x = 0; x < CHUNK_SIZE; x++) {
+                    for (int z = 0; z < CHUNK_SIZE; z++) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            if (random.nextInt(10) == 0)
+                                chunk.writeBlockChange(x, y, z, (random.nextBoolean() ? blocks.stone : blocks.dirt).getDefaultBlockState());
+                        }
+                    }
+                }
+                world.getWorldChunkHandler().addChunk(chunk);
+            }
+        }
+    }
+
+    @Test
+    public void traversalFindsTheNearestHit() {
+        Random random = new Random(7);
+        int hits = 0;
+        for (int i = 0; i < 2000; i++) {
+            Vector3 start = randomStart(random);
+            Vector3 direction = randomDirection(random);
+            RayTracer.RayTraceResult expected = bruteForceRayTrace(start, direction);
+            RayTracer.RayTraceResult actual = BlockRayTraversal.rayTraceBlocks(world, start, direction, RANGE);
+            assertEquals(expected.type, actual.type);
+            if (expected.type == RayTracer.RayTraceResult.EnumResultType.BLOCK) {
+                hits++;
+                assertEquals(expected.getBlockPos(), actual.getBlockPos());
+                assertTrue(expected.hitVec.epsilonEquals(actual.hitVec, 1e-3f));
+                // the facing of the brute force trace falls back to UP, if rounding moved its hit off the face plane. The traversal snaps the hit onto the face
+                assertEquals(BlockPos.getFacing(actual.hitVec, actual.getBlockPos()), actual.hitSide);
+            }
+        }
+        assertTrue("Only " + hits + " rays hit a block", hits > 500);
+    }
+
+    @Test
+    public void hitSideFacesTheRay() {
+        TestWorld world = new TestWorld(blocks.getGlobalPalette());
+        ChunkBase chunk = new ChunkBase(HEIGHT, 0, 0, world, blocks.getGlobalPalette()) {
+        };
+        chunk.writeBlockChange(5, 5, 5, blocks.stone.getDefaultBlockState());
+        world.getWorldChunkHandler().addChunk(chunk);
+
+        Vector3 center = new Vector3(5.5f, 5.5f, 5.5f);
+        for (EnumFacing facing : EnumFacing.values()) {
+            Vector3 start = center.cpy().add(facing.getOffset().getX() * 3, facing.getOffset().getY() * 3, facing.getOffset().getZ() * 3);
+            RayTracer.RayTraceResult result = BlockRayTraversal.rayTraceBlocks(world, start, center.cpy().sub(start), RANGE);
+            assertEquals(new BlockPos(5, 5, 5), result.getBlockPos());
+            assertEquals(facing, result.hitSide);
+            assertEquals(2.5f, start.dst(result.hitVec), 1e-5f);
+        }
+
+        // out of range and into unloaded chunks
+        assertEquals(RayTracer.RayTraceResult.EnumResultType.MISS, BlockRayTraversal.rayTraceBlocks(world, new Vector3(5.5f, 5.5f, 10), new Vector3(0, 0, -1), 3.9f).type);
+        assertEquals(RayTracer.RayTraceResult.EnumResultType.MISS, BlockRayTraversal.rayTraceBlocks(world, new Vector3(1, 5.5f, 5.5f), new Vector3(-1, 0.1f, 0), RANGE * 10).type);
+    }
+
+    @NotNull
+    private static Vector3 randomStart(@NotNull Random random) {
+        return new Vector3(random.nextFloat() * 40 - 20, 4 + random.nextFloat() * (HEIGHT - 8), random.nextFloat() * 40 - 20);
+    }
+
+    @NotNull
+    private static Vector3 randomDirection(@NotNull Random random) {
+        return new Vector3((float) random.nextGaussian(), (float) random.nextGaussian(), (float) random.nextGaussian()).nor();
+    }
+
+    /**
+     * Traces the ray against every block in the bounding box of the ray, keeping the nearest hit
+     */
+    @NotNull
+    private static RayTracer.RayTraceResult bruteForceRayTrace(@NotNull Vector3 start, @NotNull Vector3 direction) {
+        Vector3 end = start.cpy().mulAdd(direction, RANGE);
+        RayTracer.RayTraceResult result = new RayTracer.RayTraceResult(null, null, RayTracer.RayTraceResult.EnumResultType.MISS, null);
+        float minDistance = Float.POSITIVE_INFINITY;
+        for (int x = (int) Math.floor(Math.min(start.x, end.x)); x <= Math.floor(Math.max(start.x, end.x)); x++) {
+            for (int y = (int) Math.floor(Math.min(start.y, end.y)); y <= Math.floor(Math.max(start.y, end.y)); y++) {
+                for (int z = (int) Math.floor(Math.min(start.z, end.z)); z <= Math.floor(Math.max(start.z, end.z)); z++) {
+                    Block block = world.getBlock(x, y, z);
+                    if (block == null)
+                        continue;
+                    RayTracer.RayTraceResult blockTrace = block.collisionRayTrace(new BlockPos(x, y, z), start, direction, RANGE);
+                    if (blockTrace.type == RayTracer.RayTraceResult.EnumResultType.BLOCK && start.dst2(blockTrace.hitVec) < minDistance) {
+                        result = blockTrace;
+                        minDistance = start.dst2(blockTrace.hitVec);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package me.gommeantilegit.minecraft.timer;
+
+import me.gommeantilegit.minecraft.timer.api.Tickable;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the bounded catch-up of {@link Timer#performTicks(Tickable, int, long)} with a large backlog of scheduled ticks
+ */
+public class TimerTest {
+
+    private static final int BACKLOG = 100;
+
+    @Test
+    public void catchUpIsCappedAtMaxTicks() {
+        Timer timer = timerWithBacklog();
+        CountingGame game = new CountingGame(0);
+        assertEquals(5, timer.performTicks(game, 5, Long.MAX_VALUE));
+        assertEquals(5, game.ticks);
+        assertEquals(5, timer.performedTicks);
+        assertEquals(BACKLOG - 5, timer.getDroppedTicks());
+    }
+
+    @Test
+    public void slowTicksAreCutOffByTheBudget() {
+        Timer timer = timerWithBacklog();
+        CountingGame game = new CountingGame(TimeUnit.MILLISECONDS.toNanos(10));
+        // ticks of at least 10 ms, no tick is started after 25 ms
+        int performed = timer.performTicks(game, BACKLOG, TimeUnit.MILLISECONDS.toNanos(25));
+        assertTrue("Performed " + performed + " ticks", performed >= 1 && performed <= 3);
+        assertEquals(performed, game.ticks);
+        assertEquals(BACKLOG - performed, timer.getDroppedTicks());
+    }
+
+    @Test
+    public void firstTickAlwaysRuns() {
+        Timer timer = timerWithBacklog();
+        CountingGame game = new CountingGame(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(1, timer.performTicks(game, BACKLOG, 0));
+        assertEquals(1, game.ticks);
+        assertEquals(BACKLOG - 1, timer.getDroppedTicks());
+
+        // dropped ticks accumulate over updates
+        timer.ticks = BACKLOG;
+        assertEquals(1, timer.performTicks(game, BACKLOG, 0));
+        assertEquals(2 * (BACKLOG - 1), timer.getDroppedTicks());
+    }
+
+    @Test
+    public void ticksWithinTheBoundsAreNotDropped() {
+        Timer timer = timerWithBacklog();
+        timer.ticks = 3;
+        CountingGame game = new CountingGame(0);
+        assertEquals(3, timer.performTicks(game, 5, Long.MAX_VALUE));
+        assertEquals(0, timer.getDroppedTicks());
+
+        timer.ticks = 0;
+        assertEquals(0, timer.performTicks(game, 5, Long.MAX_VALUE));
+        assertEquals(3, game.ticks);
+    }
+
+    private static Timer timerWithBacklog() {
+        Timer timer = new Timer(20);
+        timer.ticks = BACKLOG; // as scheduled by advanceTime after a long stall
+        return timer;
+    }
+
+    /**
+     * A game counting its ticks, each taking at least the given time
+     */
+    private static class CountingGame implements Tickable {
+
+        private final long tickNanos;
+
+        private int ticks;
+
+        private CountingGame(long tickNanos) {
+            this.tickNanos = tickNanos;
+        }
+
+        @Override
+        public void tick(float partialTicks) {
+            this.ticks++;
+            long end = System.nanoTime() + this.tickNanos;
+            while (System.nanoTime() - end < 0) {
+                LockSupport.parkNanos(end - System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.gommeantilegit.minecraft.world.chunk.change;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class BlockStateSemaphoreBaseTest {
+
+    @Test
+    public void writesToOneChunkStayOrdered() throws InterruptedException {
+        BlockStateSemaphoreBase semaphore = new BlockStateSemaphoreBase(4);
+        int numChunks = 16, writesPerChunk = 1000;
+        List<List<Integer>> applied = new ArrayList<>();
+        for (int c = 0; c < numChunks; c++) {
+            applied.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        CountDownLatch done = new CountDownLatch(numChunks * writesPerChunk);
+        for (int i = 0; i < writesPerChunk; i++) {
+            for (int c = 0; c < numChunks; c++) {
+                List<Integer> chunkWrites = applied.get(c);
+                int write = i;
+                semaphore.submit(c * CHUNK_SIZE, -c * CHUNK_SIZE, new BlockStateSemaphoreBase.WriteTask(null, () -> {
+                    chunkWrites.add(write);
+                    done.countDown();
+                }));
+            }
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> chunkWrites : applied) {
+            for (int i = 0; i < writesPerChunk; i++) {
+                assertEquals(i, (int) chunkWrites.get(i));
+            }
+        }
+        assertEquals(0, semaphore.getQueueDepth());
+    }
+
+    @Test
+    public void differentChunksProceedInParallel() throws InterruptedException {
+        BlockStateSemaphoreBase semaphore = new BlockStateSemaphoreBase(4);
+        CountDownLatch blocked = new CountDownLatch(1), released = new CountDownLatch(1);
+        semaphore.submit(0, 0, new BlockStateSemaphoreBase.WriteTask(null, () -> {
+            blocked.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        // writes to the blocked chunk queue up
+        for (int i = 0; i < 3; i++) {
+            semaphore.submit(0, 0, new BlockStateSemaphoreBase.WriteTask(null, () -> {
+            }));
+        }
+        assertEquals(3, semaphore.getQueueDepth());
+        assertEquals(3, semaphore.getPeakQueueDepth());
+
+        // while some chunk of another shard is written
+        CountDownLatch otherChunkWritten = new CountDownLatch(1);
+        for (int c = 1; c < 64 && otherChunkWritten.getCount() > 0; c++) {
+            semaphore.submit(c * CHUNK_SIZE, 0, new BlockStateSemaphoreBase.WriteTask(null, otherChunkWritten::countDown));
+            otherChunkWritten.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, otherChunkWritten.getCount());
+        released.countDown();
+    }
+}
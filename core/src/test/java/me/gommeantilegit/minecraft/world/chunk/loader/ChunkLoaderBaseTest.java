@@ -0,0 +1,225 @@
+package me.gommeantilegit.minecraft.world.chunk.loader;
+
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.palette.IndexedBlockStatePalette;
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.entity.player.base.PlayerBase;
+import me.gommeantilegit.minecraft.entity.player.base.skin.SkinBase;
+import me.gommeantilegit.minecraft.entity.player.base.skin.SkinPixel;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.creator.ChunkCreatorBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkSection.CHUNK_SECTION_SIZE;
+import static org.junit.Assert.*;
+
+public class ChunkLoaderBaseTest {
+
+    private static final int CHUNK_LOADING_DISTANCE = 6 * CHUNK_SIZE;
+
+    /**
+     * The number of chunks every viewer moves
+     */
+    private static final int STEPS = 32;
+
+    /**
+     * The number of viewers sharing the same chunks
+     */
+    private static final int CONTENDING_VIEWERS = 64;
+
+    /**
+     * The number of random chunk changes of every contending viewer
+     */
+    private static final int RANDOM_STEPS = 200;
+
+    @Test
+    public void ticketsMatchViewerAreas() throws Exception {
+        TestWorld world = new TestWorld();
+        List<PlayerBase> viewers = createViewers(world, 40);
+        moveViewers(world, viewers);
+
+        assertTicketsMatchViewerAreas(world, viewers);
+        removeViewers(world, viewers);
+    }
+
+    @Test
+    public void concurrentViewersOnOverlappingChunksKeepTicketsConsistent() throws Exception {
+        TestWorld world = new TestWorld();
+        // all viewers wander around the same chunk, so that every chunk is contended by the tickets of many threads
+        SkinBase skin = new SkinBase(new SkinPixel[1][1]);
+        List<PlayerBase> viewers = new ArrayList<>(CONTENDING_VIEWERS);
+        for (int i = 0; i < CONTENDING_VIEWERS; i++) {
+            PlayerBase viewer = new PlayerBase(world, 20, "viewer" + i, skin);
+            viewer.posX = viewer.posZ = 0.5f * CHUNK_SIZE;
+            world.getChunkLoader().addViewer(viewer);
+            viewers.add(viewer);
+        }
+        runConcurrently(viewers, viewer -> {
+            ChunkLoaderBase chunkLoader = world.getChunkLoader();
+            Random random = new Random(viewer.getUsername().hashCode());
+            chunkLoader.performChunkActions(viewer);
+            for (int step = 0; step < RANDOM_STEPS; step++) {
+                if (random.nextBoolean())
+                    viewer.posX += random.nextBoolean() ? CHUNK_SIZE : -CHUNK_SIZE;
+                else
+                    viewer.posZ += random.nextBoolean() ? CHUNK_SIZE : -CHUNK_SIZE;
+                chunkLoader.performChunkActions(viewer);
+            }
+        });
+
+        assertTicketsMatchViewerAreas(world, viewers);
+        long heldTickets = 0;
+        for (ChunkBase chunk : world.getWorldChunkHandler().collectChunks()) {
+            heldTickets += chunk.getTicketCount();
+        }
+        assertEquals(world.acquiredTickets.get() - world.releasedTickets.get(), heldTickets);
+
+        removeViewers(world, viewers);
+        assertEquals(world.acquiredTickets.get(), world.releasedTickets.get());
+    }
+
+    /**
+     * Asserts that every chunk holds one ticket per viewer, whose chunk loading area contains it, and is loaded if it holds any
+     */
+    private void assertTicketsMatchViewerAreas(@NotNull TestWorld world, @NotNull List<PlayerBase> viewers) {
+        for (ChunkBase chunk : world.getWorldChunkHandler().collectChunks()) {
+            int chunkX = chunk.getX() / CHUNK_SIZE, chunkZ = chunk.getZ() / CHUNK_SIZE;
+            int expectedTickets = 0;
+            for (PlayerBase viewer : viewers) {
+                ChunkLoadingArea area = new ChunkLoadingArea((int) Math.floor(viewer.posX / CHUNK_SIZE), (int) Math.floor(viewer.posZ / CHUNK_SIZE), CHUNK_LOADING_DISTANCE);
+                if (area.contains(chunkX, chunkZ))
+                    expectedTickets++;
+            }
+            assertEquals(expectedTickets, chunk.getTicketCount());
+            assertEquals(expectedTickets > 0, chunk.isLoaded());
+        }
+    }
+
+    /**
+     * Removes the viewers concurrently and asserts that every chunk ends without tickets
+     */
+    private void removeViewers(@NotNull TestWorld world, @NotNull List<PlayerBase> viewers) throws Exception {
+        runConcurrently(viewers, viewer -> world.getChunkLoader().removeViewer(viewer));
+        for (ChunkBase chunk : world.getWorldChunkHandler().collectChunks()) {
+            assertEquals(0, chunk.getTicketCount());
+        }
+        assertEquals(0, world.getWorldChunkHandler().getNumLoadedChunks());
+    }
+
+    /**
+     * Creates viewers in rows of 10, two chunks apart, so that the areas of neighboring viewers overlap
+     */
+    @NotNull
+    private List<PlayerBase> createViewers(@NotNull TestWorld world, int numViewers) {
+        SkinBase skin = new SkinBase(new SkinPixel[1][1]);
+        List<PlayerBase> viewers = new ArrayList<>(numViewers);
+        for (int i = 0; i < numViewers; i++) {
+            PlayerBase viewer = new PlayerBase(world, 20, "viewer" + i, skin);
+            viewer.posX = ((i % 10) * 2 + 0.5f) * CHUNK_SIZE;
+            viewer.posZ = ((i / 10) * 2 + 0.5f) * CHUNK_SIZE;
+            world.getChunkLoader().addViewer(viewer);
+            viewers.add(viewer);
+        }
+        return viewers;
+    }
+
+    /**
+     * Moves all viewers concurrently by {@link #STEPS} chunks along the x axis, updating their tickets after every chunk change
+     */
+    private void moveViewers(@NotNull TestWorld world, @NotNull List<PlayerBase> viewers) throws Exception {
+        runConcurrently(viewers, viewer -> {
+            ChunkLoaderBase chunkLoader = world.getChunkLoader();
+            chunkLoader.performChunkActions(viewer);
+            for (int step = 0; step < STEPS; step++) {
+                viewer.posX += CHUNK_SIZE;
+                chunkLoader.performChunkActions(viewer);
+            }
+        });
+    }
+
+    private void runConcurrently(@NotNull List<PlayerBase> viewers, @NotNull ViewerAction action) throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (PlayerBase viewer : viewers) {
+                futures.add(service.submit(() -> action.perform(viewer)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private interface ViewerAction {
+        void perform(@NotNull PlayerBase viewer);
+    }
+
+    /**
+     * A world of empty chunks one section high without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private static final IBlockStatePalette PALETTE = new IndexedBlockStatePalette(new ArrayList<IBlockState>());
+
+        /**
+         * The number of tickets acquired and released on the chunks of the world
+         */
+        @NotNull
+        private final AtomicLong acquiredTickets = new AtomicLong(), releasedTickets = new AtomicLong();
+
+        private TestWorld() {
+            super(null, CHUNK_SECTION_SIZE, PALETTE, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+            this.chunkCreator = new ChunkCreatorBase(this) {
+                @NotNull
+                @Override
+                protected ChunkBase newChunkFor(int height, int chunkX, int chunkZ, WorldBase world, IBlockStatePalette blockStatePalette) {
+                    return new ChunkBase(height, chunkX, chunkZ, world, blockStatePalette) {
+                        @Override
+                        public int acquireTicket() {
+                            acquiredTickets.incrementAndGet();
+                            return super.acquireTicket();
+                        }
+
+                        @Override
+                        public int releaseTicket() {
+                            releasedTickets.incrementAndGet();
+                            return super.releaseTicket();
+                        }
+                    };
+                }
+            };
+            this.chunkLoader = new ChunkLoaderBase(this) {
+                @Override
+                public int getChunkLoadingDistance(@NotNull Entity ent) {
+                    return CHUNK_LOADING_DISTANCE;
+                }
+
+                @Override
+                public void tick(float partialTicks) {
+                }
+            };
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package me.gommeantilegit.minecraft.world.chunk.loader;
+
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class ChunkLoadingAreaTest {
+
+    @Test
+    public void containsChunksWithinDistance() {
+        int distance = 5 * CHUNK_SIZE;
+        ChunkLoadingArea area = new ChunkLoadingArea(3, -2, distance);
+        for (int x = -10; x <= 15; x++) {
+            for (int z = -15; z <= 10; z++) {
+                double originDistance = new Vec2i(x * CHUNK_SIZE, z * CHUNK_SIZE).getDistance(new Vec2i(3 * CHUNK_SIZE, -2 * CHUNK_SIZE));
+                assertEquals(originDistance < distance, area.contains(x, z));
+            }
+        }
+        assertFalse(new ChunkLoadingArea(0, 0, 0).contains(0, 0));
+    }
+
+    @Test
+    public void differenceMatchesSetDifference() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            ChunkLoadingArea from = new ChunkLoadingArea(random.nextInt(9) - 4, random.nextInt(9) - 4, random.nextInt(8 * CHUNK_SIZE));
+            ChunkLoadingArea to = new ChunkLoadingArea(random.nextInt(9) - 4, random.nextInt(9) - 4, random.nextInt(8 * CHUNK_SIZE));
+            Set<Long> expected = new HashSet<>();
+            for (int x = -20; x <= 20; x++) {
+                for (int z = -20; z <= 20; z++) {
+                    if (to.contains(x, z) && !from.contains(x, z))
+                        expected.add(Vec2i.hash64(x, z));
+                }
+            }
+            Set<Long> actual = new HashSet<>();
+            to.forEachChunkNotIn(from, (x, z) -> assertTrue(actual.add(Vec2i.hash64(x, z))));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void movingOneChunkVisitsOnlyTheRing() {
+        ChunkLoadingArea from = new ChunkLoadingArea(0, 0, 16 * CHUNK_SIZE), to = new ChunkLoadingArea(1, 0, 16 * CHUNK_SIZE);
+        int[] entering = new int[1], leaving = new int[1], all = new int[1];
+        to.forEachChunkNotIn(from, (x, z) -> entering[0]++);
+        from.forEachChunkNotIn(to, (x, z) -> leaving[0]++);
+        to.forEachChunkNotIn(null, (x, z) -> all[0]++);
+        // one chunk per row of the area
+        assertEquals(2 * 15 + 1, entering[0]);
+        assertEquals(entering[0], leaving[0]);
+        assertTrue(all[0] > 20 * entering[0]);
+    }
+}
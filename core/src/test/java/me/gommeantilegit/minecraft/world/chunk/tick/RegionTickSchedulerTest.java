@@ -0,0 +1,233 @@
+package me.gommeantilegit.minecraft.world.chunk.tick;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class RegionTickSchedulerTest {
+
+    private static final int HEIGHT = CHUNK_SIZE;
+
+    /**
+     * The loaded chunks span from -GRID_RADIUS to GRID_RADIUS - 1 chunks along both axes
+     */
+    private static final int GRID_RADIUS = 4;
+
+    private static final int TICKS = 20;
+
+    private static IBlockStatePalette palette;
+
+    @BeforeClass
+    public static void setUp() {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        palette = blocks.getGlobalPalette();
+    }
+
+    @Test
+    public void regionsOfAPhaseAreNotAdjacent() {
+        for (int x0 = -4; x0 < 4; x0++) {
+            for (int z0 = -4; z0 < 4; z0++) {
+                for (int x1 = -4; x1 < 4; x1++) {
+                    for (int z1 = -4; z1 < 4; z1++) {
+                        if ((x0 != x1 || z0 != z1) && RegionTickScheduler.getPhase(x0, z0) == RegionTickScheduler.getPhase(x1, z1))
+                            assertTrue(Math.max(Math.abs(x0 - x1), Math.abs(z0 - z1)) >= 2);
+                    }
+                }
+            }
+        }
+        assertEquals(-1, RegionTickScheduler.getRegionCoordinate(-1));
+        assertEquals(-1, RegionTickScheduler.getRegionCoordinate(-CHUNK_SIZE * RegionTickScheduler.REGION_SIZE));
+        assertEquals(0, RegionTickScheduler.getRegionCoordinate(CHUNK_SIZE * RegionTickScheduler.REGION_SIZE - 1));
+    }
+
+    @Test
+    public void nearbyChunksAreNeverTickedConcurrently() {
+        Simulation simulation = new Simulation(new ForkJoinPool(4));
+        simulation.run();
+        assertNull(simulation.violation, simulation.violation);
+        assertTrue("No chunks were ticked concurrently", simulation.maxConcurrentTicks > 1);
+    }
+
+    @Test
+    public void handoffOrderIsIndependentOfParallelism() {
+        Simulation sequential = new Simulation(null);
+        sequential.run();
+        Simulation parallel = new Simulation(new ForkJoinPool(4));
+        parallel.run();
+        assertNull(parallel.violation, parallel.violation);
+        assertEquals(TICKS * GRID_RADIUS * GRID_RADIUS * 4, sequential.handoffs.size());
+        assertEquals(sequential.handoffs, parallel.handoffs);
+    }
+
+    @Test
+    public void metricsAreRecordedPerRegion() {
+        Simulation simulation = new Simulation(new ForkJoinPool(2));
+        simulation.run();
+        RegionTickScheduler scheduler = simulation.scheduler;
+        assertEquals(GRID_RADIUS * GRID_RADIUS, scheduler.getRegionCount());
+        assertTrue(scheduler.getLastTickNanos() > 0);
+        List<RegionTickScheduler.Region> regions = scheduler.getHottestRegions(Integer.MAX_VALUE);
+        assertEquals(GRID_RADIUS * GRID_RADIUS, regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            RegionTickScheduler.Region region = regions.get(i);
+            assertEquals(TICKS, region.getTicks());
+            assertEquals(RegionTickScheduler.REGION_SIZE * RegionTickScheduler.REGION_SIZE, region.getChunkCount());
+            assertTrue(region.getLastTickNanos() <= region.getMaxTickNanos());
+            assertTrue(region.getAverageTickNanos() <= region.getMaxTickNanos());
+            if (i > 0)
+                assertTrue(regions.get(i - 1).getLastTickNanos() >= region.getLastTickNanos());
+        }
+        assertEquals(3, scheduler.getHottestRegions(3).size());
+
+        // regions without loaded chunks are dropped
+        scheduler.tick(Collections.singletonList(simulation.chunks.get(0)));
+        assertEquals(1, scheduler.getRegionCount());
+        assertEquals(1, scheduler.getHottestRegions(3).get(0).getChunkCount());
+    }
+
+    /**
+     * Ticks a grid of chunks, where every chunk hands an entity to one of its neighbors per tick
+     */
+    private static class Simulation {
+
+        @NotNull
+        private final RegionTickScheduler scheduler;
+
+        @NotNull
+        private final List<ChunkBase> chunks = new ArrayList<>();
+
+        @NotNull
+        private final Map<Long, TestChunk> chunkMap = new HashMap<>();
+
+        /**
+         * The chunks currently ticking
+         */
+        @NotNull
+        private final Set<TestChunk> ticking = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The handoffs in the order they were performed
+         */
+        @NotNull
+        private final List<String> handoffs = Collections.synchronizedList(new ArrayList<>());
+
+        @Nullable
+        private volatile String violation;
+
+        private volatile int maxConcurrentTicks;
+
+        private int tick;
+
+        private Simulation(@Nullable ForkJoinPool pool) {
+            this.scheduler = new RegionTickScheduler(pool);
+            TestWorld world = new TestWorld(palette);
+            for (int chunkX = -GRID_RADIUS; chunkX < GRID_RADIUS; chunkX++) {
+                for (int chunkZ = -GRID_RADIUS; chunkZ < GRID_RADIUS; chunkZ++) {
+                    TestChunk chunk = new TestChunk(this, chunkX, chunkZ, world);
+                    this.chunks.add(chunk);
+                    this.chunkMap.put(key(chunkX, chunkZ), chunk);
+                }
+            }
+            Collections.reverse(this.chunks); // the tick order must not depend on the order of the collection
+        }
+
+        private void run() {
+            for (this.tick = 0; this.tick < TICKS; this.tick++) {
+                this.scheduler.tick(this.chunks);
+            }
+        }
+
+        private static long key(int chunkX, int chunkZ) {
+            return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+        }
+    }
+
+    private static class TestChunk extends ChunkBase {
+
+        @NotNull
+        private final Simulation simulation;
+
+        private final int chunkX, chunkZ;
+
+        private TestChunk(@NotNull Simulation simulation, int chunkX, int chunkZ, @NotNull WorldBase world) {
+            super(HEIGHT, chunkX * CHUNK_SIZE, chunkZ * CHUNK_SIZE, world, palette);
+            this.simulation = simulation;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        @Override
+        public void tickEntities() {
+            Simulation simulation = this.simulation;
+            for (TestChunk other : simulation.ticking) {
+                if (Math.max(Math.abs(other.chunkX - chunkX), Math.abs(other.chunkZ - chunkZ)) <= RegionTickScheduler.REGION_SIZE)
+                    simulation.violation = this + " ticked concurrently with " + other;
+            }
+            simulation.ticking.add(this);
+            simulation.maxConcurrentTicks = Math.max(simulation.maxConcurrentTicks, simulation.ticking.size());
+            long end = System.nanoTime() + 50_000;
+            while (System.nanoTime() < end) {
+                Thread.yield(); // give other regions of the phase a chance to overlap
+            }
+            // wrap around at the border of the grid, so that every chunk has four neighbors
+            int direction = (simulation.tick + chunkX * 3 + chunkZ) & 3;
+            int targetX = chunkX + (direction == 2 ? 1 : direction == 3 ? -1 : 0), targetZ = chunkZ + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+            targetX = Math.floorMod(targetX + GRID_RADIUS, GRID_RADIUS * 2) - GRID_RADIUS;
+            targetZ = Math.floorMod(targetZ + GRID_RADIUS, GRID_RADIUS * 2) - GRID_RADIUS;
+            Entity entity = new Entity(null);
+            entity.setCurrentChunk(this);
+            transferEntity(entity, simulation.chunkMap.get(Simulation.key(targetX, targetZ)));
+            simulation.ticking.remove(this);
+        }
+
+        @Override
+        public void scheduleAddEntity(@NotNull Entity entity, @NotNull Consumer<Entity> listener) {
+            if (!simulation.ticking.isEmpty())
+                simulation.violation = "Entity handed to " + this + " while chunks are ticking";
+            simulation.handoffs.add(simulation.tick + ": " + entity.getCurrentChunk() + " -> " + this);
+        }
+
+        @Override
+        public String toString() {
+            return "Chunk(" + chunkX + ", " + chunkZ + ")";
+        }
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
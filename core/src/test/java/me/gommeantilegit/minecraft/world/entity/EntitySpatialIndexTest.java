@@ -0,0 +1,134 @@
+package me.gommeantilegit.minecraft.world.entity;
+
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.phys.AxisAlignedBB;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class EntitySpatialIndexTest {
+
+    private static final int ENTITIES = 3000;
+
+    @Test
+    public void queriesMatchLinearScan() {
+        Random random = new Random(17);
+        EntitySpatialIndex index = new EntitySpatialIndex();
+        List<Entity> entities = spawnEntities(random, index);
+
+        for (int round = 0; round < 10; round++) {
+            // incremental updates
+            for (Entity entity : entities) {
+                if (random.nextInt(3) == 0) {
+                    entity.setPosition(entity.posX + random.nextFloat() * 20 - 10, entity.posY + random.nextFloat() * 4 - 2, entity.posZ + random.nextFloat() * 20 - 10);
+                    index.update(entity);
+                }
+            }
+            for (int query = 0; query < 200; query++) {
+                float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 64, z = random.nextFloat() * 200 - 100;
+                float size = random.nextFloat() * 12;
+                AxisAlignedBB region = new AxisAlignedBB(x, y, z, x + size, y + size / 2, z + size);
+
+                Set<Entity> expected = new HashSet<>();
+                for (Entity entity : entities) {
+                    if (entity.getBoundingBox().intersects(region))
+                        expected.add(entity);
+                }
+                assertEquals(expected, new HashSet<>(index.getEntitiesWithinAABB(region, entity -> true)));
+                assertEquals(expected.isEmpty(), index.isEntityFree(region));
+
+                Set<Entity> expectedInRange = new HashSet<>();
+                for (Entity entity : entities) {
+                    if (distanceSquared(entity, x, y, z) <= size * size)
+                        expectedInRange.add(entity);
+                }
+                assertEquals(expectedInRange, new HashSet<>(index.getEntitiesInRange(x, y, z, size, entity -> true)));
+
+                List<Entity> sorted = new ArrayList<>(entities);
+                sorted.sort(Comparator.comparingDouble(entity -> distanceSquared(entity, x, y, z)));
+                List<Entity> nearest = index.getNearestEntities(x, y, z, 5, 1000, entity -> true);
+                assertEquals(5, nearest.size());
+                for (int i = 0; i < nearest.size(); i++) {
+                    assertEquals(distanceSquared(sorted.get(i), x, y, z), distanceSquared(nearest.get(i), x, y, z), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void removedEntitiesAreNotFound() {
+        Random random = new Random(23);
+        EntitySpatialIndex index = new EntitySpatialIndex();
+        List<Entity> entities = spawnEntities(random, index);
+        assertEquals(ENTITIES, index.size());
+        AxisAlignedBB everything = new AxisAlignedBB(-200, -200, -200, 200, 200, 200);
+        for (Entity entity : entities) {
+            index.remove(entity);
+        }
+        assertEquals(0, index.size());
+        assertTrue(index.isEntityFree(everything));
+        assertTrue(index.getNearestEntities(0, 0, 0, 3, 500, entity -> true).isEmpty());
+
+        // updates of removed entities are ignored
+        Entity entity = entities.get(0);
+        entity.setPosition(1, 1, 1);
+        index.update(entity);
+        assertFalse(index.contains(entity));
+    }
+
+    @Test
+    public void nearestQueryReturnsFewerThanKEntities() {
+        EntitySpatialIndex index = new EntitySpatialIndex();
+        assertTrue(index.getNearestEntities(0, 0, 0, 5, 100_000, entity -> true).isEmpty());
+
+        float[][] positions = {{2, 1, 3}, {-40, 10, 25}, {300, 60, -280}};
+        List<Entity> entities = new ArrayList<>();
+        for (float[] position : positions) {
+            Entity entity = new Entity(null);
+            entity.getBoundingBox().set(0, 0, 0, 0.6f, 1.8f, 0.6f);
+            entity.setPosition(position[0], position[1], position[2]);
+            index.add(entity);
+            entities.add(entity);
+        }
+        // all entities in range, sorted by distance
+        assertEquals(entities, index.getNearestEntities(0, 0, 0, 10, 100_000, entity -> true));
+        // the farthest entity out of range
+        assertEquals(entities.subList(0, 2), index.getNearestEntities(0, 0, 0, 10, 100, entity -> true));
+        // filtered by the predicate
+        assertEquals(Collections.singletonList(entities.get(2)), index.getNearestEntities(0, 0, 0, 10, 100_000, entity -> entity == entities.get(2)));
+    }
+
+    /**
+     * Spawns entities in a 200x64x200 region around the origin, some of them with larger bounding boxes
+     */
+    @NotNull
+    private static List<Entity> spawnEntities(@NotNull Random random, @NotNull EntitySpatialIndex index) {
+        List<Entity> entities = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            Entity entity = new Entity(null);
+            float width = i % 50 == 0 ? 3 : 0.6f;
+            entity.getBoundingBox().set(0, 0, 0, width, 1.8f, width);
+            entity.setPosition(random.nextFloat() * 200 - 100, random.nextFloat() * 64, random.nextFloat() * 200 - 100);
+            if (width > 1)
+                entity.getBoundingBox().set(entity.posX - width / 2, entity.posY - 0.9f, entity.posZ - width / 2, entity.posX + width / 2, entity.posY + 0.9f, entity.posZ + width / 2);
+            index.add(entity);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private static float distanceSquared(@NotNull Entity entity, float x, float y, float z) {
+        AxisAlignedBB box = entity.getBoundingBox();
+        float dx = (box.x0 + box.x1) / 2 - x, dy = (box.y0 + box.y1) / 2 - y, dz = (box.z0 + box.z1) / 2 - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,78 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Random;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class ChunkFragmenterTest {
+
+    private static final int HEIGHT = 2 * CHUNK_SIZE;
+
+    @Test
+    public void decodedSectionsMatchSerializedChunk() throws Exception {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        IBlockStatePalette palette = blocks.getGlobalPalette();
+        TestWorld world = new TestWorld(palette);
+        ChunkBase source = new ChunkBase(HEIGHT, 0, 0, world, palette) {
+        };
+        Random random = new Random(11);
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                for (int y = 0; y < HEIGHT / 3; y++) {
+                    // leaves the upper fragments empty
+                    source.writeBlockChange(x, y, z, palette.getInstance(random.nextInt(4)));
+                }
+            }
+        }
+
+        ChunkFragmenter fragmenter = new ChunkFragmenter(null);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BitSet fragments = fragmenter.fragmentChunkCompressed(palette, source, bos);
+        byte[] chunkData = ChunkFragmenter.decompressFragments(bos.toByteArray(), fragments);
+        AdaptiveBlockStateStorage[] sections = fragmenter.decodeSections(HEIGHT, palette, palette, chunkData, fragments);
+
+        ChunkBase destination = new ChunkBase(HEIGHT, 0, 0, world, palette) {
+        };
+        destination.writeBlockChange(0, HEIGHT - 1, 0, palette.getInstance(1)); // overwritten by the swap
+        destination.swapSectionStorages(sections);
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                for (int y = 0; y < HEIGHT; y++) {
+                    IBlockState expected = source.getRelativeBlockState(x, y, z);
+                    assertEquals(expected, destination.getRelativeBlockState(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package me.gommeantilegit.minecraft.packet.buffer;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte aligned packet buffer reading from and writing directly into Netty {@link ByteBuf}s.
+ * The wire format is equal to the byte mode of {@link me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer} (big endian, strings prefixed by their UTF-8 byte count).
+ * <p>
+ * When writing, fields are written into a pooled direct buffer. Large byte arrays can be appended with {@link #appendBytes(byte[])}, which wraps them
+ * as a component of a {@link CompositeByteBuf} instead of copying them. Not thread safe.
+ */
+public class PacketBuffer {
+
+    /**
+     * The allocator of the buffers written to or null, if the buffer is read only
+     */
+    @Nullable
+    private final ByteBufAllocator allocator;
+
+    /**
+     * The buffer currently read from or written to
+     */
+    @NotNull
+    private ByteBuf buf;
+
+    /**
+     * The buffer collecting the written buffers, once a byte array has been appended. Null before.
+     */
+    @Nullable
+    private CompositeByteBuf composite;
+
+    /**
+     * Creates a buffer to write a packet into
+     *
+     * @param allocator the allocator of the pooled buffers written to
+     */
+    public PacketBuffer(@NotNull ByteBufAllocator allocator) {
+        this.allocator = allocator;
+        this.buf = allocator.ioBuffer();
+    }
+
+    /**
+     * Creates a buffer reading from the given byte buffer. The reader index of the byte buffer is advanced by the read operations.
+     *
+     * @param buf the buffer to read from
+     */
+    public PacketBuffer(@NotNull ByteBuf buf) {
+        this.allocator = null;
+        this.buf = buf;
+    }
+
+    /**
+     * Completes writing
+     *
+     * @return the written bytes. Either the single written buffer or a composite buffer of the written buffers and the appended byte arrays.
+     */
+    @NotNull
+    public ByteBuf finish() {
+        CompositeByteBuf composite = this.composite;
+        if (composite == null)
+            return this.buf;
+        if (this.buf.isReadable())
+            addComponent(composite, this.buf);
+        else
+            this.buf.release();
+        return composite;
+    }
+
+    /**
+     * Adds the buffer as the last component of the composite buffer and advances the writer index of the composite buffer past it
+     */
+    private static void addComponent(@NotNull CompositeByteBuf composite, @NotNull ByteBuf buf) {
+        int readableBytes = buf.readableBytes();
+        composite.addComponent(buf);
+        composite.writerIndex(composite.writerIndex() + readableBytes);
+    }
+
+    /**
+     * Releases the written buffers. Invoked instead of {@link #finish()}, if writing failed.
+     */
+    public void release() {
+        if (this.composite != null)
+            this.composite.release();
+        this.buf.release();
+    }
+
+    /**
+     * Appends the bytes without copying them. The array must not be modified until the buffer has been written to the channel.
+     *
+     * @param bytes the bytes to append
+     */
+    public void appendBytes(@NotNull byte[] bytes) {
+        ByteBufAllocator allocator = this.allocator;
+        if (allocator == null)
+            throw new IllegalStateException("Cannot append bytes to a buffer that is read from");
+        if (this.composite == null)
+            this.composite = allocator.compositeBuffer();
+        addComponent(this.composite, this.buf);
+        addComponent(this.composite, Unpooled.wrappedBuffer(bytes));
+        this.buf = allocator.ioBuffer();
+    }
+
+    public void writeByte(byte value) {
+        this.buf.writeByte(value);
+    }
+
+    public void writeShort(short value) {
+        this.buf.writeShort(value);
+    }
+
+    public void writeInt(int value) {
+        this.buf.writeInt(value);
+    }
+
+    public void writeLong(long value) {
+        this.buf.writeLong(value);
+    }
+
+    public void writeFloat(float value) {
+        this.buf.writeFloat(value);
+    }
+
+    public void writeVector2(@NotNull Vector2 vec) {
+        this.buf.writeFloat(vec.x);
+        this.buf.writeFloat(vec.y);
+    }
+
+    public void writeVector3(@NotNull Vector3 vec) {
+        this.buf.writeFloat(vec.x);
+        this.buf.writeFloat(vec.y);
+        this.buf.writeFloat(vec.z);
+    }
+
+    /**
+     * Copies the bytes into the buffer
+     *
+     * @param bytes the bytes to write
+     */
+    public void writeBytes(@NotNull byte[] bytes) {
+        this.buf.writeBytes(bytes);
+    }
+
+    /**
+     * Writes the UTF-8 byte count of the string followed by its UTF-8 bytes
+     *
+     * @param string the string to write
+     */
+    public void writeString(@NotNull String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        this.buf.writeInt(bytes.length);
+        this.buf.writeBytes(bytes);
+    }
+
+    /**
+     * @param bytes the number of bytes to be read
+     * @throws BufferUnderflowException if less bytes are readable
+     */
+    private void checkReadable(int bytes) throws BufferUnderflowException {
+        if (bytes < 0 || this.buf.readableBytes() < bytes)
+            throw new BufferUnderflowException();
+    }
+
+    public byte readByte() {
+        checkReadable(Byte.BYTES);
+        return this.buf.readByte();
+    }
+
+    public short readShort() {
+        checkReadable(Short.BYTES);
+        return this.buf.readShort();
+    }
+
+    public int readInt() {
+        checkReadable(Integer.BYTES);
+        return this.buf.readInt();
+    }
+
+    public long readLong() {
+        checkReadable(Long.BYTES);
+        return this.buf.readLong();
+    }
+
+    public float readFloat() {
+        checkReadable(Float.BYTES);
+        return this.buf.readFloat();
+    }
+
+    @NotNull
+    public Vector2 readVector2() {
+        return new Vector2(readFloat(), readFloat());
+    }
+
+    @NotNull
+    public Vector3 readVector3() {
+        return new Vector3(readFloat(), readFloat(), readFloat());
+    }
+
+    /**
+     * Reads the given amount of bytes with a single bulk copy
+     *
+     * @param amount the amount of bytes to read
+     * @return the read bytes
+     * @throws BufferUnderflowException if less bytes are readable
+     */
+    @NotNull
+    public byte[] readBytes(int amount) {
+        checkReadable(amount);
+        byte[] bytes = new byte[amount];
+        this.buf.readBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(String)}
+     */
+    @NotNull
+    public String readString() {
+        int byteCount = readInt();
+        checkReadable(byteCount);
+        String string = this.buf.toString(this.buf.readerIndex(), byteCount, StandardCharsets.UTF_8);
+        this.buf.skipBytes(byteCount);
+        return string;
+    }
+
+    /**
+     * @return the number of bytes left to read, or the number of bytes written to the current buffer
+     */
+    public int readableBytes() {
+        return this.buf.readableBytes();
+    }
+}
@@ -5,7 +5,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -44,7 +44,7 @@ public class ClientChunkLoadConfirmPacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientChunkLoadConfirmPacket> {
 
         @Override
-        public void serialize(@NotNull ClientChunkLoadConfirmPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientChunkLoadConfirmPacket packet, @NotNull PacketBuffer buf) {
             buf.writeVector2(packet.getChunkOrigin());
         }
     }
@@ -53,7 +53,7 @@ public class ClientChunkLoadConfirmPacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientChunkLoadConfirmPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientChunkLoadConfirmPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ClientChunkLoadConfirmPacket(channel, buffer.readVector2());
         }
     }
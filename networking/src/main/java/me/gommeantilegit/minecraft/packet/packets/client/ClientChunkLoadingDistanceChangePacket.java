@@ -6,7 +6,7 @@ import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -36,7 +36,7 @@ public class ClientChunkLoadingDistanceChangePacket extends ClientPacket {
     public static final class Encoder extends PacketEncoder<ClientChunkLoadingDistanceChangePacket> {
 
         @Override
-        public void serialize(@NotNull ClientChunkLoadingDistanceChangePacket object, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientChunkLoadingDistanceChangePacket object, @NotNull PacketBuffer buf) {
             buf.writeInt(object.getRenderDistance());
         }
 
@@ -45,7 +45,7 @@ public class ClientChunkLoadingDistanceChangePacket extends ClientPacket {
     public static final class Decoder extends PacketDecoder<ClientChunkLoadingDistanceChangePacket>{
 
         @Override
-        public ClientChunkLoadingDistanceChangePacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientChunkLoadingDistanceChangePacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ClientChunkLoadingDistanceChangePacket(channel, buffer.readInt());
         }
     }
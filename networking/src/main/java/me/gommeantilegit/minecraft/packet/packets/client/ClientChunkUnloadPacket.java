@@ -5,7 +5,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -43,7 +43,7 @@ public class ClientChunkUnloadPacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientChunkUnloadPacket> {
 
         @Override
-        public void serialize(@NotNull ClientChunkUnloadPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientChunkUnloadPacket packet, @NotNull PacketBuffer buf) {
             buf.writeVector2(packet.getChunkOrigin());
         }
     }
@@ -52,7 +52,7 @@ public class ClientChunkUnloadPacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientChunkUnloadPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientChunkUnloadPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ClientChunkUnloadPacket(channel, buffer.readVector2());
         }
     }
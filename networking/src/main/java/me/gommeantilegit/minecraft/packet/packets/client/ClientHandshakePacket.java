@@ -4,7 +4,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -33,7 +33,7 @@ public class ClientHandshakePacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientHandshakePacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientHandshakePacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ClientHandshakePacket(channel);
         }
     }
@@ -44,7 +44,7 @@ public class ClientHandshakePacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientHandshakePacket> {
 
         @Override
-        public void serialize(@NotNull ClientHandshakePacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientHandshakePacket packet, @NotNull PacketBuffer buf) {
         }
     }
 }
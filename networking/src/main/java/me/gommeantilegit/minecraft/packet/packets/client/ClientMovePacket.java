@@ -6,7 +6,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -64,7 +64,7 @@ public class ClientMovePacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientMovePacket> {
 
         @Override
-        public void serialize(@NotNull ClientMovePacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientMovePacket packet, @NotNull PacketBuffer buf) {
             byte flagByte = 0;
             if (packet.hasPosition())
                 flagByte |= 0b00000001;
@@ -82,7 +82,7 @@ public class ClientMovePacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientMovePacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientMovePacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             byte flag = buffer.readByte();
             byte positionBit = 0b00000001;
             byte rotationBit = 0b00000010;
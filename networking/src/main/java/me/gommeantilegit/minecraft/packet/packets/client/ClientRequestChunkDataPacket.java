@@ -5,7 +5,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -46,7 +46,7 @@ public class ClientRequestChunkDataPacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientRequestChunkDataPacket> {
 
         @Override
-        public void serialize(@NotNull ClientRequestChunkDataPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientRequestChunkDataPacket packet, @NotNull PacketBuffer buf) {
             buf.writeVector2(packet.getChunkOrigin());
         }
     }
@@ -55,7 +55,7 @@ public class ClientRequestChunkDataPacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientRequestChunkDataPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientRequestChunkDataPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ClientRequestChunkDataPacket(channel, buffer.readVector2());
         }
     }
@@ -6,7 +6,7 @@ import me.gommeantilegit.minecraft.entity.player.base.skin.SkinPixel;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -58,7 +58,7 @@ public class ClientUserInfoPacket extends ClientPacket {
 
         @Nullable
         @Override
-        public ClientUserInfoPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ClientUserInfoPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             String userName = buffer.readString();
             int width = buffer.readInt();
             int height = buffer.readInt();
@@ -75,7 +75,7 @@ public class ClientUserInfoPacket extends ClientPacket {
     public static class Encoder extends PacketEncoder<ClientUserInfoPacket> {
 
         @Override
-        public void serialize(@NotNull ClientUserInfoPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ClientUserInfoPacket packet, @NotNull PacketBuffer buf) {
             buf.writeString(packet.getUserName()); // Username
             SkinPixel[][] pixels = packet.getSkin().getPixels();
             int width = pixels.length, height = pixels[0].length; // Pixel Array shape is rectangular - so this is valid
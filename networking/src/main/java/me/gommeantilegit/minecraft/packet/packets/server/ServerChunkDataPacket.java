@@ -8,7 +8,7 @@ import me.gommeantilegit.minecraft.block.state.palette.GlobalBlockStatePalette;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.exception.PacketDecodingException;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
@@ -22,8 +22,6 @@ import java.io.*;
 import java.util.BitSet;
 import java.util.List;
 
-import static me.gommeantilegit.minecraft.utils.MathHelper.humanReadableByteCount;
-import static me.gommeantilegit.minecraft.utils.io.IOUtils.compress;
 import static me.gommeantilegit.minecraft.world.chunk.ChunkSection.CHUNK_SECTION_SIZE;
 
 /**
@@ -58,13 +56,15 @@ public class ServerChunkDataPacket extends ServerPacket {
     private final Vector2 chunkOrigin;
 
     /**
-     * Byte data representing the chunk.
-     * This is always a compressed array and must be decompressed when it is read
+     * Byte data representing the chunk. Must not be modified, as the array is shared by all channels the packet is sent to and is written to the channels without being copied.
+     * The fragments are compressed individually and must be decompressed with {@link ChunkFragmenter#decompressFragments(byte[], BitSet)} when it is read
      */
     @NotNull
     private final byte[] chunkData;
 
-    // TODO: RE-WORK WITH CACHE FOR SERIALIZED DATA (CHANGE ON MARK DIRTY)
+    /**
+     * Creates the chunk data packet for the given chunk. Fragments that have not been modified since the last serialization are taken from the {@link me.gommeantilegit.minecraft.world.saveformat.ChunkFragmentCache} of the chunk.
+     */
     public ServerChunkDataPacket(@Nullable Channel serverChannel, @NotNull Vector2 chunkOrigin, @NotNull ChunkBase chunkBase) {
         super(PACKET_ID, serverChannel);
         this.worldHeight = chunkBase.getHeight();
@@ -74,11 +74,11 @@ public class ServerChunkDataPacket extends ServerPacket {
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
         try {
             // FIXME: 5/10/2020 THIS IS UGLY
-            this.fragmentsSent = chunkBase.getWorld().mc.getChunkFragmenter().fragmentChunk(chunkBase.getBlockStatePalette(), chunkBase, stream);
+            this.fragmentsSent = chunkBase.getWorld().mc.getChunkFragmenter().fragmentChunkCompressed(chunkBase.getBlockStatePalette(), chunkBase, stream);
         } catch (IOException e) {
             throw new RuntimeException(e); // Will never happen on ByteArrayOutputStream
         }
-        this.chunkData = compress(stream.toByteArray());
+        this.chunkData = stream.toByteArray();
     }
 
     public ServerChunkDataPacket(@Nullable Channel serverChannel, @NotNull Vector2 origin, int worldHeight, @NotNull BitSet fragmentsSent, @NotNull byte[] chunkData) {
@@ -112,7 +112,7 @@ public class ServerChunkDataPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerChunkDataPacket> {
 
         @Override
-        public void serialize(@NotNull ServerChunkDataPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerChunkDataPacket packet, @NotNull PacketBuffer buf) {
             buf.writeInt(packet.worldHeight); // Writing world height
             buf.writeVector2(packet.chunkOrigin); // Writing chunk origin position
             byte[] bitSetBytes = packet.fragmentsSent.toByteArray();
@@ -120,8 +120,7 @@ public class ServerChunkDataPacket extends ServerPacket {
             buf.writeBytes(bitSetBytes);
             byte[] chunkData = packet.getChunkData();
             buf.writeInt(chunkData.length);
-            buf.writeBytes(chunkData);
-//            System.out.println("Chunk Data packet: " + humanReadableByteCount(buf.getWritingBitIndex() / Byte.SIZE, true));
+            buf.appendBytes(chunkData); // not copied, the chunk data is immutable
         }
 
     }
@@ -136,7 +135,7 @@ public class ServerChunkDataPacket extends ServerPacket {
          */
         @Nullable
         @Override
-        public ServerChunkDataPacket deserialize(@NotNull BitByteBuffer buffer, @Nullable Channel channel) throws PacketDecodingException {
+        public ServerChunkDataPacket deserialize(@NotNull PacketBuffer buffer, @Nullable Channel channel) throws PacketDecodingException {
             int worldHeight = buffer.readInt();
             Vector2 origin = buffer.readVector2();
             int numBitSetBytes = buffer.readInt();
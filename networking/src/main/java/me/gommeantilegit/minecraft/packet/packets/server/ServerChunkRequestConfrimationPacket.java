@@ -5,7 +5,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -42,7 +42,7 @@ public class ServerChunkRequestConfrimationPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerChunkRequestConfrimationPacket> {
 
         @Override
-        public void serialize(@NotNull ServerChunkRequestConfrimationPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerChunkRequestConfrimationPacket packet, @NotNull PacketBuffer buf) {
             buf.writeVector2(packet.getChunkOrigin());
         }
     }
@@ -51,7 +51,7 @@ public class ServerChunkRequestConfrimationPacket extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerChunkRequestConfrimationPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerChunkRequestConfrimationPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerChunkRequestConfrimationPacket(channel, buffer.readVector2());
         }
     }
@@ -7,7 +7,7 @@ import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
 import me.gommeantilegit.minecraft.packet.exception.PacketDecodingException;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.utils.serialization.exception.SerializationException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -34,7 +34,7 @@ public class ServerDisconnectMessagePacket extends ServerPacket {
     public static final class Encoder extends PacketEncoder<ServerDisconnectMessagePacket> {
 
         @Override
-        public void serialize(@NotNull ServerDisconnectMessagePacket object, @NotNull BitByteBuffer buf) throws SerializationException {
+        public void serialize(@NotNull ServerDisconnectMessagePacket object, @NotNull PacketBuffer buf) throws SerializationException {
             buf.writeString(object.getMessage());
         }
 
@@ -43,7 +43,7 @@ public class ServerDisconnectMessagePacket extends ServerPacket {
     public static final class Decoder extends PacketDecoder<ServerDisconnectMessagePacket> {
 
         @Override
-        public ServerDisconnectMessagePacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
+        public ServerDisconnectMessagePacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
             return new ServerDisconnectMessagePacket(channel, buffer.readString());
         }
     }
@@ -6,7 +6,7 @@ import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -36,7 +36,7 @@ public class ServerForceClientChunkLoadingDistanceChangePacket extends ServerPac
     public static final class Encoder extends PacketEncoder<ServerForceClientChunkLoadingDistanceChangePacket> {
 
         @Override
-        public void serialize(@NotNull ServerForceClientChunkLoadingDistanceChangePacket object, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerForceClientChunkLoadingDistanceChangePacket object, @NotNull PacketBuffer buf) {
             buf.writeInt(object.getRenderDistance());
         }
 
@@ -45,7 +45,7 @@ public class ServerForceClientChunkLoadingDistanceChangePacket extends ServerPac
     public static final class Decoder extends PacketDecoder<ServerForceClientChunkLoadingDistanceChangePacket> {
 
         @Override
-        public ServerForceClientChunkLoadingDistanceChangePacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerForceClientChunkLoadingDistanceChangePacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerForceClientChunkLoadingDistanceChangePacket(channel, buffer.readInt());
         }
     }
@@ -6,7 +6,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -70,7 +70,7 @@ public class ServerPositionSetPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerPositionSetPacket> {
 
         @Override
-        public void serialize(@NotNull ServerPositionSetPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerPositionSetPacket packet, @NotNull PacketBuffer buf) {
             boolean hasPosition = packet.hasPosition(), hasRotation = packet.hasRotation();
             byte flag = 0;
             if (hasPosition)
@@ -89,7 +89,7 @@ public class ServerPositionSetPacket extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerPositionSetPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerPositionSetPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             byte flag = buffer.readByte();
             byte positionBit = 0b00000001;
             byte rotationBit = 0b00000010;
@@ -7,7 +7,7 @@ import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
 import me.gommeantilegit.minecraft.packet.packets.client.ClientChunkLoadingDistanceChangePacket;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -34,7 +34,7 @@ public class ServerRequestRenderDistance extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerRequestRenderDistance deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerRequestRenderDistance deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerRequestRenderDistance(channel);
         }
     }
@@ -42,7 +42,7 @@ public class ServerRequestRenderDistance extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerRequestRenderDistance> {
 
         @Override
-        public void serialize(@NotNull ServerRequestRenderDistance packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerRequestRenderDistance packet, @NotNull PacketBuffer buf) {
 
         }
     }
@@ -4,7 +4,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -30,7 +30,7 @@ public class ServerRequestUserInfoPacket extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerRequestUserInfoPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerRequestUserInfoPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerRequestUserInfoPacket(channel);
         }
     }
@@ -38,7 +38,7 @@ public class ServerRequestUserInfoPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerRequestUserInfoPacket> {
 
         @Override
-        public void serialize(@NotNull ServerRequestUserInfoPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerRequestUserInfoPacket packet, @NotNull PacketBuffer buf) {
 
         }
     }
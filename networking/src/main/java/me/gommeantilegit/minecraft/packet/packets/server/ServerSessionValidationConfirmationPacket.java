@@ -4,7 +4,7 @@ import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import org.jetbrains.annotations.NotNull;
@@ -32,7 +32,7 @@ public class ServerSessionValidationConfirmationPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerSessionValidationConfirmationPacket> {
 
         @Override
-        public void serialize(@NotNull ServerSessionValidationConfirmationPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerSessionValidationConfirmationPacket packet, @NotNull PacketBuffer buf) {
         }
     }
 
@@ -40,7 +40,7 @@ public class ServerSessionValidationConfirmationPacket extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerSessionValidationConfirmationPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerSessionValidationConfirmationPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerSessionValidationConfirmationPacket(channel);
         }
     }
@@ -6,7 +6,7 @@ import me.gommeantilegit.minecraft.annotations.SideOnly;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketID;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import me.gommeantilegit.minecraft.world.WorldBase;
@@ -82,7 +82,7 @@ public class ServerWorldSetupPacket extends ServerPacket {
     public static class Encoder extends PacketEncoder<ServerWorldSetupPacket> {
 
         @Override
-        public void serialize(@NotNull ServerWorldSetupPacket packet, @NotNull BitByteBuffer buf) {
+        public void serialize(@NotNull ServerWorldSetupPacket packet, @NotNull PacketBuffer buf) {
             buf.writeInt(packet.worldHeight);
             buf.writeLong(packet.worldTime);
             buf.writeLong(new Date().getTime());
@@ -93,7 +93,7 @@ public class ServerWorldSetupPacket extends ServerPacket {
 
         @Nullable
         @Override
-        public ServerWorldSetupPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) {
+        public ServerWorldSetupPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) {
             return new ServerWorldSetupPacket(channel, buffer.readInt(), buffer.readLong(), buffer.readLong());
         }
     }
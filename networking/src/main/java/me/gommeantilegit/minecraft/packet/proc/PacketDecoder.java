@@ -5,7 +5,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import me.gommeantilegit.minecraft.packet.Packet;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.exception.PacketDecodingException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -20,19 +20,19 @@ import java.util.List;
 public abstract class PacketDecoder<T extends Packet> extends ByteToMessageDecoder {
 
     /**
-     * Constructs a packet from the specified ByteBuffer
+     * Constructs a packet from the specified buffer
      *
-     * @param buffer  the buffer that the packet should be constructed from
+     * @param buffer  the buffer that the packet should be constructed from. Reads directly from the received frame.
      * @param channel the channel that sent this packet buffer
      * @return the newly constructed packet
      */
     @Nullable
-    public abstract T deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) throws PacketDecodingException;
+    public abstract T deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) throws PacketDecodingException;
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
         try {
-            T t = deserialize(new BitByteBuffer(in), ctx.channel());
+            T t = deserialize(new PacketBuffer(in), ctx.channel());
             if (t != null)
                 out.add(t);
         } catch (Throwable e) {
@@ -40,6 +40,8 @@ public abstract class PacketDecoder<T extends Packet> extends ByteToMessageDecod
             System.out.println("PacketDecodingException caught! Closing Channel!");
             ctx.close().syncUninterruptibly();
             e.printStackTrace();
+        } finally {
+            in.skipBytes(in.readableBytes()); // one packet per frame
         }
     }
 }
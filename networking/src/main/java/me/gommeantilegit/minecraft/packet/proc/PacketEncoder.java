@@ -1,32 +1,45 @@
 package me.gommeantilegit.minecraft.packet.proc;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import me.gommeantilegit.minecraft.packet.Packet;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerDisconnectMessagePacket;
-import me.gommeantilegit.minecraft.utils.serialization.Serializer;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.utils.serialization.exception.SerializationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
 
 /**
  * @param <T> the type of packet to be encoded
  */
-public abstract class PacketEncoder<T extends Packet> extends MessageToByteEncoder<T> implements Serializer<T> {
+public abstract class PacketEncoder<T extends Packet> extends MessageToMessageEncoder<T> {
+
+    /**
+     * Serializes the given packet into the given packet buffer
+     *
+     * @param packet the packet to be serialized
+     * @param buf    the buffer that the data should be written to
+     * @throws SerializationException if serialization of the packet fails
+     */
+    public abstract void serialize(@NotNull T packet, @NotNull PacketBuffer buf) throws SerializationException;
 
     /**
-     * Invoked by Netty to encode every sent message into a byte buffer
+     * Invoked by Netty to encode every sent message. The message is written into a pooled direct buffer of the channel's allocator.
+     * Byte arrays appended by the serializer travel as components of a composite buffer, without being copied.
      *
-     * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToByteEncoder} belongs to
+     * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageEncoder} belongs to
      * @param msg the message to encode
-     * @param out the {@link ByteBuf} into which the encoded message will be written
+     * @param out the list the encoded buffer is added to
      */
     @Override
-    protected void encode(ChannelHandlerContext ctx, T msg, ByteBuf out) {
+    protected void encode(ChannelHandlerContext ctx, T msg, List<Object> out) {
+        PacketBuffer buffer = new PacketBuffer(ctx.alloc());
         try {
-            BitByteBuffer buffer = new BitByteBuffer(out);
             serialize(msg, buffer);
-            out.writeBytes(buffer.retrieveBytes());
+            out.add(buffer.finish());
         } catch (Throwable e) {
+            buffer.release();
             ctx.channel().writeAndFlush(new ServerDisconnectMessagePacket(null, "Internal Exception caught!"));
             System.out.println("PacketEncodingException caught! Closing channel!");
             e.printStackTrace();
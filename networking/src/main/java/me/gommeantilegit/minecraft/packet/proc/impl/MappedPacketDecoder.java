@@ -3,21 +3,22 @@ package me.gommeantilegit.minecraft.packet.proc.impl;
 import io.netty.channel.Channel;
 import me.gommeantilegit.minecraft.AbstractMinecraft;
 import me.gommeantilegit.minecraft.packet.Packet;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.exception.PacketDecodingException;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.Arrays;
+
+import static me.gommeantilegit.minecraft.packet.proc.impl.MappedPacketEncoder.getPacketIndex;
 
 public abstract class MappedPacketDecoder<T extends Packet> extends PacketDecoder<T> {
 
     /**
-     * Stores the parent packet decoders for the given packetID
+     * Stores the parent packet decoders indexed by {@link MappedPacketEncoder#getPacketIndex(short)} of their packet id
      */
     @NotNull
-    private final HashMap<Short, PacketDecoder<? extends T>> decoderMap = new HashMap<>();
+    private PacketDecoder<? extends T>[] decoders = newDecoderArray(0);
 
     /**
      * Stores the parent minecraft instance
@@ -40,18 +41,33 @@ public abstract class MappedPacketDecoder<T extends Packet> extends PacketDecode
      * @param decoder the decoder to decode the packet
      */
     public void registerPacketDecoder(short id, @NotNull PacketDecoder<? extends T> decoder) {
-        this.decoderMap.put(id, decoder);
+        int index = getPacketIndex(id);
+        if (index >= this.decoders.length)
+            this.decoders = Arrays.copyOf(this.decoders, index + 1);
+        if (this.decoders[index] != null)
+            throw new IllegalStateException("Packet decoder for packet id " + id + " already registered!");
+        this.decoders[index] = decoder;
     }
 
     @Override
-    public T deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
-        if (buffer.bytes() >= 2) {
+    public T deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
+        if (buffer.readableBytes() >= 2) {
             short id = buffer.readShort();
-            if (id > 0)
-                return Optional.ofNullable(this.decoderMap.get(id)).orElseThrow(() -> new PacketDecodingException("Unknown packet id: " + id + "!")).deserialize(buffer, channel);
-            else return null;
+            if (id > 0) {
+                int index = getPacketIndex(id);
+                PacketDecoder<? extends T> decoder = index < this.decoders.length ? this.decoders[index] : null;
+                if (decoder == null)
+                    throw new PacketDecodingException("Unknown packet id: " + id + "!");
+                return decoder.deserialize(buffer, channel);
+            } else return null;
         } else {
             return null;
         }
     }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static <T extends Packet> PacketDecoder<? extends T>[] newDecoderArray(int length) {
+        return (PacketDecoder<? extends T>[]) new PacketDecoder<?>[length];
+    }
 }
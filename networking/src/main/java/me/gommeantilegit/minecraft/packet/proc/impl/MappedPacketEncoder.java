@@ -1,25 +1,24 @@
 package me.gommeantilegit.minecraft.packet.proc.impl;
 
+import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.Packet;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.proc.PacketEncoder;
 import me.gommeantilegit.minecraft.utils.serialization.exception.SerializationException;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.Arrays;
 
 public abstract class MappedPacketEncoder<T extends Packet> extends PacketEncoder<T> {
 
     /**
-     * Stores the parent packet decoders for the given packetID
+     * Stores the parent packet encoders indexed by {@link #getPacketIndex(short)} of their packet id
      */
     @NotNull
-    private final HashMap<Short, PacketEncoder<T>> encoderMap = new HashMap<>();
+    private PacketEncoder<T>[] encoders = newEncoderArray(0);
 
     public MappedPacketEncoder() {
         registerPacketEncoders();
-        System.out.println();
     }
 
     /**
@@ -29,16 +28,39 @@ public abstract class MappedPacketEncoder<T extends Packet> extends PacketEncode
 
     /**
      * @param id      the id of the packet that the specified encodes encodes
-     * @param decoder the encoder to encode the packet
+     * @param encoder the encoder to encode the packet
      */
-    public void registerPacketEncoder(short id, @NotNull PacketEncoder<T> decoder) {
-        this.encoderMap.put(id, decoder);
+    public void registerPacketEncoder(short id, @NotNull PacketEncoder<T> encoder) {
+        int index = getPacketIndex(id);
+        if (index >= this.encoders.length)
+            this.encoders = Arrays.copyOf(this.encoders, index + 1);
+        if (this.encoders[index] != null)
+            throw new IllegalStateException("Packet encoder for packet id " + id + " already registered!");
+        this.encoders[index] = encoder;
     }
 
     @Override
-    public void serialize(@NotNull T packet, @NotNull BitByteBuffer buf) throws SerializationException {
+    public void serialize(@NotNull T packet, @NotNull PacketBuffer buf) throws SerializationException {
         short id = packet.getPacketID();
+        int index = getPacketIndex(id);
+        PacketEncoder<T> encoder = index < this.encoders.length ? this.encoders[index] : null;
+        if (encoder == null)
+            throw new SerializationException("Unknown packet id: " + id + "!");
         buf.writeShort(id); // Writing packet id to the packet buffer
-        Optional.ofNullable(this.encoderMap.get(id)).orElseThrow(() -> new SerializationException("Unknown packet id: " + id + "!")).serialize(packet, buf);
+        encoder.serialize(packet, buf);
+    }
+
+    /**
+     * @param id the packet id
+     * @return the index of the packet id in the encoder and decoder arrays. The side bit is stripped, as client and server packets are never mapped by the same instance.
+     */
+    static int getPacketIndex(short id) {
+        return id & ~ClientPacket.CLIENT_PACKET_BIT & 0xFFFF;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static <T extends Packet> PacketEncoder<T>[] newEncoderArray(int length) {
+        return (PacketEncoder<T>[]) new PacketEncoder<?>[length];
     }
 }
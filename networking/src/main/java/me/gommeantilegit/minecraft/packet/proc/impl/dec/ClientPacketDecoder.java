@@ -6,7 +6,7 @@ import io.netty.channel.ChannelHandlerContext;
 import me.gommeantilegit.minecraft.AbstractMinecraft;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.annotations.PacketInfo;
-import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import me.gommeantilegit.minecraft.packet.buffer.PacketBuffer;
 import me.gommeantilegit.minecraft.packet.exception.PacketDecodingException;
 import me.gommeantilegit.minecraft.packet.packets.client.ClientHandshakePacket;
 import me.gommeantilegit.minecraft.packet.proc.PacketDecoder;
@@ -79,7 +79,7 @@ public class ClientPacketDecoder extends MappedPacketDecoder<ClientPacket> {
     }
 
     @Override
-    public ClientPacket deserialize(@NotNull BitByteBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
+    public ClientPacket deserialize(@NotNull PacketBuffer buffer, @NotNull Channel channel) throws PacketDecodingException {
         return super.deserialize(buffer, channel);
     }
 }
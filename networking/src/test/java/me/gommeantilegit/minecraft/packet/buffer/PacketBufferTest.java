@@ -0,0 +1,88 @@
+package me.gommeantilegit.minecraft.packet.buffer;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
+import me.gommeantilegit.minecraft.utils.serialization.buffer.BitByteBuffer;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PacketBufferTest {
+
+    @Test
+    public void wireFormatMatchesBitByteBuffer() {
+        BitByteBuffer expected = new BitByteBuffer();
+        expected.writeShort((short) 0x4003);
+        expected.writeInt(-123456789);
+        expected.writeLong(Long.MIN_VALUE + 42);
+        expected.writeVector3(new Vector3(1.5f, -2.25f, 1e9f));
+        expected.writeString("chunk ä");
+        expected.writeByte((byte) -1);
+
+        PacketBuffer buffer = new PacketBuffer(PooledByteBufAllocator.DEFAULT);
+        buffer.writeShort((short) 0x4003);
+        buffer.writeInt(-123456789);
+        buffer.writeLong(Long.MIN_VALUE + 42);
+        buffer.writeVector3(new Vector3(1.5f, -2.25f, 1e9f));
+        buffer.writeString("chunk ä");
+        buffer.writeByte((byte) -1);
+        ByteBuf written = buffer.finish();
+        try {
+            byte[] actual = new byte[written.readableBytes()];
+            written.getBytes(written.readerIndex(), actual);
+            assertArrayEquals(expected.retrieveBytes(), actual);
+
+            PacketBuffer reader = new PacketBuffer(written);
+            assertEquals((short) 0x4003, reader.readShort());
+            assertEquals(-123456789, reader.readInt());
+            assertEquals(Long.MIN_VALUE + 42, reader.readLong());
+            assertEquals(new Vector3(1.5f, -2.25f, 1e9f), reader.readVector3());
+            assertEquals("chunk ä", reader.readString());
+            assertEquals((byte) -1, reader.readByte());
+            assertEquals(0, reader.readableBytes());
+        } finally {
+            written.release();
+        }
+    }
+
+    @Test
+    public void chunkDataIsAppendedWithoutCopy() throws Exception {
+        byte[] chunkData = new byte[64 * 1024];
+        new Random(7).nextBytes(chunkData);
+        BitSet fragmentsSent = new BitSet();
+        fragmentsSent.set(0);
+        fragmentsSent.set(5);
+        ServerChunkDataPacket packet = new ServerChunkDataPacket(null, new Vector2(64, -32), 256, fragmentsSent, chunkData);
+
+        PacketBuffer buffer = new PacketBuffer(PooledByteBufAllocator.DEFAULT);
+        new ServerChunkDataPacket.Encoder().serialize(packet, buffer);
+        ByteBuf written = buffer.finish();
+        try {
+            assertTrue(written instanceof CompositeByteBuf);
+            CompositeByteBuf composite = (CompositeByteBuf) written;
+            boolean shared = false;
+            for (int i = 0; i < composite.numComponents(); i++) {
+                ByteBuf component = composite.component(i);
+                shared |= component.hasArray() && component.array() == chunkData;
+            }
+            assertTrue("chunk data has been copied", shared);
+
+            ServerChunkDataPacket decoded = new ServerChunkDataPacket.Decoder().deserialize(new PacketBuffer(written), null);
+            assertNotNull(decoded);
+            assertEquals(256, decoded.getWorldHeight());
+            assertEquals(new Vector2(64, -32), decoded.getChunkOrigin());
+            assertEquals(fragmentsSent, decoded.getFragmentsSent());
+            assertArrayEquals(chunkData, decoded.getChunkData());
+            assertFalse(written.isReadable());
+        } finally {
+            written.release();
+        }
+    }
+}
@@ -9,10 +9,12 @@ import me.gommeantilegit.minecraft.server.console.ConsoleReader;
 import me.gommeantilegit.minecraft.server.netty.NettyServer;
 import me.gommeantilegit.minecraft.timer.tick.MinecraftThread;
 import me.gommeantilegit.minecraft.utils.Clock;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
 import me.gommeantilegit.minecraft.world.ServerWorld;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import me.gommeantilegit.minecraft.world.generation.generator.WorldGenerator;
 import me.gommeantilegit.minecraft.world.generation.generator.options.WorldGenerationOptions;
+import me.gommeantilegit.minecraft.world.saveformat.ChunkCompression;
 import me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter;
 import me.gommeantilegit.minecraft.world.saveformat.WorldLoader;
 import org.jetbrains.annotations.NotNull;
@@ -130,6 +132,12 @@ public class ServerMinecraft extends AbstractMinecraft {
                 }
             }
 
+            @Override
+            protected void flushNetwork() {
+                if (nettyServer != null)
+                    nettyServer.flushChannels();
+            }
+
             @Override
             protected void onInterrupted() {
                 super.onInterrupted();
@@ -155,7 +163,7 @@ public class ServerMinecraft extends AbstractMinecraft {
         this.setBlocks(new Blocks(this));
         this.getBlocks().init();
 
-        this.chunkFragmenter = new ChunkFragmenter(this);
+        this.chunkFragmenter = new ChunkFragmenter(this, this.configuration.getChunkCompression() == PayloadCompressor.Mode.NONE ? ChunkCompression.none() : ChunkCompression.deflate(this.configuration.getChunkCompressionLevel()));
 
         {
             File worldDir = new File(this.worldsDirectory, SERVER_WORLD_NAME);
@@ -202,9 +210,10 @@ public class ServerMinecraft extends AbstractMinecraft {
                 this.getLogger().info("Spawn area prepared");
             } else {
                 this.getLogger().info("Loading world...");
-                WorldLoader worldLoader = new WorldLoader(new File(worldDir, SERVER_WORLD_NAME), this);
+                WorldLoader worldLoader = new WorldLoader(worldDir, this);
                 try {
                     this.theWorld = worldLoader.loadWorld();
+                    this.theWorld.setChunkLoadingDistance(configuration.getMaxChunkLoadingDistance());
                 } catch (Exception e) {
                     this.getLogger().crash("Loading of world failed. (NBT Reading)", e);
                 }
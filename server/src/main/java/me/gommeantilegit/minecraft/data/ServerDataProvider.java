@@ -6,7 +6,9 @@ import me.gommeantilegit.craftingboard.data.IDataProvider;
 import me.gommeantilegit.minecraft.ServerMinecraft;
 import me.gommeantilegit.minecraft.entity.player.EntityPlayerMP;
 import me.gommeantilegit.minecraft.server.netty.channel.ChannelData;
+import me.gommeantilegit.minecraft.server.netty.channel.ChannelFlushBatcher;
 import me.gommeantilegit.minecraft.utils.data.DataCollector;
+import me.gommeantilegit.minecraft.world.chunk.world.ServerWorldChunkHandler;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -31,6 +33,7 @@ public class ServerDataProvider implements IDataProvider {
     {
         this.registerDataPort("server_tps", new ServerTpsDataPort());
         this.registerDataPort("online_players", new OnlinePlayersDataPort());
+        this.registerDataPort("chunk_cache", new ChunkCacheDataPort());
     }
 
     @NotNull
@@ -83,9 +86,32 @@ public class ServerDataProvider implements IDataProvider {
                 JsonObject jsonObject = new JsonObject();
                 jsonObject.addProperty("name", player.getUsername());
                 jsonObject.addProperty("playTime", data.getTimeOnline());
+                ChannelFlushBatcher flushBatcher = data.getFlushBatcher();
+                if (flushBatcher != null) {
+                    jsonObject.addProperty("packetsPerFlush", flushBatcher.getPacketsPerFlush());
+                    jsonObject.addProperty("bytesPerFlush", flushBatcher.getBytesPerFlush());
+                }
                 jsonArray.add(jsonObject);
             }
             return jsonArray;
         }
     }
+
+    /**
+     * Data port for the chunks held in memory
+     * Requires no arguments
+     */
+    private class ChunkCacheDataPort implements IDataProvider.DataPort<JsonObject> {
+
+        @NotNull
+        @Override
+        public JsonObject respondRequest(@NotNull Object... args) {
+            ServerWorldChunkHandler chunkHandler = minecraft.theWorld.getWorldChunkHandler();
+            JsonObject object = new JsonObject();
+            object.addProperty("resident_chunks", chunkHandler.getResidentChunks());
+            object.addProperty("resident_bytes", chunkHandler.getResidentBytes());
+            object.addProperty("evicted_chunks", chunkHandler.getEvictedChunks());
+            return object;
+        }
+    }
 }
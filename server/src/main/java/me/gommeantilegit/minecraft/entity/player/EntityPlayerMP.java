@@ -8,8 +8,11 @@ import me.gommeantilegit.minecraft.entity.player.base.PlayerBase;
 import me.gommeantilegit.minecraft.entity.player.base.skin.SkinBase;
 import me.gommeantilegit.minecraft.packet.packets.client.ClientMovePacket;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerPositionSetPacket;
+import me.gommeantilegit.minecraft.raytrace.RayTracer;
 import me.gommeantilegit.minecraft.server.netty.channel.ChannelData;
+import me.gommeantilegit.minecraft.util.block.position.BlockPos;
 import me.gommeantilegit.minecraft.world.ServerWorld;
+import me.gommeantilegit.minecraft.world.WorldBase;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import org.jetbrains.annotations.NotNull;
 
@@ -17,8 +20,16 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import static me.gommeantilegit.minecraft.raytrace.RayTracer.RAY_TRACE_RANGE;
+
 public class EntityPlayerMP extends PlayerBase {
 
+    /**
+     * Distance the server reach validation tolerates in addition to the client side {@link RayTracer#RAY_TRACE_RANGE},
+     * as the server position of the player lags behind the client.
+     */
+    private static final float REACH_TOLERANCE = 1.5f;
+
     /**
      * Move packets received from the client that need to be processed
      */
@@ -128,7 +139,31 @@ public class EntityPlayerMP extends PlayerBase {
      */
     public void setPositionAndRotation(float x, float y, float z, float yaw, float pitch) {
 //        System.out.println("setPositionAndRotation");
-        this.getChannelData().getParentChannel().writeAndFlush(new ServerPositionSetPacket(null, new Vector3(x, y, z), new Vector2(yaw, pitch)));
+        this.getChannelData().sendPacket(new ServerPositionSetPacket(null, new Vector3(x, y, z), new Vector2(yaw, pitch)));
+    }
+
+    /**
+     * Validates, that the player can interact with the block at the given position. The block must be within reach of the eyes of the player
+     * and no other block may lie between the eyes and the block.
+     *
+     * @param blockPos the position of the block the player wants to interact with
+     * @return true, if the first block hit by a ray from the eyes of the player towards the center of the block is the block itself
+     */
+    public boolean canReachBlock(@NotNull BlockPos blockPos) {
+        return canReachBlock(getWorld(), new Vector3(posX, posY + DEFAULT_EYE_HEIGHT, posZ), blockPos);
+    }
+
+    /**
+     * @param world    the world of the player
+     * @param eyes     the position of the eyes of the player
+     * @param blockPos the position of the block the player wants to interact with
+     * @return true, if the first block hit by a ray from the eyes towards the center of the block is the block itself
+     * @see #canReachBlock(BlockPos)
+     */
+    static boolean canReachBlock(@NotNull WorldBase world, @NotNull Vector3 eyes, @NotNull BlockPos blockPos) {
+        Vector3 direction = new Vector3(blockPos.getX() + 0.5f, blockPos.getY() + 0.5f, blockPos.getZ() + 0.5f).sub(eyes);
+        RayTracer.RayTraceResult result = world.rayTraceBlocks(eyes, direction, RAY_TRACE_RANGE + REACH_TOLERANCE);
+        return result.type == RayTracer.RayTraceResult.EnumResultType.BLOCK && blockPos.equals(result.getBlockPos());
     }
 
     public void queueMovePacket(@NotNull ClientMovePacket movePacket) {
@@ -171,6 +171,7 @@ public class NetHandlerPlayServer extends MappedPacketHandler<ClientPacket> {
      */
     public void unregisterChannel(@NotNull Channel channel) {
         this.registeredChannels.remove(channel);
+        this.getData(channel).getChunkSendQueue().cancelAll();
         EntityPlayerMP playerMP = this.getData(channel).getPlayerMP();
         playerMP.setDead();
         mc.theWorld.getChunkLoader().removeViewer(playerMP);
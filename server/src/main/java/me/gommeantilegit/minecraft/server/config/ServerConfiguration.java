@@ -5,9 +5,12 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import me.gommeantilegit.minecraft.ServerMinecraft;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.util.zip.Deflater;
 
 /**
  * Represents the server configuration
@@ -29,6 +32,37 @@ public class ServerConfiguration {
      */
     private static final int DEFAULT_IDLE_TICKS = 100;
 
+    /**
+     * The default number of chunk data bytes sent to a single player per tick
+     */
+    private static final int DEFAULT_CHUNK_SEND_BYTES_PER_TICK = 256 * 1024;
+
+    /**
+     * The default maximum number of chunks kept in memory
+     */
+    private static final int DEFAULT_MAX_RESIDENT_CHUNKS = 4096;
+
+    /**
+     * The default maximum number of bytes occupied by the block states of the chunks kept in memory
+     */
+    private static final long DEFAULT_MAX_RESIDENT_CHUNK_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * The default number of bytes written to a player channel, that trigger a flush before the end of the tick
+     */
+    private static final int DEFAULT_NETWORK_FLUSH_THRESHOLD_BYTES = 64 * 1024;
+
+    /**
+     * The default chunk compression mode
+     */
+    @NotNull
+    private static final PayloadCompressor.Mode DEFAULT_CHUNK_COMPRESSION = PayloadCompressor.Mode.DEFLATE;
+
+    /**
+     * The default deflate level of chunk data
+     */
+    private static final int DEFAULT_CHUNK_COMPRESSION_LEVEL = 6;
+
     /**
      * The file that stores the configuration content
      */
@@ -57,14 +91,54 @@ public class ServerConfiguration {
      */
     private final int idleTicks;
 
-    public ServerConfiguration(int maxChunkLoadingDistance, int webUIPort, int idleTicks) {
+    /**
+     * The number of chunk data bytes sent to a single player per tick. Chunks closest to the player are sent first.
+     * At least one chunk is sent per tick, if one is ready.
+     */
+    private final int chunkSendBytesPerTick;
+
+    /**
+     * The maximum number of chunks kept in memory. Chunks that are not loaded by any player are saved and evicted beyond this limit, least recently unloaded first.
+     */
+    private final int maxResidentChunks;
+
+    /**
+     * The maximum number of bytes occupied by the block states of the chunks kept in memory. Chunks are evicted beyond this limit like with {@link #maxResidentChunks}.
+     */
+    private final long maxResidentChunkBytes;
+
+    /**
+     * The number of bytes written to a player channel, that trigger a flush before the end of the tick.
+     * Packets are otherwise flushed once per tick.
+     */
+    private final int networkFlushThresholdBytes;
+
+    /**
+     * The compression mode of the chunk data sent to players and saved to region files.
+     * "NONE" stores chunk data uncompressed, which saves cpu time when bandwidth is cheap (e.g. for players connected via loopback) at the cost of larger region files.
+     */
+    @Nullable
+    private final String chunkCompression;
+
+    /**
+     * The deflate level of chunk data from 1 (fastest) to 9 (smallest)
+     */
+    private final int chunkCompressionLevel;
+
+    public ServerConfiguration(int maxChunkLoadingDistance, int webUIPort, int idleTicks, int chunkSendBytesPerTick, int maxResidentChunks, long maxResidentChunkBytes, int networkFlushThresholdBytes, @NotNull String chunkCompression, int chunkCompressionLevel) {
         this.maxChunkLoadingDistance = maxChunkLoadingDistance;
         this.webUIPort = webUIPort;
         this.idleTicks = idleTicks;
+        this.chunkSendBytesPerTick = chunkSendBytesPerTick;
+        this.maxResidentChunks = maxResidentChunks;
+        this.maxResidentChunkBytes = maxResidentChunkBytes;
+        this.networkFlushThresholdBytes = networkFlushThresholdBytes;
+        this.chunkCompression = chunkCompression;
+        this.chunkCompressionLevel = chunkCompressionLevel;
     }
 
     public ServerConfiguration() {
-        this(DEFAULT_MAX_RENDER_DISTANCE, DEFAULT_WEB_UI_PORT, DEFAULT_IDLE_TICKS);
+        this(DEFAULT_MAX_RENDER_DISTANCE, DEFAULT_WEB_UI_PORT, DEFAULT_IDLE_TICKS, DEFAULT_CHUNK_SEND_BYTES_PER_TICK, DEFAULT_MAX_RESIDENT_CHUNKS, DEFAULT_MAX_RESIDENT_CHUNK_BYTES, DEFAULT_NETWORK_FLUSH_THRESHOLD_BYTES, DEFAULT_CHUNK_COMPRESSION.name(), DEFAULT_CHUNK_COMPRESSION_LEVEL);
     }
 
     @NotNull
@@ -113,4 +187,51 @@ public class ServerConfiguration {
     public int getIdleTicks() {
         return idleTicks;
     }
+
+    /**
+     * @return the chunk data byte budget per player and tick. Falls back to the default for configuration files that do not specify it.
+     */
+    public int getChunkSendBytesPerTick() {
+        return chunkSendBytesPerTick > 0 ? chunkSendBytesPerTick : DEFAULT_CHUNK_SEND_BYTES_PER_TICK;
+    }
+
+    /**
+     * @return the maximum number of resident chunks. Falls back to the default for configuration files that do not specify it.
+     */
+    public int getMaxResidentChunks() {
+        return maxResidentChunks > 0 ? maxResidentChunks : DEFAULT_MAX_RESIDENT_CHUNKS;
+    }
+
+    /**
+     * @return the maximum number of resident chunk block state bytes. Falls back to the default for configuration files that do not specify it.
+     */
+    public long getMaxResidentChunkBytes() {
+        return maxResidentChunkBytes > 0 ? maxResidentChunkBytes : DEFAULT_MAX_RESIDENT_CHUNK_BYTES;
+    }
+
+    /**
+     * @return the number of written bytes that trigger an early flush of a player channel. Falls back to the default for configuration files that do not specify it.
+     */
+    public int getNetworkFlushThresholdBytes() {
+        return networkFlushThresholdBytes > 0 ? networkFlushThresholdBytes : DEFAULT_NETWORK_FLUSH_THRESHOLD_BYTES;
+    }
+
+    /**
+     * @return the chunk compression mode. Falls back to the default for configuration files that do not specify a valid mode.
+     */
+    @NotNull
+    public PayloadCompressor.Mode getChunkCompression() {
+        for (PayloadCompressor.Mode mode : PayloadCompressor.Mode.values()) {
+            if (mode.name().equalsIgnoreCase(chunkCompression))
+                return mode;
+        }
+        return DEFAULT_CHUNK_COMPRESSION;
+    }
+
+    /**
+     * @return the deflate level of chunk data. Falls back to the default for configuration files that do not specify a valid level.
+     */
+    public int getChunkCompressionLevel() {
+        return chunkCompressionLevel >= Deflater.BEST_SPEED && chunkCompressionLevel <= Deflater.BEST_COMPRESSION ? chunkCompressionLevel : DEFAULT_CHUNK_COMPRESSION_LEVEL;
+    }
 }
@@ -2,12 +2,23 @@ package me.gommeantilegit.minecraft.server.console.command.impl;
 
 import me.gommeantilegit.minecraft.ServerMinecraft;
 import me.gommeantilegit.minecraft.server.console.command.Command;
+import me.gommeantilegit.minecraft.server.netty.channel.ChannelData;
+import me.gommeantilegit.minecraft.server.netty.channel.ChannelFlushBatcher;
+import me.gommeantilegit.minecraft.timer.tick.TickPhase;
+import me.gommeantilegit.minecraft.timer.tick.TickPhaseTimings;
+import me.gommeantilegit.minecraft.world.chunk.tick.RegionTickScheduler;
+import me.gommeantilegit.minecraft.world.chunk.world.ServerWorldChunkHandler;
 import org.jetbrains.annotations.NotNull;
 
 import static me.gommeantilegit.minecraft.utils.MathHelper.humanReadableByteCount;
 
 public class StatsCommand extends Command {
 
+    /**
+     * The number of regions with the longest chunk tick times to print
+     */
+    private static final int HOT_REGIONS = 3;
+
     /**
      * Parent Server Minecraft instance
      */
@@ -21,6 +32,44 @@ public class StatsCommand extends Command {
 
     @Override
     public String onCommand(@NotNull String[] args) {
-        return "ServerStats:\n\tUsed Memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(), true) + "\n\tFree Memory: " + humanReadableByteCount(Runtime.getRuntime().freeMemory(), true) + "\n\tTotal Memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory(), true) + "\n\tMax-memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory(), true) + "\nWorld-Stats:\n\tTick: " + mc.getTimer().getCurrentTicksPerSecond() + " tps";
+        ServerWorldChunkHandler chunkHandler = mc.theWorld.getWorldChunkHandler();
+        long flushes = 0, flushedPackets = 0, flushedBytes = 0;
+        for (ChannelData channelData : mc.nettyServer.netHandlerPlayServer.getChannelData()) {
+            ChannelFlushBatcher flushBatcher = channelData.getFlushBatcher();
+            if (flushBatcher == null)
+                continue;
+            flushes += flushBatcher.getFlushes();
+            flushedPackets += flushBatcher.getFlushedPackets();
+            flushedBytes += flushBatcher.getFlushedBytes();
+        }
+        TickPhaseTimings timings = mc.getMinecraftThread().getTimings();
+        StringBuilder tickPhases = new StringBuilder();
+        for (TickPhase phase : TickPhase.values()) {
+            TickPhaseTimings.PhaseTimings phaseTimings = timings.get(phase);
+            tickPhases.append("\n\t\t").append(phase).append(": ")
+                    .append(phaseTimings.getLastNanos() / 1000).append(" us last, ")
+                    .append(phaseTimings.getAverageNanos() / 1000).append(" us avg, ")
+                    .append(phaseTimings.getMaxNanos() / 1000).append(" us max, ")
+                    .append(phaseTimings.getOverruns()).append(" over budget");
+        }
+        RegionTickScheduler tickScheduler = mc.theWorld.getChunkTickScheduler();
+        StringBuilder hotRegions = new StringBuilder();
+        for (RegionTickScheduler.Region region : tickScheduler.getHottestRegions(HOT_REGIONS)) {
+            hotRegions.append("\n\t\t").append(region).append(": ").append(region.getChunkCount()).append(" chunks, ")
+                    .append(region.getLastTickNanos() / 1000).append(" us last, ")
+                    .append(region.getAverageTickNanos() / 1000).append(" us avg, ")
+                    .append(region.getMaxTickNanos() / 1000).append(" us max");
+        }
+        return "ServerStats:\n\tUsed Memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(), true) + "\n\tFree Memory: " + humanReadableByteCount(Runtime.getRuntime().freeMemory(), true) + "\n\tTotal Memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory(), true) + "\n\tMax-memory: " + humanReadableByteCount(Runtime.getRuntime().totalMemory(), true) + "\nWorld-Stats:\n\tTick: " + mc.getTimer().getCurrentTicksPerSecond() + " tps"
+                + "\n\tTick Phases:" + tickPhases
+                + "\n\tDropped Ticks: " + mc.getTimer().getDroppedTicks()
+                + "\n\tDeferred Tasks: " + timings.getDeferredTasks()
+                + "\n\tResident Chunks: " + chunkHandler.getResidentChunks() + " (" + humanReadableByteCount(chunkHandler.getResidentBytes(), true) + ")"
+                + "\n\tEvicted Chunks: " + chunkHandler.getEvictedChunks()
+                + "\n\tChunk Tick: " + tickScheduler.getLastTickNanos() / 1000 + " us in " + tickScheduler.getRegionCount() + " regions"
+                + "\n\tHottest Regions:" + hotRegions
+                + "\nNetwork-Stats:\n\tFlushes: " + flushes
+                + "\n\tPackets/Flush: " + (flushes == 0 ? 0 : (float) flushedPackets / flushes)
+                + "\n\tBytes/Flush: " + (flushes == 0 ? 0 : humanReadableByteCount(flushedBytes / flushes, true));
     }
 }
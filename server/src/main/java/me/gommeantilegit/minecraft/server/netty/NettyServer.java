@@ -11,6 +11,8 @@ import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.handler.NetHandlerPlayServer;
 import me.gommeantilegit.minecraft.packet.proc.impl.dec.ClientPacketDecoder;
 import me.gommeantilegit.minecraft.packet.proc.impl.enc.ServerPacketEncoder;
+import me.gommeantilegit.minecraft.server.netty.channel.ChannelData;
+import me.gommeantilegit.minecraft.server.netty.channel.ChannelFlushBatcher;
 import org.jetbrains.annotations.NotNull;
 
 public class NettyServer extends Thread {
@@ -52,6 +54,7 @@ public class NettyServer extends Thread {
                                 ch.pipeline().
                                         addLast("framer", new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4)).
                                         addLast("framer-prepender", new LengthFieldPrepender(4, false)).
+                                        addLast("flush-batcher", new ChannelFlushBatcher(mc.configuration.getNetworkFlushThresholdBytes())). // sees one encoded packet per write
                                         addLast(
                                                 new ClientPacketDecoder(mc), // Ingoing packets are all client packets
                                                 new ServerPacketEncoder(), // Outgoing packets are all server packets
@@ -74,13 +77,22 @@ public class NettyServer extends Thread {
     }
 
     /**
-     * Sends the given packet to the specified client
+     * Writes the given packet to the specified client. The packet is sent on the next {@link #flushChannels()}.
      *
      * @param packet  the packet to be sent
      * @param channel the client channel
      */
     public void sendPacket(@NotNull ServerPacket packet, @NotNull Channel channel) {
-        channel.writeAndFlush(packet);
+        this.netHandlerPlayServer.getData(channel).sendPacket(packet);
+    }
+
+    /**
+     * Flushes the packets written to all client channels since the last flush
+     */
+    public void flushChannels() {
+        for (ChannelData channelData : this.netHandlerPlayServer.getChannelData()) {
+            channelData.flush();
+        }
     }
 
 }
@@ -5,7 +5,11 @@ import me.gommeantilegit.minecraft.entity.player.EntityPlayerMP;
 import me.gommeantilegit.minecraft.packet.ServerPacket;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerForceClientChunkLoadingDistanceChangePacket;
 import me.gommeantilegit.minecraft.utils.Clock;
+import me.gommeantilegit.minecraft.world.chunk.loader.ChunkSendQueue;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Additional data parent to a channel
@@ -30,12 +34,24 @@ public class ChannelData {
      */
     private EntityPlayerMP playerMP;
 
+    /**
+     * The chunk data requests of the channel that have not been sent yet
+     */
+    @NotNull
+    private final ChunkSendQueue chunkSendQueue = new ChunkSendQueue();
+
     /**
      * Tracks how long the player has been online
      */
     @NotNull
     private Clock onlineTimer = new Clock(false);
 
+    /**
+     * State whether packets have been written to the channel since the last {@link #flush()}
+     */
+    @NotNull
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+
     public ChannelData(@NotNull Channel parentChannel) {
         this.parentChannel = parentChannel;
     }
@@ -88,12 +104,30 @@ public class ChannelData {
     }
 
     /**
-     * Sends the given packet to the client
+     * Writes the given packet to the channel. The packet is sent to the client on the next {@link #flush()},
+     * or earlier if the {@link ChannelFlushBatcher} of the channel exceeds its flush threshold.
      *
      * @param packet the given packet
      */
     public void sendPacket(@NotNull ServerPacket packet) {
-        this.parentChannel.writeAndFlush(packet);
+        this.flushPending.set(true);
+        this.parentChannel.write(packet);
+    }
+
+    /**
+     * Flushes the packets written by {@link #sendPacket(ServerPacket)}. Invoked once per update of the minecraft thread, that performed ticks.
+     */
+    public void flush() {
+        if (this.flushPending.getAndSet(false))
+            this.parentChannel.flush();
+    }
+
+    /**
+     * @return the flush batcher of the channel or null, if the channel pipeline does not contain one
+     */
+    @Nullable
+    public ChannelFlushBatcher getFlushBatcher() {
+        return this.parentChannel.pipeline().get(ChannelFlushBatcher.class);
     }
 
     /**
@@ -106,6 +140,11 @@ public class ChannelData {
         sendPacket(new ServerForceClientChunkLoadingDistanceChangePacket(null, chunkLoadingDistance));
     }
 
+    @NotNull
+    public ChunkSendQueue getChunkSendQueue() {
+        return chunkSendQueue;
+    }
+
     /**
      * @see #onlineTimer
      */
@@ -0,0 +1,105 @@
+package me.gommeantilegit.minecraft.server.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Outbound handler batching the encoded packets of a channel into as few flushes (and therefore socket writes) as possible.
+ * Game code only writes packets, the channel is flushed once per server tick by {@link ChannelData#flush()}, or as soon as the
+ * written but unflushed bytes exceed the flush threshold.
+ * Placed behind the packet encoder, so that every message passing this handler is a single encoded packet.
+ * <p>
+ * One instance per channel. The handler methods are invoked by the event loop of the channel only,
+ * the metrics may be read from any thread.
+ */
+public class ChannelFlushBatcher extends ChannelHandlerAdapter {
+
+    /**
+     * The number of written but unflushed bytes that trigger a flush before the end of the tick
+     */
+    private final int flushThresholdBytes;
+
+    /**
+     * The number of packets and bytes written since the last flush
+     */
+    private int pendingPackets, pendingBytes;
+
+    /**
+     * The number of flushes, that had packets pending
+     */
+    private volatile long flushes;
+
+    /**
+     * The number of packets and bytes flushed in total
+     */
+    private volatile long flushedPackets, flushedBytes;
+
+    /**
+     * @param flushThresholdBytes the number of written but unflushed bytes that trigger a flush before the end of the tick
+     */
+    public ChannelFlushBatcher(int flushThresholdBytes) {
+        this.flushThresholdBytes = flushThresholdBytes;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        this.pendingPackets++;
+        if (msg instanceof ByteBuf)
+            this.pendingBytes += ((ByteBuf) msg).readableBytes();
+        ctx.write(msg, promise);
+        if (this.pendingBytes >= this.flushThresholdBytes)
+            flush(ctx);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (this.pendingPackets > 0) {
+            // single writer, volatile for visibility only
+            this.flushes++;
+            this.flushedPackets += this.pendingPackets;
+            this.flushedBytes += this.pendingBytes;
+            this.pendingPackets = 0;
+            this.pendingBytes = 0;
+        }
+        ctx.flush();
+    }
+
+    /**
+     * @return the number of flushes, that had packets pending
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * @return the number of packets flushed in total
+     */
+    public long getFlushedPackets() {
+        return flushedPackets;
+    }
+
+    /**
+     * @return the number of bytes flushed in total
+     */
+    public long getFlushedBytes() {
+        return flushedBytes;
+    }
+
+    /**
+     * @return the average number of packets per flush, or 0 if nothing has been flushed yet
+     */
+    public float getPacketsPerFlush() {
+        long flushes = this.flushes;
+        return flushes == 0 ? 0 : (float) this.flushedPackets / flushes;
+    }
+
+    /**
+     * @return the average number of bytes per flush, or 0 if nothing has been flushed yet
+     */
+    public float getBytesPerFlush() {
+        long flushes = this.flushes;
+        return flushes == 0 ? 0 : (float) this.flushedBytes / flushes;
+    }
+}
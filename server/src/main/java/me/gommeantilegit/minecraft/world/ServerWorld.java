@@ -6,20 +6,27 @@ import me.gommeantilegit.minecraft.annotations.SideOnly;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
 import me.gommeantilegit.minecraft.entity.Entity;
 import me.gommeantilegit.minecraft.logging.crash.CrashReport;
+import me.gommeantilegit.minecraft.server.config.ServerConfiguration;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.ServerChunk;
 import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
 import me.gommeantilegit.minecraft.world.chunk.creator.ServerChunkCreator;
 import me.gommeantilegit.minecraft.world.chunk.loader.ServerChunkLoader;
+import me.gommeantilegit.minecraft.world.chunk.tick.RegionTickScheduler;
 import me.gommeantilegit.minecraft.world.chunk.world.ServerWorldChunkHandler;
 import me.gommeantilegit.minecraft.world.generation.generator.WorldGenerator;
+import me.gommeantilegit.minecraft.world.saveformat.RegionFileStorage;
 import me.gommeantilegit.minecraft.world.saveformat.WorldSaver;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static me.gommeantilegit.minecraft.Side.SERVER;
 
@@ -44,6 +51,46 @@ public class ServerWorld extends WorldBase {
     @NotNull
     private final WorldSaver worldSaver;
 
+    /**
+     * Stores the chunks of the world in region files
+     */
+    @NotNull
+    private final RegionFileStorage regionFileStorage;
+
+    /**
+     * The number of ticks between two checks of the resident chunk limits
+     */
+    private static final int CHUNK_EVICTION_INTERVAL = 20;
+
+    /**
+     * The parent server minecraft instance
+     */
+    @NotNull
+    private final ServerMinecraft serverMinecraft;
+
+    /**
+     * Saves and evicts chunks from memory, when the resident chunk limits of the server configuration are exceeded
+     */
+    @NotNull
+    private final ExecutorService chunkEvictionService = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ChunkEviction-Worker");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setUncaughtExceptionHandler((t, e) -> e.printStackTrace());
+        return thread;
+    });
+
+    /**
+     * State whether a chunk eviction is currently scheduled or running
+     */
+    @NotNull
+    private final AtomicBoolean chunkEvictionPending = new AtomicBoolean();
+
+    /**
+     * The number of ticks performed. Used to schedule the chunk eviction.
+     */
+    private long ticks;
+
     /**
      * ForkJoin for chunk ticking
      */
@@ -60,6 +107,11 @@ public class ServerWorld extends WorldBase {
             false
     );
 
+    /**
+     * Ticks the loaded chunks in phases of independent regions on the {@link #chunkTickPool}
+     */
+    @NotNull
+    private final RegionTickScheduler chunkTickScheduler = new RegionTickScheduler(chunkTickPool);
 
     /**
      * Default world constructor
@@ -71,12 +123,50 @@ public class ServerWorld extends WorldBase {
      * @param blockStatePalette the block state palette used for block storage
      */
     public ServerWorld(@NotNull ServerMinecraft mc, @NotNull WorldGenerator worldGenerator, @NotNull File worldDirectory, int height, @NotNull IBlockStatePalette blockStatePalette) {
-        super(mc, height, blockStatePalette, new BlockStateSemaphoreBase());
+        this(mc, worldGenerator, worldDirectory, height, blockStatePalette, new BlockStateSemaphoreBase(), new RegionFileStorage(mc.getChunkFragmenter(), mc.getBlocks(), new File(worldDirectory, "region")));
+    }
+
+    /**
+     * @param mc                  Minecraft instance
+     * @param worldGenerator      world generator for world generation
+     * @param worldDirectory      the directory to save the minecraft world into
+     * @param height              block height of the world
+     * @param blockStatePalette   the block state palette used for block storage
+     * @param blockStateSemaphore schedules the block state writes of the world
+     * @param regionFileStorage   sets {@link #regionFileStorage}
+     */
+    ServerWorld(@NotNull ServerMinecraft mc, @NotNull WorldGenerator worldGenerator, @NotNull File worldDirectory, int height, @NotNull IBlockStatePalette blockStatePalette,
+                @NotNull BlockStateSemaphoreBase blockStateSemaphore, @NotNull RegionFileStorage regionFileStorage) {
+        super(mc, height, blockStatePalette, blockStateSemaphore);
         this.worldGenerator = worldGenerator;
         this.chunkCreator = new ServerChunkCreator(this);
         this.worldChunkHandler = new ServerWorldChunkHandler(); // after #chunkCreator
         this.chunkLoader = new ServerChunkLoader(this, mc);
+        this.regionFileStorage = regionFileStorage;
         this.worldSaver = new WorldSaver(this, worldDirectory);
+        this.serverMinecraft = mc;
+        this.addOnChunkCreationListener(this::restoreChunk);
+    }
+
+    /**
+     * Called on chunk creation
+     * Restores the chunk to it's saved state, if the chunk has been saved, which prevents the terrain generation of the chunk.
+     * This also reloads chunks that have been evicted from memory.
+     *
+     * @param chunk the given chunk
+     */
+    private void restoreChunk(@NotNull ChunkBase chunk) {
+        boolean restored;
+        try {
+            restored = this.regionFileStorage.restoreChunk(chunk);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to restore saved state of chunk (" + chunk.getX() + ", " + chunk.getZ() + ")", e);
+        }
+        if (restored) {
+            chunk.setDirty(false);
+            if (chunk instanceof ServerChunk)
+                ((ServerChunk) chunk).setWorldGenerationFinished();
+        }
     }
 
     /**
@@ -106,14 +196,132 @@ public class ServerWorld extends WorldBase {
     @Override
     public void tick(float partialTicks) {
         super.tick(partialTicks);
+        if (++this.ticks % CHUNK_EVICTION_INTERVAL == 0 && this.chunkEvictionPending.compareAndSet(false, true)) {
+            ServerConfiguration configuration = this.serverMinecraft.configuration;
+            this.chunkEvictionService.submit(() -> {
+                try {
+                    evictChunks(configuration.getMaxResidentChunks(), configuration.getMaxResidentChunkBytes());
+                } catch (IOException e) {
+                    mc.getLogger().exception("Failed to save chunks before eviction", e);
+                } finally {
+                    this.chunkEvictionPending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes chunks that are not loaded from memory, least recently unloaded first, until the number of resident chunks and the bytes occupied by their block states are within the limits.
+     * Modified chunks are saved before they are removed. Chunks are restored from storage when they are created again.
+     * Chunks containing entities, chunks entities are handed over to and chunks that are being generated are kept.
+     *
+     * @param maxResidentChunks the maximum number of chunks to keep in memory
+     * @param maxResidentBytes  the maximum number of block state bytes to keep in memory
+     * @return the number of evicted chunks
+     * @throws IOException if saving a chunk fails
+     */
+    public int evictChunks(int maxResidentChunks, long maxResidentBytes) throws IOException {
+        ServerWorldChunkHandler chunkHandler = getWorldChunkHandler();
+        int residentChunks = chunkHandler.getResidentChunks();
+        if (residentChunks <= maxResidentChunks && maxResidentBytes == Long.MAX_VALUE)
+            return 0;
+        long residentBytes = chunkHandler.getResidentBytes();
+        int evicted = 0;
+        for (ChunkBase chunk : chunkHandler.getEvictionCandidates()) {
+            if (residentChunks <= maxResidentChunks && residentBytes <= maxResidentBytes)
+                break;
+            long chunkBytes = chunk.getByteSize();
+            if (evictChunk(chunk)) {
+                residentChunks--;
+                residentBytes -= chunkBytes;
+                evicted++;
+            }
+        }
+        if (evicted > 0)
+            this.regionFileStorage.flush();
+        return evicted;
+    }
+
+    /**
+     * Saves the chunk, if modified, and removes it from the world. Chunk creation is blocked meanwhile, so that a chunk created for the same origin is restored from the saved state.
+     * Block changes queued for the chunk are applied before it is saved, as they would be lost on the removed instance otherwise.
+     *
+     * @param chunk the chunk to evict
+     * @return true if the chunk has been evicted
+     * @throws IOException if saving the chunk fails
+     */
+    private boolean evictChunk(@NotNull ChunkBase chunk) throws IOException {
+        synchronized (getChunkCreator()) {
+            // the ticket lock prevents a viewer from acquiring a ticket for the chunk while it is removed
+            synchronized (chunk.getTicketLock()) {
+                if (!canEvict(chunk) || !awaitBlockChanges(chunk))
+                    return false;
+                saveIfDirty(chunk);
+                // an entity may have been handed over to the chunk while it was saved
+                if (!canEvict(chunk) || !getWorldChunkHandler().removeChunk(chunk))
+                    return false;
+                // block changes submitted by threads, that resolved the chunk before it was removed
+                if (awaitBlockChanges(chunk))
+                    saveIfDirty(chunk);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param chunk the chunk
+     * @return false if the chunk is loaded, has tickets, is being generated, holds entities or entities are about to be added to it
+     */
+    private boolean canEvict(@NotNull ChunkBase chunk) {
+        return !chunk.isLoaded() && chunk.getTicketCount() == 0 && chunk.getEntities().isEmpty() && !chunk.hasPendingEntities()
+                && (!(chunk instanceof ServerChunk) || ((ServerChunk) chunk).isWorldGenerationFinished());
+    }
+
+    /**
+     * Waits for the block changes queued for the chunk to be applied
+     *
+     * @param chunk the chunk
+     * @return false if the thread has been interrupted while waiting
+     */
+    private boolean awaitBlockChanges(@NotNull ChunkBase chunk) {
+        try {
+            this.blockStateSemaphore.awaitWrites(chunk);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Saves the chunk, if it has been modified since it has last been saved
+     *
+     * @param chunk the chunk
+     * @throws IOException if saving the chunk fails
+     */
+    private void saveIfDirty(@NotNull ChunkBase chunk) throws IOException {
+        if (chunk.isDirty()) {
+            chunk.setDirty(false);
+            try {
+                this.regionFileStorage.saveChunk(chunk);
+            } catch (IOException e) {
+                chunk.setDirty(true);
+                throw e;
+            }
+        }
     }
 
     @Override
     protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
-        this.chunkTickPool.submit(() -> {
-            Stream<ChunkBase> stream = chunks.parallelStream();
-            stream.forEach(c -> c.tick(partialTicks));
-        }).join();
+        this.chunkTickScheduler.tick(chunks);
+    }
+
+    /**
+     * @return the scheduler ticking the chunks of the world
+     */
+    @NotNull
+    public RegionTickScheduler getChunkTickScheduler() {
+        return chunkTickScheduler;
     }
 
     /**
@@ -146,6 +354,11 @@ public class ServerWorld extends WorldBase {
         this.worldSaver.saveAllChunks();
     }
 
+    @NotNull
+    public RegionFileStorage getRegionFileStorage() {
+        return regionFileStorage;
+    }
+
     @NotNull
     public WorldGenerator getWorldGenerator() {
         return worldGenerator;
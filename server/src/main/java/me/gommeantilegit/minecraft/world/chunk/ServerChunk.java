@@ -1,22 +1,54 @@
 package me.gommeantilegit.minecraft.world.chunk;
 
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
 import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
 import me.gommeantilegit.minecraft.world.WorldBase;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 public class ServerChunk extends ChunkBase {
 
-    private boolean worldGenerationFinished = false;
+    /**
+     * Completed with this chunk, when the terrain generation of the chunk has finished or the chunk has been restored from the world save.
+     * Threads that need the generated chunk wait on this future instead of polling.
+     */
+    @NotNull
+    private final CompletableFuture<ServerChunk> worldGenerationFuture = new CompletableFuture<>();
 
     public ServerChunk(int height, int x, int z, @NotNull WorldBase world, @NotNull IBlockStatePalette blockStatePalette) {
         super(height, x, z, world, blockStatePalette);
     }
 
-    public void setWorldGenerationFinished(boolean worldGenerationFinished) {
-        this.worldGenerationFinished = worldGenerationFinished;
+    /**
+     * Marks the world generation of the chunk as finished and completes the {@link #worldGenerationFuture}
+     */
+    @ThreadSafe
+    public void setWorldGenerationFinished() {
+        this.worldGenerationFuture.complete(this);
+    }
+
+    /**
+     * Completes the {@link #worldGenerationFuture} exceptionally
+     *
+     * @param cause the exception thrown by the generator
+     */
+    @ThreadSafe
+    public void setWorldGenerationFailed(@NotNull Throwable cause) {
+        this.worldGenerationFuture.completeExceptionally(cause);
     }
 
+    @ThreadSafe
     public boolean isWorldGenerationFinished() {
-        return worldGenerationFinished;
+        return worldGenerationFuture.isDone() && !worldGenerationFuture.isCompletedExceptionally();
+    }
+
+    /**
+     * @see #worldGenerationFuture
+     */
+    @NotNull
+    @ThreadSafe
+    public CompletableFuture<ServerChunk> getWorldGenerationFuture() {
+        return worldGenerationFuture;
     }
 }
@@ -42,9 +42,14 @@ public class ServerChunkCreator extends ChunkCreatorBase {
                 chunk = prev;
             }
         }
-        if (prev == null) {
-            ((ServerWorld) world).getWorldGenerator().onChunkCreated(chunk); // Invoking the terrain generation
-            chunk.setWorldGenerationFinished(true);
+        if (prev == null && !chunk.isWorldGenerationFinished()) { // chunks restored from the world save are already finished
+            try {
+                ((ServerWorld) world).getWorldGenerator().onChunkCreated(chunk); // Invoking the terrain generation
+            } catch (RuntimeException | Error e) {
+                chunk.setWorldGenerationFailed(e);
+                throw e;
+            }
+            chunk.setWorldGenerationFinished();
         }
         return chunk;
     }
@@ -0,0 +1,226 @@
+package me.gommeantilegit.minecraft.world.chunk.loader;
+
+import me.gommeantilegit.minecraft.Side;
+import me.gommeantilegit.minecraft.annotations.SideOnly;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The chunk data requests of a single channel, that have not been sent yet.
+ * Requests are prepared asynchronously (generation and serialization) and sent by {@link #poll(Vec2i, double, long)} once per tick,
+ * closest to the player first and limited by a byte budget. Requests for chunks that left the chunk loading distance or that have been unloaded by the client are dropped.
+ */
+@SideOnly(side = Side.SERVER)
+public class ChunkSendQueue {
+
+    /**
+     * The pending requests by chunk origin
+     */
+    @NotNull
+    private final Map<Vec2i, Request> requests = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests dropped because they were cancelled or out of range
+     */
+    @NotNull
+    private final AtomicLong droppedRequests = new AtomicLong();
+
+    /**
+     * The number of chunk data packets sent
+     */
+    @NotNull
+    private final AtomicLong sentPackets = new AtomicLong();
+
+    /**
+     * The number of chunk data bytes sent
+     */
+    @NotNull
+    private final AtomicLong sentBytes = new AtomicLong();
+
+    /**
+     * Enqueues a request for the chunk. A previous request for the same chunk is replaced.
+     *
+     * @param chunkOrigin the origin of the requested chunk
+     * @return the new request. Its packet must be supplied via {@link Request#getPacketFuture()}
+     */
+    @NotNull
+    @ThreadSafe
+    public Request enqueue(@NotNull Vec2i chunkOrigin) {
+        Request request = new Request(chunkOrigin);
+        Request previous = this.requests.put(chunkOrigin, request);
+        if (previous != null)
+            drop(previous);
+        return request;
+    }
+
+    /**
+     * Drops the request for the chunk, if present
+     *
+     * @param chunkOrigin the origin of the chunk
+     * @return true if a pending request was dropped
+     */
+    @ThreadSafe
+    public boolean cancel(@NotNull Vec2i chunkOrigin) {
+        Request request = this.requests.remove(chunkOrigin);
+        if (request == null)
+            return false;
+        drop(request);
+        return true;
+    }
+
+    /**
+     * Drops all pending requests
+     */
+    @ThreadSafe
+    public void cancelAll() {
+        for (Vec2i chunkOrigin : this.requests.keySet()) {
+            cancel(chunkOrigin);
+        }
+    }
+
+    /**
+     * Removes the packets to send this tick from the queue.
+     * Requests out of range are dropped. Of the requests whose packet is prepared, the ones closest to the viewer are returned, until the byte budget is exceeded.
+     * At least one packet is returned if one is prepared, so that packets larger than the budget are still sent.
+     *
+     * @param viewerPosition the xz position of the player
+     * @param maxDistance    the maximum distance from the viewer to a chunk origin for the chunk to still be sent
+     * @param byteBudget     the number of chunk data bytes that may be sent
+     * @return the packets to send in order
+     */
+    @NotNull
+    @ThreadSafe
+    public List<ServerChunkDataPacket> poll(@NotNull Vec2i viewerPosition, double maxDistance, long byteBudget) {
+        List<Request> ready = new ArrayList<>();
+        for (Iterator<Request> iterator = this.requests.values().iterator(); iterator.hasNext(); ) {
+            Request request = iterator.next();
+            request.distance = request.chunkOrigin.getDistance(viewerPosition);
+            if (request.distance >= maxDistance) {
+                iterator.remove();
+                drop(request);
+            } else if (request.packetFuture.isDone()) {
+                ready.add(request);
+            }
+        }
+        if (ready.isEmpty())
+            return new ArrayList<>(0);
+        ready.sort(Comparator.comparingDouble(request -> request.distance));
+
+        List<ServerChunkDataPacket> packets = new ArrayList<>();
+        long bytes = 0;
+        for (Request request : ready) {
+            if (!packets.isEmpty() && bytes >= byteBudget)
+                break;
+            if (!this.requests.remove(request.chunkOrigin, request))
+                continue; // cancelled concurrently
+            ServerChunkDataPacket packet = request.getPacketNow();
+            if (packet == null) {
+                drop(request); // failed or cancelled before the packet was prepared
+                continue;
+            }
+            packets.add(packet);
+            bytes += packet.getChunkData().length;
+        }
+        this.sentPackets.addAndGet(packets.size());
+        this.sentBytes.addAndGet(bytes);
+        return packets;
+    }
+
+    private void drop(@NotNull Request request) {
+        request.cancelled = true;
+        this.droppedRequests.incrementAndGet();
+    }
+
+    /**
+     * @return true if no requests are pending
+     */
+    @ThreadSafe
+    public boolean isEmpty() {
+        return this.requests.isEmpty();
+    }
+
+    /**
+     * @return the number of pending requests
+     */
+    @ThreadSafe
+    public int size() {
+        return this.requests.size();
+    }
+
+    @ThreadSafe
+    public long getDroppedRequests() {
+        return droppedRequests.get();
+    }
+
+    @ThreadSafe
+    public long getSentPackets() {
+        return sentPackets.get();
+    }
+
+    @ThreadSafe
+    public long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    /**
+     * A pending chunk data request
+     */
+    public static class Request {
+
+        @NotNull
+        private final Vec2i chunkOrigin;
+
+        /**
+         * Completed with the packet to send, or with null if the request does not need to be sent anymore
+         */
+        @NotNull
+        private final CompletableFuture<ServerChunkDataPacket> packetFuture = new CompletableFuture<>();
+
+        /**
+         * State whether the request has been dropped. Preparation of the packet can be skipped then.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * The distance to the viewer at the last poll
+         */
+        private double distance;
+
+        private Request(@NotNull Vec2i chunkOrigin) {
+            this.chunkOrigin = chunkOrigin;
+        }
+
+        @Nullable
+        private ServerChunkDataPacket getPacketNow() {
+            if (this.packetFuture.isCompletedExceptionally())
+                return null;
+            return this.packetFuture.getNow(null);
+        }
+
+        @NotNull
+        public Vec2i getChunkOrigin() {
+            return chunkOrigin;
+        }
+
+        @NotNull
+        public CompletableFuture<ServerChunkDataPacket> getPacketFuture() {
+            return packetFuture;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
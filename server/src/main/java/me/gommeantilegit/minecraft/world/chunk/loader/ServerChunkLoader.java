@@ -9,16 +9,19 @@ import me.gommeantilegit.minecraft.entity.player.EntityPlayerMP;
 import me.gommeantilegit.minecraft.packet.ClientPacket;
 import me.gommeantilegit.minecraft.packet.handler.IPacketListener;
 import me.gommeantilegit.minecraft.packet.handler.NetHandlerPlayServer;
+import me.gommeantilegit.minecraft.packet.packets.client.ClientChunkUnloadPacket;
 import me.gommeantilegit.minecraft.packet.packets.client.ClientRequestChunkDataPacket;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
 import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkRequestConfrimationPacket;
 import me.gommeantilegit.minecraft.server.netty.channel.ChannelData;
+import me.gommeantilegit.minecraft.util.VectorUtils;
 import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
 import me.gommeantilegit.minecraft.world.ServerWorld;
 import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
-import me.gommeantilegit.minecraft.world.chunk.ServerChunk;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -35,7 +38,7 @@ public class ServerChunkLoader extends ChunkLoaderBase implements IPacketListene
     private final ServerMinecraft mc;
 
     /**
-     * Executor service for async chunk generation
+     * Executor service for async chunk generation and serialization of requested chunks
      */
     @NotNull
     private final ExecutorService service = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
@@ -63,8 +66,27 @@ public class ServerChunkLoader extends ChunkLoaderBase implements IPacketListene
         return ent instanceof EntityPlayerMP ? ((EntityPlayerMP) ent).getChannelData().getChunkLoadingDistance() : world.getChunkLoadingDistance();
     }
 
+    /**
+     * Sends the prepared chunk data of every channel, closest chunks first, limited by the configured byte budget per channel and tick.
+     */
     @Override
     public void tick(float partialTicks) {
+        if (mc.nettyServer == null)
+            return;
+        long byteBudget = mc.configuration.getChunkSendBytesPerTick();
+        for (ChannelData channelData : mc.nettyServer.netHandlerPlayServer.getChannelData()) {
+            ChunkSendQueue queue = channelData.getChunkSendQueue();
+            if (queue.isEmpty())
+                continue;
+            EntityPlayerMP player = channelData.getPlayerMP();
+            // the client loads chunks around the origin of its center chunk, which is up to one chunk diagonal away from the player.
+            // Another chunk of tolerance, as the client decides about unloading based on its own, possibly more recent position
+            double maxDistance = getChunkLoadingDistance(player) + 2 * ChunkBase.CHUNK_SIZE;
+            List<ServerChunkDataPacket> packets = queue.poll(VectorUtils.xzTo2Di(player.getPositionVector()), maxDistance, byteBudget);
+            for (ServerChunkDataPacket packet : packets) {
+                channelData.sendPacket(packet);
+            }
+        }
     }
 
     @Override
@@ -74,19 +96,31 @@ public class ServerChunkLoader extends ChunkLoaderBase implements IPacketListene
         if (packet instanceof ClientRequestChunkDataPacket) { // Chunk Data Request
             Vector2 origin = ((ClientRequestChunkDataPacket) packet).getChunkOrigin();
             channelData.sendPacket(new ServerChunkRequestConfrimationPacket(null, origin));
-            this.service.submit(() -> {
-                ServerChunk chunk = ((ServerWorld) world).getChunkCreator().tryCreateChunkFor(new Vec2i(origin));
-                // Waiting for world generation to finish as another thread has just requested this chunk before, which means it has invoke world generation. We want it too, so we wait
-                while (!chunk.isWorldGenerationFinished()) {
-                    try {
-                        Thread.sleep(50);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }
-                ServerChunkDataPacket chunkData = new ServerChunkDataPacket(null, chunk.getChunkOrigin().asLibGDXVec2D(), chunk);
-                channelData.sendPacket(chunkData);
-            });
+            ChunkSendQueue.Request request = channelData.getChunkSendQueue().enqueue(new Vec2i(origin));
+            prepareChunkData(request);
+        } else if (packet instanceof ClientChunkUnloadPacket) {
+            channelData.getChunkSendQueue().cancel(new Vec2i(((ClientChunkUnloadPacket) packet).getChunkOrigin()));
         }
     }
+
+    /**
+     * Generates the requested chunk, if necessary, and serializes it on the worker threads. Completes the packet future of the request.
+     * If the chunk is generated by another thread, the request completes when that generation finishes. Requests dropped in the meantime are not prepared.
+     *
+     * @param request the chunk data request
+     */
+    private void prepareChunkData(@NotNull ChunkSendQueue.Request request) {
+        CompletableFuture
+                .supplyAsync(() -> request.isCancelled() ? null : ((ServerWorld) world).getChunkCreator().tryCreateChunkFor(request.getChunkOrigin()), this.service)
+                .thenCompose(chunk -> chunk == null ? CompletableFuture.completedFuture(null) : chunk.getWorldGenerationFuture())
+                .thenApplyAsync(chunk -> chunk == null || request.isCancelled() ? null : new ServerChunkDataPacket(null, chunk.getChunkOrigin().asLibGDXVec2D(), chunk), this.service)
+                .whenComplete((chunkData, throwable) -> {
+                    if (throwable != null) {
+                        mc.getLogger().exception("Failed to prepare chunk data of chunk " + request.getChunkOrigin(), throwable);
+                        request.getPacketFuture().completeExceptionally(throwable);
+                    } else {
+                        request.getPacketFuture().complete(chunkData);
+                    }
+                });
+    }
 }
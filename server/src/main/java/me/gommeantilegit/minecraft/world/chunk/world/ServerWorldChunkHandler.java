@@ -1,10 +1,31 @@
 package me.gommeantilegit.minecraft.world.chunk.world;
 
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import me.gommeantilegit.minecraft.world.chunk.ServerChunk;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class ServerWorldChunkHandler extends WorldChunkHandlerBase {
 
+    /**
+     * The chunks that are not loaded, least recently unloaded first. Chunks are evicted from memory in this order.
+     * Guarded by this.
+     */
+    @NotNull
+    private final LinkedHashSet<ChunkBase> evictionCandidates = new LinkedHashSet<>();
+
+    /**
+     * The number of chunks removed from memory
+     */
+    @NotNull
+    private final AtomicLong evictedChunks = new AtomicLong();
+
     public ServerWorldChunkHandler() {
         super();
     }
@@ -15,4 +36,72 @@ public class ServerWorldChunkHandler extends WorldChunkHandlerBase {
         return (ServerChunk) super.getChunkAt(originX, originZ);
     }
 
+    @Override
+    public synchronized void addChunk(@NotNull ChunkBase chunk) {
+        super.addChunk(chunk);
+        if (getChunkAt(chunk.getX(), chunk.getZ()) == chunk)
+            this.evictionCandidates.add(chunk); // uninitialized
+    }
+
+    @Override
+    public synchronized void loadChunk(@NotNull ChunkBase chunk) {
+        super.loadChunk(chunk);
+        this.evictionCandidates.remove(chunk);
+    }
+
+    @Override
+    public synchronized void unloadChunk(@NotNull ChunkBase chunk) {
+        super.unloadChunk(chunk);
+        if (getChunkAt(chunk.getX(), chunk.getZ()) == chunk) {
+            // moving to the end
+            this.evictionCandidates.remove(chunk);
+            this.evictionCandidates.add(chunk);
+        }
+    }
+
+    @Override
+    public synchronized boolean removeChunk(@NotNull ChunkBase chunk) {
+        if (!super.removeChunk(chunk))
+            return false;
+        this.evictionCandidates.remove(chunk);
+        this.evictedChunks.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return a snapshot of the chunks that are not loaded, least recently unloaded first
+     */
+    @NotNull
+    @ThreadSafe
+    public synchronized List<ChunkBase> getEvictionCandidates() {
+        return new ArrayList<>(this.evictionCandidates);
+    }
+
+    /**
+     * @return the number of chunks held in memory
+     */
+    @ThreadSafe
+    public int getResidentChunks() {
+        return collectChunks().size();
+    }
+
+    /**
+     * @return the number of bytes occupied by the block states of all chunks held in memory
+     */
+    @ThreadSafe
+    public long getResidentBytes() {
+        long bytes = 0;
+        for (ChunkBase chunk : collectChunks()) {
+            bytes += chunk.getByteSize();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the number of chunks removed from memory since the server started
+     */
+    @ThreadSafe
+    public long getEvictedChunks() {
+        return evictedChunks.get();
+    }
 }
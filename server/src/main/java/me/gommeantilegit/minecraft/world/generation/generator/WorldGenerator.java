@@ -11,17 +11,9 @@ import me.gommeantilegit.minecraft.world.generation.generator.impl.superflat.Sup
 import me.gommeantilegit.minecraft.world.generation.generator.options.WorldGenerationOptions;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Random;
-
 @SideOnly(side = Side.SERVER)
 public class WorldGenerator implements ServerWorld.OnServerChunkCreationListener {
 
-    /**
-     * Random instance for creator
-     */
-    @NotNull
-    private final Random random;
-
     /**
      * ServerWorld type enum value
      */
@@ -44,7 +36,6 @@ public class WorldGenerator implements ServerWorld.OnServerChunkCreationListener
 
     public WorldGenerator(@NotNull ServerMinecraft mc, @NotNull WorldGenerationOptions worldGenerationOptions) {
         this.seed = worldGenerationOptions.getSeed();
-        this.random = new Random(seed);
         this.worldType = worldGenerationOptions.getWorldType();
         this.worldGenerationOptions = worldGenerationOptions;
         switch (worldType) {
@@ -74,11 +65,6 @@ public class WorldGenerator implements ServerWorld.OnServerChunkCreationListener
         return chunkGenerator;
     }
 
-    @NotNull
-    public Random getRandom() {
-        return random;
-    }
-
     public long getSeed() {
         return seed;
     }
@@ -0,0 +1,145 @@
+package me.gommeantilegit.minecraft.world.generation.generator.api;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Random;
+
+/**
+ * The state of the generation of a single chunk.
+ * Provides the random instances of the individual {@link GenerationStage}s, which only depend on the world seed and the chunk coordinates,
+ * so that the generated blocks do not depend on the thread or the order the chunks are generated in.
+ */
+public class ChunkGenerationContext {
+
+    /**
+     * The seed of the world
+     */
+    private final long worldSeed;
+
+    /**
+     * The origin of the chunk to generate
+     */
+    private final int chunkX, chunkZ;
+
+    /**
+     * The blocks instance
+     */
+    @NotNull
+    private final Blocks blocks;
+
+    /**
+     * The chunk relative block states of the chunk to generate
+     */
+    @NotNull
+    private final IWritableBlockStateAccess blockAccess;
+
+    /**
+     * @param worldSeed   the seed of the world
+     * @param chunkX      the x coordinate of the chunk origin
+     * @param chunkZ      the z coordinate of the chunk origin
+     * @param blocks      the blocks instance
+     * @param blockAccess chunk relative access to the block states of the chunk to generate
+     */
+    public ChunkGenerationContext(long worldSeed, int chunkX, int chunkZ, @NotNull Blocks blocks, @NotNull IWritableBlockStateAccess blockAccess) {
+        this.worldSeed = worldSeed;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.blocks = blocks;
+        this.blockAccess = blockAccess;
+    }
+
+    /**
+     * @param worldSeed the seed of the world
+     * @param chunk     the chunk to generate. Must not be accessible to other threads during generation
+     * @param blocks    the blocks instance
+     * @return a context generating into the given chunk
+     */
+    @NotNull
+    public static ChunkGenerationContext forChunk(long worldSeed, @NotNull ChunkBase chunk, @NotNull Blocks blocks) {
+        return new ChunkGenerationContext(worldSeed, chunk.getX(), chunk.getZ(), blocks, new IWritableBlockStateAccess() {
+            @Override
+            public void set(int x, int y, int z, @Nullable IBlockState blockState) {
+                chunk.writeBlockChange(x, y, z, blockState);
+            }
+
+            @Override
+            public void setBlockStates(int x, int y, int z, int width, int height, int depth, @NotNull IBlockState[] blockStates) {
+                chunk.writeBlockStates(x, y, z, width, height, depth, blockStates);
+            }
+
+            @Nullable
+            @Override
+            public IBlockState getBlockState(int x, int y, int z) {
+                return chunk.getRelativeBlockState(x, y, z);
+            }
+        });
+    }
+
+    /**
+     * @param stage the generation stage
+     * @return a new random instance for the stage seeded with {@link #getSeed(GenerationStage, int, int)} of the chunk origin
+     */
+    @NotNull
+    public Random getRandom(@NotNull GenerationStage stage) {
+        return getRandom(stage, this.chunkX, this.chunkZ);
+    }
+
+    /**
+     * @param stage the generation stage
+     * @param x     the x coordinate of the area inside the chunk the random instance is used for
+     * @param z     the z coordinate of the area inside the chunk the random instance is used for
+     * @return a new random instance for the stage seeded with {@link #getSeed(GenerationStage, int, int)}
+     */
+    @NotNull
+    public Random getRandom(@NotNull GenerationStage stage, int x, int z) {
+        return new Random(getSeed(stage, x, z));
+    }
+
+    /**
+     * @param stage the generation stage
+     * @param x     the x coordinate
+     * @param z     the z coordinate
+     * @return a seed only depending on the world seed, the stage and the given coordinates
+     */
+    public long getSeed(@NotNull GenerationStage stage, int x, int z) {
+        long seed = mix(this.worldSeed + stage.ordinal() * 0x9E3779B97F4A7C15L);
+        seed = mix(seed ^ x);
+        return mix(seed ^ ((long) z << 32));
+    }
+
+    /**
+     * SplitMix64 finalizer. Spreads every input bit over the whole output.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    @NotNull
+    public Blocks getBlocks() {
+        return blocks;
+    }
+
+    @NotNull
+    public IWritableBlockStateAccess getBlockAccess() {
+        return blockAccess;
+    }
+}
@@ -0,0 +1,29 @@
+package me.gommeantilegit.minecraft.world.generation.generator.api;
+
+/**
+ * The stages of chunk generation in the order they are performed.
+ * Every stage of a chunk receives it's own random seed derived from the world seed and the chunk coordinates (see {@link ChunkGenerationContext#getSeed(GenerationStage, int, int)}).
+ */
+public enum GenerationStage {
+
+    /**
+     * Evaluation of the world seeded noise functions (temperature, humidity, density)
+     */
+    NOISE,
+
+    /**
+     * Assembly of the height map from the noise and filling of the terrain below it
+     */
+    HEIGHTMAP,
+
+    /**
+     * Replacement of the top layers of the terrain by surface blocks
+     */
+    SURFACE,
+
+    /**
+     * Placement of decorations into the finished terrain
+     */
+    DECORATION
+
+}
@@ -1,24 +1,20 @@
 package me.gommeantilegit.minecraft.world.generation.generator.api;
 
-import me.gommeantilegit.minecraft.block.Blocks;
-import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
-import java.util.concurrent.ExecutorService;
 
 /**
- * Represents a generator generating blocks on chunk creation
+ * Represents a generator placing blocks into a chunk during the {@link GenerationStage#DECORATION} stage
  */
 public interface IBlockGenerator {
 
     /**
      * Called on chunk generation
      *
-     * @param random the random instance
-     * @param chunk  the chunk to generate into
-     * @param blocks blocks instance
+     * @param random  the random instance of the decoration stage of the chunk
+     * @param context the generation context of the chunk to generate into
      */
-    void generateBlocks(@NotNull Random random, @NotNull ChunkBase chunk, @NotNull Blocks blocks);
+    void generateBlocks(@NotNull Random random, @NotNull ChunkGenerationContext context);
 
 }
@@ -0,0 +1,93 @@
+package me.gommeantilegit.minecraft.world.generation.generator.impl.overworld;
+
+import me.gommeantilegit.minecraft.Side;
+import me.gommeantilegit.minecraft.annotations.SideOnly;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.block.Block;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.world.generation.generator.api.ChunkGenerationContext;
+import me.gommeantilegit.minecraft.world.generation.generator.api.GenerationStage;
+import me.gommeantilegit.minecraft.world.generation.generator.api.IBlockGenerator;
+import me.gommeantilegit.minecraft.world.generation.generator.impl.overworld.generators.impl.surface.SurfaceGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Random;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static me.gommeantilegit.minecraft.world.generation.generator.impl.overworld.generators.impl.surface.SurfaceGenerator.COLUMN_SIZE;
+
+/**
+ * Generates overworld chunks in the stages {@link GenerationStage#NOISE} → {@link GenerationStage#HEIGHTMAP} → {@link GenerationStage#SURFACE} → {@link GenerationStage#DECORATION}.
+ * A chunk consists of (CHUNK_SIZE / {@link SurfaceGenerator#COLUMN_SIZE})² columns, which pass every stage before the next stage starts.
+ * Randomness is only obtained from the {@link ChunkGenerationContext}, so the generated chunk only depends on the world seed and the chunk coordinates.
+ */
+@SideOnly(side = Side.SERVER)
+public class OverworldGenerationPipeline {
+
+    /**
+     * The number of columns a chunk consists of on the x and z axis
+     */
+    private static final int COLUMNS_PER_AXIS = CHUNK_SIZE / COLUMN_SIZE;
+
+    /**
+     * Generates the terrain of the columns
+     */
+    @NotNull
+    private final SurfaceGenerator surfaceGenerator;
+
+    /**
+     * The generators of the decoration stage. Invoked in order.
+     */
+    @NotNull
+    private final List<IBlockGenerator> decorators;
+
+    /**
+     * @param worldSeed  the world seed
+     * @param decorators sets {@link #decorators}
+     */
+    public OverworldGenerationPipeline(long worldSeed, @NotNull List<IBlockGenerator> decorators) {
+        this.surfaceGenerator = new SurfaceGenerator(worldSeed);
+        this.decorators = decorators;
+    }
+
+    /**
+     * Generates the chunk of the given context.
+     * Different chunks may be generated concurrently.
+     *
+     * @param context the generation context of the chunk
+     */
+    @ThreadSafe
+    public void generate(@NotNull ChunkGenerationContext context) {
+        Blocks blocks = context.getBlocks();
+        int numColumns = COLUMNS_PER_AXIS * COLUMNS_PER_AXIS;
+
+        // Noise
+        SurfaceGenerator.ColumnNoise[] noise = new SurfaceGenerator.ColumnNoise[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            int startX = context.getChunkX() + (i / COLUMNS_PER_AXIS) * COLUMN_SIZE;
+            int startZ = context.getChunkZ() + (i % COLUMNS_PER_AXIS) * COLUMN_SIZE;
+            noise[i] = this.surfaceGenerator.generateNoise(startX, startZ);
+        }
+
+        // Heightmap
+        Block[][] columnBlocks = new Block[numColumns][];
+        for (int i = 0; i < numColumns; i++) {
+            columnBlocks[i] = this.surfaceGenerator.generateHeightmap(blocks, noise[i]);
+        }
+
+        // Surface
+        for (int i = 0; i < numColumns; i++) {
+            this.surfaceGenerator.generateSurface(context.getRandom(GenerationStage.SURFACE, noise[i].getStartX(), noise[i].getStartZ()), blocks, noise[i], columnBlocks[i]);
+            this.surfaceGenerator.writeColumn(context.getBlockAccess(), context.getChunkX(), context.getChunkZ(), noise[i], columnBlocks[i]);
+        }
+
+        // Decoration
+        if (!this.decorators.isEmpty()) {
+            Random random = context.getRandom(GenerationStage.DECORATION);
+            for (IBlockGenerator decorator : this.decorators) {
+                decorator.generateBlocks(random, context);
+            }
+        }
+    }
+}
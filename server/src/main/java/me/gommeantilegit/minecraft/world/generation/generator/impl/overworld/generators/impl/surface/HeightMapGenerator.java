@@ -19,8 +19,11 @@ public class HeightMapGenerator {
         this.noiseValuesGenerator = new NoiseValuesGenerator(worldSeed);
     }
 
+    /**
+     * @return the density noise values to be assembled by {@link #assembleHeightmap(List, double[], double[], int, int, int)}
+     */
     @NotNull
-    public double[] generateHeightmap(int scaleFactor, @NotNull double[] temperaturesFlat, @NotNull double[] humidityValuesFlat, int x, int z, int width, int height, int depth) {
+    public List<double[]> generateHeightmapNoise(int scaleFactor, int x, int z, int width, int height, int depth) {
         x /= 16;
         z /= 16;
 
@@ -28,8 +31,11 @@ public class HeightMapGenerator {
         double const1 = 684.41200000000003D;
         double const2 = 684.41200000000003D;
 
-        List<double[]> noise = this.noiseValuesGenerator.generateNoise(x * scaleFactor, 0, z * scaleFactor, width, height, depth, const1, const2);
+        return this.noiseValuesGenerator.generateNoise(x * scaleFactor, 0, z * scaleFactor, width, height, depth, const1, const2);
+    }
 
+    @NotNull
+    public double[] assembleHeightmap(@NotNull List<double[]> noise, @NotNull double[] temperaturesFlat, @NotNull double[] humidityValuesFlat, int width, int height, int depth) {
         double[] heightmapFlat = MinecraftHeightmapAssembler.assembleHeightmap(width, height, depth, temperaturesFlat, humidityValuesFlat,
                 noise.get(0), noise.get(1), noise.get(2), noise.get(3), noise.get(4));
 //        return ArrayUtils.unFlattenXZY(heightmapFlat, width, height, depth); // TODO: maybe change component ordering if something is off
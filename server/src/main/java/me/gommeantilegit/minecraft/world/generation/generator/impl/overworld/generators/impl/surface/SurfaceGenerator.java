@@ -2,23 +2,36 @@ package me.gommeantilegit.minecraft.world.generation.generator.impl.overworld.ge
 
 import me.gommeantilegit.minecraft.block.Block;
 import me.gommeantilegit.minecraft.block.Blocks;
-import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
-import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
-import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
-import me.gommeantilegit.minecraft.world.generation.generator.api.IBlockGenerator;
+import me.gommeantilegit.minecraft.block.access.IWritableBlockStateAccess;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.world.generation.generator.api.GenerationStage;
 import me.gommeantilegit.minecraft.world.generation.noise.minecraft.BiomeNoiseApplier;
 import me.gommeantilegit.minecraft.world.generation.noise.minecraft.MinecraftHeightmapApplier;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
 
-public class SurfaceGenerator implements IBlockGenerator {
+/**
+ * Generates the terrain of a 16 by 16 block column (the size of a minecraft chunk) in the stages {@link GenerationStage#NOISE}, {@link GenerationStage#HEIGHTMAP} and {@link GenerationStage#SURFACE}.
+ * The generator only holds the world seeded noise generators, which are not modified by generation. All intermediate results are passed between the stages,
+ * so that columns can be generated concurrently.
+ */
+public class SurfaceGenerator {
+
+    /**
+     * The size of a column on the x and z axis
+     */
+    public static final int COLUMN_SIZE = 16;
+
+    /**
+     * The height of the generated terrain. 128 because of beta height limit and not breaking flat array indexing
+     */
+    public static final int TOP_Y = 128;
+
+    // Minecraft constants
+    private static final int SCALE_FACTOR = 4;
+    private static final int NOISE_WIDTH = SCALE_FACTOR + 1, NOISE_HEIGHT = 17, NOISE_DEPTH = SCALE_FACTOR + 1;
 
     @NotNull
     private final HeightMapGenerator heightMapGenerator;
@@ -29,65 +42,105 @@ public class SurfaceGenerator implements IBlockGenerator {
     @NotNull
     private final HumidityGenerator humidityGenerator;
 
-
-//    @NotNull
-//    private final ForkJoinPool chunkEmulationTaskPool = new ForkJoinPool();
-
     public SurfaceGenerator(long worldSeed) {
         this.heightMapGenerator = new HeightMapGenerator(worldSeed);
         this.temperatureGenerator = new TemperatureGenerator(worldSeed);
         this.humidityGenerator = new HumidityGenerator(worldSeed);
     }
 
-    @Override
-    public void generateBlocks(@NotNull Random random, @NotNull ChunkBase chunk, @NotNull Blocks blocks) {
-        Vec2i origin = chunk.getChunkOrigin();
-
-//        List<ForkJoinTask<?>> tasks = new ArrayList<>((ChunkBase.CHUNK_SIZE * ChunkBase.CHUNK_SIZE) / (16 * 16));
-        for (int chunkX = origin.getX(); chunkX < chunk.getX() + ChunkBase.CHUNK_SIZE; chunkX += 16) {
-            for (int chunkZ = origin.getY(); chunkZ < chunk.getZ() + ChunkBase.CHUNK_SIZE; chunkZ += 16) {
-                final int finalChunkX = chunkX, finalChunkZ = chunkZ;
-//                ForkJoinTask<?> task = chunkEmulationTaskPool.submit(() -> emulateMinecraftChunkSize(blocks, finalChunkX, finalChunkZ, chunk));
-//                tasks.add(task);
-                emulateMinecraftChunkSize(blocks, finalChunkX, finalChunkZ, chunk);
-            }
-        }
-//        for (ForkJoinTask<?> task : tasks) {
-//            try {
-//                task.get();
-//            } catch (InterruptedException | ExecutionException e) {
-//                throw new RuntimeException(e);
-//            }
-//        }
+    /**
+     * {@link GenerationStage#NOISE} stage. Evaluates the noise functions for the column.
+     *
+     * @param startX the world x coordinate of the column. Must be a multiple of {@link #COLUMN_SIZE}
+     * @param startZ the world z coordinate of the column. Must be a multiple of {@link #COLUMN_SIZE}
+     * @return the noise values of the column
+     */
+    @NotNull
+    public ColumnNoise generateNoise(int startX, int startZ) {
+        double[] temperaturesFlat = this.temperatureGenerator.getTemperatures(startX, startZ, COLUMN_SIZE, COLUMN_SIZE);
+        // also adjusts the temperatures
+        double[] humidityValuesFlat = this.humidityGenerator.getHumidityValues(temperaturesFlat, startX, startZ, COLUMN_SIZE, COLUMN_SIZE);
+        List<double[]> heightmapNoise = this.heightMapGenerator.generateHeightmapNoise(SCALE_FACTOR, startX, startZ, NOISE_WIDTH, NOISE_HEIGHT, NOISE_DEPTH);
+        List<double[]> biomeBasedNoise = this.heightMapGenerator.generateBiomeBasedNoise(startX, startZ);
+        return new ColumnNoise(startX, startZ, temperaturesFlat, humidityValuesFlat, heightmapNoise, biomeBasedNoise);
     }
 
-    private void emulateMinecraftChunkSize(@NotNull Blocks blocks, int startX, int startZ, ChunkBase chunk) {
-        // Minecraft constants
-        int const1 = 4;
-        int width = const1 + 1, height = 17, depth = const1 + 1;
-
-        double[] temperaturesFlat = this.temperatureGenerator.getTemperatures(startX, startZ, 16, 16);
-        double[] humidityValuesFlat = this.humidityGenerator.getHumidityValues(temperaturesFlat, startX, startZ, 16, 16);
+    /**
+     * {@link GenerationStage#HEIGHTMAP} stage. Assembles the height map of the column and fills the terrain below it.
+     *
+     * @param blocks the blocks instance
+     * @param noise  the noise of the column
+     * @return the blocks of the column. Block (x, y, z) is stored at index {@code x * TOP_Y * COLUMN_SIZE + z * TOP_Y + y}
+     */
+    @NotNull
+    public Block[] generateHeightmap(@NotNull Blocks blocks, @NotNull ColumnNoise noise) {
+        double[] heightmapFlat = this.heightMapGenerator.assembleHeightmap(noise.heightmapNoise, noise.temperatures, noise.humidityValues, NOISE_WIDTH, NOISE_HEIGHT, NOISE_DEPTH);
+        return MinecraftHeightmapApplier.heightmapToBlocksFlat(blocks, SCALE_FACTOR, COLUMN_SIZE, TOP_Y, COLUMN_SIZE, NOISE_WIDTH, NOISE_HEIGHT, NOISE_DEPTH, heightmapFlat, noise.temperatures);
+    }
 
-        double[] heightmapFlat = this.heightMapGenerator.generateHeightmap(const1, temperaturesFlat, humidityValuesFlat, startX, startZ, width, height, depth);
-        List<double[]> biomeBasedNoise = this.heightMapGenerator.generateBiomeBasedNoise(startX, startZ);
+    /**
+     * {@link GenerationStage#SURFACE} stage. Replaces the top layers of the terrain with surface blocks.
+     *
+     * @param random     the random instance of the surface stage of the column
+     * @param blocks     the blocks instance
+     * @param noise      the noise of the column
+     * @param blocksFlat the blocks of the column created by {@link #generateHeightmap(Blocks, ColumnNoise)}. Modified in place.
+     */
+    public void generateSurface(@NotNull Random random, @NotNull Blocks blocks, @NotNull ColumnNoise noise, @NotNull Block[] blocksFlat) {
+        BiomeNoiseApplier.applyBiomeNoise(random, blocks, noise.biomeBasedNoise, blocksFlat);
+    }
 
-        // 128 because of beta height limit and not breaking flat array indexing
-        int topY = 128;
-        Block[] blocksFlat = MinecraftHeightmapApplier.heightmapToBlocksFlat(blocks, const1, 16, topY, 16, width, height, depth, heightmapFlat, temperaturesFlat);
-        Random chunkRandom = new Random((long) (startX / 16) * 0x4f9939f508L + (long) (startZ / 16) * 0x1ef1565bd5L);
-        BiomeNoiseApplier.applyBiomeNoise(chunkRandom, blocks, biomeBasedNoise, blocksFlat);
-
-        for (int x = 0; x < 16; x++) {
-            for (int y = 0; y < topY; y++) {
-                for (int z = 0; z < 16; z++) {
-                    Block block = blocksFlat[(x) * (topY * 16) + (z) * topY + (y)];
-                    if (block == null)
-                        continue;
-                    chunk.writeBlockChange(startX + x - chunk.getX(), y, startZ + z - chunk.getZ(), block.getDefaultBlockState());
-                }
-            }
+    /**
+     * Writes the blocks of the column into the chunk in one bulk write.
+     * The column block array is already laid out in columns along the y axis, so it is converted to block states without reordering.
+     *
+     * @param blockAccess chunk relative block access of the chunk
+     * @param chunkX      the x coordinate of the chunk origin
+     * @param chunkZ      the z coordinate of the chunk origin
+     * @param noise       the noise of the column
+     * @param blocksFlat  the blocks of the column
+     */
+    public void writeColumn(@NotNull IWritableBlockStateAccess blockAccess, int chunkX, int chunkZ, @NotNull ColumnNoise noise, @NotNull Block[] blocksFlat) {
+        IBlockState[] blockStates = new IBlockState[COLUMN_SIZE * TOP_Y * COLUMN_SIZE];
+        for (int i = 0; i < blockStates.length; i++) {
+            Block block = blocksFlat[i];
+            if (block != null)
+                blockStates[i] = block.getDefaultBlockState();
         }
+        blockAccess.setBlockStates(noise.startX - chunkX, 0, noise.startZ - chunkZ, COLUMN_SIZE, TOP_Y, COLUMN_SIZE, blockStates);
     }
 
+    /**
+     * The result of the {@link GenerationStage#NOISE} stage of a column
+     */
+    public static class ColumnNoise {
+
+        /**
+         * The world coordinates of the column
+         */
+        private final int startX, startZ;
+
+        @NotNull
+        private final double[] temperatures, humidityValues;
+
+        @NotNull
+        private final List<double[]> heightmapNoise, biomeBasedNoise;
+
+        private ColumnNoise(int startX, int startZ, @NotNull double[] temperatures, @NotNull double[] humidityValues, @NotNull List<double[]> heightmapNoise, @NotNull List<double[]> biomeBasedNoise) {
+            this.startX = startX;
+            this.startZ = startZ;
+            this.temperatures = temperatures;
+            this.humidityValues = humidityValues;
+            this.heightmapNoise = heightmapNoise;
+            this.biomeBasedNoise = biomeBasedNoise;
+        }
+
+        public int getStartX() {
+            return startX;
+        }
+
+        public int getStartZ() {
+            return startZ;
+        }
+    }
 }
@@ -0,0 +1,245 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.Side;
+import me.gommeantilegit.minecraft.annotations.SideOnly;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A file storing the serialized data of {@link #REGION_SIZE} by {@link #REGION_SIZE} chunks.
+ * The file starts with a header of {@link #REGION_SIZE}² (offset, length) entries (one per chunk) followed by the chunk data aligned to sectors of {@link #SECTOR_SIZE} bytes.
+ * An entry with an offset of 0 indicates that the chunk is not stored in the region.
+ * Chunk data is never overwritten in place. New data is written into free sectors before the header entry is updated, so that a write interrupted by a crash leaves the previous data intact.
+ */
+@SideOnly(side = Side.SERVER)
+public class RegionFile implements Closeable {
+
+    /**
+     * The number of chunks on the x and z axis that a region file stores
+     */
+    public static final int REGION_SIZE = 16;
+
+    /**
+     * The size of a sector in bytes. Chunk data always starts at the beginning of a sector.
+     */
+    private static final int SECTOR_SIZE = 4096;
+
+    /**
+     * The size of a header entry in bytes. (int sector offset + int byte length)
+     */
+    private static final int HEADER_ENTRY_SIZE = Integer.BYTES * 2;
+
+    /**
+     * The number of sectors occupied by the header
+     */
+    private static final int HEADER_SECTORS = (REGION_SIZE * REGION_SIZE * HEADER_ENTRY_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    /**
+     * The file channel of the region file
+     */
+    @NotNull
+    private final FileChannel channel;
+
+    /**
+     * The sector offsets of the chunks stored in the region. Indexed by {@link #getLocalIndex(int, int)}
+     */
+    @NotNull
+    private final int[] sectorOffsets = new int[REGION_SIZE * REGION_SIZE];
+
+    /**
+     * The byte lengths of the chunks stored in the region. Indexed by {@link #getLocalIndex(int, int)}
+     */
+    @NotNull
+    private final int[] lengths = new int[REGION_SIZE * REGION_SIZE];
+
+    /**
+     * The sectors in use by the header and the stored chunks. Built from the header when the file is opened.
+     * Guarded by {@link #lock}.
+     */
+    @NotNull
+    private final BitSet usedSectors = new BitSet();
+
+    /**
+     * Readers hold the read lock while reading chunk data, so that the sectors they read are not freed and reused by a concurrent write.
+     * Guards {@link #sectorOffsets}, {@link #lengths} and {@link #usedSectors}.
+     */
+    @NotNull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Opens or creates the region file
+     *
+     * @param file the file to store the region in
+     * @throws IOException if reading the header fails
+     */
+    public RegionFile(@NotNull File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.usedSectors.set(0, HEADER_SECTORS);
+        if (this.channel.size() < (long) HEADER_SECTORS * SECTOR_SIZE) {
+            // new file -> writing an empty header
+            writeFully(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE), 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(REGION_SIZE * REGION_SIZE * HEADER_ENTRY_SIZE);
+            readFully(header, 0);
+            header.flip();
+            for (int i = 0; i < this.sectorOffsets.length; i++) {
+                int sectorOffset = header.getInt();
+                int length = header.getInt();
+                this.sectorOffsets[i] = sectorOffset;
+                this.lengths[i] = length;
+                if (sectorOffset != 0) {
+                    this.usedSectors.set(sectorOffset, sectorOffset + getNumSectors(length));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param localX the chunk x index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @param localZ the chunk z index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @return true if the region stores data for the given chunk
+     */
+    @ThreadSafe
+    public boolean containsChunk(int localX, int localZ) {
+        this.lock.readLock().lock();
+        try {
+            return this.sectorOffsets[getLocalIndex(localX, localZ)] != 0;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the data of the given chunk with one positioned read
+     *
+     * @param localX the chunk x index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @param localZ the chunk z index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @return the chunk data or null, if the chunk is not stored in the region
+     * @throws IOException if reading fails
+     */
+    @Nullable
+    @ThreadSafe
+    public byte[] readChunk(int localX, int localZ) throws IOException {
+        int index = getLocalIndex(localX, localZ);
+        this.lock.readLock().lock();
+        try {
+            int sectorOffset = this.sectorOffsets[index];
+            if (sectorOffset == 0)
+                return null;
+            byte[] data = new byte[this.lengths[index]];
+            readFully(ByteBuffer.wrap(data), (long) sectorOffset * SECTOR_SIZE);
+            return data;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the data of the given chunk into the first free sectors it fits into, appending to the end of the file if there are none.
+     * The header entry is updated after the data has been written and the sectors previously used by the chunk are freed afterwards.
+     *
+     * @param localX the chunk x index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @param localZ the chunk z index inside the region (0 to {@link #REGION_SIZE} - 1)
+     * @param data   the chunk data
+     * @throws IOException if writing fails
+     */
+    @ThreadSafe
+    public void writeChunk(int localX, int localZ, @NotNull byte[] data) throws IOException {
+        int index = getLocalIndex(localX, localZ);
+        this.lock.writeLock().lock();
+        try {
+            int numSectors = getNumSectors(data.length);
+            int sectorOffset = findFreeSectors(numSectors);
+            this.usedSectors.set(sectorOffset, sectorOffset + numSectors);
+            try {
+                writeFully(ByteBuffer.wrap(data), (long) sectorOffset * SECTOR_SIZE);
+
+                // Updating the header entry after the data has been written
+                ByteBuffer entry = ByteBuffer.allocate(HEADER_ENTRY_SIZE);
+                entry.putInt(sectorOffset);
+                entry.putInt(data.length);
+                entry.flip();
+                writeFully(entry, (long) index * HEADER_ENTRY_SIZE);
+            } catch (IOException e) {
+                this.usedSectors.clear(sectorOffset, sectorOffset + numSectors);
+                throw e;
+            }
+
+            // Freeing the previous sectors of the chunk after the header entry points to the new ones
+            int previousOffset = this.sectorOffsets[index];
+            if (previousOffset != 0)
+                this.usedSectors.clear(previousOffset, previousOffset + getNumSectors(this.lengths[index]));
+
+            this.sectorOffsets[index] = sectorOffset;
+            this.lengths[index] = data.length;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param numSectors the number of consecutive sectors needed
+     * @return the first sector of the first run of free sectors of the given length. Sectors after the end of the file are free.
+     */
+    private int findFreeSectors(int numSectors) {
+        int start = this.usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int end = this.usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= numSectors)
+                return start;
+            start = this.usedSectors.nextClearBit(end);
+        }
+    }
+
+    /**
+     * Forces written chunk data onto the storage device
+     *
+     * @throws IOException if flushing fails
+     */
+    @ThreadSafe
+    public void flush() throws IOException {
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void readFully(@NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, position);
+            if (read == -1)
+                throw new EOFException("Region file ended unexpectedly at position " + position);
+            position += read;
+        }
+    }
+
+    private void writeFully(@NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+
+    private static int getNumSectors(int length) {
+        return Math.max(1, (length + SECTOR_SIZE - 1) / SECTOR_SIZE);
+    }
+
+    private static int getLocalIndex(int localX, int localZ) {
+        if (localX < 0 || localX >= REGION_SIZE || localZ < 0 || localZ >= REGION_SIZE)
+            throw new IllegalArgumentException("Chunk index (" + localX + ", " + localZ + ") out of region bounds");
+        return localX + localZ * REGION_SIZE;
+    }
+}
@@ -0,0 +1,189 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.Side;
+import me.gommeantilegit.minecraft.annotations.SideOnly;
+import me.gommeantilegit.minecraft.annotations.ThreadSafe;
+import me.gommeantilegit.minecraft.annotations.Unsafe;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter.decompressFragments;
+import static me.gommeantilegit.minecraft.world.saveformat.RegionFile.REGION_SIZE;
+
+/**
+ * Stores chunks in {@link RegionFile}s.
+ * A stored chunk consists of it's {@link WorldLoader.ChunkInfo} followed by the individually compressed fragments created by {@link ChunkFragmenter#fragmentChunkCompressed}.
+ */
+@SideOnly(side = Side.SERVER)
+public class RegionFileStorage implements Closeable {
+
+    /**
+     * The file extension of region files
+     */
+    @NotNull
+    private static final String REGION_FILE_EXT = ".mcr";
+
+    /**
+     * Serializes the block states of the chunks
+     */
+    @NotNull
+    private final ChunkFragmenter chunkFragmenter;
+
+    /**
+     * The blocks instance providing the block state palettes
+     */
+    @NotNull
+    private final Blocks blocks;
+
+    /**
+     * The directory containing the region files
+     */
+    @NotNull
+    private final File regionDirectory;
+
+    /**
+     * The opened region files. Key: {@link Vec2i#hash64(int, int)} of the region coordinates
+     */
+    @NotNull
+    private final Map<Long, RegionFile> regionFiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param chunkFragmenter sets {@link #chunkFragmenter}
+     * @param blocks          sets {@link #blocks}
+     * @param regionDirectory sets {@link #regionDirectory}
+     */
+    public RegionFileStorage(@NotNull ChunkFragmenter chunkFragmenter, @NotNull Blocks blocks, @NotNull File regionDirectory) {
+        this.chunkFragmenter = chunkFragmenter;
+        this.blocks = blocks;
+        this.regionDirectory = regionDirectory;
+    }
+
+    /**
+     * Serializes the block states of the chunk and writes them into it's region file.
+     *
+     * @param chunk the chunk to save
+     * @throws IOException if writing fails
+     */
+    @ThreadSafe
+    public void saveChunk(@NotNull ChunkBase chunk) throws IOException {
+        ByteArrayOutputStream fragmentStream = new ByteArrayOutputStream();
+        BitSet savedFragments = this.chunkFragmenter.fragmentChunkCompressed(chunk.getBlockStatePalette(), chunk, fragmentStream);
+        byte[] chunkData = fragmentStream.toByteArray();
+        byte[] savedFragmentsBytes = savedFragments.toByteArray();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(chunkData.length + savedFragmentsBytes.length + Integer.BYTES * 5);
+        DataOutputStream dataOut = new DataOutputStream(bos);
+        dataOut.writeInt(chunk.getX());
+        dataOut.writeInt(chunk.getZ());
+        dataOut.writeInt(this.blocks.getPaletteVersion());
+        dataOut.writeInt(savedFragmentsBytes.length);
+        dataOut.write(savedFragmentsBytes);
+        dataOut.writeInt(chunkData.length);
+        dataOut.write(chunkData);
+        dataOut.flush();
+
+        Objects.requireNonNull(getRegionFile(chunk.getX(), chunk.getZ(), true)).writeChunk(getLocalX(chunk.getX()), getLocalZ(chunk.getZ()), bos.toByteArray());
+    }
+
+    /**
+     * Restores the block states of the chunk from it's region file.
+     * Must be called before the chunk is accessible to other threads.
+     *
+     * @param chunk the chunk to restore
+     * @return true if the chunk was stored and has been restored, false if the chunk is not stored.
+     * @throws IOException if reading fails
+     */
+    @Unsafe
+    public boolean restoreChunk(@NotNull ChunkBase chunk) throws IOException {
+        RegionFile regionFile = getRegionFile(chunk.getX(), chunk.getZ(), false);
+        if (regionFile == null)
+            return false;
+        byte[] data = regionFile.readChunk(getLocalX(chunk.getX()), getLocalZ(chunk.getZ()));
+        if (data == null)
+            return false;
+
+        DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(data));
+        Vec2i origin = new Vec2i(dataIn.readInt(), dataIn.readInt());
+        int paletteVersion = dataIn.readInt();
+        byte[] savedFragmentsBytes = new byte[dataIn.readInt()];
+        dataIn.readFully(savedFragmentsBytes);
+        WorldLoader.ChunkInfo info = new WorldLoader.ChunkInfo(origin, paletteVersion, BitSet.valueOf(savedFragmentsBytes));
+        if (info.getOrigin().getX() != chunk.getX() || info.getOrigin().getY() != chunk.getZ())
+            throw new IOException("Region file stores chunk (" + info.getOrigin().getX() + ", " + info.getOrigin().getY() + ") at the position of chunk (" + chunk.getX() + ", " + chunk.getZ() + ")");
+
+        byte[] chunkData = new byte[dataIn.readInt()];
+        dataIn.readFully(chunkData);
+
+        this.chunkFragmenter.deFragmentChunk(chunk, this.blocks.getPalette(info.getPaletteVersion()), decompressFragments(chunkData, info.getSavedFragments()), info.getSavedFragments());
+        return true;
+    }
+
+    /**
+     * Forces all written chunk data of the opened region files onto the storage device
+     *
+     * @throws IOException if flushing fails
+     */
+    @ThreadSafe
+    public void flush() throws IOException {
+        for (RegionFile regionFile : this.regionFiles.values()) {
+            regionFile.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RegionFile regionFile : this.regionFiles.values()) {
+            regionFile.close();
+        }
+        this.regionFiles.clear();
+    }
+
+    /**
+     * @param chunkX the chunk origin x coordinate
+     * @param chunkZ the chunk origin z coordinate
+     * @param create true if the region file should be created, if it does not exist
+     * @return the region file containing the chunk or null, if the region file does not exist and create is false
+     */
+    @Nullable
+    private RegionFile getRegionFile(int chunkX, int chunkZ, boolean create) throws IOException {
+        int regionX = Math.floorDiv(chunkX / CHUNK_SIZE, REGION_SIZE);
+        int regionZ = Math.floorDiv(chunkZ / CHUNK_SIZE, REGION_SIZE);
+        long key = Vec2i.hash64(regionX, regionZ);
+        RegionFile regionFile = this.regionFiles.get(key);
+        if (regionFile != null)
+            return regionFile;
+        synchronized (this.regionFiles) {
+            regionFile = this.regionFiles.get(key);
+            if (regionFile == null) {
+                File file = new File(this.regionDirectory, "r." + regionX + "." + regionZ + REGION_FILE_EXT);
+                if (!file.exists()) {
+                    if (!create)
+                        return null;
+                    if (!this.regionDirectory.exists() && !this.regionDirectory.mkdirs())
+                        throw new IOException("Failed to create region directory " + this.regionDirectory.getPath());
+                }
+                regionFile = new RegionFile(file);
+                this.regionFiles.put(key, regionFile);
+            }
+            return regionFile;
+        }
+    }
+
+    private static int getLocalX(int chunkX) {
+        return Math.floorMod(chunkX / CHUNK_SIZE, REGION_SIZE);
+    }
+
+    private static int getLocalZ(int chunkZ) {
+        return Math.floorMod(chunkZ / CHUNK_SIZE, REGION_SIZE);
+    }
+}
@@ -1,6 +1,7 @@
 package me.gommeantilegit.minecraft.world.saveformat;
 
 import com.badlogic.gdx.math.Vector3;
+import com.google.gson.Gson;
 import me.gommeantilegit.minecraft.ServerMinecraft;
 import me.gommeantilegit.minecraft.Side;
 import me.gommeantilegit.minecraft.annotations.SideOnly;
@@ -8,8 +9,6 @@ import me.gommeantilegit.minecraft.gmcdata.GMC;
 import me.gommeantilegit.minecraft.gmcdata.SerializedProperty;
 import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
 import me.gommeantilegit.minecraft.world.ServerWorld;
-import me.gommeantilegit.minecraft.world.WorldBase;
-import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
 import me.gommeantilegit.minecraft.world.generation.generator.WorldGenerator;
 import me.gommeantilegit.minecraft.world.generation.generator.options.WorldGenerationOptions;
 import org.jetbrains.annotations.NotNull;
@@ -20,6 +19,18 @@ import java.util.BitSet;
 @SideOnly(side = Side.SERVER)
 public class WorldLoader {
 
+    /**
+     * The name of the file containing the serialized {@link WorldGenerationOptions}
+     */
+    @NotNull
+    static final String WORLD_GEN_OPTIONS_FILE_NAME = "world_gen_options.json";
+
+    /**
+     * The name of the file containing the serialized {@link WorldOptions}
+     */
+    @NotNull
+    static final String WORLD_OPTIONS_FILE_NAME = "world_options.gmc";
+
     @NotNull
     private final ServerMinecraft mc;
 
@@ -41,14 +52,14 @@ public class WorldLoader {
     @NotNull
     private final File worldOptionsFile;
 
-    /**
-     * The directory storing chunks data
-     */
     @NotNull
-    private final File chunksDirectory;
+    private final GMC gmc = new GMC();
 
+    /**
+     * The gson instance used to read the world generation options
+     */
     @NotNull
-    private final GMC gmc = new GMC();
+    private static final Gson gson = new Gson();
 
     /**
      * @param worldDir the world directory
@@ -57,9 +68,8 @@ public class WorldLoader {
     public WorldLoader(@NotNull File worldDir, @NotNull ServerMinecraft mc) {
         this.mc = mc;
         this.worldDir = worldDir;
-        this.worldGenOptionsFile = new File(worldDir, "world_gen_options.gmc");
-        this.worldOptionsFile = new File(worldDir, "world_options.gmc");
-        this.chunksDirectory = new File(worldDir, "chunks");
+        this.worldGenOptionsFile = new File(worldDir, WORLD_GEN_OPTIONS_FILE_NAME);
+        this.worldOptionsFile = new File(worldDir, WORLD_OPTIONS_FILE_NAME);
     }
 
     /**
@@ -67,65 +77,19 @@ public class WorldLoader {
      */
     @NotNull
     public ServerWorld loadWorld() throws IOException {
-        WorldGenerationOptions generationOptions = this.gmc.fromGMC(new BufferedInputStream(new FileInputStream(this.worldGenOptionsFile)), WorldGenerationOptions.class);
-        WorldOptions worldOptions = this.gmc.fromGMC(new BufferedInputStream(new FileInputStream(this.worldOptionsFile)), WorldOptions.class);
+        WorldGenerationOptions generationOptions;
+        try (Reader reader = new BufferedReader(new FileReader(this.worldGenOptionsFile))) {
+            generationOptions = gson.fromJson(reader, WorldGenerationOptions.class);
+        }
+        WorldOptions worldOptions;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(this.worldOptionsFile))) {
+            worldOptions = this.gmc.fromGMC(in, WorldOptions.class);
+        }
         ServerWorld world = new ServerWorld(this.mc, new WorldGenerator(mc, generationOptions), this.worldDir, worldOptions.getHeight(), this.mc.getBlocks().getGlobalPalette());
         world.setSpawnPoint(worldOptions.getSpawnPoint());
-        world.addOnChunkCreationListener(WorldLoader.this::onChunkCreation);
         return world;
     }
 
-    /**
-     * Called on chunk creation
-     * Restores the chunk to it's saved state
-     *
-     * @param chunk the given chunk
-     */
-    private void onChunkCreation(@NotNull ChunkBase chunk) {
-        ChunkInfo info = getChunkInfo(chunk);
-        BitSet savedFragments = info.getSavedFragments();
-        //TODO: IMPLEMENT SAVING LOGIC
-    }
-
-    @NotNull
-    private ChunkInfo getChunkInfo(@NotNull ChunkBase chunk) {
-        File chunkDirectory = getChunkDirectory(chunk);
-        if (!chunkDirectory.exists())
-            throw new RuntimeException(new FileNotFoundException("Chunk file " + chunkDirectory.getPath() + " not found, after requested to restored it's saved state."));
-        File chunkInfoFile = getChunkInfoFile(chunkDirectory);
-        if (!chunkInfoFile.exists())
-            throw new RuntimeException(new FileNotFoundException("Chunk info file " + chunkInfoFile.getPath() + " not found, after requested to restored it's saved state."));
-        try {
-            return this.gmc.fromGMC(new BufferedInputStream(new FileInputStream(chunkInfoFile)), ChunkInfo.class);
-        } catch (IOException e) {
-            throw new RuntimeException("ChunkInfo file magically disappeared", e);
-        }
-    }
-
-    @NotNull
-    private File getChunkInfoFile(@NotNull File chunkDirectory) {
-        return new File(chunkDirectory, "chunk_info.json");
-    }
-
-    @NotNull
-    private File getChunkDataFile(@NotNull File chunkDirectory) {
-        return new File(chunkDirectory, "block_storage.bsa");
-    }
-
-    @NotNull
-    private File getChunkDirectory(@NotNull ChunkBase chunk) {
-        return new File(this.chunksDirectory, "chunk_" + chunk.getX() + "_" + chunk.getZ());
-    }
-
-    /**
-     * @param world the world instance
-     * @param chunk the given chunk
-     * @return true if terrain generation should be invoked for the given chunk
-     */
-    private boolean shouldInvokedTerrainGeneration(@NotNull WorldBase world, @NotNull ChunkBase chunk) {
-        return !world.getWorldChunkHandler().chunkExistsAtOrigin(chunk.getChunkOrigin());
-    }
-
     public static class WorldOptions {
 
         @NotNull
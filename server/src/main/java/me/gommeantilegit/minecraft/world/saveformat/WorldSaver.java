@@ -1,9 +1,14 @@
 package me.gommeantilegit.minecraft.world.saveformat;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import me.gommeantilegit.minecraft.gmcdata.GMC;
 import me.gommeantilegit.minecraft.world.ServerWorld;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.ServerChunk;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
+import java.io.*;
 
 public class WorldSaver {
 
@@ -19,6 +24,15 @@ public class WorldSaver {
     @NotNull
     private final File worldDirectory;
 
+    @NotNull
+    private final GMC gmc = new GMC();
+
+    /**
+     * The gson instance used to write the world generation options
+     */
+    @NotNull
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
     /**
      * @param world sets {@link #world}
      */
@@ -32,7 +46,45 @@ public class WorldSaver {
         return world;
     }
 
+    /**
+     * Saves the world options and all chunks that have been modified since they were last saved.
+     */
     public void saveAllChunks() {
+        try {
+            saveWorldOptions();
+            RegionFileStorage storage = this.world.getRegionFileStorage();
+            int nSaved = 0;
+            for (ChunkBase chunk : this.world.getWorldChunkHandler().collectChunks()) {
+                if (!chunk.isDirty() || (chunk instanceof ServerChunk && !((ServerChunk) chunk).isWorldGenerationFinished()))
+                    continue;
+                // Resetting before serialization, so that changes made while saving mark the chunk dirty again
+                chunk.setDirty(false);
+                try {
+                    storage.saveChunk(chunk);
+                    nSaved++;
+                } catch (IOException e) {
+                    chunk.setDirty(true);
+                    throw e;
+                }
+            }
+            storage.flush();
+            this.world.mc.getLogger().info("Saved " + nSaved + " modified chunks");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save world " + this.worldDirectory.getPath(), e);
+        }
+    }
 
+    /**
+     * Writes the {@link WorldLoader.WorldOptions} and the world generation options of the world into the world directory.
+     */
+    private void saveWorldOptions() throws IOException {
+        if (!this.worldDirectory.exists() && !this.worldDirectory.mkdirs())
+            throw new IOException("Failed to create world directory " + this.worldDirectory.getPath());
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(this.worldDirectory, WorldLoader.WORLD_OPTIONS_FILE_NAME)))) {
+            this.gmc.toGMC(out, new WorldLoader.WorldOptions(this.world.getSpawnPoint(), this.world.getHeight()));
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(new File(this.worldDirectory, WorldLoader.WORLD_GEN_OPTIONS_FILE_NAME)))) {
+            gson.toJson(this.world.getWorldGenerator().getWorldGenerationOptions(), writer);
+        }
     }
 }
@@ -0,0 +1,85 @@
+package me.gommeantilegit.minecraft.entity.player;
+
+import com.badlogic.gdx.math.Vector3;
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.util.block.position.BlockPos;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collection;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the server side reach validation of {@link EntityPlayerMP#canReachBlock(BlockPos)}
+ */
+public class EntityPlayerMPTest {
+
+    private static final int HEIGHT = CHUNK_SIZE;
+
+    /**
+     * The eyes of the player looking along the x axis
+     */
+    private static final Vector3 EYES = new Vector3(2.5f, 5.5f, 8.5f);
+
+    private static TestWorld world;
+
+    @BeforeClass
+    public static void setUp() {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        world = new TestWorld(blocks.getGlobalPalette());
+        ChunkBase chunk = new ChunkBase(HEIGHT, 0, 0, world, blocks.getGlobalPalette()) {
+        };
+        chunk.writeBlockChange(5, 5, 8, blocks.stone.getDefaultBlockState()); // reachable
+        chunk.writeBlockChange(5, 5, 10, blocks.stone.getDefaultBlockState()); // occluder in front of the block behind it
+        chunk.writeBlockChange(6, 5, 11, blocks.stone.getDefaultBlockState()); // occluded
+        chunk.writeBlockChange(2, 5, 15, blocks.stone.getDefaultBlockState()); // out of range
+        world.getWorldChunkHandler().addChunk(chunk);
+    }
+
+    @Test
+    public void reachableBlockCanBeReached() {
+        assertTrue(EntityPlayerMP.canReachBlock(world, EYES, new BlockPos(5, 5, 8)));
+    }
+
+    @Test
+    public void occludedBlockCannotBeReached() {
+        assertTrue(EntityPlayerMP.canReachBlock(world, EYES, new BlockPos(5, 5, 10)));
+        assertFalse(EntityPlayerMP.canReachBlock(world, EYES, new BlockPos(6, 5, 11)));
+    }
+
+    @Test
+    public void blockOutOfRangeCannotBeReached() {
+        assertFalse(EntityPlayerMP.canReachBlock(world, EYES, new BlockPos(2, 5, 15)));
+        // in range once the player steps closer
+        assertTrue(EntityPlayerMP.canReachBlock(world, new Vector3(2.5f, 5.5f, 11.5f), new BlockPos(2, 5, 15)));
+    }
+
+    @Test
+    public void airCannotBeReached() {
+        assertFalse(EntityPlayerMP.canReachBlock(world, EYES, new BlockPos(3, 5, 8)));
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
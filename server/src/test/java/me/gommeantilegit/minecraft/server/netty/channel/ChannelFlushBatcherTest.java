@@ -0,0 +1,57 @@
+package me.gommeantilegit.minecraft.server.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ChannelFlushBatcherTest {
+
+    @Test
+    public void packetsAreFlushedOncePerTick() {
+        ChannelFlushBatcher batcher = new ChannelFlushBatcher(1024);
+        EmbeddedChannel channel = new EmbeddedChannel(batcher);
+        for (int tick = 0; tick < 10; tick++) {
+            for (int i = 0; i < 20; i++) {
+                channel.write(Unpooled.wrappedBuffer(new byte[10]));
+            }
+            assertTrue("packets have been flushed before the end of the tick", channel.outboundMessages().isEmpty());
+            channel.flush();
+            assertEquals(20, channel.outboundMessages().size());
+            releaseOutbound(channel);
+        }
+        assertEquals(10, batcher.getFlushes());
+        assertEquals(20, batcher.getPacketsPerFlush(), 0);
+        assertEquals(200, batcher.getBytesPerFlush(), 0);
+        channel.finish();
+    }
+
+    @Test
+    public void thresholdTriggersEarlyFlush() {
+        ChannelFlushBatcher batcher = new ChannelFlushBatcher(1024);
+        EmbeddedChannel channel = new EmbeddedChannel(batcher);
+        for (int i = 0; i < 4; i++) {
+            channel.write(Unpooled.wrappedBuffer(new byte[300]));
+        }
+        // the fourth packet exceeds the threshold
+        assertEquals(4, channel.outboundMessages().size());
+        assertEquals(1, batcher.getFlushes());
+        channel.write(Unpooled.wrappedBuffer(new byte[300]));
+        channel.flush();
+        channel.flush(); // nothing pending
+        assertEquals(2, batcher.getFlushes());
+        assertEquals(5, batcher.getFlushedPackets());
+        assertEquals(1500, batcher.getFlushedBytes());
+        releaseOutbound(channel);
+        channel.finish();
+    }
+
+    private static void releaseOutbound(EmbeddedChannel channel) {
+        ByteBuf buf;
+        while ((buf = channel.readOutbound()) != null) {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.gommeantilegit.minecraft.world;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
+import me.gommeantilegit.minecraft.world.chunk.ServerChunk;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.saveformat.ChunkCompression;
+import me.gommeantilegit.minecraft.world.saveformat.ChunkFragmenter;
+import me.gommeantilegit.minecraft.world.saveformat.RegionFileStorage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the eviction of chunks by {@link ServerWorld#evictChunks(int, long)}
+ */
+public class ServerWorldTest {
+
+    private static final int HEIGHT = 2 * CHUNK_SIZE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Blocks blocks;
+
+    private ServerWorld world;
+
+    @Before
+    public void setUp() throws IOException {
+        blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        File worldDirectory = folder.newFolder();
+        RegionFileStorage storage = new RegionFileStorage(new ChunkFragmenter(null, ChunkCompression.DEFAULT), blocks, new File(worldDirectory, "region"));
+        // chunks are created without terrain generation, so no world generator is needed
+        world = new ServerWorld(null, null, worldDirectory, HEIGHT, blocks.getGlobalPalette(), new BlockStateSemaphoreBase(1), storage);
+    }
+
+    @Test
+    public void evictedChunksAreRestored() throws IOException {
+        ServerChunk chunk = newGeneratedChunk(0, 0);
+        for (int y = 0; y < HEIGHT; y++) {
+            chunk.setRelativeBlockState(y % CHUNK_SIZE, y, 3, blocks.stone.getDefaultBlockState()); // queued, not yet applied
+        }
+        assertEquals(1, world.evictChunks(0, Long.MAX_VALUE));
+        assertNull(world.getWorldChunkHandler().getChunkAt(0, 0));
+        assertEquals(1, world.getWorldChunkHandler().getEvictedChunks());
+
+        ServerChunk restored = world.getChunkCreator().createChunk(new Vec2i(0, 0));
+        assertNotSame(chunk, restored);
+        assertTrue(restored.isWorldGenerationFinished());
+        assertFalse(restored.isDirty());
+        for (int y = 0; y < HEIGHT; y++) {
+            assertSame(blocks.stone.getDefaultBlockState(), restored.getRelativeBlockState(y % CHUNK_SIZE, y, 3));
+            assertNull(restored.getRelativeBlockState(y % CHUNK_SIZE, y, 4));
+        }
+    }
+
+    @Test
+    public void chunksInUseAreNotEvicted() throws IOException {
+        ServerChunk loaded = newGeneratedChunk(0, 0);
+        loaded.setLoaded(true);
+        ServerChunk ticketed = newGeneratedChunk(CHUNK_SIZE, 0);
+        synchronized (ticketed.getTicketLock()) {
+            ticketed.acquireTicket();
+        }
+        ServerChunk generating = world.getChunkCreator().createChunk(new Vec2i(2 * CHUNK_SIZE, 0));
+        ServerChunk holdingEntity = newGeneratedChunk(3 * CHUNK_SIZE, 0);
+        holdingEntity.forceAddEntity(new Entity(null));
+        ServerChunk receivingEntity = newGeneratedChunk(4 * CHUNK_SIZE, 0);
+        receivingEntity.scheduleAddEntity(new Entity(null)); // handed over by a neighbour, added on the next tick
+        ServerChunk unused = newGeneratedChunk(5 * CHUNK_SIZE, 0);
+
+        assertEquals(1, world.evictChunks(0, Long.MAX_VALUE));
+        assertNull(world.getWorldChunkHandler().getChunkAt(unused.getX(), unused.getZ()));
+        for (ServerChunk chunk : new ServerChunk[]{loaded, ticketed, generating, holdingEntity, receivingEntity}) {
+            assertSame(chunk, world.getWorldChunkHandler().getChunkAt(chunk.getX(), chunk.getZ()));
+        }
+
+        // no longer in use
+        synchronized (ticketed.getTicketLock()) {
+            ticketed.releaseTicket();
+        }
+        generating.setWorldGenerationFinished();
+        assertEquals(2, world.evictChunks(0, Long.MAX_VALUE));
+        assertNull(world.getWorldChunkHandler().getChunkAt(ticketed.getX(), ticketed.getZ()));
+        assertNull(world.getWorldChunkHandler().getChunkAt(generating.getX(), generating.getZ()));
+    }
+
+    /**
+     * @return a new chunk of the world, that is not being generated
+     */
+    @NotNull
+    private ServerChunk newGeneratedChunk(int x, int z) {
+        ServerChunk chunk = world.getChunkCreator().createChunk(new Vec2i(x, z));
+        chunk.setWorldGenerationFinished();
+        return chunk;
+    }
+}
@@ -0,0 +1,89 @@
+package me.gommeantilegit.minecraft.world.chunk.loader;
+
+import me.gommeantilegit.minecraft.packet.packets.server.ServerChunkDataPacket;
+import me.gommeantilegit.minecraft.util.math.vecmath.intvectors.Vec2i;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class ChunkSendQueueTest {
+
+    private static final int CHUNK_DATA_SIZE = 1000;
+
+    @NotNull
+    private static ServerChunkDataPacket createPacket(@NotNull Vec2i origin) {
+        return new ServerChunkDataPacket(null, origin.asLibGDXVec2D(), 128, new BitSet(), new byte[CHUNK_DATA_SIZE]);
+    }
+
+    /**
+     * Enqueues a request for the chunk and immediately prepares its packet
+     */
+    private static void request(@NotNull ChunkSendQueue queue, int chunkX, int chunkZ) {
+        Vec2i origin = new Vec2i(chunkX * CHUNK_SIZE, chunkZ * CHUNK_SIZE);
+        queue.enqueue(origin).getPacketFuture().complete(createPacket(origin));
+    }
+
+    @Test
+    public void sendsClosestChunksFirstWithinBudget() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        request(queue, 3, 0);
+        request(queue, 0, 1);
+        request(queue, -2, 0);
+        request(queue, 0, 0);
+        List<ServerChunkDataPacket> packets = queue.poll(new Vec2i(0, 0), 1000, 2 * CHUNK_DATA_SIZE);
+        assertEquals(2, packets.size());
+        assertEquals(0, (int) packets.get(0).getChunkOrigin().x);
+        assertEquals(0, (int) packets.get(0).getChunkOrigin().y);
+        assertEquals(CHUNK_SIZE, (int) packets.get(1).getChunkOrigin().y);
+
+        // the player moved towards the far chunk
+        packets = queue.poll(new Vec2i(3 * CHUNK_SIZE, 0), 1000, 2 * CHUNK_DATA_SIZE);
+        assertEquals(2, packets.size());
+        assertEquals(3 * CHUNK_SIZE, (int) packets.get(0).getChunkOrigin().x);
+        assertEquals(-2 * CHUNK_SIZE, (int) packets.get(1).getChunkOrigin().x);
+        assertTrue(queue.isEmpty());
+        assertEquals(4, queue.getSentPackets());
+    }
+
+    @Test
+    public void sendsOnePacketLargerThanBudget() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        request(queue, 0, 0);
+        request(queue, 1, 0);
+        assertEquals(1, queue.poll(new Vec2i(0, 0), 1000, 1).size());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void dropsUnloadedAndOutOfRangeRequests() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        request(queue, 0, 0);
+        request(queue, 1, 0);
+        request(queue, 10, 0);
+        ChunkSendQueue.Request pending = queue.enqueue(new Vec2i(0, CHUNK_SIZE)); // not prepared yet
+        assertTrue(queue.cancel(new Vec2i(CHUNK_SIZE, 0)));
+        assertTrue(queue.cancel(pending.getChunkOrigin()));
+        assertTrue(pending.isCancelled());
+
+        List<ServerChunkDataPacket> packets = queue.poll(new Vec2i(0, 0), 5 * CHUNK_SIZE, Long.MAX_VALUE);
+        assertEquals(1, packets.size());
+        assertEquals(0, (int) packets.get(0).getChunkOrigin().x);
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.getDroppedRequests());
+    }
+
+    @Test
+    public void waitsForPreparation() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        Vec2i origin = new Vec2i(0, 0);
+        ChunkSendQueue.Request request = queue.enqueue(origin);
+        assertTrue(queue.poll(origin, 1000, Long.MAX_VALUE).isEmpty());
+        request.getPacketFuture().complete(createPacket(origin));
+        assertEquals(1, queue.poll(origin, 1000, Long.MAX_VALUE).size());
+    }
+}
@@ -0,0 +1,88 @@
+package me.gommeantilegit.minecraft.world.generation.generator.impl.overworld;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.storage.AdaptiveBlockStateStorage;
+import me.gommeantilegit.minecraft.world.generation.generator.api.ChunkGenerationContext;
+import me.gommeantilegit.minecraft.world.generation.generator.impl.overworld.generators.impl.surface.SurfaceGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+public class OverworldGenerationPipelineTest {
+
+    private static final long SEED = 1234567890L;
+
+    /**
+     * The number of chunks of the generated region on the x and z axis
+     */
+    private static final int REGION_SIZE = 6;
+
+    @Test
+    public void sameWorldWithOneAndManyThreads() throws Exception {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        OverworldGenerationPipeline pipeline = new OverworldGenerationPipeline(SEED, Collections.emptyList());
+
+        List<byte[]> singleThreaded = generateRegion(pipeline, blocks, 1, false);
+        List<byte[]> multiThreaded = generateRegion(pipeline, blocks, 8, true);
+        for (int i = 0; i < singleThreaded.size(); i++) {
+            assertArrayEquals("Chunk " + i + " differs", singleThreaded.get(i), multiThreaded.get(i));
+        }
+
+        // a different pipeline instance with the same seed must produce the same world
+        List<byte[]> otherInstance = generateRegion(new OverworldGenerationPipeline(SEED, Collections.emptyList()), blocks, 4, true);
+        for (int i = 0; i < singleThreaded.size(); i++) {
+            assertArrayEquals("Chunk " + i + " differs", singleThreaded.get(i), otherInstance.get(i));
+        }
+    }
+
+    /**
+     * Generates the chunks of the region on the given number of threads
+     *
+     * @param shuffle true if the chunks should be submitted in random order
+     * @return the palette data of the generated chunks in region order
+     */
+    @NotNull
+    private List<byte[]> generateRegion(@NotNull OverworldGenerationPipeline pipeline, @NotNull Blocks blocks, int numThreads, boolean shuffle) throws Exception {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < REGION_SIZE * REGION_SIZE; i++) {
+            order.add(i);
+        }
+        if (shuffle)
+            Collections.shuffle(order, new Random(numThreads));
+        AdaptiveBlockStateStorage[] chunks = new AdaptiveBlockStateStorage[order.size()];
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i : order) {
+                futures.add(executor.submit(() -> {
+                    int chunkX = (i % REGION_SIZE - REGION_SIZE / 2) * CHUNK_SIZE, chunkZ = (i / REGION_SIZE - REGION_SIZE / 2) * CHUNK_SIZE;
+                    AdaptiveBlockStateStorage storage = new AdaptiveBlockStateStorage(CHUNK_SIZE, SurfaceGenerator.TOP_Y, CHUNK_SIZE, blocks.getGlobalPalette());
+                    pipeline.generate(new ChunkGenerationContext(SEED, chunkX, chunkZ, blocks, storage));
+                    chunks[i] = storage;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<byte[]> data = new ArrayList<>(chunks.length);
+        for (AdaptiveBlockStateStorage chunk : chunks) {
+            assertFalse(chunk.isFilledWith(null));
+            data.add(chunk.getPaletteData());
+        }
+        return data;
+    }
+}
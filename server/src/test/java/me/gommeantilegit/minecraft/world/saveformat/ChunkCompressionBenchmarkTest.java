@@ -0,0 +1,179 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.entity.Entity;
+import me.gommeantilegit.minecraft.utils.io.compression.DictionaryTrainer;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.loader.ChunkLoaderBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import me.gommeantilegit.minecraft.world.generation.generator.api.ChunkGenerationContext;
+import me.gommeantilegit.minecraft.world.generation.generator.impl.overworld.OverworldGenerationPipeline;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.Deflater;
+
+import static me.gommeantilegit.minecraft.world.WorldBase.STANDARD_WORLD_HEIGHT;
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Reports compression ratio against throughput of the chunk compression modes on generated overworld chunk fragments.
+ * {@link #main(String[])} trains the dictionary shipped as {@link ChunkCompression#DICTIONARY_RESOURCE}.
+ */
+public class ChunkCompressionBenchmarkTest {
+
+    /**
+     * The seed of the world the dictionary is trained on
+     */
+    private static final long TRAINING_SEED = 1234567890L;
+
+    /**
+     * The seed of the world the compressors are measured on. Differs from the training seed, so that the dictionary is not measured on the data it was trained on.
+     */
+    private static final long BENCHMARK_SEED = "Glacier".hashCode();
+
+    /**
+     * The size of the trained dictionary in bytes
+     */
+    private static final int DICTIONARY_SIZE = 2 * 1024;
+
+    /**
+     * The number of chunks of the sampled region on the x and z axis
+     */
+    private static final int REGION_SIZE = 4;
+
+    /**
+     * The number of times every fragment is compressed and decompressed per measurement
+     */
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void compareCompressionModes() throws Exception {
+        List<byte[]> fragments = collectFragments(BENCHMARK_SEED);
+        long totalBytes = 0;
+        for (byte[] fragment : fragments) {
+            totalBytes += fragment.length;
+        }
+        Map<String, PayloadCompressor> compressors = new LinkedHashMap<>();
+        compressors.put("none", ChunkCompression.none());
+        for (int level : new int[]{Deflater.BEST_SPEED, 6, Deflater.BEST_COMPRESSION}) {
+            compressors.put("deflate " + level, new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, level, null));
+            compressors.put("deflate " + level + " + dictionary", ChunkCompression.deflate(level));
+        }
+
+        System.out.println(fragments.size() + " fragments, " + totalBytes / 1024 + " KiB");
+        System.out.println(String.format("%-26s %8s %16s %16s", "mode", "ratio", "compress MB/s", "decompress MB/s"));
+        Map<String, Long> compressedSizes = new HashMap<>();
+        for (Map.Entry<String, PayloadCompressor> entry : compressors.entrySet()) {
+            PayloadCompressor compressor = entry.getValue();
+            List<byte[]> compressed = new ArrayList<>(fragments.size());
+            long compressNanos = 0, decompressNanos = 0, compressedBytes = 0;
+            for (int round = 0; round <= ROUNDS; round++) {
+                compressed.clear();
+                long start = System.nanoTime();
+                for (byte[] fragment : fragments) {
+                    compressed.add(compressor.compress(fragment));
+                }
+                long mid = System.nanoTime();
+                for (int i = 0; i < fragments.size(); i++) {
+                    byte[] decompressed = ChunkCompression.DEFAULT.decompress(compressed.get(i)); // decompression does not depend on the mode
+                    if (round == 0)
+                        assertArrayEquals(fragments.get(i), decompressed);
+                }
+                long end = System.nanoTime();
+                if (round > 0) { // the first round warms up
+                    compressNanos += mid - start;
+                    decompressNanos += end - mid;
+                }
+            }
+            for (byte[] bytes : compressed) {
+                compressedBytes += bytes.length;
+            }
+            compressedSizes.put(entry.getKey(), compressedBytes);
+            double megabytes = totalBytes * ROUNDS / 1e6;
+            System.out.println(String.format("%-26s %8.2f %16.1f %16.1f", entry.getKey(), (double) totalBytes / compressedBytes, megabytes / (compressNanos / 1e9), megabytes / (decompressNanos / 1e9)));
+        }
+        // the fast levels hardly search the dictionary for matches
+        for (int level : new int[]{6, Deflater.BEST_COMPRESSION}) {
+            assertTrue("Dictionary does not improve level " + level, compressedSizes.get("deflate " + level + " + dictionary") < compressedSizes.get("deflate " + level));
+        }
+    }
+
+    /**
+     * Trains the chunk fragment dictionary
+     *
+     * @param args the file to write the dictionary to
+     */
+    public static void main(String[] args) throws Exception {
+        byte[] dictionary = DictionaryTrainer.train(collectFragments(TRAINING_SEED), DICTIONARY_SIZE);
+        try (OutputStream out = new FileOutputStream(new File(args[0]))) {
+            out.write(dictionary);
+        }
+        System.out.println("Wrote " + dictionary.length + " byte dictionary to " + args[0]);
+    }
+
+    /**
+     * Generates overworld chunks and serializes them with the {@link ChunkFragmenter}
+     *
+     * @param seed the world seed
+     * @return the uncompressed serialized fragments that are not empty
+     */
+    @NotNull
+    private static List<byte[]> collectFragments(long seed) throws Exception {
+        Blocks blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        IBlockStatePalette palette = blocks.getGlobalPalette();
+        TestWorld world = new TestWorld(palette);
+        OverworldGenerationPipeline pipeline = new OverworldGenerationPipeline(seed, Collections.emptyList());
+        ChunkFragmenter fragmenter = new ChunkFragmenter(null, new PayloadCompressor(PayloadCompressor.Mode.NONE, Deflater.DEFAULT_COMPRESSION, null));
+        List<byte[]> fragments = new ArrayList<>();
+        for (int i = 0; i < REGION_SIZE * REGION_SIZE; i++) {
+            int chunkX = (i % REGION_SIZE) * CHUNK_SIZE, chunkZ = (i / REGION_SIZE) * CHUNK_SIZE;
+            ChunkBase chunk = new ChunkBase(STANDARD_WORLD_HEIGHT, chunkX, chunkZ, world, palette) {
+            };
+            pipeline.generate(ChunkGenerationContext.forChunk(seed, chunk, blocks));
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            BitSet serialized = fragmenter.fragmentChunkCompressed(palette, chunk, bos);
+            DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+            for (int fragment = 0; fragment < serialized.cardinality(); fragment++) {
+                byte[] stored = new byte[dataIn.readInt()];
+                dataIn.readFully(stored);
+                fragments.add(Arrays.copyOfRange(stored, 1, stored.length)); // strip the stored tag
+            }
+        }
+        return fragments;
+    }
+
+    /**
+     * A world without a minecraft instance, that chunks can be generated into
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, STANDARD_WORLD_HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+            this.chunkLoader = new ChunkLoaderBase(this) {
+                @Override
+                public int getChunkLoadingDistance(@NotNull Entity ent) {
+                    return 0;
+                }
+
+                @Override
+                public void tick(float partialTicks) {
+                }
+            };
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
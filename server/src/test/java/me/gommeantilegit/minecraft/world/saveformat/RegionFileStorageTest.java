@@ -0,0 +1,133 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import me.gommeantilegit.minecraft.block.Blocks;
+import me.gommeantilegit.minecraft.block.state.IBlockState;
+import me.gommeantilegit.minecraft.block.state.palette.IBlockStatePalette;
+import me.gommeantilegit.minecraft.world.WorldBase;
+import me.gommeantilegit.minecraft.world.chunk.ChunkBase;
+import me.gommeantilegit.minecraft.world.chunk.change.BlockStateSemaphoreBase;
+import me.gommeantilegit.minecraft.world.chunk.world.WorldChunkHandlerBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import static me.gommeantilegit.minecraft.world.chunk.ChunkBase.CHUNK_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that chunks saved by the {@link RegionFileStorage} are restored with the same block states
+ */
+public class RegionFileStorageTest {
+
+    private static final int HEIGHT = 2 * CHUNK_SIZE;
+
+    private static Blocks blocks;
+
+    private static TestWorld world;
+
+    private static ChunkFragmenter chunkFragmenter;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() {
+        blocks = new Blocks(null); // blocks do not access the minecraft instance
+        blocks.init();
+        world = new TestWorld(blocks.getGlobalPalette());
+        chunkFragmenter = new ChunkFragmenter(null, ChunkCompression.DEFAULT);
+    }
+
+    @Test
+    public void savedChunksAreRestored() throws IOException {
+        File directory = new File(folder.getRoot(), "region");
+        // chunks of different regions, including negative region coordinates
+        ChunkBase[] chunks = {
+                newChunk(0, 0), newChunk(CHUNK_SIZE, 0), newChunk(-CHUNK_SIZE, -CHUNK_SIZE), newChunk(16 * CHUNK_SIZE, -17 * CHUNK_SIZE)
+        };
+        try (RegionFileStorage storage = new RegionFileStorage(chunkFragmenter, blocks, directory)) {
+            for (int i = 0; i < chunks.length; i++) {
+                fill(chunks[i], i);
+                storage.saveChunk(chunks[i]);
+            }
+            for (ChunkBase chunk : chunks) {
+                assertRestored(storage, chunk);
+            }
+            assertFalse(storage.restoreChunk(newChunk(2 * CHUNK_SIZE, 0)));
+            assertFalse(storage.restoreChunk(newChunk(100 * CHUNK_SIZE, 0))); // region file does not exist
+        }
+        try (RegionFileStorage storage = new RegionFileStorage(chunkFragmenter, blocks, directory)) {
+            for (ChunkBase chunk : chunks) {
+                assertRestored(storage, chunk);
+            }
+        }
+    }
+
+    @Test
+    public void resavedChunksAreRestoredWithTheLatestState() throws IOException {
+        try (RegionFileStorage storage = new RegionFileStorage(chunkFragmenter, blocks, folder.getRoot())) {
+            ChunkBase chunk = newChunk(0, 0);
+            fill(chunk, 1);
+            storage.saveChunk(chunk);
+            for (int y = 0; y < HEIGHT; y++) {
+                chunk.writeBlockChange(y % CHUNK_SIZE, y, (y * 7) % CHUNK_SIZE, blocks.dirt.getDefaultBlockState()); // grows the stored data
+            }
+            storage.saveChunk(chunk);
+            assertRestored(storage, chunk);
+        }
+    }
+
+    private static void assertRestored(@NotNull RegionFileStorage storage, @NotNull ChunkBase chunk) throws IOException {
+        ChunkBase restored = newChunk(chunk.getX(), chunk.getZ());
+        assertTrue(storage.restoreChunk(restored));
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < CHUNK_SIZE; z++) {
+                    assertEquals(chunk.getRelativeBlockState(x, y, z), restored.getRelativeBlockState(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a pattern of stone depending on the seed into the chunk
+     */
+    private static void fill(@NotNull ChunkBase chunk, int seed) {
+        IBlockState stone = blocks.stone.getDefaultBlockState();
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                int height = (x * 3 + z * 5 + seed * 11) % HEIGHT;
+                for (int y = 0; y < height; y++) {
+                    chunk.writeBlockChange(x, y, z, stone);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static ChunkBase newChunk(int x, int z) {
+        return new ChunkBase(HEIGHT, x, z, world, blocks.getGlobalPalette()) {
+        };
+    }
+
+    /**
+     * A world without a minecraft instance
+     */
+    private static class TestWorld extends WorldBase {
+
+        private TestWorld(@NotNull IBlockStatePalette palette) {
+            super(null, HEIGHT, palette, new BlockStateSemaphoreBase(1));
+            this.worldChunkHandler = new WorldChunkHandlerBase();
+        }
+
+        @Override
+        protected void tickChunks(float partialTicks, @NotNull Collection<ChunkBase> chunks) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package me.gommeantilegit.minecraft.world.saveformat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the sector allocation of {@link RegionFile}
+ */
+public class RegionFileTest {
+
+    /**
+     * The size of a sector of the region file in bytes
+     */
+    private static final int SECTOR_SIZE = 4096;
+
+    /**
+     * The size of the header of the region file in bytes
+     */
+    private static final int HEADER_SIZE = SECTOR_SIZE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writtenChunksCanBeRead() throws IOException {
+        try (RegionFile regionFile = new RegionFile(folder.newFile())) {
+            byte[] first = randomData(1, 100), second = randomData(2, 3 * SECTOR_SIZE + 1);
+            regionFile.writeChunk(0, 0, first);
+            regionFile.writeChunk(15, 15, second);
+
+            assertTrue(regionFile.containsChunk(0, 0));
+            assertTrue(regionFile.containsChunk(15, 15));
+            assertFalse(regionFile.containsChunk(1, 0));
+            assertArrayEquals(first, regionFile.readChunk(0, 0));
+            assertArrayEquals(second, regionFile.readChunk(15, 15));
+            assertNull(regionFile.readChunk(1, 0));
+        }
+    }
+
+    @Test
+    public void chunksCanGrowAndShrink() throws IOException {
+        try (RegionFile regionFile = new RegionFile(folder.newFile())) {
+            byte[] neighbour = randomData(0, SECTOR_SIZE);
+            regionFile.writeChunk(1, 0, neighbour);
+            for (int length : new int[]{10, 5 * SECTOR_SIZE, SECTOR_SIZE + 1, 8 * SECTOR_SIZE, 1}) {
+                byte[] data = randomData(length, length);
+                regionFile.writeChunk(0, 0, data);
+                assertArrayEquals(data, regionFile.readChunk(0, 0));
+                assertArrayEquals(neighbour, regionFile.readChunk(1, 0));
+            }
+        }
+    }
+
+    @Test
+    public void chunksSurviveReopening() throws IOException {
+        File file = folder.newFile();
+        byte[] first = randomData(1, 2 * SECTOR_SIZE), second = randomData(2, 7);
+        try (RegionFile regionFile = new RegionFile(file)) {
+            regionFile.writeChunk(3, 4, randomData(3, 6 * SECTOR_SIZE)); // overwritten, the sectors are freed
+            regionFile.writeChunk(3, 4, first);
+            regionFile.writeChunk(4, 3, second);
+        }
+        try (RegionFile regionFile = new RegionFile(file)) {
+            assertArrayEquals(first, regionFile.readChunk(3, 4));
+            assertArrayEquals(second, regionFile.readChunk(4, 3));
+            assertFalse(regionFile.containsChunk(0, 0));
+
+            // the sectors freed before reopening are reused
+            long length = file.length();
+            regionFile.writeChunk(5, 5, randomData(4, 4 * SECTOR_SIZE));
+            assertEquals(length, file.length());
+            assertArrayEquals(first, regionFile.readChunk(3, 4));
+            assertArrayEquals(second, regionFile.readChunk(4, 3));
+        }
+    }
+
+    @Test
+    public void freedSectorsAreReused() throws IOException {
+        File file = folder.newFile();
+        try (RegionFile regionFile = new RegionFile(file)) {
+            regionFile.writeChunk(0, 0, randomData(1, 2 * SECTOR_SIZE));
+            assertEquals(HEADER_SIZE + 2 * SECTOR_SIZE, file.length());
+
+            // the grown chunk is written behind its old sectors, which are freed afterwards
+            regionFile.writeChunk(0, 0, randomData(2, 3 * SECTOR_SIZE));
+            assertEquals(HEADER_SIZE + 5 * SECTOR_SIZE, file.length());
+
+            // the freed sectors are reused by another chunk
+            byte[] neighbour = randomData(3, 2 * SECTOR_SIZE);
+            regionFile.writeChunk(1, 0, neighbour);
+            assertEquals(HEADER_SIZE + 5 * SECTOR_SIZE, file.length());
+
+            // rewriting a chunk of the same size alternates between two ranges instead of growing the file
+            byte[] data = null;
+            for (int i = 0; i < 100; i++) {
+                data = randomData(i, 3 * SECTOR_SIZE);
+                regionFile.writeChunk(0, 0, data);
+            }
+            assertEquals(HEADER_SIZE + 8 * SECTOR_SIZE, file.length());
+            assertArrayEquals(data, regionFile.readChunk(0, 0));
+            assertArrayEquals(neighbour, regionFile.readChunk(1, 0));
+        }
+    }
+
+    private static byte[] randomData(long seed, int length) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
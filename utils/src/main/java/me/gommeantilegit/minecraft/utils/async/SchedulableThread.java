@@ -49,15 +49,21 @@ public class SchedulableThread extends Thread {
     }
 
     /**
-     * Executes and removes all queued tasks of {@link #tasks}
+     * Executes and removes queued tasks of {@link #tasks} in the order they were scheduled until the queue is empty or the deadline has passed.
+     * At least one task is executed, if one is queued. Tasks not executed remain queued for the next call.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} time stamp after which no further task is started
+     * @return the number of tasks executed
      */
-    protected void updateTasks() {
-        synchronized (this.tasks) {
-            while (!tasks.isEmpty()) {
-                Runnable remove = tasks.remove();
-                remove.run();
-            }
+    protected int updateTasks(long deadlineNanos) {
+        int executed = 0;
+        Runnable task;
+        // the queue is thread safe, tasks can be scheduled while the polled task runs
+        while ((executed == 0 || System.nanoTime() - deadlineNanos < 0) && (task = this.tasks.poll()) != null) {
+            task.run();
+            executed++;
         }
+        return executed;
     }
 
     /**
@@ -66,9 +72,7 @@ public class SchedulableThread extends Thread {
      * @param runnable the runnable to be executed
      */
     public void scheduleTask(@NotNull Runnable runnable) {
-        synchronized (this.tasks) {
-            this.tasks.add(runnable);
-        }
+        this.tasks.add(runnable);
     }
 
     @NotNull
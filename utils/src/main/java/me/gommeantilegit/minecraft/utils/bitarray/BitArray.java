@@ -5,6 +5,7 @@ import me.gommeantilegit.minecraft.utils.memory.HeapMemory;
 import me.gommeantilegit.minecraft.utils.memory.IMemory;
 import me.gommeantilegit.minecraft.utils.memory.NativeMemory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
 
@@ -78,7 +79,13 @@ public class BitArray {
         this.elementMaxValue = (1L << bits) - 1L;
     }
 
-    private BitArray(@NotNull IMemory memory, int numElements, int bits) {
+    /**
+     * @param memory      the backing memory. Must be at least {@link #getByteSize()} bytes in size and zeroed, if the elements should initially be zero
+     * @param numElements the number of elements the array should be able to store. Must be positive and event
+     * @param bits        the number of bits each element of the array uses
+     * @throws IllegalStateException if #size is not positive or not even, if bits is less than 4 or if the memory is too small
+     */
+    public BitArray(@NotNull IMemory memory, int numElements, int bits) {
         if (numElements <= 0 || numElements % 2 == 1) {
             throw new IllegalArgumentException("NibbleArray must be supplied with a positive, even size");
         }
@@ -86,6 +93,9 @@ public class BitArray {
             throw new IllegalStateException("Elements bits must be greater or equal to 4");
         }
         this.byteSize = MathHelper.iceil(numElements * bits, Byte.SIZE);
+        if (memory.getSize() < this.byteSize) {
+            throw new IllegalStateException("Memory of size " + memory.getSize() + " is too small for " + numElements + " elements of " + bits + " bits");
+        }
         this.memory = memory;
         this.numElements = numElements;
         this.bits = bits;
@@ -122,8 +132,183 @@ public class BitArray {
             return (int) (this.memory.getInt64(startIndex) >>> bitIndexCompl & this.elementMaxValue);
         } else {
             int freeBits = Long.SIZE - bitIndexCompl;
-            return (int) ((this.memory.getInt64(endIndex) >> bitIndexCompl | this.memory.getInt64(endIndex) << freeBits & this.elementMaxValue));
+            return (int) ((this.memory.getInt64(startIndex) >>> bitIndexCompl | this.memory.getInt64(endIndex) << freeBits) & this.elementMaxValue);
+        }
+    }
+
+    /**
+     * Sets the elements in the given range to the value. Writes whole words instead of individual elements.
+     *
+     * @param fromIndex the first index (inclusive)
+     * @param toIndex   the last index (exclusive)
+     * @param value     the value
+     */
+    public void fill(int fromIndex, int toIndex, int value) {
+        checkRange(fromIndex, toIndex);
+        checkValue(value);
+        if (fromIndex == toIndex)
+            return;
+        int bitIndex = fromIndex * this.bits;
+        int wordIndex = bitIndex / Long.SIZE;
+        int wordBit = bitIndex % Long.SIZE;
+        long word = wordBit == 0 ? 0 : this.memory.getInt64(wordIndex) & ((1L << wordBit) - 1);
+        for (int i = fromIndex; i < toIndex; i++) {
+            word |= (long) value << wordBit;
+            wordBit += this.bits;
+            if (wordBit >= Long.SIZE) {
+                this.memory.setInt64(wordIndex++, word);
+                wordBit -= Long.SIZE;
+                word = wordBit == 0 ? 0 : (long) value >>> (this.bits - wordBit);
+            }
+        }
+        flushWord(wordIndex, wordBit, word);
+    }
+
+    /**
+     * Copies elements from the source array into this array. The arrays may have different bit widths.
+     * Reads and writes whole words instead of individual elements.
+     *
+     * @param src       the source array. Must not be this array
+     * @param srcIndex  the index of the first element to copy in the source array
+     * @param dstIndex  the index the first element is copied to in this array
+     * @param length    the number of elements to copy
+     * @param mapping   maps the source values to the values stored in this array or null, if the values should be copied unchanged
+     * @throws IllegalArgumentException if a (mapped) value does not fit into the bits of this array
+     */
+    public void copyRange(@NotNull BitArray src, int srcIndex, int dstIndex, int length, @Nullable int[] mapping) {
+        if (src == this)
+            throw new IllegalArgumentException("Cannot copy range of bit array onto itself");
+        src.checkRange(srcIndex, srcIndex + length);
+        checkRange(dstIndex, dstIndex + length);
+        if (length == 0)
+            return;
+
+        // source read cursor
+        int srcBitIndex = srcIndex * src.bits;
+        int srcWordIndex = srcBitIndex / Long.SIZE;
+        int srcWordBit = srcBitIndex % Long.SIZE;
+        long srcWord = src.memory.getInt64(srcWordIndex);
+
+        // destination write cursor
+        int bitIndex = dstIndex * this.bits;
+        int wordIndex = bitIndex / Long.SIZE;
+        int wordBit = bitIndex % Long.SIZE;
+        long word = wordBit == 0 ? 0 : this.memory.getInt64(wordIndex) & ((1L << wordBit) - 1);
+
+        for (int i = 0; i < length; i++) {
+            long value = srcWord >>> srcWordBit;
+            srcWordBit += src.bits;
+            if (srcWordBit >= Long.SIZE) {
+                srcWordBit -= Long.SIZE;
+                // only loading the next word, if it is needed by this or a following element
+                if (srcWordBit > 0 || i < length - 1) {
+                    srcWord = src.memory.getInt64(++srcWordIndex);
+                    if (srcWordBit > 0)
+                        value |= srcWord << (src.bits - srcWordBit);
+                }
+            }
+            value &= src.elementMaxValue;
+            if (mapping != null)
+                value = mapping[(int) value];
+            if (value < 0 || value > this.elementMaxValue)
+                throw new IllegalArgumentException("Copied value " + value + " is too high for " + bits + " bits. Max value: " + this.elementMaxValue);
+
+            word |= value << wordBit;
+            wordBit += this.bits;
+            if (wordBit >= Long.SIZE) {
+                this.memory.setInt64(wordIndex++, word);
+                wordBit -= Long.SIZE;
+                word = wordBit == 0 ? 0 : value >>> (this.bits - wordBit);
+            }
+        }
+        flushWord(wordIndex, wordBit, word);
+    }
+
+    /**
+     * @param fromIndex the first index (inclusive)
+     * @param toIndex   the last index (exclusive)
+     * @return true if all elements in the given range are zero. Checks whole words instead of individual elements.
+     */
+    public boolean isAllZero(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return true;
+        int startBit = fromIndex * this.bits;
+        int endBit = toIndex * this.bits; // exclusive
+        int startWord = startBit / Long.SIZE;
+        int endWord = (endBit - 1) / Long.SIZE;
+        long startMask = -1L << (startBit % Long.SIZE);
+        long endMask = -1L >>> (Long.SIZE - 1 - (endBit - 1) % Long.SIZE);
+        if (startWord == endWord)
+            return (this.memory.getInt64(startWord) & startMask & endMask) == 0;
+        if ((this.memory.getInt64(startWord) & startMask) != 0)
+            return false;
+        for (int i = startWord + 1; i < endWord; i++) {
+            if (this.memory.getInt64(i) != 0)
+                return false;
+        }
+        return (this.memory.getInt64(endWord) & endMask) == 0;
+    }
+
+    /**
+     * Counts the occurrences of the values in the given range. Reads whole words instead of individual elements.
+     *
+     * @param fromIndex the first index (inclusive)
+     * @param toIndex   the last index (exclusive)
+     * @param counts    the array to add the number of occurrences of each value to. Must be large enough to be indexed by every value in the range
+     * @return the number of distinct values in the range, that have not been counted in the supplied array before
+     */
+    public int histogram(int fromIndex, int toIndex, @NotNull int[] counts) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return 0;
+        int bitIndex = fromIndex * this.bits;
+        int wordIndex = bitIndex / Long.SIZE;
+        int wordBit = bitIndex % Long.SIZE;
+        long word = this.memory.getInt64(wordIndex);
+        int distinct = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            long value = word >>> wordBit;
+            wordBit += this.bits;
+            if (wordBit >= Long.SIZE) {
+                wordBit -= Long.SIZE;
+                if (wordBit > 0 || i < toIndex - 1) {
+                    word = this.memory.getInt64(++wordIndex);
+                    if (wordBit > 0)
+                        value |= word << (this.bits - wordBit);
+                }
+            }
+            if (counts[(int) (value & this.elementMaxValue)]++ == 0)
+                distinct++;
         }
+        return distinct;
+    }
+
+    /**
+     * @param newBits the number of bits each element of the new array uses. Must fit every value of this array
+     * @return a new bit array backed by the same kind of memory containing the elements of this array with the given bit width
+     */
+    @NotNull
+    public BitArray repack(int newBits) {
+        int byteSize = MathHelper.iceil(MathHelper.iceil(this.numElements * newBits, Long.SIZE) * Long.SIZE, Byte.SIZE);
+        IMemory memory = this.memory instanceof HeapMemory ? new HeapMemory(byteSize) : new NativeMemory(byteSize, true);
+        BitArray array = new BitArray(memory, this.numElements, newBits);
+        array.copyRange(this, 0, 0, this.numElements, null);
+        return array;
+    }
+
+    /**
+     * Writes the partially filled last word of a bulk write, preserving the bits after the written range
+     *
+     * @param wordIndex the index of the word
+     * @param usedBits  the number of low bits of the word that have been written
+     * @param word      the word containing the written bits
+     */
+    private void flushWord(int wordIndex, int usedBits, long word) {
+        if (usedBits == 0)
+            return;
+        long keepMask = -1L << usedBits;
+        this.memory.setInt64(wordIndex, this.memory.getInt64(wordIndex) & keepMask | word & ~keepMask);
     }
 
     /**
@@ -156,8 +341,18 @@ public class BitArray {
         }
     }
 
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.numElements || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is out of bounds for element count " + this.numElements);
+        }
+    }
+
     private void check(int index, int value) {
         check(index);
+        checkValue(value);
+    }
+
+    private void checkValue(int value) {
         if (value < 0 || value > this.elementMaxValue) {
             throw new IllegalArgumentException("Supplied value is too high for " + bits + " bits. Max value: " + this.elementMaxValue);
         }
@@ -1,11 +1,12 @@
 package me.gommeantilegit.minecraft.utils.io;
 
-import java.io.ByteArrayOutputStream;
+import me.gommeantilegit.minecraft.utils.io.compression.PayloadCompressor;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 
 public class IOUtils {
 
@@ -28,6 +29,11 @@ public class IOUtils {
         return nread;
     }
 
+    /**
+     * Compressor without dictionary used by {@link #compress(byte[])} and {@link #decompress(byte[])}
+     */
+    private static final PayloadCompressor COMPRESSOR = new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.DEFAULT_COMPRESSION, null);
+
     /**
      * Compresses the given array
      *
@@ -35,17 +41,7 @@ public class IOUtils {
      * @return the compressed version of the specified byte array
      */
     public static byte[] compress(byte[] bytes) {
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
-            DeflaterOutputStream compress = new DeflaterOutputStream(out);
-            compress.write(bytes);
-            compress.flush();
-            compress.close();
-            return out.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-//        return bytes;
+        return COMPRESSOR.compress(bytes);
     }
 
     /**
@@ -56,15 +52,9 @@ public class IOUtils {
      */
     public static byte[] decompress(byte[] bytes) {
         try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
-            InflaterOutputStream decompress = new InflaterOutputStream(out);
-            decompress.write(bytes);
-            decompress.flush();
-            decompress.close();
-            return out.toByteArray();
-        } catch (Exception e) {
+            return COMPRESSOR.decompress(bytes);
+        } catch (DataFormatException e) {
             throw new RuntimeException(e);
         }
-//        return bytes;
     }
 }
@@ -0,0 +1,144 @@
+package me.gommeantilegit.minecraft.utils.io.compression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+/**
+ * Trains preset dictionaries for {@link PayloadCompressor}s on sample payloads.
+ * The dictionary is assembled from the segments of the samples, that cover the most byte sequences occurring in many samples (a greedy set cover).
+ * Segments are picked with lazy re-evaluation, as the score of a segment can only decrease while other segments are picked.
+ */
+public class DictionaryTrainer {
+
+    /**
+     * The length of the byte sequences counted
+     */
+    private static final int K = 8;
+
+    /**
+     * The length of the segments the dictionary is assembled from
+     */
+    private static final int SEGMENT_SIZE = 64;
+
+    /**
+     * Trains a dictionary on the given samples
+     *
+     * @param samples        the sample payloads
+     * @param dictionarySize the maximum size of the dictionary in bytes
+     * @return the dictionary. Most valuable segments are placed at the end, closest to the compressed data.
+     */
+    @NotNull
+    public static byte[] train(@NotNull List<byte[]> samples, int dictionarySize) {
+        // the number of samples each sequence occurs in
+        Map<Long, Integer> frequencies = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Long> sequences = new HashSet<>();
+            for (int i = 0; i + K <= sample.length; i++) {
+                sequences.add(getSequence(sample, i));
+            }
+            for (Long sequence : sequences) {
+                frequencies.merge(sequence, 1, Integer::sum);
+            }
+        }
+        // sequences unique to a single sample do not benefit other payloads
+        frequencies.values().removeIf(frequency -> frequency < 2);
+
+        PriorityQueue<Segment> queue = new PriorityQueue<>();
+        Set<Segment> distinctSegments = new HashSet<>();
+        for (byte[] sample : samples) {
+            for (int offset = 0; offset + SEGMENT_SIZE <= sample.length; offset += SEGMENT_SIZE / 2) {
+                Segment segment = new Segment(Arrays.copyOfRange(sample, offset, offset + SEGMENT_SIZE));
+                if (distinctSegments.add(segment)) {
+                    segment.score = segment.evaluate(frequencies);
+                    queue.add(segment);
+                }
+            }
+        }
+
+        List<Segment> picked = new ArrayList<>();
+        int size = 0;
+        while (size + SEGMENT_SIZE <= dictionarySize && !queue.isEmpty()) {
+            Segment segment = queue.poll();
+            long score = segment.evaluate(frequencies);
+            if (score <= 0)
+                continue; // fully covered by the picked segments
+            Segment next = queue.peek();
+            if (next != null && score < next.score) {
+                segment.score = score;
+                queue.add(segment);
+                continue;
+            }
+            picked.add(segment);
+            size += SEGMENT_SIZE;
+            for (int i = 0; i + K <= SEGMENT_SIZE; i++) {
+                frequencies.remove(getSequence(segment.bytes, i)); // covered
+            }
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        for (int i = picked.size() - 1; i >= 0; i--) {
+            dictionary.write(picked.get(i).bytes, 0, SEGMENT_SIZE);
+        }
+        return dictionary.toByteArray();
+    }
+
+    /**
+     * @return the {@link #K} bytes starting at the offset packed into a long
+     */
+    private static long getSequence(@NotNull byte[] bytes, int offset) {
+        long sequence = 0;
+        for (int i = 0; i < K; i++) {
+            sequence = (sequence << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return sequence;
+    }
+
+    /**
+     * A dictionary segment candidate
+     */
+    private static class Segment implements Comparable<Segment> {
+
+        @NotNull
+        private final byte[] bytes;
+
+        /**
+         * The score of the segment when it was last evaluated
+         */
+        private long score;
+
+        private Segment(@NotNull byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the sum of the sample frequencies of the distinct sequences of the segment, that are not covered yet
+         */
+        private long evaluate(@NotNull Map<Long, Integer> frequencies) {
+            Set<Long> sequences = new HashSet<>();
+            long score = 0;
+            for (int i = 0; i + K <= bytes.length; i++) {
+                long sequence = getSequence(bytes, i);
+                if (sequences.add(sequence))
+                    score += frequencies.getOrDefault(sequence, 0);
+            }
+            return score;
+        }
+
+        @Override
+        public int compareTo(@NotNull Segment o) {
+            return Long.compare(o.score, this.score); // highest score first
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Segment && Arrays.equals(bytes, ((Segment) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+    }
+}
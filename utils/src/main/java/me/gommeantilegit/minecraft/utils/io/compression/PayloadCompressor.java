@@ -0,0 +1,208 @@
+package me.gommeantilegit.minecraft.utils.io.compression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses byte array payloads with a configurable {@link Mode}, deflate level and preset dictionary.
+ * Every thread using a compressor gets its own {@link Deflater}, {@link Inflater} and output buffer, which are reset and reused
+ * for every payload instead of being allocated per call. Instances are thread safe.
+ * <p>
+ * The compressed payload is self describing: deflated payloads are zlib streams (first byte 0x78), which name their preset dictionary by its Adler-32 checksum,
+ * and stored payloads start with {@link #STORED_TAG}. Every compressor can therefore decompress the payloads of every other compressor,
+ * as long as it knows the dictionary they were compressed with.
+ */
+public class PayloadCompressor {
+
+    /**
+     * The first byte of a payload compressed with {@link Mode#NONE}. Never the first byte of a zlib stream (the compression method nibble of a zlib header is 8).
+     */
+    public static final byte STORED_TAG = 0;
+
+    /**
+     * The initial size of the thread local output buffers
+     */
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Output buffers larger than this are not kept by their thread after use
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The compression mode
+     */
+    @NotNull
+    private final Mode mode;
+
+    /**
+     * The deflate level used in {@link Mode#DEFLATE}
+     */
+    private final int level;
+
+    /**
+     * The preset dictionary or null, if compressed without one
+     */
+    @Nullable
+    private final byte[] dictionary;
+
+    /**
+     * The Adler-32 checksum of the {@link #dictionary}, which identifies the dictionary in zlib streams
+     */
+    private final int dictionaryId;
+
+    /**
+     * The deflater, inflater and output buffer of the current thread
+     */
+    @NotNull
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    /**
+     * @param mode       the compression mode
+     * @param level      the deflate level ({@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION} or {@link Deflater#DEFAULT_COMPRESSION}). Ignored in {@link Mode#NONE}.
+     * @param dictionary the preset dictionary or null. Also required in {@link Mode#NONE} to decompress payloads deflated with the dictionary.
+     */
+    public PayloadCompressor(@NotNull Mode mode, int level, @Nullable byte[] dictionary) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION))
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        this.mode = mode;
+        this.level = level;
+        this.dictionary = dictionary;
+        if (dictionary != null) {
+            Adler32 adler32 = new Adler32();
+            adler32.update(dictionary, 0, dictionary.length);
+            this.dictionaryId = (int) adler32.getValue();
+        } else {
+            this.dictionaryId = 0;
+        }
+    }
+
+    /**
+     * Compresses the given payload
+     *
+     * @param bytes the payload
+     * @return the compressed payload
+     */
+    @NotNull
+    public byte[] compress(@NotNull byte[] bytes) {
+        if (this.mode == Mode.NONE) {
+            byte[] stored = new byte[bytes.length + 1];
+            stored[0] = STORED_TAG;
+            System.arraycopy(bytes, 0, stored, 1, bytes.length);
+            return stored;
+        }
+        Context context = this.context.get();
+        Deflater deflater = context.deflater;
+        deflater.reset();
+        if (this.dictionary != null)
+            deflater.setDictionary(this.dictionary);
+        deflater.setInput(bytes);
+        deflater.finish();
+        byte[] buffer = context.buffer;
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        return context.finish(buffer, length);
+    }
+
+    /**
+     * Decompresses a payload compressed by any compressor using the same dictionary (or none)
+     *
+     * @param bytes the compressed payload
+     * @return the decompressed payload
+     * @throws DataFormatException if the payload is corrupt or has been compressed with an unknown dictionary
+     */
+    @NotNull
+    public byte[] decompress(@NotNull byte[] bytes) throws DataFormatException {
+        if (bytes.length > 0 && bytes[0] == STORED_TAG)
+            return Arrays.copyOfRange(bytes, 1, bytes.length);
+        Context context = this.context.get();
+        Inflater inflater = context.inflater;
+        inflater.reset();
+        inflater.setInput(bytes);
+        byte[] buffer = context.buffer;
+        int length = 0;
+        while (!inflater.finished()) {
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            int inflated = inflater.inflate(buffer, length, buffer.length - length);
+            length += inflated;
+            if (inflated == 0) {
+                if (inflater.needsDictionary()) {
+                    if (this.dictionary == null || inflater.getAdler() != this.dictionaryId)
+                        throw new DataFormatException("Payload was compressed with an unknown dictionary: " + Integer.toHexString(inflater.getAdler()));
+                    inflater.setDictionary(this.dictionary);
+                } else if (inflater.needsInput() && !inflater.finished()) {
+                    throw new DataFormatException("Truncated payload");
+                }
+            }
+        }
+        return context.finish(buffer, length);
+    }
+
+    @NotNull
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Nullable
+    public byte[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * The compression mode
+     */
+    public enum Mode {
+
+        /**
+         * Payloads are stored uncompressed behind {@link #STORED_TAG}. For connections where bandwidth is cheaper than cpu time, such as loopback connections.
+         */
+        NONE,
+
+        /**
+         * Payloads are deflated into zlib streams
+         */
+        DEFLATE
+    }
+
+    /**
+     * The reused compression state of a thread
+     */
+    private class Context {
+
+        @NotNull
+        private final Deflater deflater = new Deflater(PayloadCompressor.this.level);
+
+        @NotNull
+        private final Inflater inflater = new Inflater();
+
+        @NotNull
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+        /**
+         * Keeps the possibly grown buffer for the next call
+         *
+         * @return a copy of the first length bytes of the buffer
+         */
+        @NotNull
+        private byte[] finish(@NotNull byte[] buffer, int length) {
+            if (buffer.length <= MAX_RETAINED_BUFFER_SIZE)
+                this.buffer = buffer;
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+}
@@ -79,4 +79,12 @@ public class HeapMemory implements IMemory {
     public void set(@NotNull byte[] data) {
         System.arraycopy(data, 0, this.bytes, 0, data.length);
     }
+
+    @NotNull
+    @Override
+    public IMemory copy() {
+        HeapMemory copy = new HeapMemory(0);
+        copy.bytes = this.bytes.clone();
+        return copy;
+    }
 }
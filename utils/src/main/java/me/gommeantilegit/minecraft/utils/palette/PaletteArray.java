@@ -55,6 +55,11 @@ public class PaletteArray<T> {
         return this.bitArray.getData();
     }
 
+    @NotNull
+    public IPalette<T> getPalette() {
+        return palette;
+    }
+
     public void delete() {
         this.bitArray.delete();
     }
@@ -0,0 +1,62 @@
+package me.gommeantilegit.minecraft.utils.async;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class SchedulableThreadTest {
+
+    @Test
+    public void tasksExceedingTheBudgetAreDeferred() {
+        SchedulableThread thread = new SchedulableThread("Test-Thread");
+        List<Integer> executed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int task = i;
+            thread.scheduleTask(() -> {
+                executed.add(task);
+                // parkNanos may return early, the task takes at least 2 ms anyway
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+                while (System.nanoTime() - end < 0) {
+                    LockSupport.parkNanos(end - System.nanoTime());
+                }
+            });
+        }
+        // an expired deadline still executes one task
+        assertEquals(1, thread.updateTasks(System.nanoTime() - 1));
+        assertEquals(9, thread.getTasks().size());
+
+        int updates = 1;
+        while (!thread.getTasks().isEmpty()) {
+            int tasks = thread.updateTasks(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5));
+            assertTrue("Executed " + tasks + " tasks", tasks >= 1 && tasks <= 3); // no task is started after 5 ms
+            updates++;
+        }
+        assertTrue(updates > 2);
+        // deferred tasks keep their order
+        for (int i = 0; i < executed.size(); i++) {
+            assertEquals(i, (int) executed.get(i));
+        }
+        assertEquals(10, executed.size());
+        assertEquals(0, thread.updateTasks(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+
+    @Test
+    public void tasksScheduledByTasksAreExecutedWithinTheBudget() {
+        SchedulableThread thread = new SchedulableThread("Test-Thread");
+        int[] executed = new int[1];
+        thread.scheduleTask(new Runnable() {
+            @Override
+            public void run() {
+                if (++executed[0] < 5)
+                    thread.scheduleTask(this);
+            }
+        });
+        assertEquals(5, thread.updateTasks(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(thread.getTasks().isEmpty());
+    }
+}
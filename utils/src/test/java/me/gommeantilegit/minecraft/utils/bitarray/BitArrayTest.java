@@ -6,6 +6,7 @@ import org.junit.Test;
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -79,6 +80,196 @@ public class BitArrayTest {
         assertEquals(31, bitArray.get(99));
     }
 
+    @Test
+    public void getValue_crossing_word_boundary() {
+        BitArray bitArray = new BitArray(100, 6);
+        for (int i = 0; i < 100; i++) {
+            bitArray.set(i, (i * 7) & 63);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals((i * 7) & 63, bitArray.get(i));
+        }
+        bitArray.delete();
+    }
+
+    @Test
+    public void fill_matches_set() {
+        for (int bits = 4; bits <= 13; bits++) {
+            BitArray bitArray = new BitArray(256, bits);
+            BitArray expected = new BitArray(256, bits);
+            for (int i = 0; i < 256; i++) {
+                bitArray.set(i, i % (1 << bits));
+                expected.set(i, i % (1 << bits));
+            }
+            int value = (1 << bits) - 3;
+            bitArray.fill(7, 201, value);
+            for (int i = 7; i < 201; i++) {
+                expected.set(i, value);
+            }
+            assertArrayEquals("bits: " + bits, expected.getData(), bitArray.getData());
+            bitArray.delete();
+            expected.delete();
+        }
+    }
+
+    @Test
+    public void copyRange_between_bit_widths() {
+        Random random = new Random(1);
+        for (int srcBits = 4; srcBits <= 9; srcBits++) {
+            for (int dstBits = 4; dstBits <= 11; dstBits++) {
+                BitArray src = new BitArray(256, srcBits);
+                BitArray dst = new BitArray(256, dstBits);
+                int maxValue = 1 << Math.min(srcBits, dstBits);
+                int[] dstValues = new int[256];
+                for (int i = 0; i < 256; i++) {
+                    src.set(i, random.nextInt(maxValue));
+                    dstValues[i] = random.nextInt(1 << dstBits);
+                    dst.set(i, dstValues[i]);
+                }
+                dst.copyRange(src, 13, 29, 150, null);
+                for (int i = 0; i < 256; i++) {
+                    int expected = i >= 29 && i < 179 ? src.get(i - 29 + 13) : dstValues[i];
+                    assertEquals("src bits: " + srcBits + ", dst bits: " + dstBits + ", index: " + i, expected, dst.get(i));
+                }
+                src.delete();
+                dst.delete();
+            }
+        }
+    }
+
+    @Test
+    public void copyRange_with_mapping() {
+        BitArray src = new BitArray(64, 4);
+        BitArray dst = new BitArray(64, 9);
+        int[] mapping = new int[16];
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = 500 - i;
+        }
+        for (int i = 0; i < 64; i++) {
+            src.set(i, i & 15);
+        }
+        dst.copyRange(src, 0, 0, 64, mapping);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(500 - (i & 15), dst.get(i));
+        }
+        src.delete();
+        dst.delete();
+    }
+
+    @Test
+    public void isAllZero_range() {
+        BitArray bitArray = new BitArray(200, 7);
+        assertTrue(bitArray.isAllZero(0, 200));
+        bitArray.set(100, 1);
+        assertFalse(bitArray.isAllZero(0, 200));
+        assertFalse(bitArray.isAllZero(100, 101));
+        assertTrue(bitArray.isAllZero(0, 100));
+        assertTrue(bitArray.isAllZero(101, 200));
+        assertTrue(bitArray.isAllZero(100, 100));
+        bitArray.delete();
+    }
+
+    @Test
+    public void histogram_counts_values() {
+        BitArray bitArray = new BitArray(100, 5);
+        for (int i = 0; i < 100; i++) {
+            bitArray.set(i, i % 3 == 0 ? 31 : 2);
+        }
+        int[] counts = new int[32];
+        assertEquals(2, bitArray.histogram(0, 100, counts));
+        assertEquals(34, counts[31]);
+        assertEquals(66, counts[2]);
+        assertEquals(0, bitArray.histogram(10, 20, counts));
+        bitArray.delete();
+    }
+
+    @Test
+    public void repack_preserves_values() {
+        BitArray bitArray = new BitArray(300, 5);
+        for (int i = 0; i < 300; i++) {
+            bitArray.set(i, (i * 11) & 31);
+        }
+        BitArray wide = bitArray.repack(12);
+        BitArray narrow = wide.repack(5);
+        assertEquals(12, wide.getBits());
+        for (int i = 0; i < 300; i++) {
+            assertEquals((i * 11) & 31, wide.get(i));
+            assertEquals((i * 11) & 31, narrow.get(i));
+        }
+        bitArray.delete();
+        wide.delete();
+        narrow.delete();
+    }
+
+    /**
+     * Compares the bulk operations to the equivalent per-element loops on chunk section sized arrays
+     */
+    @Test
+    public void benchmarkBulkOperations() {
+        int numElements = 32 * 32 * 32, iterations = 200;
+        BitArray src = new BitArray(numElements, 5);
+        BitArray dst = new BitArray(numElements, 7);
+        for (int i = 0; i < numElements; i++) {
+            src.set(i, i & 31);
+        }
+        int[] counts = new int[32];
+        long sink = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long p1 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < numElements; i++) {
+                    dst.set(i, src.get(i));
+                }
+            }
+            long p2 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                dst.copyRange(src, 0, 0, numElements, null);
+            }
+            long p3 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < numElements; i++) {
+                    counts[src.get(i)]++;
+                }
+            }
+            long p4 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                sink += src.histogram(0, numElements, counts);
+            }
+            long p5 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < numElements; i++) {
+                    dst.set(i, 0);
+                }
+            }
+            long p6 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                dst.fill(0, numElements, 0);
+            }
+            long p7 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                boolean zero = true;
+                for (int i = 0; i < numElements && zero; i++) {
+                    zero = dst.get(i) == 0;
+                }
+                sink += zero ? 1 : 0;
+            }
+            long p8 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                sink += dst.isAllZero(0, numElements) ? 1 : 0;
+            }
+            long p9 = System.nanoTime();
+            if (warmup == 1) {
+                System.out.println("copy 5 -> 7 bits: per element " + (p2 - p1) / 1000000 + " ms, copyRange " + (p3 - p2) / 1000000 + " ms");
+                System.out.println("histogram: per element " + (p4 - p3) / 1000000 + " ms, histogram " + (p5 - p4) / 1000000 + " ms");
+                System.out.println("fill: per element " + (p6 - p5) / 1000000 + " ms, fill " + (p7 - p6) / 1000000 + " ms");
+                System.out.println("zero check: per element " + (p8 - p7) / 1000000 + " ms, isAllZero " + (p9 - p8) / 1000000 + " ms");
+            }
+        }
+        assertTrue(sink > 0);
+        src.delete();
+        dst.delete();
+    }
+
     @Test
     public void dump() {
         BitArray bitArray = new BitArray(4, 5);
@@ -0,0 +1,56 @@
+package me.gommeantilegit.minecraft.utils.io.compression;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.*;
+
+public class PayloadCompressorTest {
+
+    private static final byte[] DICTIONARY = "stone dirt grass stone dirt grass".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void payloadsOfAllModesCanBeDecompressedByAnyCompressor() throws Exception {
+        PayloadCompressor[] compressors = {
+                new PayloadCompressor(PayloadCompressor.Mode.NONE, Deflater.DEFAULT_COMPRESSION, DICTIONARY),
+                new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.BEST_SPEED, DICTIONARY),
+                new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.BEST_COMPRESSION, DICTIONARY)
+        };
+        Random random = new Random(3);
+        for (int size : new int[]{0, 1, 100, 64 * 1024}) {
+            byte[] payload = new byte[size];
+            for (int i = 0; i < size; i++) {
+                payload[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : DICTIONARY[i % DICTIONARY.length]);
+            }
+            for (PayloadCompressor compressor : compressors) {
+                byte[] compressed = compressor.compress(payload);
+                for (PayloadCompressor decompressor : compressors) {
+                    assertArrayEquals(payload, decompressor.decompress(compressed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void legacyZlibStreamsAreDecompressed() throws Exception {
+        byte[] payload = "a payload compressed without dictionary".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bos)) {
+            out.write(payload);
+        }
+        PayloadCompressor compressor = new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.DEFAULT_COMPRESSION, DICTIONARY);
+        assertArrayEquals(payload, compressor.decompress(bos.toByteArray()));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void unknownDictionaryIsRejected() throws Exception {
+        byte[] compressed = new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.DEFAULT_COMPRESSION, DICTIONARY).compress(DICTIONARY);
+        new PayloadCompressor(PayloadCompressor.Mode.DEFLATE, Deflater.DEFAULT_COMPRESSION, null).decompress(compressed);
+    }
+}